@@ -0,0 +1,19 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+/**
+ * Tipo de acceso de una operación del {@link DatabaseExecutor}
+ *
+ * Cada tipo tiene su propio pool de conexiones e hilos, de modo que una
+ * ráfaga de consultas de estadísticas no retrasa la persistencia de
+ * deathbans o DTR.
+ *
+ * @author mayk0l
+ */
+public enum AccessMode {
+    
+    /** Consultas que toleran datos ligeramente atrasados; pueden ir a una réplica */
+    READ,
+    
+    /** Escrituras y lecturas que deben ver todo lo ya confirmado; siempre contra el primario */
+    WRITE
+}
@@ -0,0 +1,85 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Carga masiva de tablas completas mediante cursores de solo avance
+ *
+ * Cada tabla se lee en una transacción de solo lectura con el fetch size
+ * configurado, de modo que el driver trae las filas por bloques en lugar de
+ * materializar el resultado completo. Las filas se entregan una a una al
+ * consumidor, en el hilo de E/S que ejecuta la carga.
+ *
+ * @author mayk0l
+ */
+public class BulkLoader {
+    
+    private final DatabaseExecutor executor;
+    private final StatementRegistry statements;
+    private final int fetchSize;
+    
+    public BulkLoader(DatabaseExecutor executor, StatementRegistry statements, int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be greater than 0");
+        }
+        
+        this.executor = executor;
+        this.statements = statements;
+        this.fetchSize = fetchSize;
+    }
+    
+    /**
+     * Recorre todas las filas de la tabla de la entidad
+     *
+     * @param mapping Mapeo de la tabla a cargar
+     * @param sink Consumidor de cada entidad; se invoca en el hilo de E/S
+     * @return Futuro con el número de filas y el tiempo empleado
+     */
+    public <T> CompletableFuture<TableLoad> stream(EntityMapping<T> mapping, Consumer<? super T> sink) {
+        NamedStatement loadAll = statements.register(mapping.table() + ".loadAll",
+            "SELECT " + String.join(", ", mapping.columns()) + " FROM " + mapping.table());
+        
+        // Full loads rebuild in-memory state and must see every committed write, so never from a replica
+        return executor.supply(AccessMode.WRITE, connection -> {
+            long start = System.nanoTime();
+            boolean autoCommit = connection.getAutoCommit();
+            
+            // PostgreSQL only honours the fetch size inside a transaction
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = loadAll.prepare(connection)) {
+                statement.setFetchSize(fetchSize);
+                
+                int rows = 0;
+                try (ResultSet resultSet = loadAll.execute(statement, PreparedStatement::executeQuery)) {
+                    resultSet.setFetchSize(fetchSize);
+                    while (resultSet.next()) {
+                        sink.accept(mapping.fromRow(resultSet));
+                        rows++;
+                    }
+                }
+                
+                return new TableLoad(mapping.table(), rows, (System.nanoTime() - start) / 1_000_000);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+    
+    /**
+     * Resultado de la carga de una tabla
+     *
+     * @param table Nombre de la tabla
+     * @param rows Filas leídas
+     * @param millis Duración de la carga en milisegundos
+     */
+    public record TableLoad(String table, int rows, long millis) {
+    }
+}
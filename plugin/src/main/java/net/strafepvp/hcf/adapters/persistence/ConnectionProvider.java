@@ -0,0 +1,15 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Fuente de conexiones JDBC
+ *
+ * @author mayk0l
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+    
+    Connection getConnection() throws SQLException;
+}
@@ -0,0 +1,173 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.health.CircuitBreaker;
+
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Executor dedicado a operaciones de E/S contra la base de datos
+ *
+ * Cada operación declara su {@link AccessMode} y se ejecuta en el pool de
+ * hilos y de conexiones de ese tipo: las lecturas (performance.async.thread_pool_size
+ * hilos) pueden ir a una réplica y nunca ocupan los hilos ni las conexiones
+ * de escritura. Los resultados se entregan al hilo principal mediante
+ * {@link #mainThread()}.
+ *
+ * Con el {@link CircuitBreaker} abierto las operaciones fallan de inmediato
+ * sin ocupar un hilo ni esperar al timeout de conexión del pool.
+ *
+ * @author mayk0l
+ */
+public class DatabaseExecutor {
+    
+    /**
+     * Ruta de un tipo de acceso
+     *
+     * @param connections Fuente de conexiones
+     * @param breaker Circuit breaker que la protege, o null
+     * @param threads Hilos de E/S dedicados
+     */
+    public record Route(ConnectionProvider connections, CircuitBreaker breaker, int threads) {
+        
+        public Route {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread pool size must be greater than 0");
+            }
+        }
+    }
+    
+    private final Route writeRoute;
+    private final Route readRoute;
+    private final Executor mainThreadExecutor;
+    private final Logger logger;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService readExecutor;
+    
+    /**
+     * Crea un executor con lecturas y escrituras sobre la misma fuente de
+     * conexiones, cada una con sus propios hilos
+     */
+    public DatabaseExecutor(ConnectionProvider connections, CircuitBreaker breaker, Executor mainThreadExecutor,
+                            int threadPoolSize, Logger logger) {
+        this(new Route(connections, breaker, threadPoolSize), new Route(connections, breaker, threadPoolSize),
+            mainThreadExecutor, logger);
+    }
+    
+    public DatabaseExecutor(Route writeRoute, Route readRoute, Executor mainThreadExecutor, Logger logger) {
+        this.writeRoute = writeRoute;
+        this.readRoute = readRoute;
+        this.mainThreadExecutor = mainThreadExecutor;
+        this.logger = logger;
+        this.writeExecutor = threadPool("StrafeHCF-DB-Write-", writeRoute.threads());
+        this.readExecutor = threadPool("StrafeHCF-DB-Read-", readRoute.threads());
+    }
+    
+    private static ExecutorService threadPool(String prefix, int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+                Thread thread = new Thread(r, prefix + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+    
+    /**
+     * Ejecuta una operación con una conexión del tipo de acceso indicado
+     * 
+     * @param mode Lectura o escritura; decide el pool de conexiones y de hilos
+     * @param work Operación a ejecutar
+     * @return Futuro con el resultado, completado en un hilo de E/S
+     */
+    public <T> CompletableFuture<T> supply(AccessMode mode, SqlFunction<Connection, T> work) {
+        Route route = mode == AccessMode.READ ? readRoute : writeRoute;
+        CircuitBreaker breaker = route.breaker();
+        if (breaker != null && !breaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Database unavailable (circuit breaker open)"));
+        }
+        
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try (Connection connection = route.connections().getConnection()) {
+                    T result = work.apply(connection);
+                    if (breaker != null) {
+                        breaker.recordOutcome(null);
+                    }
+                    return result;
+                } catch (Exception e) {
+                    if (breaker != null) {
+                        breaker.recordOutcome(e);
+                    }
+                    throw new CompletionException(e);
+                }
+            }, mode == AccessMode.READ ? readExecutor : writeExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Database executor is shut down", e));
+        }
+    }
+    
+    /**
+     * Executor de los hilos de escritura, para tareas que preceden a una escritura
+     */
+    public Executor io() {
+        return writeExecutor;
+    }
+    
+    /**
+     * Executor que entrega tareas al hilo principal del servidor
+     */
+    public Executor mainThread() {
+        return mainThreadExecutor;
+    }
+    
+    /**
+     * Obtiene un resumen del estado del executor
+     */
+    public String getStatus() {
+        return "IO Executor - Write " + poolStatus(writeExecutor) + " | Read " + poolStatus(readExecutor);
+    }
+    
+    private static String poolStatus(ExecutorService executor) {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+        return String.format(
+            "Active: %d, Queued: %d, Completed: %d, Threads: %d",
+            pool.getActiveCount(),
+            pool.getQueue().size(),
+            pool.getCompletedTaskCount(),
+            pool.getPoolSize()
+        );
+    }
+    
+    /**
+     * Detiene el executor esperando las operaciones en curso
+     */
+    public void shutdown() {
+        readExecutor.shutdown();
+        writeExecutor.shutdown();
+        try {
+            if (!readExecutor.awaitTermination(10, TimeUnit.SECONDS) || !writeExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Operaciones de base de datos no terminaron en tiempo, forzando cierre...");
+                readExecutor.shutdownNow();
+                writeExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            readExecutor.shutdownNow();
+            writeExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
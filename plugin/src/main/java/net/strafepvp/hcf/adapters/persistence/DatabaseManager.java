@@ -3,19 +3,58 @@ package net.strafepvp.hcf.adapters.persistence;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import net.strafepvp.hcf.StrafeHCFPlugin;
+import net.strafepvp.hcf.adapters.persistence.checkpoint.MemoryCheckpointer;
+import net.strafepvp.hcf.adapters.persistence.health.CircuitBreaker;
+import net.strafepvp.hcf.adapters.persistence.health.DatabaseHealthProbe;
+import net.strafepvp.hcf.adapters.persistence.health.HealthSnapshot;
+import net.strafepvp.hcf.adapters.persistence.invalidation.InvalidationBus;
+import net.strafepvp.hcf.adapters.persistence.invalidation.LoopbackTransport;
+import net.strafepvp.hcf.adapters.persistence.invalidation.PollingTransport;
+import net.strafepvp.hcf.adapters.persistence.journal.WriteJournal;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.metrics.PoolTelemetry;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.migration.SeasonDefaults;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.adapters.spigot.MainThreadExecutor;
 import net.strafepvp.hcf.application.config.ConfigManager.DatabaseConfig;
+import net.strafepvp.hcf.application.config.ConfigManager.PerformanceConfig;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
  * Gestor de base de datos para StrafeHCF
  * 
  * Maneja la conexión y configuración de la base de datos utilizando
- * HikariCP para pooling de conexiones.
+ * HikariCP para pooling de conexiones. Las mutaciones de entidades se
+ * escriben de forma diferida mediante {@link WriteBehindQueue} y las
+ * consultas se ejecutan en el {@link DatabaseExecutor}.
+ * 
+ * Hay dos pools: uno pequeño de escritura (cola, migraciones, transacciones)
+ * y uno mayor de lectura, opcionalmente contra una réplica, para que las
+ * consultas de estadísticas nunca acaparen las conexiones que persisten
+ * deathbans y DTR.
+ * 
+ * Con el tipo H2_MEMORY la base de datos vive en RAM y un
+ * {@link MemoryCheckpointer} la vuelca a disco periódicamente y la restaura
+ * al arrancar.
+ * 
+ * Si varios servidores comparten la base de datos, un {@link InvalidationBus}
+ * avisa a los demás de cada equipo o jugador escrito para que desalojen esa
+ * entrada de su cache.
+ * 
+ * Si la base de datos no responde (al arrancar o en ejecución), un
+ * {@link CircuitBreaker} pasa a modo degradado: el servidor sigue con el
+ * estado en memoria, las escrituras se acumulan en la cola y el journal, y
+ * al recuperarse se aplican las migraciones pendientes y se reproducen.
  * 
  * @author mayk0l
  */
@@ -23,13 +62,37 @@ public class DatabaseManager {
     
     private final StrafeHCFPlugin plugin;
     private final DatabaseConfig config;
+    private final PerformanceConfig performanceConfig;
+    private final SqlDialect dialect;
+    private final EntityMappings mappings;
+    private final StatementRegistry statementRegistry;
+    private final PoolTelemetry poolTelemetry;
     
     private HikariDataSource dataSource;
+    private HikariDataSource readDataSource;
+    private WriteBehindQueue writeBehindQueue;
+    private DatabaseExecutor databaseExecutor;
+    private DatabaseHealthProbe healthProbe;
+    private CircuitBreaker circuitBreaker;
+    private MemoryCheckpointer checkpointer;
+    private InvalidationBus invalidationBus;
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean schemaReady = false;
     private boolean initialized = false;
     
-    public DatabaseManager(StrafeHCFPlugin plugin, DatabaseConfig config) {
+    public DatabaseManager(StrafeHCFPlugin plugin, DatabaseConfig config, PerformanceConfig performanceConfig) {
         this.plugin = plugin;
         this.config = config;
+        this.performanceConfig = performanceConfig;
+        this.dialect = SqlDialect.fromType(config.type());
+        this.mappings = EntityMappings.create(dialect);
+        this.statementRegistry = new StatementRegistry(performanceConfig.queryTimeout());
+        this.poolTelemetry = new PoolTelemetry(
+            performanceConfig.poolHistorySize(),
+            performanceConfig.poolSampleIntervalMillis(),
+            performanceConfig.poolSaturationSamples(),
+            plugin.getLogger()
+        );
     }
     
     /**
@@ -40,24 +103,57 @@ public class DatabaseManager {
         
         try {
             // Create HikariCP configuration
-            HikariConfig hikariConfig = createHikariConfig();
+            HikariConfig hikariConfig = createHikariConfig("StrafeHCF-Write", buildJdbcUrl(),
+                config.writeMaximumPoolSize(), config.writeMinimumIdle());
+            hikariConfig.setMetricsTrackerFactory(poolTelemetry);
             
-            // Create data source
+            // Create data sources; the read pool is optional and may point at a replica
             this.dataSource = new HikariDataSource(hikariConfig);
+            if (config.readMaximumPoolSize() > 0) {
+                this.readDataSource = new HikariDataSource(createHikariConfig("StrafeHCF-Read",
+                    hasReplica() ? config.readReplicaUrl() : buildJdbcUrl(),
+                    config.readMaximumPoolSize(), config.readMinimumIdle()));
+            }
+            poolTelemetry.start();
+            this.circuitBreaker = new CircuitBreaker(
+                performanceConfig.breakerFailureThreshold(),
+                performanceConfig.breakerSlowCallMillis(),
+                performanceConfig.breakerOpenSeconds() * 1000L,
+                plugin.getLogger()
+            );
             
-            // Test connection
-            testConnection();
+            // An unreachable database must not take the plugin down: start degraded, finish on recovery
+            try {
+                testConnection();
+                restoreCheckpoint();
+                initializeSchema();
+            } catch (SQLException e) {
+                if (!CircuitBreaker.isConnectivityFailure(e)) {
+                    throw e;
+                }
+                plugin.getLogger().log(Level.SEVERE, "Base de datos no disponible al iniciar; se arranca en modo degradado", e);
+                circuitBreaker.trip(e.getMessage());
+            }
             
-            // Initialize database schema
-            initializeSchema();
+            // Start write-behind persistence and async I/O
+            initializeWriteBehindQueue();
+            initializeDatabaseExecutor();
+            initializeHealthProbe();
+            initializeInvalidationBus();
+            if (checkpointer != null) {
+                checkpointer.start();
+            }
             
             this.initialized = true;
             
             plugin.getLogger().info(String.format(
-                "Base de datos inicializada correctamente (Tipo: %s, Pool: %d/%d)",
+                "Base de datos inicializada %s (Tipo: %s, Escritura: %d/%d, Lectura: %s)",
+                circuitBreaker.allowRequest() ? "correctamente" : "en modo degradado",
                 config.type(),
-                config.minimumIdle(),
-                config.maximumPoolSize()
+                config.writeMinimumIdle(),
+                config.writeMaximumPoolSize(),
+                readDataSource == null ? "compartida"
+                    : readDataSource.getMinimumIdle() + "/" + readDataSource.getMaximumPoolSize() + (hasReplica() ? " réplica" : "")
             ));
             
         } catch (Exception e) {
@@ -67,13 +163,12 @@ public class DatabaseManager {
     }
     
     /**
-     * Crea la configuración de HikariCP
+     * Crea la configuración de HikariCP de un pool
      */
-    private HikariConfig createHikariConfig() {
+    private HikariConfig createHikariConfig(String poolName, String jdbcUrl, int maximumPoolSize, int minimumIdle) {
         HikariConfig config = new HikariConfig();
         
         // Database connection settings
-        String jdbcUrl = buildJdbcUrl();
         config.setJdbcUrl(jdbcUrl);
         config.setUsername(this.config.username());
         config.setPassword(this.config.password());
@@ -85,22 +180,51 @@ public class DatabaseManager {
         }
         
         // Connection pool settings
-        config.setMaximumPoolSize(this.config.maximumPoolSize());
-        config.setMinimumIdle(this.config.minimumIdle());
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
         config.setConnectionTimeout(this.config.connectionTimeout());
         config.setIdleTimeout(this.config.idleTimeout());
         config.setMaxLifetime(this.config.maxLifetime());
         
         // Performance settings
+        configureStatementCache(config);
         config.setLeakDetectionThreshold(60000);
         config.setConnectionTestQuery("SELECT 1");
         
+        // Let the pool start without the database; the circuit breaker handles the outage
+        config.setInitializationFailTimeout(-1);
+        
         // Pool name for monitoring
-        config.setPoolName("StrafeHCF-Pool");
+        config.setPoolName(poolName);
         
         return config;
     }
     
+    /**
+     * Verifica si las lecturas van a una réplica distinta del primario
+     */
+    private boolean hasReplica() {
+        return config.readReplicaUrl() != null && !config.readReplicaUrl().isBlank();
+    }
+    
+    /**
+     * Activa la cache de sentencias preparadas del driver para que cada
+     * conexión reutilice las consultas ya parseadas del StatementRegistry
+     */
+    private void configureStatementCache(HikariConfig config) {
+        int cacheSize = performanceConfig.statementCacheSize();
+        switch (dialect) {
+            case POSTGRESQL -> config.addDataSourceProperty("preparedStatementCacheQueries", cacheSize);
+            case MYSQL -> {
+                config.addDataSourceProperty("cachePrepStmts", true);
+                config.addDataSourceProperty("useServerPrepStmts", true);
+                config.addDataSourceProperty("prepStmtCacheSize", cacheSize);
+                config.addDataSourceProperty("prepStmtCacheSqlLimit", 2048);
+            }
+            case H2 -> config.addDataSourceProperty("QUERY_CACHE_SIZE", cacheSize);
+        }
+    }
+    
     /**
      * Obtiene el nombre de clase del driver según el tipo de base de datos
      */
@@ -108,7 +232,7 @@ public class DatabaseManager {
         return switch (config.type().toUpperCase()) {
             case "POSTGRESQL" -> "org.postgresql.Driver";
             case "MYSQL" -> "com.mysql.cj.jdbc.Driver";
-            case "H2" -> "net.strafepvp.hcf.lib.h2.Driver"; // Driver H2 relocacionado
+            case "H2", "H2_MEMORY" -> "net.strafepvp.hcf.lib.h2.Driver"; // Driver H2 relocacionado
             default -> null;
         };
     }
@@ -135,6 +259,10 @@ public class DatabaseManager {
                 plugin.getDataFolder().getAbsolutePath(),
                 config.name()
             );
+            case "H2_MEMORY" -> String.format(
+                "jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1",
+                config.name()
+            );
             default -> throw new IllegalArgumentException("Unsupported database type: " + config.type());
         };
     }
@@ -153,82 +281,165 @@ public class DatabaseManager {
     }
     
     /**
-     * Inicializa el esquema de la base de datos
+     * Restaura el último checkpoint de la base de datos en memoria, antes de
+     * las migraciones para que estas actualicen checkpoints antiguos
      */
-    private void initializeSchema() {
+    private void restoreCheckpoint() throws SQLException {
+        if (!config.type().equalsIgnoreCase("H2_MEMORY")) {
+            return;
+        }
+        
+        if (checkpointer == null) {
+            this.checkpointer = new MemoryCheckpointer(
+                dataSource::getConnection,
+                plugin.getDataFolder().toPath().resolve("data").resolve(config.name() + ".checkpoint.sql.gz"),
+                config.checkpointInterval() * 1000L,
+                plugin.getLogger()
+            );
+        }
+        
+        if (!checkpointer.restore()) {
+            plugin.getLogger().info("Base de datos en memoria iniciada sin checkpoint previo");
+        }
+    }
+    
+    /**
+     * Aplica las migraciones de esquema pendientes
+     */
+    private void initializeSchema() throws SQLException {
         plugin.getLogger().info("Inicializando esquema de base de datos...");
         
-        try (Connection connection = dataSource.getConnection();
-             Statement statement = connection.createStatement()) {
-            
-            // Create teams table
-            statement.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS teams (
-                    id VARCHAR(36) PRIMARY KEY,
-                    name VARCHAR(16) NOT NULL UNIQUE,
-                    leader_id VARCHAR(36) NOT NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    dtr DECIMAL(4,2) NOT NULL DEFAULT 1.01,
-                    is_raidable BOOLEAN DEFAULT FALSE,
-                    last_death_time TIMESTAMP NULL
-                )
-                """);
-            
-            // Create players table
-            statement.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS players (
-                    id VARCHAR(36) PRIMARY KEY,
-                    minecraft_uuid VARCHAR(36) NOT NULL UNIQUE,
-                    username VARCHAR(16) NOT NULL,
-                    team_id VARCHAR(36) NULL,
-                    team_role VARCHAR(20) DEFAULT 'MEMBER',
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    pvp_protection_until TIMESTAMP NULL,
-                    deathban_until TIMESTAMP NULL,
-                    FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE SET NULL
-                )
-                """);
-            
-            // Create claims table
-            statement.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS claims (
-                    id VARCHAR(36) PRIMARY KEY,
-                    team_id VARCHAR(36) NOT NULL,
-                    world_name VARCHAR(50) NOT NULL,
-                    min_x INT NOT NULL,
-                    min_z INT NOT NULL,
-                    max_x INT NOT NULL,
-                    max_z INT NOT NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE CASCADE
-                )
-                """);
-            
-            // Create koth_events table
-            statement.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS koth_events (
-                    id VARCHAR(36) PRIMARY KEY,
-                    name VARCHAR(50) NOT NULL,
-                    world_name VARCHAR(50) NOT NULL,
-                    center_x INT NOT NULL,
-                    center_z INT NOT NULL,
-                    radius INT NOT NULL,
-                    capture_time INT NOT NULL,
-                    is_active BOOLEAN DEFAULT FALSE,
-                    current_controller VARCHAR(36) NULL,
-                    control_start_time TIMESTAMP NULL,
-                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                )
-                """);
-            
-            plugin.getLogger().info("Esquema de base de datos inicializado correctamente");
-            
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error al inicializar esquema de base de datos", e);
-            throw new RuntimeException("Failed to initialize database schema", e);
+        new MigrationRunner(dataSource, dialect, SchemaMigrations.all(), plugin.getLogger()).migrate();
+        try (Connection connection = dataSource.getConnection()) {
+            int season = SeasonDefaults.currentSeason(connection);
+            if (SeasonDefaults.sync(connection, season) > 0) {
+                plugin.getLogger().warning("season_id por defecto corregido a la temporada " + season);
+            }
         }
+        this.schemaReady = true;
+        
+        plugin.getLogger().info("Esquema de base de datos inicializado correctamente");
+    }
+    
+    /**
+     * Inicializa la cola de escritura diferida, reproduciendo antes el journal
+     * de mutaciones que no llegaron a la base de datos
+     */
+    private void initializeWriteBehindQueue() throws IOException {
+        WriteJournal journal = performanceConfig.journalEnabled()
+            ? new WriteJournal(plugin.getDataFolder().toPath().resolve("journal"), performanceConfig.journalSyncMillis(),
+                plugin.getLogger())
+            : null;
+        
+        this.writeBehindQueue = new WriteBehindQueue(
+            dataSource,
+            dialect,
+            statementRegistry,
+            journal,
+            circuitBreaker,
+            mappings.writeOrder(),
+            performanceConfig.batchSize(),
+            performanceConfig.flushInterval() * 1000L,
+            plugin.getLogger()
+        );
+        
+        int recovered = writeBehindQueue.recoverJournal();
+        if (recovered > 0) {
+            int written = writeBehindQueue.flush();
+            plugin.getLogger().warning(String.format(
+                "Journal reproducido: %d mutaciones recuperadas, %d filas escritas", recovered, written));
+        }
+        
+        writeBehindQueue.start();
+    }
+    
+    /**
+     * Inicia la sonda de salud en segundo plano
+     */
+    private void initializeHealthProbe() {
+        this.healthProbe = new DatabaseHealthProbe(
+            dataSource::getConnection,
+            performanceConfig.healthCheckInterval() * 1000L,
+            2,
+            plugin.getLogger()
+        );
+        healthProbe.addListener(this::onHealthProbe);
+        circuitBreaker.addListener(state -> {
+            if (state == CircuitBreaker.State.CLOSED) {
+                onDatabaseRecovered();
+            }
+        });
+        healthProbe.start();
+    }
+    
+    /**
+     * Alimenta el circuit breaker con cada sonda; la sonda es la petición de
+     * prueba que lo cierra, una vez aplicadas las migraciones pendientes
+     */
+    private void onHealthProbe(HealthSnapshot snapshot) {
+        if (!snapshot.healthy()) {
+            circuitBreaker.recordFailure(snapshot.lastError());
+            return;
+        }
+        
+        if (!schemaReady) {
+            try {
+                initializeSchema();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "No se pudo inicializar el esquema tras recuperar la conexión", e);
+                circuitBreaker.recordFailure(e.getMessage());
+                return;
+            }
+        }
+        
+        circuitBreaker.recordSuccess(TimeUnit.MICROSECONDS.toNanos(snapshot.latencyMicros()));
+    }
+    
+    /**
+     * Reproduce las escrituras acumuladas en modo degradado y avisa a los suscriptores
+     */
+    private void onDatabaseRecovered() {
+        int pending = writeBehindQueue.getPendingCount();
+        int written = writeBehindQueue.flush();
+        plugin.getLogger().info(String.format(
+            "Base de datos recuperada: %d/%d escrituras pendientes reproducidas", written, pending));
+        
+        for (Runnable listener : recoveryListeners) {
+            listener.run();
+        }
+    }
+    
+    /**
+     * Inicializa el executor de E/S para consultas asíncronas
+     */
+    private void initializeDatabaseExecutor() {
+        DataSource reads = getReadDataSource();
+        this.databaseExecutor = new DatabaseExecutor(
+            new DatabaseExecutor.Route(dataSource::getConnection, circuitBreaker, performanceConfig.writeThreadPoolSize()),
+            // A replica outage must not put the primary into degraded mode
+            new DatabaseExecutor.Route(reads::getConnection, hasReplica() ? null : circuitBreaker, performanceConfig.threadPoolSize()),
+            new MainThreadExecutor(plugin),
+            plugin.getLogger()
+        );
+    }
+    
+    /**
+     * Crea el bus de invalidación según database.invalidation.transport
+     */
+    private void initializeInvalidationBus() {
+        switch (config.invalidationTransport().toUpperCase()) {
+            case "POLLING" -> this.invalidationBus = new InvalidationBus(
+                new PollingTransport(dataSource::getConnection, statementRegistry, config.invalidationPollInterval(),
+                    TimeUnit.MINUTES.toMillis(config.invalidationRetention()), plugin.getLogger()),
+                plugin.getLogger());
+            case "LOOPBACK" -> this.invalidationBus = new InvalidationBus(new LoopbackTransport(), plugin.getLogger());
+            default -> {
+                return;
+            }
+        }
+        
+        invalidationBus.start();
+        plugin.getLogger().info("Bus de invalidación de cache iniciado (" + config.invalidationTransport().toUpperCase() + ")");
     }
     
     /**
@@ -254,22 +465,134 @@ public class DatabaseManager {
         return dataSource;
     }
     
+    /**
+     * Obtiene el data source de lectura
+     * 
+     * @return Pool de lectura, o el de escritura si no hay pool de lectura separado
+     */
+    public DataSource getReadDataSource() {
+        return readDataSource != null ? readDataSource : dataSource;
+    }
+    
+    /**
+     * Obtiene la cola de escritura diferida
+     * 
+     * @return WriteBehindQueue
+     */
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+    
+    /**
+     * Obtiene el executor de E/S de base de datos
+     * 
+     * @return DatabaseExecutor
+     */
+    public DatabaseExecutor getDatabaseExecutor() {
+        return databaseExecutor;
+    }
+    
+    /**
+     * Obtiene los mapeos de entidades
+     * 
+     * @return EntityMappings
+     */
+    public EntityMappings getMappings() {
+        return mappings;
+    }
+    
+    /**
+     * Obtiene el dialecto SQL configurado
+     * 
+     * @return SqlDialect
+     */
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+    
+    /**
+     * Obtiene el registro de sentencias SQL con nombre
+     * 
+     * @return StatementRegistry
+     */
+    public StatementRegistry getStatementRegistry() {
+        return statementRegistry;
+    }
+    
+    /**
+     * Obtiene la sonda de salud de la base de datos
+     * 
+     * @return DatabaseHealthProbe
+     */
+    public DatabaseHealthProbe getHealthProbe() {
+        return healthProbe;
+    }
+    
+    /**
+     * Obtiene la telemetría del pool de conexiones
+     * 
+     * @return PoolTelemetry
+     */
+    public PoolTelemetry getPoolTelemetry() {
+        return poolTelemetry;
+    }
+    
+    /**
+     * Obtiene el checkpointer de la base de datos en memoria
+     * 
+     * @return MemoryCheckpointer, o null si la base de datos no es H2_MEMORY
+     */
+    public MemoryCheckpointer getCheckpointer() {
+        return checkpointer;
+    }
+    
+    /**
+     * Obtiene el bus de invalidación de caches entre servidores
+     * 
+     * @return InvalidationBus, o null si database.invalidation.transport es NONE
+     */
+    public InvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+    
+    /**
+     * Obtiene el circuit breaker de la base de datos
+     * 
+     * @return CircuitBreaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    /**
+     * Registra una tarea a ejecutar cada vez que la base de datos se recupera
+     * 
+     * Se ejecuta en el hilo de la sonda, después de reproducir las escrituras pendientes.
+     * 
+     * @param listener Tarea a ejecutar
+     */
+    public void addRecoveryListener(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+    
+    /**
+     * Verifica si se aceptan operaciones contra la base de datos
+     * 
+     * @return false en modo degradado
+     */
+    public boolean isAvailable() {
+        return circuitBreaker != null && circuitBreaker.allowRequest();
+    }
+    
     /**
      * Verifica si la base de datos está saludable
      * 
-     * @return true si la conexión es válida
+     * Lee el último resultado de la sonda en segundo plano; no toca el pool.
+     * 
+     * @return true si la última sonda reciente fue válida y no hay modo degradado
      */
     public boolean isHealthy() {
-        if (!initialized || dataSource == null) {
-            return false;
-        }
-        
-        try (Connection connection = dataSource.getConnection()) {
-            return connection.isValid(5);
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Database health check failed", e);
-            return false;
-        }
+        return initialized && healthProbe != null && healthProbe.isHealthy() && isAvailable();
     }
     
     /**
@@ -278,6 +601,39 @@ public class DatabaseManager {
     public void shutdown() {
         plugin.getLogger().info("Cerrando conexiones de base de datos...");
         
+        if (healthProbe != null) {
+            healthProbe.shutdown();
+        }
+        poolTelemetry.shutdown();
+        
+        // Finish in-flight queries, then flush pending writes while the pool is still open
+        if (databaseExecutor != null) {
+            databaseExecutor.shutdown();
+        }
+        
+        if (writeBehindQueue != null) {
+            writeBehindQueue.shutdown();
+        }
+        
+        // After the final flush, so peers hear about the last writes
+        if (invalidationBus != null) {
+            invalidationBus.shutdown();
+        }
+        
+        // Last checkpoint after the final flush, so nothing acknowledged is left only in memory
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            try {
+                checkpointer.checkpoint();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Error al escribir el checkpoint final de la base de datos en memoria", e);
+            }
+        }
+        
+        if (readDataSource != null && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             plugin.getLogger().info("Base de datos cerrada correctamente");
@@ -296,12 +652,17 @@ public class DatabaseManager {
             return "DataSource not initialized";
         }
         
+        String status = "Pool Status - Write " + poolStatus(dataSource);
+        return readDataSource != null ? status + " | Read " + poolStatus(readDataSource) : status;
+    }
+    
+    private static String poolStatus(HikariDataSource pool) {
         return String.format(
-            "Pool Status - Active: %d, Idle: %d, Waiting: %d, Total: %d",
-            dataSource.getHikariPoolMXBean().getActiveConnections(),
-            dataSource.getHikariPoolMXBean().getIdleConnections(),
-            dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(),
-            dataSource.getHikariPoolMXBean().getTotalConnections()
+            "Active: %d, Idle: %d, Waiting: %d, Total: %d",
+            pool.getHikariPoolMXBean().getActiveConnections(),
+            pool.getHikariPoolMXBean().getIdleConnections(),
+            pool.getHikariPoolMXBean().getThreadsAwaitingConnection(),
+            pool.getHikariPoolMXBean().getTotalConnections()
         );
     }
     
@@ -0,0 +1,149 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Dialecto SQL del motor de base de datos configurado
+ *
+ * Centraliza las diferencias de sintaxis entre H2, PostgreSQL y MySQL
+ * para que el resto de la capa de persistencia genere SQL portable.
+ *
+ * @author mayk0l
+ */
+public enum SqlDialect {
+    H2,
+    POSTGRESQL,
+    MYSQL;
+    
+    /**
+     * Obtiene el dialecto a partir del tipo configurado en database.type
+     *
+     * @param type Tipo de base de datos
+     * @return Dialecto correspondiente
+     */
+    public static SqlDialect fromType(String type) {
+        return switch (type.toUpperCase()) {
+            case "POSTGRESQL" -> POSTGRESQL;
+            case "MYSQL" -> MYSQL;
+            case "H2", "H2_MEMORY" -> H2;
+            default -> throw new IllegalArgumentException("Unsupported database type: " + type);
+        };
+    }
+    
+    /**
+     * Genera una sentencia de inserción o actualización (upsert)
+     *
+     * @param table Tabla destino
+     * @param columns Columnas a escribir, la primera es la clave primaria
+     * @return SQL parametrizado con un marcador por columna
+     */
+    public String upsert(String table, List<String> columns) {
+        String key = columns.get(0);
+        String columnList = String.join(", ", columns);
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        List<String> updatable = columns.subList(1, columns.size());
+        
+        return switch (this) {
+            case H2 -> String.format(
+                "MERGE INTO %s (%s) KEY (%s) VALUES (%s)",
+                table, columnList, key, placeholders
+            );
+            case POSTGRESQL -> String.format(
+                "INSERT INTO %s (%s) VALUES (%s) ON CONFLICT (%s) DO UPDATE SET %s",
+                table, columnList, placeholders, key,
+                updatable.stream().map(column -> column + " = EXCLUDED." + column).collect(Collectors.joining(", "))
+            );
+            case MYSQL -> String.format(
+                "INSERT INTO %s (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %s",
+                table, columnList, placeholders,
+                updatable.stream().map(column -> column + " = VALUES(" + column + ")").collect(Collectors.joining(", "))
+            );
+        };
+    }
+    
+    /**
+     * Genera un upsert que nunca hace retroceder la versión de la fila
+     *
+     * Si la fila existe, su versión pasa a ser la mayor entre la actual + 1
+     * y la escrita; así un estado completo con una versión antigua sigue
+     * invalidando las actualizaciones condicionales de otros escritores.
+     *
+     * @param table Tabla destino
+     * @param columns Columnas a escribir; la primera es la clave y la última la versión
+     * @return SQL parametrizado con un marcador por columna
+     */
+    public String versionedUpsert(String table, List<String> columns) {
+        String key = columns.get(0);
+        String version = columns.get(columns.size() - 1);
+        String columnList = String.join(", ", columns);
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        List<String> updatable = columns.subList(1, columns.size() - 1);
+        
+        return switch (this) {
+            case H2 -> String.format(
+                "MERGE INTO %1$s USING (VALUES (%3$s)) AS source (%2$s) ON %1$s.%4$s = source.%4$s "
+                    + "WHEN MATCHED THEN UPDATE SET %5$s, %6$s = GREATEST(%1$s.%6$s + 1, source.%6$s) "
+                    + "WHEN NOT MATCHED THEN INSERT (%2$s) VALUES (%7$s)",
+                table, columnList, placeholders, key,
+                updatable.stream().map(column -> column + " = source." + column).collect(Collectors.joining(", ")),
+                version,
+                columns.stream().map(column -> "source." + column).collect(Collectors.joining(", "))
+            );
+            case POSTGRESQL -> String.format(
+                "INSERT INTO %1$s (%2$s) VALUES (%3$s) ON CONFLICT (%4$s) DO UPDATE SET %5$s, %6$s = GREATEST(%1$s.%6$s + 1, EXCLUDED.%6$s)",
+                table, columnList, placeholders, key,
+                updatable.stream().map(column -> column + " = EXCLUDED." + column).collect(Collectors.joining(", ")),
+                version
+            );
+            // MySQL evaluates assignments left to right: the version is still the stored one here
+            case MYSQL -> String.format(
+                "INSERT INTO %1$s (%2$s) VALUES (%3$s) ON DUPLICATE KEY UPDATE %5$s, %6$s = GREATEST(%6$s + 1, VALUES(%6$s))",
+                table, columnList, placeholders, key,
+                updatable.stream().map(column -> column + " = VALUES(" + column + ")").collect(Collectors.joining(", ")),
+                version
+            );
+        };
+    }
+    
+    /**
+     * Tipo de columna para identificadores UUID
+     */
+    public String uuidType() {
+        return this == MYSQL ? "VARCHAR(36)" : "UUID";
+    }
+    
+    /**
+     * Definición de una clave primaria BIGINT autoincremental
+     */
+    public String identityColumn() {
+        return this == MYSQL ? "BIGINT AUTO_INCREMENT PRIMARY KEY" : "BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+    }
+    
+    /**
+     * Genera la creación de un índice
+     *
+     * MySQL no admite CREATE INDEX IF NOT EXISTS; las migraciones se aplican
+     * una sola vez, así que ahí se crea sin la guarda.
+     *
+     * @param name Nombre del índice
+     * @param table Tabla indexada
+     * @param columns Columnas separadas por comas
+     * @return Sentencia DDL
+     */
+    public String createIndex(String name, String table, String columns) {
+        return String.format(this == MYSQL ? "CREATE INDEX %s ON %s (%s)" : "CREATE INDEX IF NOT EXISTS %s ON %s (%s)",
+            name, table, columns);
+    }
+    
+    /**
+     * Genera una sentencia de borrado por clave primaria
+     *
+     * @param table Tabla destino
+     * @param keyColumn Columna de clave primaria
+     * @return SQL parametrizado
+     */
+    public String deleteByKey(String table, String keyColumn) {
+        return String.format("DELETE FROM %s WHERE %s = ?", table, keyColumn);
+    }
+}
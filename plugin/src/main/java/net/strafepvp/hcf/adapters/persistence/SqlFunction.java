@@ -0,0 +1,16 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import java.sql.SQLException;
+
+/**
+ * Función que puede lanzar SQLException
+ *
+ * @param <T> Tipo de entrada
+ * @param <R> Tipo de resultado
+ * @author mayk0l
+ */
+@FunctionalInterface
+public interface SqlFunction<T, R> {
+    
+    R apply(T input) throws SQLException;
+}
@@ -0,0 +1,1166 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.health.CircuitBreaker;
+import net.strafepvp.hcf.adapters.persistence.journal.JournalEntry;
+import net.strafepvp.hcf.adapters.persistence.journal.WriteJournal;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues;
+import net.strafepvp.hcf.adapters.persistence.mapping.TrackedMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.VersionedMapping;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cola de escritura diferida (write-behind) para la persistencia de entidades
+ *
+ * Las mutaciones se registran en memoria y se coalescen por tabla y clave
+ * primaria: si un equipo cambia de DTR diez veces antes del siguiente flush,
+ * solo se escribe su último estado. Los flush se ejecutan en un hilo propio
+ * como lotes JDBC de tamaño performance.database_optimization.batch_size,
+ * por lo que el hilo principal nunca espera al pool de conexiones.
+ *
+ * Si hay un {@link WriteJournal}, cada mutación se anexa al journal antes de
+ * encolarse, de modo que una caída del servidor o de la base de datos no
+ * pierde escrituras confirmadas: se reproducen con {@link #recoverJournal()}.
+ * El journal decide cuándo fuerza a disco (ver su intervalo de sync). Tras
+ * cada flush las filas que siguen pendientes se vuelven a anexar al segmento
+ * actual y los segmentos anteriores se borran, así que el journal no crece
+ * mientras la base de datos esté caída: su tamaño lo acotan las entidades
+ * pendientes más lo escrito desde el último flush.
+ *
+ * Con el {@link CircuitBreaker} abierto los flush se posponen: la cola actúa
+ * como buffer de escrituras pendientes (acotado por el número de entidades,
+ * ya que se coalesce por clave) hasta que la base de datos se recupera.
+ *
+ * Un error de datos o de integridad (clave foránea, unicidad, truncado) lo
+ * causa una fila concreta: su lote se parte por la mitad hasta aislarla, su
+ * futuro falla y el resto del lote se confirma, de modo que una fila
+ * envenenada no bloquea los flush siguientes. Cualquier otro error
+ * (conectividad, bloqueos, tabla inexistente, permisos, solo lectura)
+ * devuelve las filas a la cola.
+ *
+ * Las entidades con {@link VersionedMapping} se actualizan en lotes de
+ * UPDATE ... WHERE version = ?, con sus columnas aditivas como incremento
+ * y sus columnas derivadas recalculadas sobre el valor ya sumado. Las
+ * filas que chocan con otro escritor se releen y reintentan dentro del
+ * mismo flush; las que no existen aún se insertan. Las mutaciones
+ * recuperadas del journal no conservan los incrementos y se escriben con
+ * su estado completo, con un upsert que nunca hace retroceder la versión.
+ *
+ * Las entidades con {@link TrackedMapping} se escriben con UPDATE de solo
+ * las columnas modificadas, agrupando en el mismo lote las filas que
+ * cambiaron el mismo conjunto de columnas; si la fila aún no existe se
+ * inserta completa. Cada conjunto de columnas registra su propia sentencia
+ * la primera vez que aparece.
+ *
+ * @author mayk0l
+ */
+public class WriteBehindQueue {
+    
+    private static final int MAX_CONFLICT_RETRIES = 3;
+    private static final long FULL_ROW = -1L;
+    
+    private final DataSource dataSource;
+    private final List<EntityMapping<?>> writeOrder;
+    private final Map<EntityMapping<?>, NamedStatement> upsertStatements = new IdentityHashMap<>();
+    private final Map<EntityMapping<?>, NamedStatement> deleteStatements = new IdentityHashMap<>();
+    private final Map<UpdateShape, UpdateStatement> updateStatements = new ConcurrentHashMap<>();
+    private final Map<EntityMapping<?>, NamedStatement> versionQueries = new IdentityHashMap<>();
+    private final Map<PendingKey, Long> writtenVersions = new ConcurrentHashMap<>();
+    private final Map<String, EntityMapping<?>> mappingsByTable = new ConcurrentHashMap<>();
+    private final StatementRegistry statements;
+    private final WriteJournal journal;
+    private final CircuitBreaker breaker;
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Logger logger;
+    
+    private final ConcurrentHashMap<PendingKey, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final Map<PendingKey, PendingWrite> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicBoolean held = new AtomicBoolean(false);
+    private ScheduledExecutorService executor;
+    
+    // Statistics
+    private final AtomicLong enqueuedWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private final AtomicLong discardedRows = new AtomicLong();
+    private final AtomicLong deferredFlushes = new AtomicLong();
+    private final AtomicLong journalFailures = new AtomicLong();
+    private final AtomicLong versionConflicts = new AtomicLong();
+    private final AtomicLong conflictRetries = new AtomicLong();
+    private final AtomicLong partialUpdates = new AtomicLong();
+    private final AtomicLong boundBytes = new AtomicLong();
+    private volatile int lastFlushRows;
+    private volatile long lastFlushMillis;
+    
+    public WriteBehindQueue(DataSource dataSource, SqlDialect dialect, StatementRegistry statements, WriteJournal journal,
+                            CircuitBreaker breaker, List<EntityMapping<?>> writeOrder, int batchSize, long flushIntervalMillis, Logger logger) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        
+        this.dataSource = dataSource;
+        this.statements = statements;
+        this.journal = journal;
+        this.breaker = breaker;
+        this.writeOrder = List.copyOf(writeOrder);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.logger = logger;
+        
+        for (EntityMapping<?> mapping : this.writeOrder) {
+            mappingsByTable.put(mapping.table(), mapping);
+            upsertStatements.put(mapping, statements.register(mapping.table() + ".upsert", mapping instanceof VersionedMapping<?>
+                ? dialect.versionedUpsert(mapping.table(), mapping.columns())
+                : dialect.upsert(mapping.table(), mapping.columns())));
+            deleteStatements.put(mapping, statements.register(mapping.table() + ".delete",
+                dialect.deleteByKey(mapping.table(), mapping.keyColumn())));
+            
+            if (mapping instanceof VersionedMapping<?> versioned) {
+                versionQueries.put(mapping, statements.register(mapping.table() + ".version",
+                    "SELECT " + versioned.versionColumn() + " FROM " + mapping.table() + " WHERE " + mapping.keyColumn() + " = ?"));
+            }
+        }
+    }
+    
+    /**
+     * Sentencia UPDATE que asigna las columnas de la máscara
+     * 
+     * En un {@link VersionedMapping} la sentencia es condicional sobre la
+     * versión esperada, la incrementa y escribe las columnas aditivas como
+     * incremento. Sus columnas derivadas se asignan siempre que se asigne
+     * la aditiva de la que dependen, calculadas con el valor ya sumado.
+     */
+    private UpdateStatement updateStatement(EntityMapping<?> mapping, long columns) {
+        return updateStatements.computeIfAbsent(new UpdateShape(mapping, columns), shape -> {
+            VersionedMapping<?> versioned = mapping instanceof VersionedMapping<?> v ? v : null;
+            List<String> names = new ArrayList<>();
+            List<String> assignments = new ArrayList<>();
+            List<Integer> parameters = new ArrayList<>();
+            Set<String> derived = new HashSet<>();
+            
+            // Derived columns come first: MySQL evaluates assignments left to right and must read the old values
+            if (versioned != null) {
+                for (VersionedMapping.DerivedColumn column : versioned.derivedColumns()) {
+                    int source = mapping.columns().indexOf(column.source());
+                    int target = mapping.columns().indexOf(column.column());
+                    if ((columns & ((1L << source) | (1L << target))) == 0) {
+                        continue;
+                    }
+                    
+                    boolean incremented = (columns & (1L << source)) != 0;
+                    names.add(column.column());
+                    assignments.add(column.column() + " = " + String.format(column.expression(),
+                        incremented ? "(" + column.source() + " + ?)" : column.source()));
+                    if (incremented) {
+                        parameters.add(source);
+                    }
+                    derived.add(column.column());
+                }
+            }
+            
+            for (int index = 1; index < mapping.columns().size(); index++) {
+                String column = mapping.columns().get(index);
+                if ((columns & (1L << index)) == 0 || derived.contains(column)) {
+                    continue;
+                }
+                
+                names.add(column);
+                assignments.add(versioned != null && versioned.additiveColumns().contains(column)
+                    ? column + " = " + column + " + ?" : column + " = ?");
+                parameters.add(index);
+            }
+            
+            String where = mapping.keyColumn() + " = ?";
+            if (versioned != null) {
+                String version = versioned.versionColumn();
+                assignments.add(version + " = " + version + " + 1");
+                where += " AND " + version + " = ?";
+            }
+            
+            String name = mapping.table() + (versioned != null ? ".conditionalUpdate" : ".update") + names;
+            return new UpdateStatement(statements.register(name,
+                "UPDATE " + mapping.table() + " SET " + String.join(", ", assignments) + " WHERE " + where),
+                List.copyOf(parameters));
+        });
+    }
+    
+    /**
+     * Máscara de columnas que asigna el UPDATE de una escritura: las
+     * modificadas, o todas salvo la clave (y la versión) si la fila es completa
+     */
+    private static long assignedColumns(EntityMapping<?> mapping, PendingWrite write) {
+        long all = (1L << mapping.columns().size()) - 2;
+        if (mapping instanceof VersionedMapping<?>) {
+            all &= ~(1L << (mapping.columns().size() - 1));
+        }
+        return write.changedColumns() == FULL_ROW ? all : write.changedColumns() & all;
+    }
+    
+    /**
+     * Abre el journal y vuelve a encolar las mutaciones que no llegaron a escribirse
+     *
+     * Debe llamarse antes de {@link #start()}; las mutaciones recuperadas se
+     * escriben en el siguiente flush y sus segmentos se borran entonces.
+     *
+     * @return Número de mutaciones recuperadas
+     */
+    public int recoverJournal() throws IOException {
+        if (journal == null) {
+            return 0;
+        }
+        
+        int recovered = 0;
+        for (JournalEntry entry : journal.open()) {
+            EntityMapping<?> mapping = mappingsByTable.get(entry.table());
+            if (mapping == null) {
+                logger.warning("Mutación de journal para una tabla desconocida, se ignora: " + entry.table());
+                continue;
+            }
+            
+            pending.compute(new PendingKey(mapping.table(), entry.key()), (pendingKey, current) ->
+                new PendingWrite(mapping, entry.key(), entry.row(), null, FULL_ROW, current != null ? current.completion() : new CompletableFuture<>()));
+            recovered++;
+        }
+        return recovered;
+    }
+    
+    /**
+     * Inicia el flush periódico en segundo plano
+     */
+    public void start() {
+        if (executor != null) {
+            return;
+        }
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StrafeHCF-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        if (flushIntervalMillis > 0) {
+            executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        
+        logger.info(String.format("Cola write-behind iniciada (lote: %d, intervalo: %dms)", batchSize, flushIntervalMillis));
+    }
+    
+    /**
+     * Registra la inserción o actualización de una entidad
+     *
+     * El estado se captura en este mismo hilo, por lo que el agregado puede
+     * seguir mutando sin afectar a la fila encolada. Si la entidad no
+     * informa de cambios se escribe la fila completa.
+     *
+     * @param mapping Mapeo de la entidad
+     * @param entity Entidad a persistir
+     * @return Futuro que se completa cuando la fila (o una versión más reciente) se escribe
+     */
+    public <T> CompletableFuture<Void> enqueueUpsert(EntityMapping<T> mapping, T entity) {
+        BigDecimal[] increments = mapping instanceof VersionedMapping<T> versioned ? versioned.takeIncrements(entity) : null;
+        long columns = mapping instanceof TrackedMapping<T> tracked ? tracked.takeChangedColumns(entity) : FULL_ROW;
+        if (columns == 0 || (columns | 1L) == (1L << mapping.columns().size()) - 1) {
+            columns = FULL_ROW;
+        }
+        return enqueue(mapping, mapping.key(entity), mapping.toRow(entity), increments, columns);
+    }
+    
+    /**
+     * Escritura de una fila que aún no ha llegado a la base de datos, ya sea
+     * en la cola o en el flush en curso
+     *
+     * @param mapping Mapeo de la entidad
+     * @param key Clave primaria tal como se guarda en la tabla
+     * @return Futuro de la escritura, o null si la fila no tiene nada por escribir
+     */
+    public CompletableFuture<Void> pendingWrite(EntityMapping<?> mapping, Object key) {
+        PendingKey pendingKey = new PendingKey(mapping.table(), key);
+        PendingWrite write = pending.get(pendingKey);
+        if (write == null) {
+            write = inFlight.get(pendingKey);
+        }
+        return write != null && !write.completion().isDone() ? write.completion() : null;
+    }
+    
+    /**
+     * Registra el borrado de una entidad por su clave primaria
+     *
+     * @param mapping Mapeo de la entidad
+     * @param key Clave primaria tal como se guarda en la tabla
+     * @return Futuro que se completa cuando el borrado se escribe
+     */
+    public <T> CompletableFuture<Void> enqueueDelete(EntityMapping<T> mapping, Object key) {
+        return enqueue(mapping, key, null, null, FULL_ROW);
+    }
+    
+    private CompletableFuture<Void> enqueue(EntityMapping<?> mapping, Object key, Object[] row, BigDecimal[] increments,
+                                            long columns) {
+        if (closed.get()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Write-behind queue is closed"));
+        }
+        
+        if (!upsertStatements.containsKey(mapping)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Table " + mapping.table() + " is not managed by the write-behind queue"));
+        }
+        
+        enqueuedWrites.incrementAndGet();
+        
+        // Journal append and enqueue must not straddle a flush rotation
+        PendingWrite write;
+        journalLock.readLock().lock();
+        try {
+            appendToJournal(mapping, key, row);
+            write = pending.compute(new PendingKey(mapping.table(), key), (pendingKey, current) -> {
+                if (current == null) {
+                    return new PendingWrite(mapping, key, row, increments, columns, new CompletableFuture<>());
+                }
+                
+                coalescedWrites.incrementAndGet();
+                return current.isDelete()
+                    ? new PendingWrite(mapping, key, row, increments, columns, current.completion())
+                    : new PendingWrite(mapping, key, row, sum(current.increments(), increments),
+                        current.changedColumns() | columns, current.completion());
+            });
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        
+        if (pending.size() >= batchSize) {
+            requestFlush();
+        }
+        
+        return write.completion();
+    }
+    
+    /**
+     * Solicita un flush inmediato en el hilo de escritura
+     */
+    public void requestFlush() {
+        if (executor != null && !executor.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                flushRequested.set(false);
+                flushSafely();
+            });
+        }
+    }
+    
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado durante el flush write-behind", e);
+        }
+    }
+    
+    /**
+     * Escribe todas las filas pendientes como lotes JDBC
+     *
+     * Cada lote se confirma por separado. Si uno falla por conectividad, sus
+     * filas y las restantes vuelven a la cola para el siguiente intento; si
+     * falla por una fila inválida, solo esa fila se descarta. Con el breaker
+     * abierto o la cola retenida ({@link #hold()}) no se intenta nada y las
+     * filas siguen pendientes.
+     *
+     * @return Número de filas escritas
+     */
+    public synchronized int flush() {
+        return held.get() ? 0 : flushPending();
+    }
+    
+    /**
+     * Escribe lo pendiente y retiene los flush siguientes hasta {@link #resume()}
+     *
+     * Las mutaciones se siguen aceptando y anexando al journal, pero no se
+     * escriben: quien retiene la cola decide después si las descarta con
+     * {@link #discardPending(Set)}. Sirve para operaciones que reescriben
+     * tablas enteras, como el cierre de temporada.
+     *
+     * @return Número de filas escritas antes de retener la cola
+     * @throws IllegalStateException si el flush previo no pudo escribirlo todo
+     */
+    public synchronized int hold() {
+        long failures = failedFlushes.get() + deferredFlushes.get();
+        int written = flushPending();
+        if (failedFlushes.get() + deferredFlushes.get() != failures) {
+            throw new IllegalStateException("Pending writes could not be flushed before holding the queue");
+        }
+        held.set(true);
+        return written;
+    }
+    
+    /**
+     * Vuelve a permitir los flush y solicita uno inmediato
+     */
+    public void resume() {
+        if (held.compareAndSet(true, false)) {
+            requestFlush();
+        }
+    }
+    
+    /**
+     * Descarta las escrituras pendientes de las tablas indicadas
+     *
+     * Sus futuros fallan y el journal se reescribe sin ellas, para que no
+     * se reproduzcan al arrancar.
+     *
+     * @param tables Tablas cuyas filas pendientes ya no deben escribirse
+     * @return Número de filas descartadas
+     */
+    public synchronized int discardPending(Set<String> tables) {
+        List<PendingWrite> discarded = new ArrayList<>();
+        journalLock.writeLock().lock();
+        try {
+            for (PendingKey key : pending.keySet()) {
+                if (tables.contains(key.table())) {
+                    PendingWrite write = pending.remove(key);
+                    if (write != null) {
+                        discarded.add(write);
+                    }
+                }
+            }
+            if (!discarded.isEmpty()) {
+                rewriteJournal();
+            }
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        
+        for (PendingWrite write : discarded) {
+            write.completion().completeExceptionally(
+                new IllegalStateException("Write to " + write.mapping().table() + " discarded before reaching the database"));
+        }
+        discardedRows.addAndGet(discarded.size());
+        if (!discarded.isEmpty()) {
+            logger.info(String.format("Descartadas %d escrituras pendientes de %s", discarded.size(), tables));
+        }
+        return discarded.size();
+    }
+    
+    private int flushPending() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        if (breaker != null && !breaker.allowRequest()) {
+            deferredFlushes.incrementAndGet();
+            // Enqueues keep appending while the database is down; fold them into a fresh segment
+            rewriteJournal();
+            return 0;
+        }
+        
+        long start = System.currentTimeMillis();
+        long journalSegment;
+        List<PendingWrite> drained;
+        journalLock.writeLock().lock();
+        try {
+            journalSegment = rotateJournal();
+            drained = drain();
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        Set<PendingWrite> remaining = Collections.newSetFromMap(new IdentityHashMap<>());
+        remaining.addAll(drained);
+        
+        Map<EntityMapping<?>, List<PendingWrite>> upserts = new LinkedHashMap<>();
+        Map<EntityMapping<?>, List<PendingWrite>> deletes = new LinkedHashMap<>();
+        for (EntityMapping<?> mapping : writeOrder) {
+            upserts.put(mapping, new ArrayList<>());
+            deletes.put(mapping, new ArrayList<>());
+        }
+        
+        for (PendingWrite write : drained) {
+            Map<EntityMapping<?>, List<PendingWrite>> target = write.isDelete() ? deletes : upserts;
+            target.computeIfAbsent(write.mapping(), mapping -> new ArrayList<>()).add(write);
+        }
+        
+        int written = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            
+            try {
+                // Parents first for inserts, children first for deletes
+                for (Map.Entry<EntityMapping<?>, List<PendingWrite>> entry : upserts.entrySet()) {
+                    EntityMapping<?> mapping = entry.getKey();
+                    if (mapping instanceof VersionedMapping<?> versioned) {
+                        written += executeVersioned(connection, versioned, entry.getValue(), remaining);
+                    } else if (mapping instanceof TrackedMapping<?>) {
+                        written += executeTracked(connection, mapping, entry.getValue(), remaining);
+                    } else {
+                        written += executeBatches(connection, upsertStatements.get(mapping), entry.getValue(), remaining);
+                    }
+                }
+                
+                List<Map.Entry<EntityMapping<?>, List<PendingWrite>>> deleteGroups = new ArrayList<>(deletes.entrySet());
+                Collections.reverse(deleteGroups);
+                for (Map.Entry<EntityMapping<?>, List<PendingWrite>> entry : deleteGroups) {
+                    EntityMapping<?> mapping = entry.getKey();
+                    written += executeBatches(connection, deleteStatements.get(mapping), entry.getValue(), remaining);
+                    entry.getValue().forEach(write -> writtenVersions.remove(new PendingKey(mapping.table(), write.key())));
+                }
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            
+            if (breaker != null) {
+                breaker.recordOutcome(null);
+            }
+        
+        } catch (SQLException e) {
+            if (breaker != null) {
+                breaker.recordOutcome(e);
+            }
+            failedFlushes.incrementAndGet();
+            logger.log(Level.WARNING, String.format(
+                "Flush write-behind fallido, %d filas vuelven a la cola", remaining.size()), e);
+        }
+        
+        // Failed batches, plus rows still conflicting after every retry
+        remaining.forEach(this::requeue);
+        drained.forEach(write -> inFlight.remove(new PendingKey(write.mapping().table(), write.key()), write));
+        
+        // Every mutation in the older segments is now in the database or re-appended
+        if (journalSegment > 0 && (remaining.isEmpty() || compactJournal(remaining))) {
+            journal.deleteSegmentsBefore(journalSegment);
+        }
+        
+        flushedRows.addAndGet(written);
+        this.lastFlushRows = written;
+        this.lastFlushMillis = System.currentTimeMillis() - start;
+        
+        if (written > 0) {
+            logger.fine(String.format("Flush write-behind: %d filas en %dms", written, lastFlushMillis));
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Ejecuta un grupo de escrituras en lotes de batchSize, confirmando cada lote
+     */
+    private int executeBatches(Connection connection, NamedStatement write, List<PendingWrite> writes,
+                               Set<PendingWrite> remaining) throws SQLException {
+        if (writes.isEmpty()) {
+            return 0;
+        }
+        
+        int written = 0;
+        try (PreparedStatement statement = write.prepare(connection)) {
+            ChunkWriter writer = chunk -> {
+                statement.clearBatch();
+                for (PendingWrite pendingWrite : chunk) {
+                    if (pendingWrite.isDelete()) {
+                        JdbcValues.bind(statement, 1, pendingWrite.key());
+                        boundBytes.addAndGet(JdbcValues.sizeOf(pendingWrite.key()));
+                    } else {
+                        JdbcValues.bindAll(statement, 1, pendingWrite.row());
+                        for (Object value : pendingWrite.row()) {
+                            boundBytes.addAndGet(JdbcValues.sizeOf(value));
+                        }
+                    }
+                    statement.addBatch();
+                }
+                
+                write.execute(statement, PreparedStatement::executeBatch);
+                connection.commit();
+                
+                for (PendingWrite pendingWrite : chunk) {
+                    remaining.remove(pendingWrite);
+                    pendingWrite.completion().complete(null);
+                }
+                return chunk.size();
+            };
+            
+            for (int offset = 0; offset < writes.size(); offset += batchSize) {
+                written += writeIsolating(connection, writes.subList(offset, Math.min(offset + batchSize, writes.size())),
+                    writer, remaining);
+            }
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Escribe un lote aislando las filas con errores de datos
+     *
+     * Solo un error de datos o de integridad lo causa alguna fila del lote:
+     * se revierte y cada mitad se reintenta por separado hasta dejar la
+     * fila culpable sola, que se descarta con su futuro fallido. Cualquier
+     * otro error afecta a la sentencia o al servidor y se propaga, para que
+     * el flush devuelva lo pendiente a la cola.
+     */
+    private int writeIsolating(Connection connection, List<PendingWrite> chunk, ChunkWriter writer,
+                               Set<PendingWrite> remaining) throws SQLException {
+        try {
+            return writer.write(chunk);
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            if (!isRowError(e)) {
+                throw e;
+            }
+            
+            if (chunk.size() == 1) {
+                reject(chunk.get(0), e, remaining);
+                return 0;
+            }
+            
+            int middle = chunk.size() / 2;
+            return writeIsolating(connection, chunk.subList(0, middle), writer, remaining)
+                + writeIsolating(connection, chunk.subList(middle, chunk.size()), writer, remaining);
+        }
+    }
+    
+    /**
+     * Descarta una fila que la base de datos rechaza por sus datos
+     */
+    private void reject(PendingWrite write, SQLException error, Set<PendingWrite> remaining) {
+        remaining.remove(write);
+        rejectedRows.incrementAndGet();
+        logger.log(Level.WARNING, String.format("Fila de %s rechazada por la base de datos, se descarta (clave %s): %s",
+            write.mapping().table(), write.key(), error.getMessage()));
+        write.completion().completeExceptionally(error);
+    }
+    
+    /**
+     * Verifica si un error lo causan los datos de una fila concreta
+     *
+     * Solo las clases SQLSTATE 22 (datos) y 23 (integridad) se atribuyen a
+     * una fila. Tabla inexistente, permisos, disco lleno, base de datos de
+     * solo lectura o bloqueos fallarían igual con cualquier fila.
+     */
+    private static boolean isRowError(SQLException error) {
+        if (CircuitBreaker.isConnectivityFailure(error)) {
+            return false;
+        }
+        
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                && (sql.getSQLState().startsWith("22") || sql.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Escribe un grupo de filas versionadas con UPDATE condicional
+     * 
+     * Las filas que no actualizan nada se releen: si la fila existe con
+     * otra versión se reintenta sobre esa versión (los incrementos se
+     * suman al valor actual); si no existe se inserta. Las filas que siguen
+     * chocando tras {@link #MAX_CONFLICT_RETRIES} reintentos quedan en
+     * remaining para el siguiente flush.
+     */
+    private int executeVersioned(Connection connection, VersionedMapping<?> mapping, List<PendingWrite> writes,
+                                 Set<PendingWrite> remaining) throws SQLException {
+        int versionIndex = mapping.columns().size() - 1;
+        List<PendingWrite> absolute = new ArrayList<>();
+        List<PendingWrite> conditional = new ArrayList<>();
+        Map<PendingWrite, Long> expected = new IdentityHashMap<>();
+        
+        for (PendingWrite write : writes) {
+            if (write.increments() == null) {
+                absolute.add(write);
+                continue;
+            }
+            
+            // Our own previous write may be newer than the version the entity was loaded with
+            long rowVersion = ((Number) write.row()[versionIndex]).longValue();
+            Long written = writtenVersions.get(new PendingKey(mapping.table(), write.key()));
+            expected.put(write, written != null ? Math.max(written, rowVersion) : rowVersion);
+            conditional.add(write);
+        }
+        
+        int written = 0;
+        for (int attempt = 0; !conditional.isEmpty() && attempt <= MAX_CONFLICT_RETRIES; attempt++) {
+            if (attempt > 0) {
+                conflictRetries.addAndGet(conditional.size());
+            }
+            
+            List<PendingWrite> conflicts = new ArrayList<>();
+            written += executeUpdates(connection, mapping, conditional, expected, conflicts, remaining);
+            
+            conditional = new ArrayList<>();
+            for (PendingWrite conflict : conflicts) {
+                Long current = currentVersion(connection, mapping, conflict.key());
+                if (current == null) {
+                    absolute.add(conflict);
+                } else {
+                    versionConflicts.incrementAndGet();
+                    expected.put(conflict, current);
+                    conditional.add(conflict);
+                }
+            }
+        }
+        
+        if (!conditional.isEmpty()) {
+            logger.warning(String.format("%d filas de %s siguen en conflicto tras %d reintentos; se reintentan en el siguiente flush",
+                conditional.size(), mapping.table(), MAX_CONFLICT_RETRIES));
+        }
+        
+        // New rows and journal replays carry their full state; the upsert never moves an existing version back
+        written += executeBatches(connection, upsertStatements.get(mapping), absolute, remaining);
+        for (PendingWrite write : absolute) {
+            // The stored version is now unknown: the next conditional update re-reads it on conflict
+            writtenVersions.remove(new PendingKey(mapping.table(), write.key()));
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Escribe un grupo de filas con seguimiento de cambios
+     * 
+     * Las filas completas van directamente al upsert; el resto se escribe
+     * como UPDATE de sus columnas modificadas y, si la fila no existe, se
+     * inserta completa.
+     */
+    private int executeTracked(Connection connection, EntityMapping<?> mapping, List<PendingWrite> writes,
+                               Set<PendingWrite> remaining) throws SQLException {
+        List<PendingWrite> full = new ArrayList<>();
+        List<PendingWrite> partial = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            (write.changedColumns() == FULL_ROW ? full : partial).add(write);
+        }
+        
+        int written = executeUpdates(connection, mapping, partial, null, full, remaining);
+        return written + executeBatches(connection, upsertStatements.get(mapping), full, remaining);
+    }
+    
+    /**
+     * Ejecuta UPDATE por lotes, un lote por conjunto de columnas asignadas
+     * 
+     * Con expected (filas versionadas) cada UPDATE es condicional sobre esa
+     * versión. Las filas sin efecto van a unmatched: no existen o, si son
+     * versionadas, chocaron con otro escritor. Si el driver no informa del
+     * recuento por fila (SUCCESS_NO_INFO), un lote condicional se deshace y
+     * se repite fila a fila: darlo por aplicado perdería conflictos, y
+     * reintentarlo aplicaría dos veces los incrementos.
+     */
+    private int executeUpdates(Connection connection, EntityMapping<?> mapping, List<PendingWrite> writes,
+                               Map<PendingWrite, Long> expected, List<PendingWrite> unmatched,
+                               Set<PendingWrite> remaining) throws SQLException {
+        Map<Long, List<PendingWrite>> shapes = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            shapes.computeIfAbsent(assignedColumns(mapping, write), columns -> new ArrayList<>()).add(write);
+        }
+        
+        List<String> additive = mapping instanceof VersionedMapping<?> versioned ? versioned.additiveColumns() : List.of();
+        int written = 0;
+        for (Map.Entry<Long, List<PendingWrite>> shape : shapes.entrySet()) {
+            List<PendingWrite> group = shape.getValue();
+            UpdateStatement update = updateStatement(mapping, shape.getKey());
+            NamedStatement named = update.statement();
+            
+            try (PreparedStatement statement = named.prepare(connection)) {
+                SqlConsumer<PendingWrite> bind = write -> {
+                    int index = 1;
+                    for (int column : update.parameters()) {
+                        int increment = additive.indexOf(mapping.columns().get(column));
+                        Object value = increment >= 0 ? write.increments()[increment] : write.row()[column];
+                        JdbcValues.bind(statement, index++, value);
+                        boundBytes.addAndGet(JdbcValues.sizeOf(value));
+                    }
+                    JdbcValues.bind(statement, index++, write.key());
+                    boundBytes.addAndGet(JdbcValues.sizeOf(write.key()));
+                    if (expected != null) {
+                        JdbcValues.bind(statement, index, expected.get(write));
+                        boundBytes.addAndGet(Long.BYTES);
+                    }
+                };
+                
+                ChunkWriter writer = chunk -> {
+                    statement.clearBatch();
+                    for (PendingWrite write : chunk) {
+                        bind.accept(write);
+                        statement.addBatch();
+                    }
+                    
+                    int[] counts = named.execute(statement, PreparedStatement::executeBatch);
+                    if (expected != null && Arrays.stream(counts).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+                        connection.rollback();
+                        for (int i = 0; i < chunk.size(); i++) {
+                            bind.accept(chunk.get(i));
+                            counts[i] = named.execute(statement, PreparedStatement::executeUpdate);
+                        }
+                    }
+                    connection.commit();
+                    
+                    int applied = 0;
+                    for (int i = 0; i < chunk.size(); i++) {
+                        PendingWrite write = chunk.get(i);
+                        // SUCCESS_NO_INFO only remains for plain updates, which have no conflicts to lose
+                        if (counts[i] == 0) {
+                            unmatched.add(write);
+                            continue;
+                        }
+                        
+                        if (expected != null) {
+                            writtenVersions.put(new PendingKey(mapping.table(), write.key()), expected.get(write) + 1);
+                        }
+                        if (write.changedColumns() != FULL_ROW) {
+                            partialUpdates.incrementAndGet();
+                        }
+                        remaining.remove(write);
+                        write.completion().complete(null);
+                        applied++;
+                    }
+                    return applied;
+                };
+                
+                for (int offset = 0; offset < group.size(); offset += batchSize) {
+                    written += writeIsolating(connection, group.subList(offset, Math.min(offset + batchSize, group.size())),
+                        writer, remaining);
+                }
+            }
+        }
+        
+        return written;
+    }
+    
+    /**
+     * Lee la versión actual de una fila, o null si no existe
+     */
+    private Long currentVersion(Connection connection, VersionedMapping<?> mapping, Object key) throws SQLException {
+        NamedStatement query = versionQueries.get(mapping);
+        try (PreparedStatement statement = query.prepare(connection)) {
+            JdbcValues.bind(statement, 1, key);
+            try (ResultSet resultSet = query.execute(statement, PreparedStatement::executeQuery)) {
+                return resultSet.next() ? resultSet.getLong(1) : null;
+            }
+        }
+    }
+    
+    /**
+     * Suma dos listas de incrementos; null (estado completo) absorbe a la otra
+     */
+    private static BigDecimal[] sum(BigDecimal[] first, BigDecimal[] second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        
+        BigDecimal[] total = new BigDecimal[first.length];
+        for (int i = 0; i < total.length; i++) {
+            total[i] = first[i].add(second[i]);
+        }
+        return total;
+    }
+    
+    /**
+     * Anexa la mutación al journal; un fallo de disco no bloquea la escritura en memoria
+     */
+    private void appendToJournal(EntityMapping<?> mapping, Object key, Object[] row) {
+        if (journal == null) {
+            return;
+        }
+        
+        try {
+            journal.append(mapping.table(), key, row);
+        } catch (IOException e) {
+            Level level = journalFailures.getAndIncrement() == 0 ? Level.SEVERE : Level.FINE;
+            logger.log(level, "No se pudo escribir en el journal, la mutación solo queda en memoria", e);
+        }
+    }
+    
+    /**
+     * Rota el journal antes de drenar la cola
+     *
+     * @return Id del nuevo segmento, o -1 si no hay journal o la rotación falló
+     */
+    private long rotateJournal() {
+        if (journal == null) {
+            return -1;
+        }
+        
+        try {
+            return journal.rotate();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se pudo rotar el journal", e);
+            return -1;
+        }
+    }
+    
+    /**
+     * Vuelve a anexar al segmento actual el estado pendiente de las filas
+     * que no se escribieron, para poder borrar los segmentos anteriores
+     *
+     * Se anexa la escritura de la cola, no la fallida: si llegó una más
+     * reciente durante el flush, ya está en el segmento y debe seguir
+     * siendo la última al reproducir.
+     *
+     * @return true si todas las filas quedaron anexadas y forzadas a disco
+     */
+    private boolean compactJournal(Collection<PendingWrite> unwritten) {
+        journalLock.writeLock().lock();
+        try {
+            for (PendingWrite write : unwritten) {
+                PendingWrite current = pending.get(new PendingKey(write.mapping().table(), write.key()));
+                if (current != null) {
+                    journal.append(current.mapping().table(), current.key(), current.row());
+                }
+            }
+            journal.sync();
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se pudo compactar el journal, se conservan los segmentos anteriores", e);
+            return false;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Lleva el estado pendiente a un segmento nuevo y borra los anteriores
+     */
+    private void rewriteJournal() {
+        if (journal == null) {
+            return;
+        }
+        
+        journalLock.writeLock().lock();
+        try {
+            long segment = rotateJournal();
+            if (segment > 0 && compactJournal(List.copyOf(pending.values()))) {
+                journal.deleteSegmentsBefore(segment);
+            }
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Extrae atómicamente cada escritura pendiente de la cola
+     */
+    private List<PendingWrite> drain() {
+        List<PendingWrite> drained = new ArrayList<>(pending.size());
+        for (PendingKey key : pending.keySet()) {
+            PendingWrite write = pending.get(key);
+            if (write != null) {
+                // Tracked as in flight before leaving the queue, so pendingWrite never misses it
+                inFlight.put(key, write);
+                pending.remove(key);
+                drained.add(write);
+            }
+        }
+        return drained;
+    }
+    
+    /**
+     * Devuelve una escritura fallida a la cola sin pisar una versión más reciente
+     */
+    private void requeue(PendingWrite write) {
+        pending.compute(new PendingKey(write.mapping().table(), write.key()), (pendingKey, current) -> {
+            if (current == null) {
+                return write;
+            }
+            
+            // Increments of the failed write were never applied: carry them into the newer state
+            PendingWrite merged = current.isDelete() || write.isDelete() ? current
+                : new PendingWrite(current.mapping(), current.key(), current.row(), sum(write.increments(), current.increments()),
+                    write.changedColumns() | current.changedColumns(), current.completion());
+            
+            // A newer state was enqueued meanwhile: the old caller completes with it
+            current.completion().whenComplete((result, error) -> {
+                if (error != null) {
+                    write.completion().completeExceptionally(error);
+                } else {
+                    write.completion().complete(null);
+                }
+            });
+            return merged;
+        });
+    }
+    
+    private void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Error al revertir lote write-behind", e);
+        }
+    }
+    
+    /**
+     * Detiene el hilo de escritura y realiza un último flush síncrono
+     */
+    public void shutdown() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        int written = flush();
+        boolean flushed = pending.isEmpty();
+        if (!flushed) {
+            logger.severe(String.format("Cola write-behind cerrada con %d filas sin escribir%s", pending.size(),
+                journal != null ? "; se conservan en el journal para el próximo arranque" : ""));
+            for (PendingWrite write : drain()) {
+                write.completion().completeExceptionally(new IllegalStateException("Write-behind queue closed before flush"));
+            }
+            inFlight.clear();
+        } else {
+            logger.info(String.format("Cola write-behind cerrada (flush final: %d filas)", written));
+        }
+        
+        if (journal != null) {
+            journal.close(flushed);
+        }
+    }
+    
+    /**
+     * Número de filas pendientes de escribir
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Obtiene el journal de mutaciones, o null si está desactivado
+     */
+    public WriteJournal getJournal() {
+        return journal;
+    }
+    
+    /**
+     * Obtiene un resumen del estado de la cola
+     *
+     * @return Información de la cola
+     */
+    public String getStatus() {
+        return String.format(
+            "Write-behind - Pending: %d, Enqueued: %d, Coalesced: %d, Flushed: %d, Failed flushes: %d, Rejected rows: %d, Discarded rows: %d, Held: %s, Deferred flushes: %d, Journal failures: %d, Version conflicts: %d (retries %d), Partial updates: %d, Bound: %d KB, Last flush: %d rows in %dms",
+            pending.size(),
+            enqueuedWrites.get(),
+            coalescedWrites.get(),
+            flushedRows.get(),
+            failedFlushes.get(),
+            rejectedRows.get(),
+            discardedRows.get(),
+            held.get(),
+            deferredFlushes.get(),
+            journalFailures.get(),
+            versionConflicts.get(),
+            conflictRetries.get(),
+            partialUpdates.get(),
+            boundBytes.get() / 1024,
+            lastFlushRows,
+            lastFlushMillis
+        );
+    }
+    
+    /**
+     * Clave de coalescencia: tabla + clave primaria
+     */
+    private record PendingKey(String table, Object key) {}
+    
+    /**
+     * Número de filas que chocaron con la versión de otro escritor
+     */
+    public long getVersionConflicts() {
+        return versionConflicts.get();
+    }
+    
+    /**
+     * Bytes aproximados de parámetros enviados a la base de datos desde el arranque
+     */
+    public long getBoundBytes() {
+        return boundBytes.get();
+    }
+    
+    /**
+     * Filas descartadas por errores de datos desde el arranque
+     */
+    public long getRejectedRows() {
+        return rejectedRows.get();
+    }
+    
+    /**
+     * Escribe y confirma un lote; devuelve las filas aplicadas
+     */
+    @FunctionalInterface
+    private interface ChunkWriter {
+        int write(List<PendingWrite> chunk) throws SQLException;
+    }
+    
+    /**
+     * Enlaza los parámetros de una fila en la sentencia
+     */
+    @FunctionalInterface
+    private interface SqlConsumer<T> {
+        void accept(T value) throws SQLException;
+    }
+    
+    /**
+     * Sentencia UPDATE de un mapeo para un conjunto de columnas
+     */
+    private record UpdateShape(EntityMapping<?> mapping, long columns) {}
+    
+    /**
+     * Sentencia UPDATE registrada y las columnas cuyos valores enlaza, en orden
+     */
+    private record UpdateStatement(NamedStatement statement, List<Integer> parameters) {}
+    
+    /**
+     * Escritura pendiente; row == null indica un borrado. increments lleva
+     * los incrementos aditivos de un {@link VersionedMapping}, o null si la
+     * fila se escribe con su estado completo. changedColumns es la máscara
+     * de columnas modificadas de un {@link TrackedMapping}, o FULL_ROW
+     */
+    private record PendingWrite(EntityMapping<?> mapping, Object key, Object[] row, BigDecimal[] increments,
+                                long changedColumns, CompletableFuture<Void> completion) {
+        
+        boolean isDelete() {
+            return row == null;
+        }
+    }
+}
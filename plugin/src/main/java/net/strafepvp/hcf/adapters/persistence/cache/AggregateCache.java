@@ -0,0 +1,184 @@
+package net.strafepvp.hcf.adapters.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache read-through de agregados basado en Caffeine
+ *
+ * Las lecturas que fallan en memoria se cargan desde el repositorio
+ * subyacente y se almacenan, incluidos los resultados vacíos. Las escrituras
+ * invalidan la entrada y la sustituyen por el agregado recién escrito, de
+ * modo que la siguiente lectura no recarga una fila que la cola write-behind
+ * todavía no ha persistido.
+ *
+ * Los agregados cargados por consultas de colección se canonicalizan: si la
+ * entrada ya está en memoria se devuelve esa misma instancia, para que todo
+ * el plugin comparta un único objeto mutable por clave.
+ *
+ * Con una fuente residente ({@link #setResident}) esa fuente es la
+ * autoritativa: las cargas y la canonicalización devuelven su instancia
+ * antes de consultar la base de datos, así que desalojar una entrada por
+ * tamaño o inactividad nunca produce una copia distinta de la residente.
+ *
+ * @param <K> Tipo de clave
+ * @param <V> Tipo de agregado
+ * @author mayk0l
+ */
+public class AggregateCache<K, V> {
+    
+    private final String name;
+    private final Function<V, K> keyExtractor;
+    private final AsyncLoadingCache<K, Optional<V>> cache;
+    private volatile Function<K, V> resident = key -> null;
+    
+    public AggregateCache(String name, int maxSize, int ttlMinutes,
+                          Function<K, CompletableFuture<Optional<V>>> loader, Function<V, K> keyExtractor) {
+        this.name = name;
+        this.keyExtractor = keyExtractor;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(ttlMinutes, TimeUnit.MINUTES)
+            .recordStats()
+            .buildAsync((key, executor) -> {
+                V owned = resident.apply(key);
+                return owned != null ? CompletableFuture.completedFuture(Optional.of(owned)) : loader.apply(key);
+            });
+    }
+    
+    /**
+     * Declara la fuente autoritativa de los agregados residentes en memoria
+     *
+     * @param resident Devuelve la instancia residente de una clave, o null si no la tiene
+     */
+    public void setResident(Function<K, V> resident) {
+        this.resident = resident;
+    }
+    
+    /**
+     * Obtiene el agregado, cargándolo si no está en memoria
+     */
+    public CompletableFuture<Optional<V>> get(K key) {
+        return cache.get(key);
+    }
+    
+    /**
+     * Lectura puramente en memoria, sin carga ni bloqueo
+     * 
+     * @return El agregado si ya está cargado; vacío si no está o aún se está cargando
+     */
+    public Optional<V> getIfLoaded(K key) {
+        CompletableFuture<Optional<V>> future = cache.getIfPresent(key);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return future.join();
+    }
+    
+    /**
+     * Devuelve la instancia en memoria para el agregado cargado, registrándolo si no existe
+     */
+    public V canonicalize(V loaded) {
+        K key = keyExtractor.apply(loaded);
+        V owned = resident.apply(key);
+        if (owned != null) {
+            return owned;
+        }
+        
+        CompletableFuture<Optional<V>> fresh = CompletableFuture.completedFuture(Optional.of(loaded));
+        CompletableFuture<Optional<V>> existing = cache.asMap().putIfAbsent(key, fresh);
+        
+        if (existing != null && existing.isDone() && !existing.isCompletedExceptionally()) {
+            Optional<V> cached = existing.join();
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            
+            // Stale negative entry: the row exists now
+            cache.put(key, fresh);
+        }
+        
+        return loaded;
+    }
+    
+    /**
+     * Canonicaliza cada agregado de una lista
+     */
+    public List<V> canonicalizeAll(List<V> loaded) {
+        List<V> result = new ArrayList<>(loaded.size());
+        for (V value : loaded) {
+            result.add(canonicalize(value));
+        }
+        return result;
+    }
+    
+    /**
+     * Invalida la entrada y la sustituye por el agregado recién escrito
+     */
+    public void written(V value) {
+        K key = keyExtractor.apply(value);
+        cache.synchronous().invalidate(key);
+        cache.put(key, CompletableFuture.completedFuture(Optional.of(value)));
+    }
+    
+    /**
+     * Invalida la entrada y registra que la clave ya no existe
+     */
+    public void deleted(K key) {
+        cache.synchronous().invalidate(key);
+        cache.put(key, CompletableFuture.completedFuture(Optional.empty()));
+    }
+    
+    /**
+     * Descarta la entrada; la siguiente lectura recargará desde la base de datos
+     */
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+    
+    /**
+     * Descarta todas las entradas
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+    
+    /**
+     * Estadísticas acumuladas de aciertos, fallos y desalojos
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+    
+    /**
+     * Número aproximado de entradas en memoria
+     */
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+    
+    /**
+     * Obtiene un resumen del estado del cache
+     */
+    public String getStatus() {
+        CacheStats stats = stats();
+        return String.format(
+            "%s - Size: %d, Hits: %d, Misses: %d, Hit rate: %.1f%%, Evictions: %d, Load failures: %d",
+            name,
+            estimatedSize(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate() * 100,
+            stats.evictionCount(),
+            stats.loadFailureCount()
+        );
+    }
+}
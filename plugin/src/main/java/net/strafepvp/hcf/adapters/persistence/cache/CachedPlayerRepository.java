@@ -0,0 +1,172 @@
+package net.strafepvp.hcf.adapters.persistence.cache;
+
+import net.strafepvp.hcf.adapters.persistence.invalidation.Invalidation;
+import net.strafepvp.hcf.adapters.persistence.invalidation.InvalidationBus;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.PlayerRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Decorador de {@link PlayerRepository} con cache read-through por PlayerId
+ *
+ * Con un {@link InvalidationBus}, cada escritura confirmada en la base de
+ * datos se anuncia a los demás servidores, y los avisos de estos desalojan
+ * la entrada local para que la siguiente lectura cargue la fila nueva.
+ *
+ * @author mayk0l
+ */
+public class CachedPlayerRepository implements PlayerRepository {
+    
+    private final PlayerRepository delegate;
+    private final PrimaryReads<PlayerId, HCFPlayer> primary;
+    private final AggregateCache<PlayerId, HCFPlayer> cache;
+    private final InvalidationBus invalidations;
+    private volatile BiConsumer<PlayerId, Optional<HCFPlayer>> residentUpdate;
+    
+    public CachedPlayerRepository(PlayerRepository delegate, int maxSize, int ttlMinutes) {
+        this(delegate, null, maxSize, ttlMinutes, null);
+    }
+    
+    /**
+     * @param delegate Repositorio que además lee del primario para aplicar los avisos
+     */
+    public <R extends PlayerRepository & PrimaryReads<PlayerId, HCFPlayer>> CachedPlayerRepository(R delegate, int maxSize,
+                                                                                  int ttlMinutes, InvalidationBus invalidations) {
+        this(delegate, delegate, maxSize, ttlMinutes, invalidations);
+    }
+    
+    private CachedPlayerRepository(PlayerRepository delegate, PrimaryReads<PlayerId, HCFPlayer> primary, int maxSize, int ttlMinutes,
+                                   InvalidationBus invalidations) {
+        this.delegate = delegate;
+        this.primary = primary;
+        this.invalidations = invalidations;
+        this.cache = new AggregateCache<>("Players", maxSize, ttlMinutes, delegate::findById, HCFPlayer::getId);
+        
+        if (invalidations != null) {
+            invalidations.subscribe(Invalidation.Kind.PLAYER, id -> refresh(new PlayerId(id)));
+        }
+    }
+    
+    /**
+     * Hace del índice de estado la fuente autoritativa de los agregados
+     *
+     * Las lecturas consultan primero el índice; las escrituras, borrados y
+     * avisos de otros servidores lo actualizan antes que al cache.
+     *
+     * @param lookup Instancia indexada de una clave, o null
+     * @param update Sustituye (presente) o retira (vacío) la instancia indexada
+     */
+    public void setResident(Function<PlayerId, HCFPlayer> lookup, BiConsumer<PlayerId, Optional<HCFPlayer>> update) {
+        cache.setResident(lookup);
+        this.residentUpdate = update;
+    }
+    
+    @Override
+    public CompletableFuture<Optional<HCFPlayer>> findById(PlayerId id) {
+        return cache.get(id);
+    }
+    
+    /**
+     * Lectura en memoria para rutas calientes (chat, daño); no consulta la base de datos
+     */
+    public Optional<HCFPlayer> getIfLoaded(PlayerId id) {
+        return cache.getIfLoaded(id);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<HCFPlayer>> findByUsername(String username) {
+        return delegate.findByUsername(username).thenApply(player -> player.map(cache::canonicalize));
+    }
+    
+    @Override
+    public CompletableFuture<List<HCFPlayer>> findByTeam(TeamId teamId) {
+        return delegate.findByTeam(teamId).thenApply(cache::canonicalizeAll);
+    }
+    
+    @Override
+    public CompletableFuture<Void> save(HCFPlayer player) {
+        updateResident(player.getId(), Optional.of(player));
+        cache.written(player);
+        return delegate.save(player).whenComplete((result, error) -> {
+            if (error != null) {
+                cache.invalidate(player.getId());
+            } else {
+                announce(player.getId());
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> delete(PlayerId id) {
+        updateResident(id, Optional.empty());
+        cache.deleted(id);
+        return delegate.delete(id).whenComplete((result, error) -> {
+            if (error != null) {
+                cache.invalidate(id);
+            } else {
+                announce(id);
+            }
+        });
+    }
+    
+    /**
+     * Aplica el aviso de otro servidor: relee la fila del primario y
+     * sustituye la instancia indexada, o solo desaloja la entrada si no hay
+     * índice
+     *
+     * Mientras haya una escritura propia de la fila sin confirmar, la
+     * instancia indexada es más reciente que la base de datos: la relectura
+     * se pospone hasta que esa escritura termina.
+     */
+    private void refresh(PlayerId id) {
+        cache.invalidate(id);
+        if (residentUpdate == null || deferWhilePending(id)) {
+            return;
+        }
+        
+        primary.findOnPrimary(id).thenAccept(fresh -> {
+            // A local write enqueued during the read is not in this row either
+            if (deferWhilePending(id)) {
+                return;
+            }
+            updateResident(id, fresh);
+            fresh.ifPresentOrElse(cache::written, () -> cache.deleted(id));
+        });
+    }
+    
+    private boolean deferWhilePending(PlayerId id) {
+        CompletableFuture<Void> pending = primary.pendingWrite(id);
+        if (pending == null) {
+            return false;
+        }
+        pending.whenComplete((result, error) -> refresh(id));
+        return true;
+    }
+    
+    private void updateResident(PlayerId id, Optional<HCFPlayer> value) {
+        BiConsumer<PlayerId, Optional<HCFPlayer>> update = residentUpdate;
+        if (update != null) {
+            update.accept(id, value);
+        }
+    }
+    
+    private void announce(PlayerId id) {
+        if (invalidations != null) {
+            invalidations.publish(Invalidation.Kind.PLAYER, id.value());
+        }
+    }
+    
+    /**
+     * Obtiene el cache subyacente
+     */
+    public AggregateCache<PlayerId, HCFPlayer> getCache() {
+        return cache;
+    }
+}
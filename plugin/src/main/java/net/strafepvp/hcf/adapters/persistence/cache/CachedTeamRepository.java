@@ -0,0 +1,171 @@
+package net.strafepvp.hcf.adapters.persistence.cache;
+
+import net.strafepvp.hcf.adapters.persistence.invalidation.Invalidation;
+import net.strafepvp.hcf.adapters.persistence.invalidation.InvalidationBus;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.TeamRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Decorador de {@link TeamRepository} con cache read-through por TeamId
+ *
+ * Con un {@link InvalidationBus}, cada escritura confirmada en la base de
+ * datos se anuncia a los demás servidores, y los avisos de estos desalojan
+ * la entrada local para que la siguiente lectura cargue la fila nueva.
+ *
+ * @author mayk0l
+ */
+public class CachedTeamRepository implements TeamRepository {
+    
+    private final TeamRepository delegate;
+    private final PrimaryReads<TeamId, Team> primary;
+    private final AggregateCache<TeamId, Team> cache;
+    private final InvalidationBus invalidations;
+    private volatile BiConsumer<TeamId, Optional<Team>> residentUpdate;
+    
+    public CachedTeamRepository(TeamRepository delegate, int maxSize, int ttlMinutes) {
+        this(delegate, null, maxSize, ttlMinutes, null);
+    }
+    
+    /**
+     * @param delegate Repositorio que además lee del primario para aplicar los avisos
+     */
+    public <R extends TeamRepository & PrimaryReads<TeamId, Team>> CachedTeamRepository(R delegate, int maxSize,
+                                                                                  int ttlMinutes, InvalidationBus invalidations) {
+        this(delegate, delegate, maxSize, ttlMinutes, invalidations);
+    }
+    
+    private CachedTeamRepository(TeamRepository delegate, PrimaryReads<TeamId, Team> primary, int maxSize, int ttlMinutes,
+                                   InvalidationBus invalidations) {
+        this.delegate = delegate;
+        this.primary = primary;
+        this.invalidations = invalidations;
+        this.cache = new AggregateCache<>("Teams", maxSize, ttlMinutes, delegate::findById, Team::getId);
+        
+        if (invalidations != null) {
+            invalidations.subscribe(Invalidation.Kind.TEAM, id -> refresh(new TeamId(id)));
+        }
+    }
+    
+    /**
+     * Hace del índice de estado la fuente autoritativa de los agregados
+     *
+     * Las lecturas consultan primero el índice; las escrituras, borrados y
+     * avisos de otros servidores lo actualizan antes que al cache.
+     *
+     * @param lookup Instancia indexada de una clave, o null
+     * @param update Sustituye (presente) o retira (vacío) la instancia indexada
+     */
+    public void setResident(Function<TeamId, Team> lookup, BiConsumer<TeamId, Optional<Team>> update) {
+        cache.setResident(lookup);
+        this.residentUpdate = update;
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Team>> findById(TeamId id) {
+        return cache.get(id);
+    }
+    
+    /**
+     * Lectura en memoria para rutas calientes (chat, daño); no consulta la base de datos
+     */
+    public Optional<Team> getIfLoaded(TeamId id) {
+        return cache.getIfLoaded(id);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Team>> findByName(String name) {
+        return delegate.findByName(name).thenApply(team -> team.map(cache::canonicalize));
+    }
+    
+    @Override
+    public CompletableFuture<List<Team>> findAll() {
+        return delegate.findAll().thenApply(cache::canonicalizeAll);
+    }
+    
+    @Override
+    public CompletableFuture<Void> save(Team team) {
+        updateResident(team.getId(), Optional.of(team));
+        cache.written(team);
+        return delegate.save(team).whenComplete((result, error) -> {
+            if (error != null) {
+                cache.invalidate(team.getId());
+            } else {
+                announce(team.getId());
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> delete(TeamId id) {
+        updateResident(id, Optional.empty());
+        cache.deleted(id);
+        return delegate.delete(id).whenComplete((result, error) -> {
+            if (error != null) {
+                cache.invalidate(id);
+            } else {
+                announce(id);
+            }
+        });
+    }
+    
+    /**
+     * Aplica el aviso de otro servidor: relee la fila del primario y
+     * sustituye la instancia indexada, o solo desaloja la entrada si no hay
+     * índice
+     *
+     * Mientras haya una escritura propia de la fila sin confirmar, la
+     * instancia indexada es más reciente que la base de datos: la relectura
+     * se pospone hasta que esa escritura termina.
+     */
+    private void refresh(TeamId id) {
+        cache.invalidate(id);
+        if (residentUpdate == null || deferWhilePending(id)) {
+            return;
+        }
+        
+        primary.findOnPrimary(id).thenAccept(fresh -> {
+            // A local write enqueued during the read is not in this row either
+            if (deferWhilePending(id)) {
+                return;
+            }
+            updateResident(id, fresh);
+            fresh.ifPresentOrElse(cache::written, () -> cache.deleted(id));
+        });
+    }
+    
+    private boolean deferWhilePending(TeamId id) {
+        CompletableFuture<Void> pending = primary.pendingWrite(id);
+        if (pending == null) {
+            return false;
+        }
+        pending.whenComplete((result, error) -> refresh(id));
+        return true;
+    }
+    
+    private void updateResident(TeamId id, Optional<Team> value) {
+        BiConsumer<TeamId, Optional<Team>> update = residentUpdate;
+        if (update != null) {
+            update.accept(id, value);
+        }
+    }
+    
+    private void announce(TeamId id) {
+        if (invalidations != null) {
+            invalidations.publish(Invalidation.Kind.TEAM, id.value());
+        }
+    }
+    
+    /**
+     * Obtiene el cache subyacente
+     */
+    public AggregateCache<TeamId, Team> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,30 @@
+package net.strafepvp.hcf.adapters.persistence.cache;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lecturas de un repositorio que deben ver las escrituras de este servidor
+ *
+ * Las usan los caches al aplicar avisos de otros servidores: la fila se
+ * relee del primario, nunca de una réplica, y no se relee mientras haya
+ * una escritura propia de esa clave sin llegar a la base de datos.
+ *
+ * @param <K> Tipo de clave
+ * @param <V> Tipo de agregado
+ * @author mayk0l
+ */
+public interface PrimaryReads<K, V> {
+    
+    /**
+     * Lee la fila por la ruta de escritura
+     */
+    CompletableFuture<Optional<V>> findOnPrimary(K id);
+    
+    /**
+     * Escritura propia de la clave aún sin confirmar
+     *
+     * @return Futuro de la escritura, o null si no hay ninguna
+     */
+    CompletableFuture<Void> pendingWrite(K id);
+}
@@ -0,0 +1,199 @@
+package net.strafepvp.hcf.adapters.persistence.checkpoint;
+
+import net.strafepvp.hcf.adapters.persistence.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Checkpoints en disco de una base de datos H2 en memoria
+ *
+ * Vuelca la base de datos completa con SCRIPT TO a un fichero comprimido a
+ * intervalo fijo, en un hilo propio, y la restaura con RUNSCRIPT al
+ * arrancar. Las consultas siguen yendo a memoria; la pérdida de datos ante
+ * una caída queda acotada al intervalo de checkpoint.
+ *
+ * @author mayk0l
+ */
+public class MemoryCheckpointer {
+    
+    private final ConnectionProvider connections;
+    private final Path file;
+    private final long intervalMillis;
+    private final Logger logger;
+    
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastBytes = -1;
+    private volatile long lastMillis = -1;
+    private volatile long lastCheckpointAt = 0;
+    private ScheduledExecutorService executor;
+    
+    /**
+     * @param connections Conexiones a la base de datos en memoria
+     * @param file Fichero de checkpoint (SQL comprimido con GZIP)
+     * @param intervalMillis Intervalo entre checkpoints
+     */
+    public MemoryCheckpointer(ConnectionProvider connections, Path file, long intervalMillis, Logger logger) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be greater than 0");
+        }
+        
+        this.connections = connections;
+        this.file = file;
+        this.intervalMillis = intervalMillis;
+        this.logger = logger;
+    }
+    
+    /**
+     * Restaura el último checkpoint si existe y la base de datos está vacía
+     * 
+     * Una base de datos que ya tiene tablas (por ejemplo tras /reload, que
+     * conserva la base de datos en memoria) no se toca.
+     * 
+     * @return true si se restauró el checkpoint
+     */
+    public boolean restore() throws SQLException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        
+        try (Connection connection = connections.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet tables = statement.executeQuery(
+                     "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+                if (tables.next() && tables.getInt(1) > 0) {
+                    return false;
+                }
+            }
+            
+            long start = System.nanoTime();
+            statement.execute("RUNSCRIPT FROM " + literal(file) + " COMPRESSION GZIP");
+            logger.info(String.format("Checkpoint restaurado desde %s en %d ms",
+                file.getFileName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            return true;
+        }
+    }
+    
+    /**
+     * Programa checkpoints periódicos
+     */
+    public void start() {
+        if (executor != null) {
+            return;
+        }
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StrafeHCF-Checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkpointSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Escribe un checkpoint en el hilo actual
+     * 
+     * El volcado va a un fichero temporal que reemplaza al anterior al
+     * terminar, de modo que una caída a mitad nunca deja un checkpoint a medias.
+     * 
+     * @return Tamaño en bytes del checkpoint
+     */
+    public synchronized long checkpoint() throws SQLException {
+        long start = System.nanoTime();
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Connection connection = connections.getConnection()) {
+                // A single snapshot across tables, so a batch flushed mid-dump is either fully in or out
+                connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SCRIPT TO " + literal(partial) + " COMPRESSION GZIP");
+                } finally {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                    connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                }
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            
+            this.lastBytes = Files.size(file);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+        
+        this.lastMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.lastCheckpointAt = System.currentTimeMillis();
+        checkpoints.incrementAndGet();
+        return lastBytes;
+    }
+    
+    private void checkpointSafely() {
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error al escribir el checkpoint de la base de datos en memoria", e);
+        }
+    }
+    
+    private static String literal(Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+    
+    public long getCheckpointCount() {
+        return checkpoints.get();
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Detiene los checkpoints periódicos; el checkpoint final lo escribe el
+     * llamador después de vaciar la cola de escritura
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+    
+    /**
+     * Obtiene un resumen del estado de los checkpoints
+     */
+    public String getStatus() {
+        long ageMillis = lastCheckpointAt > 0 ? System.currentTimeMillis() - lastCheckpointAt : -1;
+        return String.format("Checkpoint - Count: %d, Failures: %d, Last: %d KB in %dms (%dms ago), Interval: %ds",
+            checkpoints.get(),
+            failures.get(),
+            lastBytes >= 0 ? lastBytes / 1024 : -1,
+            lastMillis,
+            ageMillis,
+            TimeUnit.MILLISECONDS.toSeconds(intervalMillis));
+    }
+}
@@ -0,0 +1,130 @@
+package net.strafepvp.hcf.adapters.persistence.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Codificación binaria compacta de los valores JDBC de una fila
+ *
+ * Cubre los tipos que producen los mapeos de entidades: texto, UUID,
+ * enteros, booleanos, decimales y marcas de tiempo. Cada valor va precedido
+ * de una etiqueta de tipo de un byte.
+ *
+ * @author mayk0l
+ */
+public final class RowCodec {
+    
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte UUID_VALUE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte DECIMAL = 7;
+    private static final byte TIMESTAMP = 8;
+    
+    private RowCodec() {
+    }
+    
+    /**
+     * Escribe una fila completa precedida de su número de columnas
+     */
+    public static void writeRow(DataOutput out, Object[] row) throws IOException {
+        out.writeShort(row.length);
+        for (Object value : row) {
+            writeValue(out, value);
+        }
+    }
+    
+    /**
+     * Lee una fila escrita con {@link #writeRow(DataOutput, Object[])}
+     */
+    public static Object[] readRow(DataInput in) throws IOException {
+        Object[] row = new Object[in.readUnsignedShort()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = readValue(in);
+        }
+        return row;
+    }
+    
+    /**
+     * Escribe un valor JDBC con su etiqueta de tipo
+     */
+    public static void writeValue(DataOutput out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case String string -> {
+                out.writeByte(STRING);
+                out.writeUTF(string);
+            }
+            case UUID uuid -> {
+                out.writeByte(UUID_VALUE);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            case Integer number -> {
+                out.writeByte(INT);
+                out.writeInt(number);
+            }
+            case Long number -> {
+                out.writeByte(LONG);
+                out.writeLong(number);
+            }
+            case Boolean bool -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(bool);
+            }
+            case Double number -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number);
+            }
+            case BigDecimal decimal -> {
+                out.writeByte(DECIMAL);
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                out.writeInt(decimal.scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+            case Timestamp timestamp -> {
+                out.writeByte(TIMESTAMP);
+                out.writeLong(timestamp.getTime());
+                out.writeInt(timestamp.getNanos());
+            }
+            default -> throw new IOException("Unsupported column value type: " + value.getClass().getName());
+        }
+    }
+    
+    /**
+     * Lee un valor escrito con {@link #writeValue(DataOutput, Object)}
+     */
+    public static Object readValue(DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> in.readUTF();
+            case UUID_VALUE -> new UUID(in.readLong(), in.readLong());
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case BOOLEAN -> in.readBoolean();
+            case DOUBLE -> in.readDouble();
+            case DECIMAL -> {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                yield new BigDecimal(new BigInteger(unscaled), scale);
+            }
+            case TIMESTAMP -> {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                yield timestamp;
+            }
+            default -> throw new IOException("Unknown column value tag: " + type);
+        };
+    }
+}
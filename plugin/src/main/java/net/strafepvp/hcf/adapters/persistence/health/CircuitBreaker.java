@@ -0,0 +1,232 @@
+package net.strafepvp.hcf.adapters.persistence.health;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker de la base de datos
+ *
+ * Se abre tras failure_threshold fallos de conectividad seguidos, contando
+ * como fallo cada sonda más lenta que slow_call_ms. Mientras está abierto
+ * las operaciones fallan de inmediato en lugar de esperar al timeout del
+ * pool, y las escrituras se acumulan en la cola write-behind. Pasado
+ * open_seconds queda semiabierto: la siguiente sonda de salud hace de
+ * petición de prueba y lo cierra si tiene éxito o lo reabre si falla.
+ *
+ * La comprobación {@link #allowRequest()} es una lectura volátil, segura
+ * desde el hilo principal.
+ *
+ * @author mayk0l
+ */
+public class CircuitBreaker {
+    
+    /**
+     * Estados del breaker
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final Logger logger;
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+    
+    private volatile boolean open;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trips;
+    private String lastFailure;
+    
+    public CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis, Logger logger) {
+        this(failureThreshold, slowCallMillis, openMillis, System::currentTimeMillis, logger);
+    }
+    
+    CircuitBreaker(int failureThreshold, long slowCallMillis, long openMillis, LongSupplier clock, Logger logger) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be greater than 0");
+        }
+        
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openMillis = openMillis;
+        this.clock = clock;
+        this.logger = logger;
+    }
+    
+    /**
+     * Indica si se permiten operaciones contra la base de datos
+     */
+    public boolean allowRequest() {
+        return !open;
+    }
+    
+    /**
+     * Registra una operación exitosa
+     *
+     * Una operación más lenta que slow_call_ms cuenta como fallo. Estando
+     * abierto, solo cierra el breaker una vez transcurrido open_seconds.
+     *
+     * @param latencyNanos Duración de la operación
+     */
+    public void recordSuccess(long latencyNanos) {
+        if (slowCallNanos > 0 && latencyNanos > slowCallNanos) {
+            recordFailure(String.format("Slow call: %dms", TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+            return;
+        }
+        
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (!open || clock.getAsLong() - openedAt < openMillis) {
+                return;
+            }
+            open = false;
+        }
+        
+        logger.info("Circuit breaker de base de datos cerrado, operaciones reanudadas");
+        notifyListeners(State.CLOSED);
+    }
+    
+    /**
+     * Registra un fallo de conectividad
+     *
+     * @param reason Descripción del fallo
+     */
+    public void recordFailure(String reason) {
+        boolean tripped = false;
+        synchronized (this) {
+            lastFailure = reason;
+            consecutiveFailures++;
+            
+            if (open) {
+                // A failed trial restarts the cool-down
+                if (clock.getAsLong() - openedAt >= openMillis) {
+                    openedAt = clock.getAsLong();
+                }
+            } else if (consecutiveFailures >= failureThreshold) {
+                open = true;
+                openedAt = clock.getAsLong();
+                trips++;
+                tripped = true;
+            }
+        }
+        
+        if (tripped) {
+            logger.warning(String.format("Circuit breaker de base de datos abierto tras %d fallos (%s); modo degradado",
+                failureThreshold, reason));
+            notifyListeners(State.OPEN);
+        }
+    }
+    
+    /**
+     * Abre el breaker de inmediato, por ejemplo si la base de datos no responde al arrancar
+     *
+     * @param reason Descripción del fallo
+     */
+    public void trip(String reason) {
+        synchronized (this) {
+            lastFailure = reason;
+            if (open) {
+                return;
+            }
+            
+            open = true;
+            openedAt = clock.getAsLong();
+            trips++;
+        }
+        
+        logger.warning("Circuit breaker de base de datos abierto (" + reason + "); modo degradado");
+        notifyListeners(State.OPEN);
+    }
+    
+    /**
+     * Registra el resultado de una operación según el tipo de error
+     *
+     * Solo los errores de conectividad cuentan como fallo; un error de SQL
+     * (restricción, sintaxis) no dice nada sobre la salud del servidor. La
+     * latencia no se evalúa aquí porque una carga masiva puede ser lenta
+     * legítimamente; los picos de latencia los detecta la sonda.
+     *
+     * @param error Error de la operación, o null si tuvo éxito
+     */
+    public void recordOutcome(Throwable error) {
+        if (error == null) {
+            synchronized (this) {
+                if (!open) {
+                    consecutiveFailures = 0;
+                }
+            }
+        } else if (isConnectivityFailure(error)) {
+            recordFailure(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        }
+    }
+    
+    /**
+     * Estado actual; HALF_OPEN si ya pasó el tiempo de espera y se aguarda la sonda de prueba
+     */
+    public synchronized State getState() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return clock.getAsLong() - openedAt >= openMillis ? State.HALF_OPEN : State.OPEN;
+    }
+    
+    /**
+     * Registra un consumidor de transiciones; recibe OPEN o CLOSED
+     */
+    public void addListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+    
+    private void notifyListeners(State state) {
+        for (Consumer<State> listener : listeners) {
+            try {
+                listener.accept(state);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Error en un listener del circuit breaker", e);
+            }
+        }
+    }
+    
+    /**
+     * Verifica si un error (o alguna de sus causas) es de conectividad
+     */
+    public static boolean isConnectivityFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException
+                || cause instanceof SQLNonTransientConnectionException
+                || cause instanceof SQLTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Obtiene un resumen del estado del breaker
+     */
+    public synchronized String getStatus() {
+        return String.format("Breaker - %s, Consecutive failures: %d/%d, Trips: %d%s",
+            getState(),
+            consecutiveFailures,
+            failureThreshold,
+            trips,
+            lastFailure != null ? ", Last failure: " + lastFailure : "");
+    }
+}
@@ -0,0 +1,164 @@
+package net.strafepvp.hcf.adapters.persistence.health;
+
+import net.strafepvp.hcf.adapters.persistence.ConnectionProvider;
+import net.strafepvp.hcf.adapters.persistence.metrics.LatencyHistogram;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sonda de salud de la base de datos en segundo plano
+ *
+ * Valida una conexión del pool a intervalo fijo en un hilo propio y publica
+ * el resultado en memoria, junto con un histograma de latencias. Consultar
+ * el estado nunca toca el pool, por lo que es seguro desde el hilo principal.
+ * Un resultado más antiguo que tres intervalos se considera no saludable.
+ *
+ * @author mayk0l
+ */
+public class DatabaseHealthProbe {
+    
+    private final ConnectionProvider connections;
+    private final long intervalMillis;
+    private final int validationTimeoutSeconds;
+    private final Logger logger;
+    
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final List<Consumer<HealthSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile HealthSnapshot snapshot = HealthSnapshot.unknown();
+    private ScheduledExecutorService executor;
+    
+    public DatabaseHealthProbe(ConnectionProvider connections, long intervalMillis, int validationTimeoutSeconds, Logger logger) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Health check interval must be greater than 0");
+        }
+        
+        this.connections = connections;
+        this.intervalMillis = intervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.logger = logger;
+    }
+    
+    /**
+     * Ejecuta una primera sonda síncrona y programa las siguientes
+     */
+    public void start() {
+        if (executor != null) {
+            return;
+        }
+        
+        probeNow();
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StrafeHCF-HealthProbe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::probeSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Ejecuta una sonda en el hilo actual y publica su resultado
+     */
+    public HealthSnapshot probeNow() {
+        long start = System.nanoTime();
+        boolean healthy;
+        String error = null;
+        
+        try (Connection connection = connections.getConnection()) {
+            healthy = connection.isValid(validationTimeoutSeconds);
+            if (!healthy) {
+                error = "Connection validation failed";
+            }
+        } catch (Exception e) {
+            healthy = false;
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed);
+        
+        HealthSnapshot previous = snapshot;
+        HealthSnapshot current = new HealthSnapshot(
+            healthy,
+            TimeUnit.NANOSECONDS.toMicros(elapsed),
+            System.currentTimeMillis(),
+            healthy ? 0 : previous.consecutiveFailures() + 1,
+            error
+        );
+        this.snapshot = current;
+        
+        if (previous.healthy() && !healthy) {
+            logger.warning("Base de datos no saludable: " + error);
+        } else if (!previous.healthy() && healthy && previous.checkedAtMillis() > 0) {
+            logger.info(String.format("Base de datos recuperada tras %d sondas fallidas", previous.consecutiveFailures()));
+        }
+        
+        for (Consumer<HealthSnapshot> listener : listeners) {
+            listener.accept(current);
+        }
+        return current;
+    }
+    
+    private void probeSafely() {
+        try {
+            probeNow();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error inesperado en la sonda de salud", e);
+        }
+    }
+    
+    /**
+     * Estado de salud publicado; lectura en memoria
+     */
+    public boolean isHealthy() {
+        HealthSnapshot current = snapshot;
+        return current.healthy() && System.currentTimeMillis() - current.checkedAtMillis() <= intervalMillis * 3;
+    }
+    
+    public HealthSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    /**
+     * Registra un consumidor que recibe cada resultado en el hilo de la sonda
+     */
+    public void addListener(Consumer<HealthSnapshot> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Detiene las sondas periódicas
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Obtiene un resumen del estado de la sonda
+     */
+    public String getStatus() {
+        HealthSnapshot current = snapshot;
+        long ageMillis = current.checkedAtMillis() > 0 ? System.currentTimeMillis() - current.checkedAtMillis() : -1;
+        return String.format("Probe - %s, Last: %dus (%dms ago), Failures: %d, %s",
+            isHealthy() ? "Healthy" : "Unhealthy" + (current.lastError() != null ? " (" + current.lastError() + ")" : ""),
+            current.latencyMicros(),
+            ageMillis,
+            current.consecutiveFailures(),
+            latency.summary());
+    }
+}
@@ -0,0 +1,27 @@
+package net.strafepvp.hcf.adapters.persistence.health;
+
+/**
+ * Resultado publicado por la última sonda de salud
+ *
+ * @param healthy true si la última sonda obtuvo una conexión válida
+ * @param latencyMicros Duración de la sonda (adquisición + validación) en microsegundos
+ * @param checkedAtMillis Momento de la sonda (epoch millis)
+ * @param consecutiveFailures Sondas fallidas seguidas
+ * @param lastError Mensaje del último error, o null
+ * @author mayk0l
+ */
+public record HealthSnapshot(
+    boolean healthy,
+    long latencyMicros,
+    long checkedAtMillis,
+    int consecutiveFailures,
+    String lastError
+) {
+    
+    /**
+     * Estado inicial antes de la primera sonda
+     */
+    public static HealthSnapshot unknown() {
+        return new HealthSnapshot(false, 0, 0, 0, "Not probed yet");
+    }
+}
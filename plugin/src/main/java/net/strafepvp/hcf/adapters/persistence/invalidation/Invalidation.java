@@ -0,0 +1,22 @@
+package net.strafepvp.hcf.adapters.persistence.invalidation;
+
+import java.util.UUID;
+
+/**
+ * Aviso de que un agregado cambió en otro servidor
+ *
+ * @param origin Identificador del servidor que lo publicó
+ * @param kind Tipo de agregado
+ * @param id Identificador del agregado
+ * @author mayk0l
+ */
+public record Invalidation(UUID origin, Kind kind, UUID id) {
+    
+    /**
+     * Tipos de agregado cacheados que se invalidan entre servidores
+     */
+    public enum Kind {
+        TEAM,
+        PLAYER
+    }
+}
@@ -0,0 +1,109 @@
+package net.strafepvp.hcf.adapters.persistence.invalidation;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bus de invalidación de caches entre servidores que comparten base de datos
+ *
+ * Cada servidor publica "el agregado X cambió" cuando su escritura llega a
+ * la base de datos, y los demás desalojan exactamente esa entrada en lugar
+ * de depender de un TTL corto. Los avisos propios se descartan al recibirse.
+ * Los suscriptores se ejecutan en el hilo del transporte y deben limitarse
+ * a operaciones en memoria seguras entre hilos.
+ *
+ * @author mayk0l
+ */
+public class InvalidationBus {
+    
+    private final UUID origin;
+    private final InvalidationTransport transport;
+    private final Logger logger;
+    private final Map<Invalidation.Kind, List<Consumer<UUID>>> subscribers = new EnumMap<>(Invalidation.Kind.class);
+    
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    
+    public InvalidationBus(InvalidationTransport transport, Logger logger) {
+        this(UUID.randomUUID(), transport, logger);
+    }
+    
+    public InvalidationBus(UUID origin, InvalidationTransport transport, Logger logger) {
+        this.origin = origin;
+        this.transport = transport;
+        this.logger = logger;
+        for (Invalidation.Kind kind : Invalidation.Kind.values()) {
+            subscribers.put(kind, new CopyOnWriteArrayList<>());
+        }
+    }
+    
+    /**
+     * Empieza a recibir avisos de otros servidores
+     */
+    public void start() {
+        transport.start(this::receive);
+    }
+    
+    /**
+     * Registra un consumidor de los ids invalidados de un tipo de agregado
+     */
+    public void subscribe(Invalidation.Kind kind, Consumer<UUID> subscriber) {
+        subscribers.get(kind).add(subscriber);
+    }
+    
+    /**
+     * Avisa a los demás servidores de que un agregado cambió
+     */
+    public void publish(Invalidation.Kind kind, UUID id) {
+        transport.publish(new Invalidation(origin, kind, id));
+        published.incrementAndGet();
+    }
+    
+    private void receive(Invalidation invalidation) {
+        if (invalidation.origin().equals(origin)) {
+            return;
+        }
+        
+        for (Consumer<UUID> subscriber : subscribers.get(invalidation.kind())) {
+            try {
+                subscriber.accept(invalidation.id());
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Error al aplicar una invalidación de " + invalidation.kind(), e);
+            }
+        }
+        applied.incrementAndGet();
+    }
+    
+    /**
+     * Detiene el transporte
+     */
+    public void shutdown() {
+        transport.shutdown();
+    }
+    
+    public UUID getOrigin() {
+        return origin;
+    }
+    
+    /**
+     * Número de avisos de otros servidores aplicados
+     */
+    public long getAppliedCount() {
+        return applied.get();
+    }
+    
+    /**
+     * Obtiene un resumen del estado del bus
+     */
+    public String getStatus() {
+        return String.format("Invalidation - Published: %d, Applied: %d, %s",
+            published.get(), applied.get(), transport.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package net.strafepvp.hcf.adapters.persistence.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Medio por el que los servidores intercambian invalidaciones
+ *
+ * Un transporte entrega cada aviso publicado a todos los servidores
+ * conectados, incluido el que lo publicó; el {@link InvalidationBus}
+ * descarta los propios. La entrega es "como mucho una vez": un aviso
+ * perdido solo retrasa la invalidación hasta que expira la entrada.
+ *
+ * @author mayk0l
+ */
+public interface InvalidationTransport {
+    
+    /**
+     * Empieza a entregar avisos al receptor
+     */
+    void start(Consumer<Invalidation> receiver);
+    
+    /**
+     * Publica un aviso; no debe bloquear al llamante con E/S
+     */
+    void publish(Invalidation invalidation);
+    
+    /**
+     * Detiene la entrega de avisos
+     */
+    void shutdown();
+    
+    /**
+     * Obtiene un resumen del estado del transporte
+     */
+    String getStatus();
+}
@@ -0,0 +1,64 @@
+package net.strafepvp.hcf.adapters.persistence.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Transporte en proceso: entrega cada aviso, en el hilo que lo publica, a
+ * todos los transportes unidos a la misma red
+ *
+ * Sirve para tests con varios "servidores" en la misma JVM y para
+ * despliegues de un solo servidor, donde no hay nada que invalidar fuera.
+ *
+ * @author mayk0l
+ */
+public class LoopbackTransport implements InvalidationTransport {
+    
+    private final List<LoopbackTransport> network;
+    private final AtomicLong delivered = new AtomicLong();
+    private volatile Consumer<Invalidation> receiver;
+    
+    /**
+     * Crea un transporte en una red propia
+     */
+    public LoopbackTransport() {
+        this.network = new CopyOnWriteArrayList<>();
+    }
+    
+    /**
+     * Crea un transporte unido a la red de otro
+     */
+    public LoopbackTransport(LoopbackTransport peer) {
+        this.network = peer.network;
+    }
+    
+    @Override
+    public void start(Consumer<Invalidation> receiver) {
+        this.receiver = receiver;
+        network.add(this);
+    }
+    
+    @Override
+    public void publish(Invalidation invalidation) {
+        for (LoopbackTransport transport : network) {
+            Consumer<Invalidation> target = transport.receiver;
+            if (target != null) {
+                target.accept(invalidation);
+                transport.delivered.incrementAndGet();
+            }
+        }
+    }
+    
+    @Override
+    public void shutdown() {
+        network.remove(this);
+        this.receiver = null;
+    }
+    
+    @Override
+    public String getStatus() {
+        return String.format("Loopback - Peers: %d, Delivered: %d", network.size(), delivered.get());
+    }
+}
@@ -0,0 +1,266 @@
+package net.strafepvp.hcf.adapters.persistence.invalidation;
+
+import net.strafepvp.hcf.adapters.persistence.ConnectionProvider;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transporte sobre la propia base de datos compartida, sin infraestructura extra
+ *
+ * Los avisos publicados se acumulan en memoria (coalescidos por agregado) y
+ * un hilo propio los inserta en cache_invalidations a intervalo fijo; en el
+ * mismo ciclo lee las filas con id mayor que la última vista y las entrega.
+ * Al arrancar se parte del id más alto, sin reproducir el historial. Las
+ * filas más antiguas que la retención se borran periódicamente.
+ *
+ * Los ids se asignan al insertar pero las filas se ven al confirmar, así
+ * que una inserción de otro servidor puede aparecer después de otra con id
+ * mayor ya leída. Cada hueco en la secuencia de ids leídos se recuerda
+ * durante LATE_COMMIT_WINDOW_MILLIS y la lectura vuelve a recorrer desde el
+ * hueco más antiguo; las filas que rellenan un hueco se entregan y las ya
+ * entregadas se saltan. Un hueco que sigue vacío pasado ese margen se da
+ * por definitivo (rollback o salto de la secuencia).
+ *
+ * @author mayk0l
+ */
+public class PollingTransport implements InvalidationTransport {
+    
+    private static final int MAX_ROWS_PER_POLL = 1000;
+    private static final long PRUNE_INTERVAL_MILLIS = 60_000;
+    private static final long LATE_COMMIT_WINDOW_MILLIS = 10_000;
+    private static final int MAX_TRACKED_GAPS = 10_000;
+    
+    private final ConnectionProvider connections;
+    private final NamedStatement insert;
+    private final NamedStatement since;
+    private final NamedStatement latest;
+    private final NamedStatement prune;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final Logger logger;
+    
+    private final Set<Invalidation> outbox = ConcurrentHashMap.newKeySet();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile Consumer<Invalidation> receiver;
+    private volatile long lastSeenId = -1;
+    // Ids skipped by the scan that may still commit, with the time the gap was seen
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+    private final AtomicLong lateDeliveries = new AtomicLong();
+    private volatile int trackedGaps;
+    private long lastPruneAt;
+    private ScheduledExecutorService executor;
+    
+    /**
+     * @param connections Conexiones al primario (una réplica retrasaría los avisos)
+     * @param pollIntervalMillis Intervalo entre ciclos de envío y lectura
+     * @param retentionMillis Antigüedad a partir de la cual se borran los avisos
+     */
+    public PollingTransport(ConnectionProvider connections, StatementRegistry statements, long pollIntervalMillis,
+                            long retentionMillis, Logger logger) {
+        if (pollIntervalMillis <= 0 || retentionMillis <= 0) {
+            throw new IllegalArgumentException("Poll interval and retention must be greater than 0");
+        }
+        
+        this.connections = connections;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMillis = retentionMillis;
+        this.logger = logger;
+        this.insert = statements.register("cache_invalidations.insert",
+            "INSERT INTO cache_invalidations (origin, kind, entity_id) VALUES (?, ?, ?)");
+        this.since = statements.register("cache_invalidations.since",
+            "SELECT id, origin, kind, entity_id FROM cache_invalidations WHERE id > ? ORDER BY id");
+        this.latest = statements.register("cache_invalidations.latest",
+            "SELECT COALESCE(MAX(id), 0) FROM cache_invalidations");
+        this.prune = statements.register("cache_invalidations.prune",
+            "DELETE FROM cache_invalidations WHERE created_at < ?");
+    }
+    
+    @Override
+    public void start(Consumer<Invalidation> receiver) {
+        this.receiver = receiver;
+        if (executor != null) {
+            return;
+        }
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StrafeHCF-Invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::pollSafely, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void publish(Invalidation invalidation) {
+        outbox.add(invalidation);
+    }
+    
+    /**
+     * Ejecuta un ciclo en el hilo actual: envía los avisos pendientes y entrega los nuevos
+     *
+     * @return Número de avisos entregados
+     */
+    public synchronized int pollNow() throws SQLException {
+        try (Connection connection = connections.getConnection()) {
+            if (lastSeenId < 0) {
+                this.lastSeenId = latestId(connection);
+                this.lastPruneAt = System.currentTimeMillis();
+            }
+            
+            sendOutbox(connection);
+            int delivered = receive(connection);
+            
+            if (System.currentTimeMillis() - lastPruneAt >= PRUNE_INTERVAL_MILLIS) {
+                pruneExpired(connection);
+            }
+            return delivered;
+        }
+    }
+    
+    private void pollSafely() {
+        try {
+            pollNow();
+        } catch (Exception e) {
+            // The database may be down; the circuit breaker reports that, keep the log quiet
+            Level level = failures.getAndIncrement() == 0 ? Level.WARNING : Level.FINE;
+            logger.log(level, "No se pudieron intercambiar invalidaciones de cache", e);
+        }
+    }
+    
+    private long latestId(Connection connection) throws SQLException {
+        try (PreparedStatement statement = latest.prepare(connection);
+             ResultSet resultSet = latest.execute(statement, PreparedStatement::executeQuery)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+    
+    private void sendOutbox(Connection connection) throws SQLException {
+        List<Invalidation> batch = new ArrayList<>();
+        for (Invalidation invalidation : outbox) {
+            if (outbox.remove(invalidation)) {
+                batch.add(invalidation);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try (PreparedStatement statement = insert.prepare(connection)) {
+            for (Invalidation invalidation : batch) {
+                statement.setString(1, invalidation.origin().toString());
+                statement.setString(2, invalidation.kind().name());
+                statement.setString(3, invalidation.id().toString());
+                statement.addBatch();
+            }
+            insert.execute(statement, PreparedStatement::executeBatch);
+            published.addAndGet(batch.size());
+        } catch (SQLException e) {
+            outbox.addAll(batch);
+            throw e;
+        }
+    }
+    
+    private int receive(Connection connection) throws SQLException {
+        Consumer<Invalidation> target = receiver;
+        List<Invalidation> batch = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long floor = gaps.isEmpty() ? lastSeenId : Math.min(lastSeenId, gaps.firstKey() - 1);
+        
+        try (PreparedStatement statement = since.prepare(connection)) {
+            statement.setLong(1, floor);
+            statement.setMaxRows(MAX_ROWS_PER_POLL);
+            try (ResultSet resultSet = since.execute(statement, PreparedStatement::executeQuery)) {
+                while (resultSet.next()) {
+                    long id = resultSet.getLong("id");
+                    if (id <= lastSeenId) {
+                        // Inside the lookback: only rows filling a gap are new
+                        if (gaps.remove(id) == null) {
+                            continue;
+                        }
+                        lateDeliveries.incrementAndGet();
+                    } else {
+                        for (long gap = lastSeenId + 1; gap < id && gaps.size() < MAX_TRACKED_GAPS; gap++) {
+                            gaps.put(gap, now);
+                        }
+                        this.lastSeenId = id;
+                    }
+                    
+                    batch.add(new Invalidation(
+                        UUID.fromString(resultSet.getString("origin")),
+                        Invalidation.Kind.valueOf(resultSet.getString("kind")),
+                        UUID.fromString(resultSet.getString("entity_id"))
+                    ));
+                }
+            }
+        }
+        
+        gaps.values().removeIf(seenAt -> now - seenAt >= LATE_COMMIT_WINDOW_MILLIS);
+        this.trackedGaps = gaps.size();
+        
+        if (target != null) {
+            batch.forEach(target);
+        }
+        received.addAndGet(batch.size());
+        return batch.size();
+    }
+    
+    private void pruneExpired(Connection connection) throws SQLException {
+        try (PreparedStatement statement = prune.prepare(connection)) {
+            statement.setTimestamp(1, new Timestamp(System.currentTimeMillis() - retentionMillis));
+            int removed = prune.execute(statement, PreparedStatement::executeUpdate);
+            if (removed > 0) {
+                logger.fine(String.format("%d invalidaciones antiguas eliminadas", removed));
+            }
+        }
+        this.lastPruneAt = System.currentTimeMillis();
+    }
+    
+    @Override
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        // Last chance for peers to hear about our final writes
+        this.receiver = null;
+        if (!outbox.isEmpty()) {
+            pollSafely();
+        }
+    }
+    
+    @Override
+    public String getStatus() {
+        return String.format("Polling - Outbox: %d, Published: %d, Received: %d (late %d), Last id: %d, Gaps: %d, Failures: %d",
+            outbox.size(), published.get(), received.get(), lateDeliveries.get(), lastSeenId, trackedGaps, failures.get());
+    }
+}
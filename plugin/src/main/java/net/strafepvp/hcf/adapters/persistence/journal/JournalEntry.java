@@ -0,0 +1,16 @@
+package net.strafepvp.hcf.adapters.persistence.journal;
+
+/**
+ * Mutación registrada en el journal
+ *
+ * @param table Tabla destino
+ * @param key Clave primaria tal como se guarda en la tabla
+ * @param row Valores de la fila, o null si es un borrado
+ * @author mayk0l
+ */
+public record JournalEntry(String table, Object key, Object[] row) {
+    
+    public boolean isDelete() {
+        return row == null;
+    }
+}
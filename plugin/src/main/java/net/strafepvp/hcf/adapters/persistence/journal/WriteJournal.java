@@ -0,0 +1,356 @@
+package net.strafepvp.hcf.adapters.persistence.journal;
+
+import net.strafepvp.hcf.adapters.persistence.codec.RowCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal de solo anexado para las mutaciones pendientes de escribir
+ *
+ * Cada mutación se anexa a un segmento con su CRC32 antes de confirmarse al
+ * llamante. Los segmentos se rotan al empezar cada flush y se borran cuando
+ * todas sus mutaciones están en la base de datos o se han vuelto a anexar
+ * al segmento actual; si el servidor cae con filas pendientes, se
+ * reproducen al arrancar. Un registro incompleto o con CRC inválido marca
+ * el final útil de su segmento.
+ *
+ * Durabilidad: con syncIntervalMillis = 0 cada anexado se fuerza a disco
+ * antes de volver. Con un intervalo positivo los anexados se agrupan y un
+ * hilo propio los fuerza cada intervalo (group commit): una caída del
+ * proceso no pierde nada, pero una caída del sistema operativo o de la
+ * alimentación puede perder como mucho el último intervalo de mutaciones.
+ *
+ * Formato de registro: longitud (int), CRC32 del contenido (int), contenido.
+ *
+ * @author mayk0l
+ */
+public class WriteJournal implements AutoCloseable {
+    
+    private static final int MAGIC = 0x48434A31; // "HCJ1"
+    private static final int HEADER_BYTES = 4;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+    
+    private final Path directory;
+    private final long syncIntervalMillis;
+    private final Logger logger;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream output = new DataOutputStream(buffer);
+    private final CRC32 crc = new CRC32();
+    
+    private FileChannel channel;
+    private long segmentId;
+    private boolean unsynced;
+    private ScheduledExecutorService syncer;
+    
+    // Statistics
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong appendedBytes = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    
+    /**
+     * Journal que fuerza cada anexado a disco antes de volver
+     */
+    public WriteJournal(Path directory, Logger logger) {
+        this(directory, 0, logger);
+    }
+    
+    /**
+     * @param syncIntervalMillis Intervalo del group commit; 0 fuerza cada anexado
+     */
+    public WriteJournal(Path directory, long syncIntervalMillis, Logger logger) {
+        if (syncIntervalMillis < 0) {
+            throw new IllegalArgumentException("Sync interval must not be negative: " + syncIntervalMillis);
+        }
+        
+        this.directory = directory;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.logger = logger;
+    }
+    
+    /**
+     * Recupera las mutaciones de los segmentos existentes y abre un segmento nuevo
+     *
+     * @return Mutaciones recuperadas, en orden de escritura
+     */
+    public synchronized List<JournalEntry> open() throws IOException {
+        Files.createDirectories(directory);
+        
+        List<JournalEntry> recovered = new ArrayList<>();
+        long lastSegment = 0;
+        for (long id : segmentIds()) {
+            recovered.addAll(readSegment(segmentPath(id)));
+            lastSegment = id;
+        }
+        
+        openSegment(lastSegment + 1);
+        
+        if (syncIntervalMillis > 0 && syncer == null) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "StrafeHCF-JournalSync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return recovered;
+    }
+    
+    /**
+     * Anexa una mutación al segmento actual
+     *
+     * @param table Tabla destino
+     * @param key Clave primaria
+     * @param row Valores de la fila, o null para un borrado
+     */
+    public synchronized void append(String table, Object key, Object[] row) throws IOException {
+        if (channel == null) {
+            throw new IOException("Journal is not open");
+        }
+        
+        buffer.reset();
+        output.writeByte(row == null ? DELETE : UPSERT);
+        output.writeUTF(table);
+        RowCodec.writeValue(output, key);
+        if (row != null) {
+            RowCodec.writeRow(output, row);
+        }
+        output.flush();
+        
+        byte[] payload = buffer.toByteArray();
+        crc.reset();
+        crc.update(payload);
+        
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+        record.putInt(payload.length);
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+        record.flip();
+        writeFully(record);
+        
+        appendedRecords.incrementAndGet();
+        appendedBytes.addAndGet(record.limit());
+        
+        if (syncIntervalMillis == 0) {
+            channel.force(false);
+            syncs.incrementAndGet();
+        } else {
+            unsynced = true;
+        }
+    }
+    
+    /**
+     * Fuerza a disco los anexados del segmento actual
+     *
+     * El fsync se hace fuera del monitor para no bloquear los anexados
+     * concurrentes; los que lleguen durante él esperan al siguiente.
+     */
+    public void sync() throws IOException {
+        FileChannel current;
+        synchronized (this) {
+            if (!unsynced || channel == null) {
+                return;
+            }
+            current = channel;
+            unsynced = false;
+        }
+        
+        try {
+            current.force(false);
+            syncs.incrementAndGet();
+        } catch (ClosedChannelException e) {
+            // Rotated meanwhile: closing the segment already forced it
+        } catch (IOException e) {
+            synchronized (this) {
+                unsynced = true;
+            }
+            throw e;
+        }
+    }
+    
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se pudo forzar el journal a disco", e);
+        }
+    }
+    
+    /**
+     * Cierra el segmento actual y abre el siguiente
+     *
+     * @return Id del nuevo segmento; los anteriores pueden borrarse cuando se persistan
+     */
+    public synchronized long rotate() throws IOException {
+        closeChannel();
+        openSegment(segmentId + 1);
+        return segmentId;
+    }
+    
+    /**
+     * Borra los segmentos anteriores al indicado
+     */
+    public synchronized void deleteSegmentsBefore(long id) {
+        try {
+            for (long segment : segmentIds()) {
+                if (segment < id) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "No se pudieron borrar segmentos antiguos del journal", e);
+        }
+    }
+    
+    /**
+     * Cierra el journal; si no quedan mutaciones pendientes se borran todos los segmentos
+     *
+     * @param discard true si todas las mutaciones ya están en la base de datos
+     */
+    public synchronized void close(boolean discard) {
+        if (syncer != null) {
+            syncer.shutdownNow();
+            syncer = null;
+        }
+        
+        try {
+            closeChannel();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Error al cerrar el journal", e);
+        }
+        
+        if (discard) {
+            deleteSegmentsBefore(Long.MAX_VALUE);
+        }
+    }
+    
+    @Override
+    public void close() {
+        close(false);
+    }
+    
+    /**
+     * Obtiene un resumen del estado del journal
+     */
+    public String getStatus() {
+        return String.format("Journal - Segment: %d, Records: %d, Bytes: %d, Syncs: %d",
+            segmentId, appendedRecords.get(), appendedBytes.get(), syncs.get());
+    }
+    
+    private void openSegment(long id) throws IOException {
+        this.segmentId = id;
+        this.channel = FileChannel.open(segmentPath(id),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.flip();
+        writeFully(header);
+    }
+    
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+            unsynced = false;
+        }
+    }
+    
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+    
+    /**
+     * Lee un segmento hasta el final o hasta el primer registro dañado
+     */
+    private List<JournalEntry> readSegment(Path path) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        
+        if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC) {
+            logger.warning("Segmento de journal sin cabecera válida, se ignora: " + path.getFileName());
+            return entries;
+        }
+        
+        while (data.remaining() >= RECORD_HEADER_BYTES) {
+            int length = data.getInt();
+            int expectedCrc = data.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || length > data.remaining()) {
+                logger.warning(String.format("Registro incompleto al final de %s, se descarta", path.getFileName()));
+                return entries;
+            }
+            
+            byte[] payload = new byte[length];
+            data.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != expectedCrc) {
+                logger.warning(String.format("CRC inválido en %s, se descartan los registros siguientes", path.getFileName()));
+                return entries;
+            }
+            
+            entries.add(decode(payload));
+        }
+        
+        if (data.hasRemaining()) {
+            logger.warning(String.format("Cabecera de registro incompleta al final de %s, se descarta", path.getFileName()));
+        }
+        return entries;
+    }
+    
+    private static JournalEntry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte operation = in.readByte();
+        String table = in.readUTF();
+        Object key = RowCodec.readValue(in);
+        Object[] row = operation == UPSERT ? RowCodec.readRow(in) : null;
+        return new JournalEntry(table, key, row);
+    }
+    
+    private List<Long> segmentIds() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                .filter(Matcher::matches)
+                .map(matcher -> Long.parseLong(matcher.group(1)))
+                .sorted()
+                .toList();
+        }
+    }
+    
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("journal-%010d.log", id));
+    }
+}
@@ -0,0 +1,78 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.instant;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.timestamp;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.uuid;
+
+/**
+ * Mapeo de {@link Claim} a la tabla claims
+ *
+ * @author mayk0l
+ */
+public class ClaimMapping implements EntityMapping<Claim> {
+    
+    private static final List<String> COLUMNS = List.of(
+        "id", "team_id", "world_name", "min_x", "min_z", "max_x", "max_z", "created_at"
+    );
+    
+    private final UuidStorage uuids;
+    
+    public ClaimMapping(UuidStorage uuids) {
+        this.uuids = uuids;
+    }
+    
+    @Override
+    public String table() {
+        return "claims";
+    }
+    
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    public UuidStorage uuids() {
+        return uuids;
+    }
+    
+    @Override
+    public Object key(Claim claim) {
+        return uuids.toJdbc(claim.id());
+    }
+    
+    @Override
+    public Object[] toRow(Claim claim) {
+        return new Object[] {
+            uuids.toJdbc(claim.id()),
+            uuids.toJdbc(claim.teamId().value()),
+            claim.worldName(),
+            claim.minX(),
+            claim.minZ(),
+            claim.maxX(),
+            claim.maxZ(),
+            timestamp(claim.createdAt())
+        };
+    }
+    
+    @Override
+    public Claim fromRow(ResultSet resultSet) throws SQLException {
+        return new Claim(
+            uuid(resultSet, "id"),
+            new TeamId(uuid(resultSet, "team_id")),
+            resultSet.getString("world_name"),
+            resultSet.getInt("min_x"),
+            resultSet.getInt("min_z"),
+            resultSet.getInt("max_x"),
+            resultSet.getInt("max_z"),
+            instant(resultSet, "created_at")
+        );
+    }
+}
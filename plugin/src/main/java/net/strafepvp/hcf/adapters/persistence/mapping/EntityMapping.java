@@ -0,0 +1,56 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Mapeo entre una entidad del dominio y su fila en base de datos
+ *
+ * La primera columna de {@link #columns()} es siempre la clave primaria.
+ * {@link #toRow(Object)} captura el estado de la entidad en el hilo que la
+ * invoca, de modo que la fila resultante puede escribirse desde otro hilo
+ * sin compartir el agregado mutable.
+ *
+ * @param <T> Tipo de entidad
+ * @author mayk0l
+ */
+public interface EntityMapping<T> {
+    
+    /**
+     * Nombre de la tabla
+     */
+    String table();
+    
+    /**
+     * Columnas persistidas, en el mismo orden que {@link #toRow(Object)}
+     */
+    List<String> columns();
+    
+    /**
+     * Columna de clave primaria
+     */
+    default String keyColumn() {
+        return columns().get(0);
+    }
+    
+    /**
+     * Formato de almacenamiento de las columnas de identificadores
+     */
+    UuidStorage uuids();
+    
+    /**
+     * Valor de la clave primaria de la entidad, tal como se guarda en la tabla
+     */
+    Object key(T entity);
+    
+    /**
+     * Captura el estado de la entidad como valores JDBC
+     */
+    Object[] toRow(T entity);
+    
+    /**
+     * Reconstruye la entidad desde la fila actual del ResultSet
+     */
+    T fromRow(ResultSet resultSet) throws SQLException;
+}
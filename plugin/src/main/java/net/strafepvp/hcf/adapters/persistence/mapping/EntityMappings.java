@@ -0,0 +1,53 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+
+import java.util.List;
+
+/**
+ * Conjunto de mapeos de entidades usados por la capa de persistencia
+ *
+ * @param teams Mapeo de equipos
+ * @param players Mapeo de jugadores
+ * @param claims Mapeo de claims
+ * @param koths Mapeo de eventos KOTH
+ * @param seasons Mapeo de temporadas
+ * @author mayk0l
+ */
+public record EntityMappings(
+    TeamMapping teams,
+    PlayerMapping players,
+    ClaimMapping claims,
+    KothEventMapping koths,
+    SeasonMapping seasons
+) {
+    
+    /**
+     * Crea el conjunto de mapeos para el dialecto indicado
+     */
+    public static EntityMappings create(SqlDialect dialect) {
+        return create(UuidStorage.forDialect(dialect));
+    }
+    
+    /**
+     * Crea el conjunto de mapeos con el formato de UUID indicado
+     */
+    public static EntityMappings create(UuidStorage uuids) {
+        return new EntityMappings(
+            new TeamMapping(uuids),
+            new PlayerMapping(uuids),
+            new ClaimMapping(uuids),
+            new KothEventMapping(uuids),
+            new SeasonMapping(uuids)
+        );
+    }
+    
+    /**
+     * Orden de escritura que respeta las claves foráneas: primero los padres
+     * (teams) y luego las tablas que los referencian. Los borrados se aplican
+     * en orden inverso. Las temporadas no se escriben por la cola.
+     */
+    public List<EntityMapping<?>> writeOrder() {
+        return List.of(teams, players, claims, koths);
+    }
+}
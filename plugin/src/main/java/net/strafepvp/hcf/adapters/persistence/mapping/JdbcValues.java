@@ -0,0 +1,99 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Utilidades de conversión entre tipos del dominio y tipos JDBC
+ *
+ * @author mayk0l
+ */
+public final class JdbcValues {
+    
+    private JdbcValues() {
+    }
+    
+    /**
+     * Convierte un Instant a Timestamp (null-safe)
+     */
+    public static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+    
+    /**
+     * Lee una columna TIMESTAMP como Instant (null-safe)
+     */
+    public static Instant instant(ResultSet resultSet, String column) throws SQLException {
+        Timestamp timestamp = resultSet.getTimestamp(column);
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+    
+    /**
+     * Lee una columna de identificador como UUID, sea nativa o de texto (null-safe)
+     */
+    public static UUID uuid(ResultSet resultSet, String column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+    
+    /**
+     * Convierte un valor decimal a la escala de una columna DECIMAL(p,2)
+     */
+    public static BigDecimal decimal(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Tamaño aproximado de un parámetro en el protocolo de la base de datos
+     *
+     * Sirve para comparar volúmenes de escritura, no es exacto por driver.
+     */
+    public static int sizeOf(Object value) {
+        return switch (value) {
+            case null -> 0;
+            case String text -> text.getBytes(StandardCharsets.UTF_8).length;
+            case UUID uuid -> 16;
+            case Timestamp timestamp -> 8;
+            case BigDecimal decimal -> decimal.unscaledValue().bitLength() / 8 + 1 + Integer.BYTES;
+            case Boolean bool -> 1;
+            case Integer number -> Integer.BYTES;
+            case Long number -> Long.BYTES;
+            default -> value.toString().length();
+        };
+    }
+    
+    /**
+     * Asigna un parámetro, usando setNull cuando el valor es null
+     */
+    public static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.NULL);
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+    
+    /**
+     * Asigna todos los valores de una fila a partir del índice indicado
+     *
+     * @return Siguiente índice libre
+     */
+    public static int bindAll(PreparedStatement statement, int startIndex, Object[] row) throws SQLException {
+        int index = startIndex;
+        for (Object value : row) {
+            bind(statement, index++, value);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,87 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.core.domain.model.KothEvent;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.instant;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.timestamp;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.uuid;
+
+/**
+ * Mapeo de {@link KothEvent} a la tabla koth_events
+ *
+ * @author mayk0l
+ */
+public class KothEventMapping implements EntityMapping<KothEvent> {
+    
+    private static final List<String> COLUMNS = List.of(
+        "id", "name", "world_name", "center_x", "center_z", "radius", "capture_time",
+        "is_active", "current_controller", "control_start_time", "created_at"
+    );
+    
+    private final UuidStorage uuids;
+    
+    public KothEventMapping(UuidStorage uuids) {
+        this.uuids = uuids;
+    }
+    
+    @Override
+    public String table() {
+        return "koth_events";
+    }
+    
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    public UuidStorage uuids() {
+        return uuids;
+    }
+    
+    @Override
+    public Object key(KothEvent koth) {
+        return uuids.toJdbc(koth.id());
+    }
+    
+    @Override
+    public Object[] toRow(KothEvent koth) {
+        return new Object[] {
+            uuids.toJdbc(koth.id()),
+            koth.name(),
+            koth.worldName(),
+            koth.centerX(),
+            koth.centerZ(),
+            koth.radius(),
+            koth.captureTime(),
+            koth.active(),
+            koth.currentController() != null ? uuids.toJdbc(koth.currentController().value()) : null,
+            timestamp(koth.controlStartTime()),
+            timestamp(koth.createdAt())
+        };
+    }
+    
+    @Override
+    public KothEvent fromRow(ResultSet resultSet) throws SQLException {
+        UUID controller = uuid(resultSet, "current_controller");
+        return new KothEvent(
+            uuid(resultSet, "id"),
+            resultSet.getString("name"),
+            resultSet.getString("world_name"),
+            resultSet.getInt("center_x"),
+            resultSet.getInt("center_z"),
+            resultSet.getInt("radius"),
+            resultSet.getInt("capture_time"),
+            resultSet.getBoolean("is_active"),
+            controller != null ? new PlayerId(controller) : null,
+            instant(resultSet, "control_start_time"),
+            instant(resultSet, "created_at")
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.TeamRole;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.instant;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.timestamp;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.uuid;
+
+/**
+ * Mapeo de {@link HCFPlayer} a la tabla players
+ *
+ * Las columnas id y minecraft_uuid almacenan el mismo UUID de Minecraft.
+ * Los cambios de deathban o protección se escriben como UPDATE de sus
+ * columnas y updated_at, sin reenviar el resto de la fila.
+ *
+ * @author mayk0l
+ */
+public class PlayerMapping implements TrackedMapping<HCFPlayer> {
+    
+    private static final List<String> COLUMNS = List.of(
+        "id", "minecraft_uuid", "username", "team_id", "team_role",
+        "created_at", "updated_at", "pvp_protection_until", "deathban_until"
+    );
+    
+    private static final long USERNAME = TrackedMapping.bit(COLUMNS, "username");
+    private static final long TEAM = TrackedMapping.bit(COLUMNS, "team_id");
+    private static final long TEAM_ROLE = TrackedMapping.bit(COLUMNS, "team_role");
+    private static final long UPDATED_AT = TrackedMapping.bit(COLUMNS, "updated_at");
+    private static final long PVP_PROTECTION = TrackedMapping.bit(COLUMNS, "pvp_protection_until");
+    private static final long DEATHBAN = TrackedMapping.bit(COLUMNS, "deathban_until");
+    
+    private final UuidStorage uuids;
+    
+    public PlayerMapping(UuidStorage uuids) {
+        this.uuids = uuids;
+    }
+    
+    @Override
+    public String table() {
+        return "players";
+    }
+    
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    public UuidStorage uuids() {
+        return uuids;
+    }
+    
+    @Override
+    public Object key(HCFPlayer player) {
+        return uuids.toJdbc(player.getId().value());
+    }
+    
+    @Override
+    public Object[] toRow(HCFPlayer player) {
+        Object id = uuids.toJdbc(player.getId().value());
+        return new Object[] {
+            id,
+            id,
+            player.getUsername(),
+            player.getTeamId() != null ? uuids.toJdbc(player.getTeamId().value()) : null,
+            player.getTeamRole().name(),
+            timestamp(player.getCreatedAt()),
+            timestamp(player.getUpdatedAt()),
+            timestamp(player.getPvpProtectionUntil()),
+            timestamp(player.getDeathbanUntil())
+        };
+    }
+    
+    @Override
+    public long takeChangedColumns(HCFPlayer player) {
+        long columns = 0;
+        for (HCFPlayer.Field field : player.takeChangedFields()) {
+            columns |= switch (field) {
+                case USERNAME -> USERNAME;
+                case TEAM -> TEAM;
+                case TEAM_ROLE -> TEAM_ROLE;
+                case UPDATED_AT -> UPDATED_AT;
+                case PVP_PROTECTION -> PVP_PROTECTION;
+                case DEATHBAN -> DEATHBAN;
+            };
+        }
+        return columns;
+    }
+    
+    @Override
+    public HCFPlayer fromRow(ResultSet resultSet) throws SQLException {
+        UUID teamId = uuid(resultSet, "team_id");
+        return new HCFPlayer(
+            new PlayerId(uuid(resultSet, "minecraft_uuid")),
+            resultSet.getString("username"),
+            teamId != null ? new TeamId(teamId) : null,
+            TeamRole.fromName(resultSet.getString("team_role")),
+            instant(resultSet, "created_at"),
+            instant(resultSet, "updated_at"),
+            instant(resultSet, "pvp_protection_until"),
+            instant(resultSet, "deathban_until")
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.core.domain.model.Season;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.instant;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.timestamp;
+
+/**
+ * Mapeo de {@link Season} a la tabla seasons
+ *
+ * Las temporadas no pasan por la cola write-behind: solo cambian al cerrar
+ * una temporada, dentro de la transacción de archivo.
+ *
+ * @author mayk0l
+ */
+public class SeasonMapping implements EntityMapping<Season> {
+    
+    private static final List<String> COLUMNS = List.of("id", "name", "started_at", "ended_at");
+    
+    private final UuidStorage uuids;
+    
+    public SeasonMapping(UuidStorage uuids) {
+        this.uuids = uuids;
+    }
+    
+    @Override
+    public String table() {
+        return "seasons";
+    }
+    
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    public UuidStorage uuids() {
+        return uuids;
+    }
+    
+    @Override
+    public Object key(Season season) {
+        return season.id();
+    }
+    
+    @Override
+    public Object[] toRow(Season season) {
+        return new Object[] {
+            season.id(),
+            season.name(),
+            timestamp(season.startedAt()),
+            timestamp(season.endedAt())
+        };
+    }
+    
+    @Override
+    public Season fromRow(ResultSet resultSet) throws SQLException {
+        return new Season(
+            resultSet.getInt("id"),
+            resultSet.getString("name"),
+            instant(resultSet, "started_at"),
+            instant(resultSet, "ended_at")
+        );
+    }
+}
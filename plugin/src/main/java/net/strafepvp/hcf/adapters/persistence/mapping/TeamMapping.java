@@ -0,0 +1,132 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamName;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.decimal;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.instant;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.timestamp;
+import static net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues.uuid;
+
+/**
+ * Mapeo de {@link Team} a la tabla teams
+ *
+ * Versionado: el DTR se escribe como incremento en las actualizaciones
+ * condicionales, de modo que las pérdidas de DTR de dos servidores en una
+ * misma pelea se suman, e is_raidable se recalcula a partir del DTR ya
+ * sumado. Solo se asignan las columnas de los campos que cambiaron desde el
+ * último flush.
+ *
+ * @author mayk0l
+ */
+public class TeamMapping implements VersionedMapping<Team>, TrackedMapping<Team> {
+    
+    private static final List<String> COLUMNS = List.of(
+        "id", "name", "leader_id", "created_at", "updated_at", "dtr", "is_raidable", "last_death_time", "version"
+    );
+    
+    private static final List<String> ADDITIVE_COLUMNS = List.of("dtr");
+    
+    private static final List<DerivedColumn> DERIVED_COLUMNS = List.of(new DerivedColumn("is_raidable", "dtr", "(%s <= 0)"));
+    
+    private static final long NAME = TrackedMapping.bit(COLUMNS, "name");
+    private static final long LEADER = TrackedMapping.bit(COLUMNS, "leader_id");
+    private static final long UPDATED_AT = TrackedMapping.bit(COLUMNS, "updated_at");
+    private static final long DTR = TrackedMapping.bit(COLUMNS, "dtr");
+    private static final long RAIDABLE = TrackedMapping.bit(COLUMNS, "is_raidable");
+    private static final long LAST_DEATH_TIME = TrackedMapping.bit(COLUMNS, "last_death_time");
+    
+    private final UuidStorage uuids;
+    
+    public TeamMapping(UuidStorage uuids) {
+        this.uuids = uuids;
+    }
+    
+    @Override
+    public String table() {
+        return "teams";
+    }
+    
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+    
+    @Override
+    public UuidStorage uuids() {
+        return uuids;
+    }
+    
+    @Override
+    public Object key(Team team) {
+        return uuids.toJdbc(team.getId().value());
+    }
+    
+    @Override
+    public Object[] toRow(Team team) {
+        return new Object[] {
+            uuids.toJdbc(team.getId().value()),
+            team.getName().value(),
+            uuids.toJdbc(team.getLeaderId().value()),
+            timestamp(team.getCreatedAt()),
+            timestamp(team.getUpdatedAt()),
+            decimal(team.getDtr()),
+            team.isRaidable(),
+            timestamp(team.getLastDeathTime()),
+            team.getVersion()
+        };
+    }
+    
+    @Override
+    public List<String> additiveColumns() {
+        return ADDITIVE_COLUMNS;
+    }
+    
+    @Override
+    public List<DerivedColumn> derivedColumns() {
+        return DERIVED_COLUMNS;
+    }
+    
+    @Override
+    public BigDecimal[] takeIncrements(Team team) {
+        return new BigDecimal[] {decimal(team.takeUnsavedDtrChange())};
+    }
+    
+    @Override
+    public long takeChangedColumns(Team team) {
+        long columns = 0;
+        for (Team.Field field : team.takeChangedFields()) {
+            columns |= switch (field) {
+                case NAME -> NAME;
+                case LEADER -> LEADER;
+                case UPDATED_AT -> UPDATED_AT;
+                case DTR -> DTR;
+                case RAIDABLE -> RAIDABLE;
+                case LAST_DEATH_TIME -> LAST_DEATH_TIME;
+            };
+        }
+        return columns;
+    }
+    
+    @Override
+    public Team fromRow(ResultSet resultSet) throws SQLException {
+        return new Team(
+            new TeamId(uuid(resultSet, "id")),
+            new TeamName(resultSet.getString("name")),
+            new PlayerId(uuid(resultSet, "leader_id")),
+            instant(resultSet, "created_at"),
+            instant(resultSet, "updated_at"),
+            resultSet.getDouble("dtr"),
+            resultSet.getBoolean("is_raidable"),
+            instant(resultSet, "last_death_time"),
+            resultSet.getLong("version")
+        );
+    }
+}
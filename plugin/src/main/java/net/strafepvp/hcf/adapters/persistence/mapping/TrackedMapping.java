@@ -0,0 +1,39 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import java.util.List;
+
+/**
+ * Mapeo de una entidad que registra qué campos cambiaron
+ *
+ * Los cambios se expresan como máscara de bits sobre los índices de
+ * {@link #columns()} (bit i = columna i). La cola write-behind agrupa las
+ * filas con la misma máscara y las escribe con un UPDATE que solo asigna
+ * esas columnas; una máscara vacía o completa se escribe como fila entera.
+ *
+ * @param <T> Tipo de entidad
+ * @author mayk0l
+ */
+public interface TrackedMapping<T> extends EntityMapping<T> {
+    
+    /**
+     * Extrae y reinicia las columnas modificadas desde la última captura
+     *
+     * Se invoca en el mismo hilo que {@link #toRow(Object)}.
+     *
+     * @return Máscara de columnas modificadas
+     */
+    long takeChangedColumns(T entity);
+    
+    /**
+     * Bit de una columna dentro de la máscara de cambios
+     *
+     * @throws IllegalArgumentException si la columna no existe
+     */
+    static long bit(List<String> columns, String column) {
+        int index = columns.indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return 1L << index;
+    }
+}
@@ -0,0 +1,35 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+
+import java.util.UUID;
+
+/**
+ * Formato de almacenamiento de las columnas de identificadores
+ *
+ * H2 y PostgreSQL guardan los ids en columnas UUID nativas (16 bytes); MySQL,
+ * sin tipo UUID, los mantiene como VARCHAR(36).
+ *
+ * @author mayk0l
+ */
+public enum UuidStorage {
+    NATIVE,
+    TEXT;
+    
+    /**
+     * Obtiene el formato usado por el dialecto indicado
+     */
+    public static UuidStorage forDialect(SqlDialect dialect) {
+        return dialect == SqlDialect.MYSQL ? TEXT : NATIVE;
+    }
+    
+    /**
+     * Convierte un UUID al valor JDBC de la columna (null-safe)
+     */
+    public Object toJdbc(UUID value) {
+        if (value == null) {
+            return null;
+        }
+        return this == NATIVE ? value : value.toString();
+    }
+}
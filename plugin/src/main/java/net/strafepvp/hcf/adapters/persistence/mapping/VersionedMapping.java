@@ -0,0 +1,59 @@
+package net.strafepvp.hcf.adapters.persistence.mapping;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Mapeo de una entidad con control de concurrencia optimista
+ *
+ * La última columna de {@link #columns()} es la versión de la fila. La cola
+ * write-behind actualiza estas filas con UPDATE ... WHERE version = ? y
+ * reintenta las que chocan con otro escritor; las columnas aditivas se
+ * escriben como incremento (columna = columna + ?) para que los cambios de
+ * ambos escritores se sumen en lugar de pisarse. Las columnas derivadas
+ * de una aditiva se recalculan en la misma sentencia a partir del valor ya
+ * sumado, para que no contradigan el resultado de la suma.
+ *
+ * @param <T> Tipo de entidad
+ * @author mayk0l
+ */
+public interface VersionedMapping<T> extends EntityMapping<T> {
+    
+    /**
+     * Columna cuyo valor depende de una columna aditiva
+     *
+     * @param column Columna derivada
+     * @param source Columna aditiva de la que depende
+     * @param expression Expresión SQL con un %s en lugar del valor ya incrementado de source
+     */
+    record DerivedColumn(String column, String source, String expression) {
+    }
+    
+    /**
+     * Columna de versión
+     */
+    default String versionColumn() {
+        return columns().get(columns().size() - 1);
+    }
+    
+    /**
+     * Columnas que se escriben como incremento en las actualizaciones condicionales
+     */
+    List<String> additiveColumns();
+    
+    /**
+     * Columnas que se recalculan a partir de las aditivas en las
+     * actualizaciones condicionales
+     */
+    default List<DerivedColumn> derivedColumns() {
+        return List.of();
+    }
+    
+    /**
+     * Extrae y reinicia los incrementos acumulados por la entidad desde la
+     * última captura, en el orden de {@link #additiveColumns()}
+     * 
+     * Se invoca en el mismo hilo que {@link #toRow(Object)}.
+     */
+    BigDecimal[] takeIncrements(T entity);
+}
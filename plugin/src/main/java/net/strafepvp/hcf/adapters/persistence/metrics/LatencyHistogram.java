@@ -0,0 +1,124 @@
+package net.strafepvp.hcf.adapters.persistence.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias sin bloqueos con buckets logarítmicos
+ *
+ * Cada potencia de dos de microsegundos se divide en cuatro buckets, por lo
+ * que los percentiles tienen un error relativo máximo del 25%. Registrar una
+ * muestra es un incremento atómico y no reserva memoria.
+ *
+ * @author mayk0l
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 44 * SUB_BUCKETS;
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+    
+    /**
+     * Registra una muestra medida en nanosegundos
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+    
+    /**
+     * Número de muestras registradas
+     */
+    public long count() {
+        return count.get();
+    }
+    
+    /**
+     * Latencia media en microsegundos
+     */
+    public double meanMicros() {
+        long samples = count.get();
+        return samples == 0 ? 0 : (double) totalMicros.get() / samples;
+    }
+    
+    /**
+     * Latencia máxima en microsegundos
+     */
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+    
+    /**
+     * Obtiene el percentil indicado en microsegundos
+     *
+     * @param percentile Percentil entre 0 y 100
+     * @return Límite superior del bucket que contiene el percentil
+     */
+    public long percentileMicros(double percentile) {
+        long samples = count.get();
+        if (samples == 0) {
+            return 0;
+        }
+        
+        long target = Math.max(1, (long) Math.ceil(samples * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+    
+    /**
+     * Descarta todas las muestras
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+    
+    /**
+     * Resumen con media, p50, p99 y máximo
+     */
+    public String summary() {
+        return String.format("n=%d, avg=%.0fus, p50=%dus, p99=%dus, max=%dus",
+            count(), meanMicros(), percentileMicros(50), percentileMicros(99), maxMicros());
+    }
+    
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        int index = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        return Math.min(index, BUCKETS - 1);
+    }
+    
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,198 @@
+package net.strafepvp.hcf.adapters.persistence.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Telemetría del pool de conexiones de HikariCP
+ *
+ * Se registra como MetricsTrackerFactory del pool: Hikari le entrega sus
+ * PoolStats y le notifica el tiempo de cada adquisición de conexión. Un
+ * hilo propio muestrea conexiones activas, inactivas y en espera junto con
+ * la adquisición más lenta del intervalo en series de tamaño fijo, y avisa
+ * por consola cuando hay hilos esperando conexión durante
+ * saturation_samples muestras seguidas.
+ *
+ * @author mayk0l
+ */
+public class PoolTelemetry implements MetricsTrackerFactory {
+    
+    private final long sampleIntervalMillis;
+    private final int saturationSamples;
+    private final Logger logger;
+    
+    private final TimeSeries active;
+    private final TimeSeries idle;
+    private final TimeSeries waiting;
+    private final TimeSeries acquireMicros;
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final AtomicLong intervalMaxAcquireNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicInteger peakWaiting = new AtomicInteger();
+    
+    private volatile PoolStats poolStats;
+    private int consecutiveWaitingSamples;
+    private boolean saturated;
+    private ScheduledExecutorService executor;
+    
+    public PoolTelemetry(int historySize, long sampleIntervalMillis, int saturationSamples, Logger logger) {
+        if (sampleIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sample interval must be greater than 0");
+        }
+        
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        this.saturationSamples = Math.max(1, saturationSamples);
+        this.logger = logger;
+        this.active = new TimeSeries(historySize);
+        this.idle = new TimeSeries(historySize);
+        this.waiting = new TimeSeries(historySize);
+        this.acquireMicros = new TimeSeries(historySize);
+    }
+    
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.record(elapsedAcquiredNanos);
+                intervalMaxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+            
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+    
+    /**
+     * Inicia el muestreo periódico en segundo plano
+     */
+    public void start() {
+        if (executor != null) {
+            return;
+        }
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "StrafeHCF-PoolTelemetry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            try {
+                sample(System.currentTimeMillis());
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Error al muestrear el pool de conexiones", e);
+            }
+        }, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Registra una muestra del pool y evalúa la saturación
+     *
+     * @param now Momento de la muestra (epoch millis)
+     */
+    synchronized void sample(long now) {
+        PoolStats stats = poolStats;
+        if (stats == null) {
+            return;
+        }
+        
+        int pending = stats.getPendingThreads();
+        active.add(now, stats.getActiveConnections());
+        idle.add(now, stats.getIdleConnections());
+        waiting.add(now, pending);
+        acquireMicros.add(now, TimeUnit.NANOSECONDS.toMicros(intervalMaxAcquireNanos.getAndSet(0)));
+        peakWaiting.accumulateAndGet(pending, Math::max);
+        
+        if (pending > 0) {
+            consecutiveWaitingSamples++;
+            if (!saturated && consecutiveWaitingSamples >= saturationSamples) {
+                saturated = true;
+                logger.warning(String.format(
+                    "Pool de conexiones saturado: %d hilos esperando conexión durante %d muestras (activas %d/%d, adquisición p99 %dus); considera aumentar pool.maximum_pool_size",
+                    pending, consecutiveWaitingSamples, stats.getActiveConnections(), stats.getMaxConnections(),
+                    acquire.percentileMicros(99)));
+            }
+        } else {
+            if (saturated) {
+                logger.info(String.format("Pool de conexiones sin esperas tras %d muestras saturadas", consecutiveWaitingSamples));
+            }
+            consecutiveWaitingSamples = 0;
+            saturated = false;
+        }
+    }
+    
+    /**
+     * Indica si hay hilos esperando conexión de forma sostenida
+     */
+    public synchronized boolean isSaturated() {
+        return saturated;
+    }
+    
+    /**
+     * Histograma acumulado del tiempo de adquisición de conexiones
+     */
+    public LatencyHistogram getAcquireLatency() {
+        return acquire;
+    }
+    
+    public TimeSeries getActive() {
+        return active;
+    }
+    
+    public TimeSeries getIdle() {
+        return idle;
+    }
+    
+    public TimeSeries getWaiting() {
+        return waiting;
+    }
+    
+    public TimeSeries getAcquireMicros() {
+        return acquireMicros;
+    }
+    
+    /**
+     * Pico de hilos en espera desde el arranque
+     */
+    public int getPeakWaiting() {
+        return peakWaiting.get();
+    }
+    
+    /**
+     * Detiene el muestreo
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+    
+    /**
+     * Obtiene un resumen de la ventana de telemetría
+     */
+    public String getStatus() {
+        return String.format(
+            "Pool telemetry (%ds) - Active p50/p99/max: %d/%d/%d, Idle p50: %d, Waiting p99/peak: %d/%d (all-time %d), Acquire p50/p99/max: %d/%d/%dus, Timeouts: %d%s",
+            TimeUnit.MILLISECONDS.toSeconds(active.spanMillis()),
+            active.percentile(50), active.percentile(99), active.max(),
+            idle.percentile(50),
+            waiting.percentile(99), waiting.max(), peakWaiting.get(),
+            acquire.percentileMicros(50), acquire.percentileMicros(99), acquire.maxMicros(),
+            timeouts.get(),
+            isSaturated() ? ", SATURATED" : ""
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package net.strafepvp.hcf.adapters.persistence.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Serie temporal de tamaño fijo sobre un buffer circular
+ *
+ * Conserva las últimas N muestras en arrays primitivos; añadir una muestra
+ * no reserva memoria y la más antigua se sobrescribe al llenarse.
+ *
+ * @author mayk0l
+ */
+public class TimeSeries {
+    
+    private final long[] timestamps;
+    private final long[] values;
+    private int next;
+    private int size;
+    
+    public TimeSeries(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        
+        this.timestamps = new long[capacity];
+        this.values = new long[capacity];
+    }
+    
+    /**
+     * Añade una muestra, sobrescribiendo la más antigua si el buffer está lleno
+     */
+    public synchronized void add(long timestampMillis, long value) {
+        timestamps[next] = timestampMillis;
+        values[next] = value;
+        next = (next + 1) % values.length;
+        size = Math.min(size + 1, values.length);
+    }
+    
+    /**
+     * Número de muestras conservadas
+     */
+    public synchronized int size() {
+        return size;
+    }
+    
+    /**
+     * Última muestra, o 0 si la serie está vacía
+     */
+    public synchronized long latest() {
+        return size == 0 ? 0 : values[(next - 1 + values.length) % values.length];
+    }
+    
+    /**
+     * Valor máximo de la ventana
+     */
+    public synchronized long max() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+    
+    /**
+     * Percentil de la ventana por rango más cercano
+     *
+     * @param percentile Percentil entre 0 y 100
+     */
+    public long percentile(double percentile) {
+        long[] sorted = values();
+        if (sorted.length == 0) {
+            return 0;
+        }
+        
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(sorted.length * percentile / 100.0);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+    
+    /**
+     * Copia de los valores, de la muestra más antigua a la más reciente
+     */
+    public synchronized long[] values() {
+        long[] copy = new long[size];
+        int start = (next - size + values.length) % values.length;
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[(start + i) % values.length];
+        }
+        return copy;
+    }
+    
+    /**
+     * Tiempo cubierto entre la muestra más antigua y la más reciente
+     */
+    public synchronized long spanMillis() {
+        if (size < 2) {
+            return 0;
+        }
+        int oldest = (next - size + values.length) % values.length;
+        int newest = (next - 1 + values.length) % values.length;
+        return timestamps[newest] - timestamps[oldest];
+    }
+}
@@ -0,0 +1,63 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.zip.CRC32;
+
+/**
+ * Migración versionada del esquema de base de datos
+ *
+ * Las versiones se aplican en orden ascendente y una sola vez. El checksum
+ * del contenido aplicado se guarda en schema_version para detectar
+ * migraciones modificadas después de ejecutarse.
+ *
+ * @author mayk0l
+ */
+public interface Migration {
+    
+    /**
+     * Versión de la migración, estrictamente creciente
+     */
+    int version();
+    
+    /**
+     * Descripción corta registrada en schema_version
+     */
+    String description();
+    
+    /**
+     * Contenido que identifica la migración para el dialecto indicado
+     */
+    String checksumSource(SqlDialect dialect);
+    
+    /**
+     * Aplica la migración dentro de la transacción abierta en la conexión
+     */
+    void apply(Connection connection, SqlDialect dialect) throws SQLException;
+    
+    /**
+     * Calcula el checksum de la migración para el dialecto indicado
+     */
+    default long checksum(SqlDialect dialect) {
+        return checksum(checksumSource(dialect));
+    }
+    
+    /**
+     * CRC32 del contenido ignorando sangría y líneas vacías, para que
+     * reformatear una migración no cambie su checksum
+     */
+    static long checksum(String source) {
+        CRC32 crc = new CRC32();
+        source.lines()
+            .map(String::trim)
+            .filter(line -> !line.isEmpty())
+            .forEach(line -> {
+                crc.update(line.getBytes(StandardCharsets.UTF_8));
+                crc.update('\n');
+            });
+        return crc.getValue();
+    }
+}
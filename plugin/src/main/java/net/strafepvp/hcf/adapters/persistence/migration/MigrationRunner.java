@@ -0,0 +1,229 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Ejecuta las migraciones pendientes y mantiene la tabla schema_version
+ *
+ * Cada migración se aplica en su propia transacción junto con su fila en
+ * schema_version. Antes de aplicar nada se verifican los checksums de las
+ * migraciones ya ejecutadas; si alguna fue modificada el arranque se detiene.
+ *
+ * @author mayk0l
+ */
+public class MigrationRunner {
+    
+    public static final String VERSION_TABLE = "schema_version";
+    
+    private final DataSource dataSource;
+    private final SqlDialect dialect;
+    private final List<Migration> migrations;
+    private final Logger logger;
+    
+    public MigrationRunner(DataSource dataSource, SqlDialect dialect, List<Migration> migrations, Logger logger) {
+        int previous = 0;
+        for (Migration migration : migrations) {
+            if (migration.version() <= previous) {
+                throw new IllegalArgumentException("Migration versions must be strictly increasing: V" + migration.version());
+            }
+            previous = migration.version();
+        }
+        
+        this.dataSource = dataSource;
+        this.dialect = dialect;
+        this.migrations = List.copyOf(migrations);
+        this.logger = logger;
+    }
+    
+    /**
+     * Aplica todas las migraciones pendientes
+     *
+     * @return Resultado con la versión inicial, la final y las migraciones aplicadas
+     */
+    public MigrationResult migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ensureVersionTable(connection);
+            
+            Map<Integer, Long> applied = loadApplied(connection);
+            int fromVersion = validate(applied);
+            int currentVersion = fromVersion;
+            int appliedCount = 0;
+            
+            for (Migration migration : migrations) {
+                if (applied.containsKey(migration.version())) {
+                    continue;
+                }
+                
+                if (migration.version() < fromVersion) {
+                    throw new IllegalStateException(String.format(
+                        "Migration V%d is older than schema version V%d and was never applied",
+                        migration.version(), fromVersion));
+                }
+                
+                if (apply(connection, migration)) {
+                    appliedCount++;
+                }
+                currentVersion = migration.version();
+            }
+            
+            if (appliedCount > 0) {
+                logger.info(String.format("Esquema actualizado de V%d a V%d (%d migraciones)",
+                    fromVersion, currentVersion, appliedCount));
+            } else {
+                logger.info(String.format("Esquema al día (V%d)", currentVersion));
+            }
+            
+            return new MigrationResult(fromVersion, currentVersion, appliedCount);
+        }
+    }
+    
+    /**
+     * Obtiene la versión más alta registrada en schema_version
+     */
+    public int currentVersion() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            ensureVersionTable(connection);
+            return loadApplied(connection).keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+    }
+    
+    private void ensureVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INT PRIMARY KEY,
+                    description VARCHAR(200) NOT NULL,
+                    checksum BIGINT NOT NULL,
+                    installed_at TIMESTAMP NOT NULL,
+                    execution_ms BIGINT NOT NULL
+                )
+                """);
+        }
+    }
+    
+    private Map<Integer, Long> loadApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + VERSION_TABLE)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+    
+    /**
+     * Verifica los checksums de las migraciones aplicadas
+     *
+     * @return Versión actual del esquema
+     */
+    private int validate(Map<Integer, Long> applied) {
+        int current = 0;
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            int version = entry.getKey();
+            current = Math.max(current, version);
+            
+            Migration migration = find(version);
+            if (migration == null) {
+                logger.warning(String.format("La migración V%d aplicada en la base de datos no existe en esta versión del plugin", version));
+                continue;
+            }
+            
+            long expected = migration.checksum(dialect);
+            if (expected != entry.getValue()) {
+                throw new IllegalStateException(String.format(
+                    "Checksum mismatch for migration V%d (applied: %d, current: %d)",
+                    version, entry.getValue(), expected));
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Aplica una migración y registra su versión en la misma transacción
+     *
+     * @return false si otro servidor la aplicó primero
+     */
+    private boolean apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        
+        try {
+            if (dialect == SqlDialect.POSTGRESQL) {
+                // Serialize concurrent startups sharing the same database
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LOCK TABLE " + VERSION_TABLE + " IN SHARE ROW EXCLUSIVE MODE");
+                }
+            }
+            
+            if (isApplied(connection, migration.version())) {
+                connection.rollback();
+                return false;
+            }
+            
+            logger.info(String.format("Aplicando migración V%d: %s", migration.version(), migration.description()));
+            migration.apply(connection, dialect);
+            
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + VERSION_TABLE + " (version, description, checksum, installed_at, execution_ms) VALUES (?, ?, ?, ?, ?)")) {
+                statement.setInt(1, migration.version());
+                statement.setString(2, migration.description());
+                statement.setLong(3, migration.checksum(dialect));
+                statement.setTimestamp(4, JdbcValues.timestamp(Instant.now()));
+                statement.setLong(5, (System.nanoTime() - start) / 1_000_000);
+                statement.executeUpdate();
+            }
+            
+            connection.commit();
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw new SQLException("Migration V" + migration.version() + " failed: " + migration.description(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    private boolean isApplied(Connection connection, int version) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM " + VERSION_TABLE + " WHERE version = ?")) {
+            statement.setInt(1, version);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+    
+    private Migration find(int version) {
+        for (Migration migration : migrations) {
+            if (migration.version() == version) {
+                return migration;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Resultado de una ejecución de migraciones
+     *
+     * @param fromVersion Versión del esquema antes de migrar
+     * @param toVersion Versión del esquema después de migrar
+     * @param applied Número de migraciones aplicadas
+     */
+    public record MigrationResult(int fromVersion, int toVersion, int applied) {
+    }
+}
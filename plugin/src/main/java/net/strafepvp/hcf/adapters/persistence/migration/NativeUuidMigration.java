@@ -0,0 +1,133 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Convierte las columnas de identificadores de VARCHAR(36) a UUID nativo
+ *
+ * Las claves foráneas entre las columnas convertidas se eliminan antes del
+ * cambio de tipo y se recrean después con nombres estables. En MySQL, sin
+ * tipo UUID, la migración no hace cambios.
+ *
+ * @author mayk0l
+ */
+public class NativeUuidMigration implements Migration {
+    
+    private static final Map<String, List<String>> UUID_COLUMNS = new LinkedHashMap<>();
+    
+    static {
+        UUID_COLUMNS.put("teams", List.of("id", "leader_id"));
+        UUID_COLUMNS.put("players", List.of("id", "minecraft_uuid", "team_id"));
+        UUID_COLUMNS.put("claims", List.of("id", "team_id"));
+        UUID_COLUMNS.put("koth_events", List.of("id", "current_controller"));
+    }
+    
+    private final int version;
+    
+    public NativeUuidMigration(int version) {
+        this.version = version;
+    }
+    
+    @Override
+    public int version() {
+        return version;
+    }
+    
+    @Override
+    public String description() {
+        return "Native UUID id columns";
+    }
+    
+    @Override
+    public String checksumSource(SqlDialect dialect) {
+        StringBuilder source = new StringBuilder(dialect.name()).append('\n');
+        UUID_COLUMNS.forEach((table, columns) -> columns.forEach(column ->
+            source.append(alterColumn(dialect, table, column)).append('\n')));
+        return source.toString();
+    }
+    
+    @Override
+    public void apply(Connection connection, SqlDialect dialect) throws SQLException {
+        if (dialect == SqlDialect.MYSQL) {
+            return;
+        }
+        
+        List<ForeignKey> foreignKeys = findForeignKeys(connection);
+        
+        try (Statement statement = connection.createStatement()) {
+            for (ForeignKey foreignKey : foreignKeys) {
+                statement.execute("ALTER TABLE " + foreignKey.table() + " DROP CONSTRAINT " + foreignKey.name());
+            }
+            
+            for (Map.Entry<String, List<String>> entry : UUID_COLUMNS.entrySet()) {
+                for (String column : entry.getValue()) {
+                    statement.execute(alterColumn(dialect, entry.getKey(), column));
+                }
+            }
+            
+            for (ForeignKey foreignKey : foreignKeys) {
+                statement.execute(String.format(
+                    "ALTER TABLE %s ADD CONSTRAINT fk_%s_%s FOREIGN KEY (%s) REFERENCES %s (%s) ON DELETE %s",
+                    foreignKey.table(), foreignKey.table(), foreignKey.column(), foreignKey.column(),
+                    foreignKey.referencedTable(), foreignKey.referencedColumn(), foreignKey.onDelete()));
+            }
+        }
+    }
+    
+    private static String alterColumn(SqlDialect dialect, String table, String column) {
+        return dialect == SqlDialect.POSTGRESQL
+            ? String.format("ALTER TABLE %s ALTER COLUMN %s TYPE UUID USING %s::uuid", table, column, column)
+            : String.format("ALTER TABLE %s ALTER COLUMN %s SET DATA TYPE UUID", table, column);
+    }
+    
+    /**
+     * Busca las claves foráneas de las tablas migradas mediante los metadatos JDBC
+     */
+    private static List<ForeignKey> findForeignKeys(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        boolean upperCase = metaData.storesUpperCaseIdentifiers();
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+        
+        for (String table : UUID_COLUMNS.keySet()) {
+            String stored = upperCase ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet resultSet = metaData.getImportedKeys(connection.getCatalog(), connection.getSchema(), stored)) {
+                while (resultSet.next()) {
+                    foreignKeys.add(new ForeignKey(
+                        resultSet.getString("FK_NAME"),
+                        table,
+                        resultSet.getString("FKCOLUMN_NAME").toLowerCase(Locale.ROOT),
+                        resultSet.getString("PKTABLE_NAME").toLowerCase(Locale.ROOT),
+                        resultSet.getString("PKCOLUMN_NAME").toLowerCase(Locale.ROOT),
+                        deleteRule(resultSet.getShort("DELETE_RULE"))
+                    ));
+                }
+            }
+        }
+        return foreignKeys;
+    }
+    
+    private static String deleteRule(short rule) {
+        return switch (rule) {
+            case DatabaseMetaData.importedKeyCascade -> "CASCADE";
+            case DatabaseMetaData.importedKeySetNull -> "SET NULL";
+            case DatabaseMetaData.importedKeySetDefault -> "SET DEFAULT";
+            case DatabaseMetaData.importedKeyRestrict -> "RESTRICT";
+            default -> "NO ACTION";
+        };
+    }
+    
+    private record ForeignKey(String name, String table, String column,
+                              String referencedTable, String referencedColumn, String onDelete) {
+    }
+}
@@ -0,0 +1,218 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+
+import java.util.List;
+
+/**
+ * Catálogo ordenado de migraciones del esquema de StrafeHCF
+ *
+ * Las migraciones ya publicadas no deben modificarse: cualquier cambio de
+ * esquema se añade como una nueva versión al final de la lista.
+ *
+ * @author mayk0l
+ */
+public final class SchemaMigrations {
+    
+    private SchemaMigrations() {
+    }
+    
+    /**
+     * Obtiene todas las migraciones en orden de versión
+     */
+    public static List<Migration> all() {
+        return List.of(
+            baseline(),
+            lookupIndexes(),
+            new NativeUuidMigration(3),
+            seasonArchive(),
+            teamVersions(),
+            cacheInvalidations()
+        );
+    }
+    
+    /**
+     * Versión de esquema que alcanza una base de datos con todas las migraciones aplicadas
+     */
+    public static int latestVersion() {
+        return all().stream().mapToInt(Migration::version).max().orElse(0);
+    }
+    
+    /**
+     * V1: tablas base; usa IF NOT EXISTS para adoptar bases de datos creadas
+     * antes de existir schema_version
+     */
+    private static Migration baseline() {
+        return SqlMigration.of(1, "Baseline schema",
+            """
+            CREATE TABLE IF NOT EXISTS teams (
+                id VARCHAR(36) PRIMARY KEY,
+                name VARCHAR(16) NOT NULL UNIQUE,
+                leader_id VARCHAR(36) NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                dtr DECIMAL(4,2) NOT NULL DEFAULT 1.01,
+                is_raidable BOOLEAN DEFAULT FALSE,
+                last_death_time TIMESTAMP NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS players (
+                id VARCHAR(36) PRIMARY KEY,
+                minecraft_uuid VARCHAR(36) NOT NULL UNIQUE,
+                username VARCHAR(16) NOT NULL,
+                team_id VARCHAR(36) NULL,
+                team_role VARCHAR(20) DEFAULT 'MEMBER',
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                pvp_protection_until TIMESTAMP NULL,
+                deathban_until TIMESTAMP NULL,
+                FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE SET NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS claims (
+                id VARCHAR(36) PRIMARY KEY,
+                team_id VARCHAR(36) NOT NULL,
+                world_name VARCHAR(50) NOT NULL,
+                min_x INT NOT NULL,
+                min_z INT NOT NULL,
+                max_x INT NOT NULL,
+                max_z INT NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE CASCADE
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS koth_events (
+                id VARCHAR(36) PRIMARY KEY,
+                name VARCHAR(50) NOT NULL,
+                world_name VARCHAR(50) NOT NULL,
+                center_x INT NOT NULL,
+                center_z INT NOT NULL,
+                radius INT NOT NULL,
+                capture_time INT NOT NULL,
+                is_active BOOLEAN DEFAULT FALSE,
+                current_controller VARCHAR(36) NULL,
+                control_start_time TIMESTAMP NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """
+        );
+    }
+    
+    /**
+     * V2: índices de las búsquedas por equipo, por zona de claim y de KOTH activos
+     */
+    private static Migration lookupIndexes() {
+        return new SqlMigration(2, "Lookup indexes", dialect -> List.of(
+            dialect.createIndex("idx_players_team_id", "players", "team_id"),
+            dialect.createIndex("idx_claims_world_min", "claims", "world_name, min_x, min_z"),
+            dialect == SqlDialect.POSTGRESQL
+                // Only a handful of rows are ever active; a partial index stays tiny
+                ? dialect.createIndex("idx_koth_events_active", "koth_events", "is_active") + " WHERE is_active"
+                : dialect.createIndex("idx_koth_events_active", "koth_events", "is_active")
+        ));
+    }
+    
+    /**
+     * V4: temporadas. Las tablas activas guardan solo la temporada en curso
+     * (season_id por defecto = temporada actual); al cerrar una temporada sus
+     * filas pasan a las tablas *_archive, indexadas por (season_id, id).
+     */
+    private static Migration seasonArchive() {
+        return new SqlMigration(4, "Season archive", dialect -> {
+            String uuid = dialect.uuidType();
+            return List.of(
+                """
+                CREATE TABLE IF NOT EXISTS seasons (
+                    id INT PRIMARY KEY,
+                    name VARCHAR(50) NOT NULL,
+                    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    ended_at TIMESTAMP NULL
+                )
+                """,
+                "INSERT INTO seasons (id, name) VALUES (1, 'Season 1')",
+                "ALTER TABLE teams ADD COLUMN season_id INT NOT NULL DEFAULT 1",
+                "ALTER TABLE players ADD COLUMN season_id INT NOT NULL DEFAULT 1",
+                "ALTER TABLE claims ADD COLUMN season_id INT NOT NULL DEFAULT 1",
+                """
+                CREATE TABLE IF NOT EXISTS teams_archive (
+                    season_id INT NOT NULL,
+                    id %1$s NOT NULL,
+                    name VARCHAR(16) NOT NULL,
+                    leader_id %1$s NOT NULL,
+                    created_at TIMESTAMP NULL,
+                    updated_at TIMESTAMP NULL,
+                    dtr DECIMAL(4,2) NOT NULL,
+                    is_raidable BOOLEAN DEFAULT FALSE,
+                    last_death_time TIMESTAMP NULL,
+                    PRIMARY KEY (season_id, id)
+                )
+                """.formatted(uuid),
+                """
+                CREATE TABLE IF NOT EXISTS players_archive (
+                    season_id INT NOT NULL,
+                    id %1$s NOT NULL,
+                    minecraft_uuid %1$s NOT NULL,
+                    username VARCHAR(16) NOT NULL,
+                    team_id %1$s NULL,
+                    team_role VARCHAR(20) DEFAULT 'MEMBER',
+                    created_at TIMESTAMP NULL,
+                    updated_at TIMESTAMP NULL,
+                    pvp_protection_until TIMESTAMP NULL,
+                    deathban_until TIMESTAMP NULL,
+                    PRIMARY KEY (season_id, id)
+                )
+                """.formatted(uuid),
+                """
+                CREATE TABLE IF NOT EXISTS claims_archive (
+                    season_id INT NOT NULL,
+                    id %1$s NOT NULL,
+                    team_id %1$s NOT NULL,
+                    world_name VARCHAR(50) NOT NULL,
+                    min_x INT NOT NULL,
+                    min_z INT NOT NULL,
+                    max_x INT NOT NULL,
+                    max_z INT NOT NULL,
+                    created_at TIMESTAMP NULL,
+                    PRIMARY KEY (season_id, id)
+                )
+                """.formatted(uuid),
+                dialect.createIndex("idx_teams_archive_name", "teams_archive", "season_id, name"),
+                dialect.createIndex("idx_players_archive_team", "players_archive", "season_id, team_id"),
+                dialect.createIndex("idx_claims_archive_team", "claims_archive", "season_id, team_id")
+            );
+        });
+    }
+    
+    /**
+     * V5: versión de fila en teams para las actualizaciones condicionales;
+     * también en el archivo, que copia las mismas columnas
+     */
+    private static Migration teamVersions() {
+        return SqlMigration.of(5, "Team versions",
+            "ALTER TABLE teams ADD COLUMN version BIGINT NOT NULL DEFAULT 0",
+            "ALTER TABLE teams_archive ADD COLUMN version BIGINT NOT NULL DEFAULT 0"
+        );
+    }
+    
+    /**
+     * V6: avisos de invalidación de cache entre servidores, leídos por
+     * PollingTransport y podados por antigüedad
+     */
+    private static Migration cacheInvalidations() {
+        return new SqlMigration(6, "Cache invalidations", dialect -> List.of(
+            """
+            CREATE TABLE IF NOT EXISTS cache_invalidations (
+                id %s,
+                origin VARCHAR(36) NOT NULL,
+                kind VARCHAR(16) NOT NULL,
+                entity_id VARCHAR(36) NOT NULL,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """.formatted(dialect.identityColumn()),
+            dialect.createIndex("idx_cache_invalidations_created", "cache_invalidations", "created_at")
+        ));
+    }
+}
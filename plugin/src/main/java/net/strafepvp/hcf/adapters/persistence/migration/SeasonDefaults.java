@@ -0,0 +1,83 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Mantiene el valor por defecto de season_id de las tablas activas
+ *
+ * Las filas nuevas toman la temporada en curso del DEFAULT de la columna, de
+ * modo que ni los mapeos ni la cola write-behind necesitan conocerla. Al
+ * abrir una temporada el DEFAULT se actualiza después de confirmar la
+ * transacción de archivo; al arrancar se comprueba de nuevo por si el
+ * servidor cayó entre ambos pasos.
+ *
+ * @author mayk0l
+ */
+public final class SeasonDefaults {
+    
+    /** Tablas activas con columna season_id */
+    public static final List<String> SEASONAL_TABLES = List.of("teams", "players", "claims");
+    
+    private SeasonDefaults() {
+    }
+    
+    /**
+     * Obtiene la temporada en curso
+     *
+     * @return Id de la temporada sin fecha de cierre
+     */
+    public static int currentSeason(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                 "SELECT MAX(id) FROM seasons WHERE ended_at IS NULL");
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next() || resultSet.getInt(1) == 0) {
+                throw new IllegalStateException("No open season found in table seasons");
+            }
+            return resultSet.getInt(1);
+        }
+    }
+    
+    /**
+     * Ajusta el DEFAULT de season_id a la temporada indicada donde no coincida
+     *
+     * @return Número de tablas modificadas
+     */
+    public static int sync(Connection connection, int season) throws SQLException {
+        int changed = 0;
+        for (String table : SEASONAL_TABLES) {
+            if (String.valueOf(season).equals(currentDefault(connection.getMetaData(), table))) {
+                continue;
+            }
+            
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN season_id SET DEFAULT " + season);
+            }
+            changed++;
+        }
+        return changed;
+    }
+    
+    /**
+     * Lee el DEFAULT de season_id, sin comillas ni paréntesis
+     */
+    private static String currentDefault(DatabaseMetaData metaData, String table) throws SQLException {
+        // Identifier case differs between H2 (upper) and PostgreSQL/MySQL (as written)
+        for (String name : List.of(table, table.toUpperCase())) {
+            for (String column : List.of("season_id", "SEASON_ID")) {
+                try (ResultSet columns = metaData.getColumns(null, null, name, column)) {
+                    if (columns.next()) {
+                        String value = columns.getString("COLUMN_DEF");
+                        return value != null ? value.replaceAll("[()'\\s]", "") : null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
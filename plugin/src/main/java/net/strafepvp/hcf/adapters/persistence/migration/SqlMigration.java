@@ -0,0 +1,46 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Migración compuesta por sentencias SQL, opcionalmente distintas por dialecto
+ *
+ * @param version Versión de la migración
+ * @param description Descripción corta
+ * @param statements Sentencias a ejecutar para cada dialecto
+ * @author mayk0l
+ */
+public record SqlMigration(
+    int version,
+    String description,
+    Function<SqlDialect, List<String>> statements
+) implements Migration {
+    
+    /**
+     * Crea una migración cuyas sentencias son iguales en todos los dialectos
+     */
+    public static SqlMigration of(int version, String description, String... statements) {
+        List<String> portable = List.of(statements);
+        return new SqlMigration(version, description, dialect -> portable);
+    }
+    
+    @Override
+    public String checksumSource(SqlDialect dialect) {
+        return String.join(";\n", statements.apply(dialect));
+    }
+    
+    @Override
+    public void apply(Connection connection, SqlDialect dialect) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements.apply(dialect)) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.AccessMode;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base para repositorios JDBC asíncronos
+ * 
+ * Las lecturas se ejecutan en el {@link DatabaseExecutor} como sentencias
+ * del {@link StatementRegistry}, por la ruta de lectura ({@link AccessMode#READ});
+ * las escrituras se delegan a la {@link WriteBehindQueue}, que las agrupa en
+ * lotes sobre el pool de escritura. Las operaciones transaccionales propias
+ * de un repositorio usan {@link AccessMode#WRITE}.
+ * 
+ * @param <T> Tipo de entidad
+ * @author mayk0l
+ */
+public abstract class AbstractJdbcRepository<T> {
+    
+    protected final DatabaseExecutor executor;
+    protected final WriteBehindQueue writeQueue;
+    protected final StatementRegistry statements;
+    protected final EntityMapping<T> mapping;
+    
+    private final String selectColumns;
+    
+    protected AbstractJdbcRepository(DatabaseExecutor executor, WriteBehindQueue writeQueue,
+                                     StatementRegistry statements, EntityMapping<T> mapping) {
+        this.executor = executor;
+        this.writeQueue = writeQueue;
+        this.statements = statements;
+        this.mapping = mapping;
+        this.selectColumns = String.join(", ", mapping.columns());
+    }
+    
+    /**
+     * Registra un SELECT de todas las columnas mapeadas con la condición indicada
+     * 
+     * @param name Nombre de la consulta; se registra como tabla.nombre
+     * @param where Condición SQL (sin la palabra WHERE) o null para toda la tabla
+     */
+    protected NamedStatement select(String name, String where) {
+        String sql = "SELECT " + selectColumns + " FROM " + mapping.table();
+        return statements.register(mapping.table() + "." + name, where != null ? sql + " WHERE " + where : sql);
+    }
+    
+    /**
+     * Convierte un identificador al valor JDBC de las columnas de ids
+     */
+    protected Object uuid(UUID value) {
+        return mapping.uuids().toJdbc(value);
+    }
+    
+    /**
+     * Ejecuta una consulta que devuelve como máximo una fila
+     */
+    protected CompletableFuture<Optional<T>> queryOne(NamedStatement query, Object... params) {
+        return queryOne(AccessMode.READ, query, params);
+    }
+    
+    /**
+     * Ejecuta una consulta que devuelve como máximo una fila por la ruta indicada
+     */
+    protected CompletableFuture<Optional<T>> queryOne(AccessMode mode, NamedStatement query, Object... params) {
+        return queryList(mode, mapping, query, params).thenApply(results -> results.isEmpty()
+            ? Optional.empty()
+            : Optional.of(results.get(0)));
+    }
+    
+    /**
+     * Ejecuta una consulta y mapea todas las filas
+     */
+    protected CompletableFuture<List<T>> queryList(NamedStatement query, Object... params) {
+        return queryList(mapping, query, params);
+    }
+    
+    /**
+     * Ejecuta una consulta y mapea todas las filas con otro mapeo, por
+     * ejemplo sobre una tabla de archivo con las mismas columnas
+     */
+    protected <R> CompletableFuture<List<R>> queryList(EntityMapping<R> rowMapping, NamedStatement query, Object... params) {
+        return queryList(AccessMode.READ, rowMapping, query, params);
+    }
+    
+    private <R> CompletableFuture<List<R>> queryList(AccessMode mode, EntityMapping<R> rowMapping, NamedStatement query,
+                                                     Object... params) {
+        return executor.supply(mode, connection -> {
+            try (PreparedStatement statement = query.prepare(connection)) {
+                for (int i = 0; i < params.length; i++) {
+                    JdbcValues.bind(statement, i + 1, params[i]);
+                }
+                
+                List<R> results = new ArrayList<>();
+                try (ResultSet resultSet = query.execute(statement, PreparedStatement::executeQuery)) {
+                    while (resultSet.next()) {
+                        results.add(rowMapping.fromRow(resultSet));
+                    }
+                }
+                return results;
+            }
+        });
+    }
+    
+    /**
+     * Encola la inserción o actualización de la entidad
+     */
+    protected CompletableFuture<Void> enqueueSave(T entity) {
+        return writeQueue.enqueueUpsert(mapping, entity);
+    }
+    
+    /**
+     * Encola el borrado de la entidad por su clave
+     */
+    protected CompletableFuture<Void> enqueueDelete(Object key) {
+        return writeQueue.enqueueDelete(mapping, key);
+    }
+    
+    /**
+     * Escritura encolada o en curso de la entidad, o null si no hay ninguna
+     */
+    protected CompletableFuture<Void> pendingWriteOf(Object key) {
+        return writeQueue.pendingWrite(mapping, key);
+    }
+}
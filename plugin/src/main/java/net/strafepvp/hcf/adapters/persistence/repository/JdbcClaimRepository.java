@@ -0,0 +1,67 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.mapping.ClaimMapping;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.ClaimRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación JDBC de {@link ClaimRepository}
+ * 
+ * @author mayk0l
+ */
+public class JdbcClaimRepository extends AbstractJdbcRepository<Claim> implements ClaimRepository {
+    
+    private final NamedStatement findById;
+    private final NamedStatement findByTeam;
+    private final NamedStatement findByWorld;
+    private final NamedStatement findAll;
+    
+    public JdbcClaimRepository(DatabaseExecutor executor, WriteBehindQueue writeQueue, StatementRegistry statements,
+                               ClaimMapping mapping) {
+        super(executor, writeQueue, statements, mapping);
+        this.findById = select("findById", "id = ?");
+        this.findByTeam = select("findByTeam", "team_id = ?");
+        this.findByWorld = select("findByWorld", "world_name = ?");
+        this.findAll = select("findAll", null);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Claim>> findById(UUID id) {
+        return queryOne(findById, uuid(id));
+    }
+    
+    @Override
+    public CompletableFuture<List<Claim>> findByTeam(TeamId teamId) {
+        return queryList(findByTeam, uuid(teamId.value()));
+    }
+    
+    @Override
+    public CompletableFuture<List<Claim>> findByWorld(String worldName) {
+        return queryList(findByWorld, worldName);
+    }
+    
+    @Override
+    public CompletableFuture<List<Claim>> findAll() {
+        return queryList(findAll);
+    }
+    
+    @Override
+    public CompletableFuture<Void> save(Claim claim) {
+        return enqueueSave(claim);
+    }
+    
+    @Override
+    public CompletableFuture<Void> delete(UUID id) {
+        return enqueueDelete(uuid(id));
+    }
+}
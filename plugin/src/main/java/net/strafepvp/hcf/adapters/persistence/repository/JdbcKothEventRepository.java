@@ -0,0 +1,66 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.mapping.KothEventMapping;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.KothEvent;
+import net.strafepvp.hcf.core.ports.KothEventRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación JDBC de {@link KothEventRepository}
+ * 
+ * @author mayk0l
+ */
+public class JdbcKothEventRepository extends AbstractJdbcRepository<KothEvent> implements KothEventRepository {
+    
+    private final NamedStatement findById;
+    private final NamedStatement findByName;
+    private final NamedStatement findActive;
+    private final NamedStatement findAll;
+    
+    public JdbcKothEventRepository(DatabaseExecutor executor, WriteBehindQueue writeQueue, StatementRegistry statements,
+                                   KothEventMapping mapping) {
+        super(executor, writeQueue, statements, mapping);
+        this.findById = select("findById", "id = ?");
+        this.findByName = select("findByName", "LOWER(name) = LOWER(?)");
+        this.findActive = select("findActive", "is_active = TRUE");
+        this.findAll = select("findAll", null);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<KothEvent>> findById(UUID id) {
+        return queryOne(findById, uuid(id));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<KothEvent>> findByName(String name) {
+        return queryOne(findByName, name);
+    }
+    
+    @Override
+    public CompletableFuture<List<KothEvent>> findActive() {
+        return queryList(findActive);
+    }
+    
+    @Override
+    public CompletableFuture<List<KothEvent>> findAll() {
+        return queryList(findAll);
+    }
+    
+    @Override
+    public CompletableFuture<Void> save(KothEvent koth) {
+        return enqueueSave(koth);
+    }
+    
+    @Override
+    public CompletableFuture<Void> delete(UUID id) {
+        return enqueueDelete(uuid(id));
+    }
+}
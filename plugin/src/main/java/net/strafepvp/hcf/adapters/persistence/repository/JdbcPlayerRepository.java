@@ -0,0 +1,73 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.AccessMode;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.cache.PrimaryReads;
+import net.strafepvp.hcf.adapters.persistence.mapping.PlayerMapping;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.PlayerRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación JDBC de {@link PlayerRepository}
+ * 
+ * @author mayk0l
+ */
+public class JdbcPlayerRepository extends AbstractJdbcRepository<HCFPlayer>
+    implements PlayerRepository, PrimaryReads<PlayerId, HCFPlayer> {
+    
+    private final NamedStatement findById;
+    private final NamedStatement findByUsername;
+    private final NamedStatement findByTeam;
+    
+    public JdbcPlayerRepository(DatabaseExecutor executor, WriteBehindQueue writeQueue, StatementRegistry statements,
+                                PlayerMapping mapping) {
+        super(executor, writeQueue, statements, mapping);
+        this.findById = select("findById", "minecraft_uuid = ?");
+        this.findByUsername = select("findByUsername", "LOWER(username) = LOWER(?)");
+        this.findByTeam = select("findByTeam", "team_id = ?");
+    }
+    
+    @Override
+    public CompletableFuture<Optional<HCFPlayer>> findById(PlayerId id) {
+        return queryOne(findById, uuid(id.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<HCFPlayer>> findByUsername(String username) {
+        return queryOne(findByUsername, username);
+    }
+    
+    @Override
+    public CompletableFuture<List<HCFPlayer>> findByTeam(TeamId teamId) {
+        return queryList(findByTeam, uuid(teamId.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Void> save(HCFPlayer player) {
+        return enqueueSave(player);
+    }
+    
+    @Override
+    public CompletableFuture<Void> delete(PlayerId id) {
+        return enqueueDelete(uuid(id.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<HCFPlayer>> findOnPrimary(PlayerId id) {
+        return queryOne(AccessMode.WRITE, findById, uuid(id.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Void> pendingWrite(PlayerId id) {
+        return pendingWriteOf(uuid(id.value()));
+    }
+}
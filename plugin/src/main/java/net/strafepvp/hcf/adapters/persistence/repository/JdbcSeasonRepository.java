@@ -0,0 +1,186 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.AccessMode;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues;
+import net.strafepvp.hcf.adapters.persistence.migration.SeasonDefaults;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.Season;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.SeasonRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación JDBC de {@link SeasonRepository}
+ * 
+ * Cerrar una temporada copia teams, players y claims a sus tablas
+ * *_archive y vacía las tablas activas en una sola transacción, de modo que
+ * las consultas del mapa en curso nunca recorren filas históricas. Las
+ * tablas de archivo comparten columnas con las activas y se leen con los
+ * mismos mapeos.
+ * 
+ * @author mayk0l
+ */
+public class JdbcSeasonRepository extends AbstractJdbcRepository<Season> implements SeasonRepository {
+    
+    private final EntityMappings mappings;
+    private final NamedStatement findCurrent;
+    private final NamedStatement findAll;
+    private final NamedStatement closeSeason;
+    private final NamedStatement insertSeason;
+    private final List<NamedStatement> archiveInserts = new ArrayList<>();
+    private final NamedStatement deleteClaims;
+    private final NamedStatement deletePlayers;
+    private final NamedStatement carryPlayers;
+    private final NamedStatement deleteTeams;
+    private final NamedStatement archivedTeams;
+    private final NamedStatement archivedTeamByName;
+    private final NamedStatement archivedPlayer;
+    private final NamedStatement archivedMembers;
+    private final NamedStatement archivedClaims;
+    
+    public JdbcSeasonRepository(DatabaseExecutor executor, WriteBehindQueue writeQueue, StatementRegistry statements,
+                                EntityMappings mappings) {
+        super(executor, writeQueue, statements, mappings.seasons());
+        this.mappings = mappings;
+        this.findCurrent = select("findCurrent", "ended_at IS NULL ORDER BY id DESC");
+        this.findAll = select("findAll", null);
+        this.closeSeason = statements.register("seasons.close", "UPDATE seasons SET ended_at = ? WHERE id = ?");
+        this.insertSeason = statements.register("seasons.insert",
+            "INSERT INTO seasons (" + String.join(", ", mapping.columns()) + ") VALUES (?, ?, ?, ?)");
+        
+        for (EntityMapping<?> seasonal : List.of(mappings.teams(), mappings.players(), mappings.claims())) {
+            String columns = String.join(", ", seasonal.columns());
+            archiveInserts.add(statements.register(seasonal.table() + ".archive",
+                "INSERT INTO " + seasonal.table() + "_archive (season_id, " + columns + ") "
+                    + "SELECT season_id, " + columns + " FROM " + seasonal.table()));
+        }
+        
+        // Children first; players keep their profile but not their team when carried over
+        this.deleteClaims = statements.register("claims.deleteAll", "DELETE FROM claims");
+        this.deletePlayers = statements.register("players.deleteAll", "DELETE FROM players");
+        this.carryPlayers = statements.register("players.carryOver",
+            "UPDATE players SET team_id = NULL, team_role = 'MEMBER', season_id = ?");
+        this.deleteTeams = statements.register("teams.deleteAll", "DELETE FROM teams");
+        
+        this.archivedTeams = archived(mappings.teams(), "findBySeason", null);
+        this.archivedTeamByName = archived(mappings.teams(), "findByName", "LOWER(name) = LOWER(?)");
+        this.archivedPlayer = archived(mappings.players(), "findById", "minecraft_uuid = ?");
+        this.archivedMembers = archived(mappings.players(), "findByTeam", "team_id = ?");
+        this.archivedClaims = archived(mappings.claims(), "findByTeam", "team_id = ?");
+    }
+    
+    /**
+     * Registra un SELECT sobre la tabla de archivo de la entidad, filtrado por temporada
+     */
+    private NamedStatement archived(EntityMapping<?> seasonal, String name, String where) {
+        String table = seasonal.table() + "_archive";
+        String sql = "SELECT " + String.join(", ", seasonal.columns()) + " FROM " + table + " WHERE season_id = ?";
+        return statements.register(table + "." + name, where != null ? sql + " AND " + where : sql);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Season>> findCurrent() {
+        return queryOne(findCurrent);
+    }
+    
+    @Override
+    public CompletableFuture<List<Season>> findAll() {
+        return queryList(findAll).thenApply(seasons -> {
+            seasons.sort(Comparator.comparingInt(Season::id));
+            return seasons;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Season> startNewSeason(String name, boolean keepPlayers) {
+        return executor.supply(AccessMode.WRITE, connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            
+            Season next;
+            try {
+                int current = SeasonDefaults.currentSeason(connection);
+                // TIMESTAMP without fractional seconds on MySQL; keep the returned value equal to the stored one
+                Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+                next = new Season(current + 1, name, now, null);
+                
+                for (NamedStatement archive : archiveInserts) {
+                    update(connection, archive);
+                }
+                update(connection, deleteClaims);
+                if (keepPlayers) {
+                    update(connection, carryPlayers, next.id());
+                } else {
+                    update(connection, deletePlayers);
+                }
+                update(connection, deleteTeams);
+                update(connection, closeSeason, JdbcValues.timestamp(now), current);
+                update(connection, insertSeason, mapping.toRow(next));
+                
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            
+            // DDL commits implicitly on some dialects, so it runs after the archive transaction
+            SeasonDefaults.sync(connection, next.id());
+            return next;
+        });
+    }
+    
+    private int update(Connection connection, NamedStatement update, Object... params) throws SQLException {
+        try (PreparedStatement statement = update.prepare(connection)) {
+            JdbcValues.bindAll(statement, 1, params);
+            return update.execute(statement, PreparedStatement::executeUpdate);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<List<Team>> findArchivedTeams(int seasonId) {
+        return queryList(mappings.teams(), archivedTeams, seasonId);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Team>> findArchivedTeamByName(int seasonId, String name) {
+        return queryList(mappings.teams(), archivedTeamByName, seasonId, name)
+            .thenApply(teams -> teams.stream().findFirst());
+    }
+    
+    @Override
+    public CompletableFuture<Optional<HCFPlayer>> findArchivedPlayer(int seasonId, PlayerId playerId) {
+        return queryList(mappings.players(), archivedPlayer, seasonId, uuid(playerId.value()))
+            .thenApply(players -> players.stream().findFirst());
+    }
+    
+    @Override
+    public CompletableFuture<List<HCFPlayer>> findArchivedMembers(int seasonId, TeamId teamId) {
+        return queryList(mappings.players(), archivedMembers, seasonId, uuid(teamId.value()));
+    }
+    
+    @Override
+    public CompletableFuture<List<Claim>> findArchivedClaims(int seasonId, TeamId teamId) {
+        return queryList(mappings.claims(), archivedClaims, seasonId, uuid(teamId.value()));
+    }
+}
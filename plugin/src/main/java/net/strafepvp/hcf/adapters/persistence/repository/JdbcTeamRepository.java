@@ -0,0 +1,72 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.AccessMode;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.cache.PrimaryReads;
+import net.strafepvp.hcf.adapters.persistence.mapping.TeamMapping;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.TeamRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementación JDBC de {@link TeamRepository}
+ * 
+ * @author mayk0l
+ */
+public class JdbcTeamRepository extends AbstractJdbcRepository<Team>
+    implements TeamRepository, PrimaryReads<TeamId, Team> {
+    
+    private final NamedStatement findById;
+    private final NamedStatement findByName;
+    private final NamedStatement findAll;
+    
+    public JdbcTeamRepository(DatabaseExecutor executor, WriteBehindQueue writeQueue, StatementRegistry statements,
+                              TeamMapping mapping) {
+        super(executor, writeQueue, statements, mapping);
+        this.findById = select("findById", "id = ?");
+        this.findByName = select("findByName", "LOWER(name) = LOWER(?)");
+        this.findAll = select("findAll", null);
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Team>> findById(TeamId id) {
+        return queryOne(findById, uuid(id.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Team>> findByName(String name) {
+        return queryOne(findByName, name);
+    }
+    
+    @Override
+    public CompletableFuture<List<Team>> findAll() {
+        return queryList(findAll);
+    }
+    
+    @Override
+    public CompletableFuture<Void> save(Team team) {
+        return enqueueSave(team);
+    }
+    
+    @Override
+    public CompletableFuture<Void> delete(TeamId id) {
+        return enqueueDelete(uuid(id.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Optional<Team>> findOnPrimary(TeamId id) {
+        return queryOne(AccessMode.WRITE, findById, uuid(id.value()));
+    }
+    
+    @Override
+    public CompletableFuture<Void> pendingWrite(TeamId id) {
+        return pendingWriteOf(uuid(id.value()));
+    }
+}
@@ -0,0 +1,136 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+import net.strafepvp.hcf.adapters.persistence.BulkLoader;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.mapping.UuidStorage;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Exporta el estado HCF completo a una instantánea binaria
+ *
+ * Las tablas se recorren una tras otra con el cursor de {@link BulkLoader} y
+ * cada fila se escribe en cuanto llega, por lo que la memoria usada no
+ * depende del tamaño del mapa. Todo el trabajo ocurre en los hilos de E/S;
+ * el fichero se escribe con extensión .part y se renombra al terminar.
+ *
+ * @author mayk0l
+ */
+public class SnapshotExporter {
+    
+    private final DatabaseExecutor executor;
+    private final BulkLoader loader;
+    private final EntityMappings mappings;
+    private final EntityMappings portable = EntityMappings.create(UuidStorage.NATIVE);
+    
+    public SnapshotExporter(DatabaseExecutor executor, StatementRegistry statements, EntityMappings mappings, int fetchSize) {
+        this.executor = executor;
+        this.loader = new BulkLoader(executor, statements, fetchSize);
+        this.mappings = mappings;
+    }
+    
+    /**
+     * Exporta todas las tablas al fichero indicado
+     *
+     * @param file Fichero de destino; se sobrescribe si existe
+     * @return Futuro con las filas exportadas por tabla
+     */
+    public CompletableFuture<SnapshotResult> export(Path file) {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long start = System.nanoTime();
+        Map<String, Long> rows = new LinkedHashMap<>();
+        
+        CompletableFuture<SnapshotWriter> chain = CompletableFuture.supplyAsync(() -> {
+            try {
+                Files.createDirectories(partial.toAbsolutePath().getParent());
+                return SnapshotWriter.open(partial, SchemaMigrations.latestVersion(), System.currentTimeMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor.io());
+        
+        // Tables share a single output stream, so they are exported one after another
+        List<EntityMapping<?>> sources = mappings.writeOrder();
+        List<EntityMapping<?>> targets = portable.writeOrder();
+        for (int i = 0; i < sources.size(); i++) {
+            EntityMapping<?> source = sources.get(i);
+            EntityMapping<?> target = targets.get(i);
+            chain = chain.thenCompose(writer -> exportTable(writer, source, target)
+                .thenApply(count -> {
+                    rows.put(source.table(), count);
+                    return writer;
+                }));
+        }
+        
+        return chain
+            .handle((writer, error) -> {
+                try {
+                    if (error != null) {
+                        Files.deleteIfExists(partial);
+                        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                    }
+                    
+                    writer.finish();
+                    Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return new SnapshotResult(file, rows, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Long> exportTable(SnapshotWriter writer, EntityMapping<T> source, EntityMapping<?> target) {
+        EntityMapping<T> portableMapping = (EntityMapping<T>) target;
+        try {
+            writer.beginTable(portableMapping.table(), portableMapping.columns());
+        } catch (IOException e) {
+            return failAndClose(writer, e);
+        }
+        
+        return loader.stream(source, entity -> {
+            try {
+                writer.writeRow(portableMapping.toRow(entity));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).thenApply(load -> {
+            try {
+                writer.endTable();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return (long) load.rows();
+        }).whenComplete((count, error) -> {
+            if (error != null) {
+                closeQuietly(writer);
+            }
+        });
+    }
+    
+    private static <T> CompletableFuture<T> failAndClose(SnapshotWriter writer, IOException error) {
+        closeQuietly(writer);
+        return CompletableFuture.failedFuture(error);
+    }
+    
+    private static void closeQuietly(SnapshotWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // The partial file is deleted right after
+        }
+    }
+}
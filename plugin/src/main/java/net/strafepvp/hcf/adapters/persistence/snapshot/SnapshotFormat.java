@@ -0,0 +1,37 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+/**
+ * Formato binario de las instantáneas de estado HCF
+ *
+ * El fichero va comprimido con GZIP (que aporta el CRC de integridad) y
+ * contiene:
+ * <pre>
+ * cabecera: int MAGIC, short FORMAT_VERSION, int versión de esquema, long creado (epoch millis)
+ * por tabla: byte TABLE, UTF nombre, short nº columnas, UTF columna...
+ *            (byte ROW, fila de RowCodec)*
+ *            byte END_TABLE, long nº filas
+ * fin: byte END
+ * </pre>
+ * Las columnas se guardan por nombre para poder importar instantáneas de
+ * versiones de esquema anteriores, y los identificadores siempre como UUID
+ * nativo, sea cual sea el dialecto de origen.
+ *
+ * @author mayk0l
+ */
+public final class SnapshotFormat {
+    
+    /** "HCS1" */
+    public static final int MAGIC = 0x48435331;
+    public static final short FORMAT_VERSION = 1;
+    public static final String EXTENSION = ".hcfs";
+    
+    static final byte END = 0;
+    static final byte TABLE = 1;
+    static final byte ROW = 2;
+    static final byte END_TABLE = 3;
+    
+    static final int BUFFER_SIZE = 64 * 1024;
+    
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,177 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+import net.strafepvp.hcf.adapters.persistence.AccessMode;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.mapping.JdbcValues;
+import net.strafepvp.hcf.adapters.persistence.mapping.UuidStorage;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.NamedStatement;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Importa una instantánea binaria en la base de datos
+ *
+ * Lee el fichero fila a fila y las inserta o actualiza en lotes de
+ * batch_size dentro de una única transacción: o se importa todo o nada. Las
+ * columnas se emparejan por nombre; las que una instantánea de un esquema
+ * anterior no tiene se omiten del upsert, de modo que las filas nuevas
+ * toman el valor por defecto de la columna y las existentes conservan el
+ * suyo. Se pueden elegir
+ * las tablas a importar; las elegidas deben incluir las tablas a las que
+ * referencian sus claves foráneas.
+ *
+ * La importación escribe directamente en la base de datos: quien la use
+ * debe vaciar antes la cola write-behind y recargar después las caches.
+ *
+ * @author mayk0l
+ */
+public class SnapshotImporter {
+    
+    private final DatabaseExecutor executor;
+    private final SqlDialect dialect;
+    private final StatementRegistry statements;
+    private final Map<String, EntityMapping<?>> mappingsByTable = new LinkedHashMap<>();
+    private final Map<String, NamedStatement> upserts = new HashMap<>();
+    private final int batchSize;
+    
+    public SnapshotImporter(DatabaseExecutor executor, SqlDialect dialect, StatementRegistry statements,
+                            EntityMappings mappings, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        
+        this.executor = executor;
+        this.dialect = dialect;
+        this.statements = statements;
+        this.batchSize = batchSize;
+        
+        for (EntityMapping<?> mapping : mappings.writeOrder()) {
+            mappingsByTable.put(mapping.table(), mapping);
+            upserts.put(mapping.table(), statements.register(mapping.table() + ".upsert",
+                dialect.upsert(mapping.table(), mapping.columns())));
+        }
+    }
+    
+    /**
+     * Importa las tablas seleccionadas de la instantánea
+     *
+     * @param file Fichero de la instantánea
+     * @param tables Tablas a importar; vacío para importarlas todas
+     * @return Futuro con las filas importadas por tabla
+     */
+    public CompletableFuture<SnapshotResult> importFrom(Path file, Set<String> tables) {
+        return executor.supply(AccessMode.WRITE, connection -> {
+            long start = System.nanoTime();
+            Map<String, Long> rows = new LinkedHashMap<>();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            
+            try (SnapshotReader reader = SnapshotReader.open(file)) {
+                if (reader.schemaVersion() > SchemaMigrations.latestVersion()) {
+                    throw new IllegalStateException(String.format("Snapshot schema version %d is newer than %d",
+                        reader.schemaVersion(), SchemaMigrations.latestVersion()));
+                }
+                
+                while (reader.nextTable()) {
+                    EntityMapping<?> mapping = mappingsByTable.get(reader.table());
+                    if (mapping == null || (!tables.isEmpty() && !tables.contains(reader.table()))) {
+                        skipTable(reader);
+                        continue;
+                    }
+                    rows.put(mapping.table(), importTable(connection, reader, mapping));
+                }
+                
+                connection.commit();
+                return new SnapshotResult(file, rows, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException e) {
+                connection.rollback();
+                throw new UncheckedIOException(e);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+    
+    private long importTable(Connection connection, SnapshotReader reader, EntityMapping<?> mapping)
+            throws IOException, SQLException {
+        List<String> columns = mapping.columns().stream()
+            .filter(reader.columns()::contains)
+            .toList();
+        if (columns.isEmpty() || !columns.get(0).equals(mapping.columns().get(0))) {
+            throw new IllegalStateException("Snapshot table " + mapping.table() + " has no " + mapping.columns().get(0) + " column");
+        }
+        
+        int[] sourceIndex = columnIndex(reader.columns(), columns);
+        UuidStorage uuids = mapping.uuids();
+        NamedStatement upsert = columns.size() == mapping.columns().size()
+            ? upserts.get(mapping.table())
+            // Columns added after the snapshot was taken keep their DEFAULT
+            : statements.register(mapping.table() + ".upsert(" + String.join(",", columns) + ")",
+                dialect.upsert(mapping.table(), columns));
+        Object[] target = new Object[sourceIndex.length];
+        long imported = 0;
+        
+        try (PreparedStatement statement = upsert.prepare(connection)) {
+            int batched = 0;
+            for (Object[] row = reader.nextRow(); row != null; row = reader.nextRow()) {
+                for (int i = 0; i < sourceIndex.length; i++) {
+                    Object value = row[sourceIndex[i]];
+                    target[i] = value instanceof UUID uuid ? uuids.toJdbc(uuid) : value;
+                }
+                
+                JdbcValues.bindAll(statement, 1, target);
+                statement.addBatch();
+                imported++;
+                
+                if (++batched == batchSize) {
+                    upsert.execute(statement, PreparedStatement::executeBatch);
+                    batched = 0;
+                }
+            }
+            
+            if (batched > 0) {
+                upsert.execute(statement, PreparedStatement::executeBatch);
+            }
+        }
+        
+        return imported;
+    }
+    
+    /**
+     * Posición de cada columna de destino en la fila de la instantánea
+     */
+    private static int[] columnIndex(List<String> snapshotColumns, List<String> targetColumns) {
+        int[] index = new int[targetColumns.size()];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = snapshotColumns.indexOf(targetColumns.get(i));
+        }
+        return index;
+    }
+    
+    private static void skipTable(SnapshotReader reader) throws IOException {
+        while (reader.nextRow() != null) {
+            // Rows must still be decoded to reach the next table
+        }
+    }
+}
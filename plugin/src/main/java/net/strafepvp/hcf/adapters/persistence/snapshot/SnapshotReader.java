@@ -0,0 +1,126 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+import net.strafepvp.hcf.adapters.persistence.codec.RowCodec;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lector secuencial de una instantánea, tabla a tabla y fila a fila
+ *
+ * @author mayk0l
+ */
+class SnapshotReader implements Closeable {
+    
+    private final DataInputStream in;
+    private final int schemaVersion;
+    private final long createdAtMillis;
+    
+    private String table;
+    private List<String> columns;
+    private long rowsRead;
+    
+    private SnapshotReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream, SnapshotFormat.BUFFER_SIZE));
+        
+        int magic = in.readInt();
+        if (magic != SnapshotFormat.MAGIC) {
+            throw new IOException("Not an HCF snapshot file");
+        }
+        short version = in.readShort();
+        if (version != SnapshotFormat.FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version: " + version);
+        }
+        this.schemaVersion = in.readInt();
+        this.createdAtMillis = in.readLong();
+    }
+    
+    /**
+     * Abre el fichero y valida la cabecera
+     */
+    static SnapshotReader open(Path file) throws IOException {
+        InputStream stream = new GZIPInputStream(Files.newInputStream(file), SnapshotFormat.BUFFER_SIZE);
+        try {
+            return new SnapshotReader(stream);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+    
+    int schemaVersion() {
+        return schemaVersion;
+    }
+    
+    long createdAtMillis() {
+        return createdAtMillis;
+    }
+    
+    /**
+     * Avanza a la siguiente tabla
+     *
+     * @return false al llegar al final de la instantánea
+     */
+    boolean nextTable() throws IOException {
+        byte marker = in.readByte();
+        if (marker == SnapshotFormat.END) {
+            return false;
+        }
+        if (marker != SnapshotFormat.TABLE) {
+            throw new IOException("Corrupt snapshot: expected table marker, found " + marker);
+        }
+        
+        this.table = in.readUTF();
+        int count = in.readUnsignedShort();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        this.columns = List.copyOf(names);
+        this.rowsRead = 0;
+        return true;
+    }
+    
+    String table() {
+        return table;
+    }
+    
+    List<String> columns() {
+        return columns;
+    }
+    
+    /**
+     * Lee la siguiente fila de la tabla actual
+     *
+     * @return Fila en el orden de {@link #columns()}, o null al terminar la tabla
+     */
+    Object[] nextRow() throws IOException {
+        byte marker = in.readByte();
+        if (marker == SnapshotFormat.END_TABLE) {
+            long expected = in.readLong();
+            if (expected != rowsRead) {
+                throw new IOException(String.format("Corrupt snapshot: table %s has %d rows, expected %d", table, rowsRead, expected));
+            }
+            return null;
+        }
+        if (marker != SnapshotFormat.ROW) {
+            throw new IOException("Corrupt snapshot: expected row marker, found " + marker);
+        }
+        
+        rowsRead++;
+        return RowCodec.readRow(in);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,23 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Resultado de una exportación o importación de instantánea
+ *
+ * @param file Fichero de la instantánea
+ * @param rows Filas por tabla, en orden de escritura
+ * @param bytes Tamaño del fichero en bytes
+ * @param millis Duración de la operación en milisegundos
+ * @author mayk0l
+ */
+public record SnapshotResult(Path file, Map<String, Long> rows, long bytes, long millis) {
+    
+    /**
+     * Total de filas de todas las tablas
+     */
+    public long totalRows() {
+        return rows.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,79 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+import net.strafepvp.hcf.adapters.persistence.codec.RowCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escritor secuencial de una instantánea; solo mantiene en memoria el buffer de salida
+ *
+ * @author mayk0l
+ */
+class SnapshotWriter implements Closeable {
+    
+    private final DataOutputStream out;
+    private long tableRows;
+    
+    private SnapshotWriter(OutputStream stream) {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream, SnapshotFormat.BUFFER_SIZE));
+    }
+    
+    /**
+     * Crea el fichero y escribe la cabecera
+     */
+    static SnapshotWriter open(Path file, int schemaVersion, long createdAtMillis) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter(new GZIPOutputStream(Files.newOutputStream(file), SnapshotFormat.BUFFER_SIZE));
+        try {
+            writer.out.writeInt(SnapshotFormat.MAGIC);
+            writer.out.writeShort(SnapshotFormat.FORMAT_VERSION);
+            writer.out.writeInt(schemaVersion);
+            writer.out.writeLong(createdAtMillis);
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+        return writer;
+    }
+    
+    void beginTable(String table, List<String> columns) throws IOException {
+        out.writeByte(SnapshotFormat.TABLE);
+        out.writeUTF(table);
+        out.writeShort(columns.size());
+        for (String column : columns) {
+            out.writeUTF(column);
+        }
+        tableRows = 0;
+    }
+    
+    void writeRow(Object[] row) throws IOException {
+        out.writeByte(SnapshotFormat.ROW);
+        RowCodec.writeRow(out, row);
+        tableRows++;
+    }
+    
+    void endTable() throws IOException {
+        out.writeByte(SnapshotFormat.END_TABLE);
+        out.writeLong(tableRows);
+    }
+    
+    /**
+     * Escribe el marcador final y cierra el fichero
+     */
+    void finish() throws IOException {
+        out.writeByte(SnapshotFormat.END);
+        out.close();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
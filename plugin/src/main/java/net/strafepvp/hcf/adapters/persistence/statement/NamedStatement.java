@@ -0,0 +1,96 @@
+package net.strafepvp.hcf.adapters.persistence.statement;
+
+import net.strafepvp.hcf.adapters.persistence.SqlFunction;
+import net.strafepvp.hcf.adapters.persistence.metrics.LatencyHistogram;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sentencia SQL registrada con nombre, timeout y métricas propias
+ *
+ * El texto SQL es siempre el mismo para un nombre, de modo que la cache de
+ * sentencias del driver reutiliza el plan ya parseado en cada conexión.
+ *
+ * @author mayk0l
+ */
+public final class NamedStatement {
+    
+    private final String name;
+    private final String sql;
+    private final int queryTimeoutSeconds;
+    
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    
+    NamedStatement(String name, String sql, int queryTimeoutSeconds) {
+        this.name = name;
+        this.sql = sql;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+    
+    public String name() {
+        return name;
+    }
+    
+    public String sql() {
+        return sql;
+    }
+    
+    /**
+     * Prepara la sentencia en la conexión aplicando el timeout configurado
+     */
+    public PreparedStatement prepare(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (queryTimeoutSeconds > 0) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+        }
+        return statement;
+    }
+    
+    /**
+     * Ejecuta la acción sobre la sentencia preparada midiendo su duración
+     *
+     * @param statement Sentencia obtenida con {@link #prepare(Connection)}
+     * @param action Ejecución (executeQuery, executeUpdate, executeBatch...)
+     * @return Resultado de la acción
+     */
+    public <T> T execute(PreparedStatement statement, SqlFunction<PreparedStatement, T> action) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return action.apply(statement);
+        } catch (SQLException | RuntimeException e) {
+            errors.incrementAndGet();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            latency.record(elapsed);
+            totalNanos.addAndGet(elapsed);
+        }
+    }
+    
+    public LatencyHistogram latency() {
+        return latency;
+    }
+    
+    /**
+     * Tiempo total acumulado en milisegundos
+     */
+    public long totalMillis() {
+        return totalNanos.get() / 1_000_000;
+    }
+    
+    public long errors() {
+        return errors.get();
+    }
+    
+    /**
+     * Obtiene un resumen de las métricas de la sentencia
+     */
+    public String getStatus() {
+        return String.format("%s - Total: %dms, Errors: %d, %s", name, totalMillis(), errors(), latency.summary());
+    }
+}
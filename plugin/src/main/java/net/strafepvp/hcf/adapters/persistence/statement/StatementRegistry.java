@@ -0,0 +1,70 @@
+package net.strafepvp.hcf.adapters.persistence.statement;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro central de sentencias SQL con nombre
+ *
+ * Cada repositorio registra sus consultas al construirse; a partir de ahí
+ * solo se ejecutan sentencias registradas, con el timeout de
+ * performance.database_optimization.query_timeout y tiempos medidos por
+ * nombre. Registrar dos SQL distintos con el mismo nombre es un error.
+ *
+ * @author mayk0l
+ */
+public class StatementRegistry {
+    
+    private final int queryTimeoutSeconds;
+    private final Map<String, NamedStatement> statements = new ConcurrentHashMap<>();
+    
+    public StatementRegistry(int queryTimeoutSeconds) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+    
+    /**
+     * Registra una sentencia; si el nombre ya existe con el mismo SQL se devuelve la existente
+     *
+     * @param name Nombre único, por convención tabla.operación
+     * @param sql Texto SQL parametrizado
+     * @return Sentencia registrada
+     */
+    public NamedStatement register(String name, String sql) {
+        NamedStatement statement = statements.computeIfAbsent(name,
+            key -> new NamedStatement(key, sql, queryTimeoutSeconds));
+        
+        if (!statement.sql().equals(sql)) {
+            throw new IllegalArgumentException("Statement '" + name + "' is already registered with different SQL");
+        }
+        return statement;
+    }
+    
+    /**
+     * Busca una sentencia registrada por nombre
+     */
+    public Optional<NamedStatement> get(String name) {
+        return Optional.ofNullable(statements.get(name));
+    }
+    
+    /**
+     * Sentencias registradas ordenadas por tiempo total acumulado, de mayor a menor
+     */
+    public List<NamedStatement> byTotalTime() {
+        List<NamedStatement> sorted = new ArrayList<>(statements.values());
+        sorted.sort(Comparator.comparingLong(NamedStatement::totalMillis).reversed()
+            .thenComparing(NamedStatement::name));
+        return sorted;
+    }
+    
+    public int size() {
+        return statements.size();
+    }
+    
+    public int getQueryTimeoutSeconds() {
+        return queryTimeoutSeconds;
+    }
+}
@@ -0,0 +1,158 @@
+package net.strafepvp.hcf.adapters.spigot;
+
+import net.strafepvp.hcf.application.state.HCFStateIndex;
+import net.strafepvp.hcf.core.domain.claim.ClaimBorderGuard;
+import net.strafepvp.hcf.core.domain.claim.ClaimRules;
+import net.strafepvp.hcf.core.domain.claim.ExplosionFilter;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Protege el terreno reclamado frente a explosiones, líquidos y pistones
+ *
+ * Mientras la carga inicial está pendiente (arranque en modo degradado) el
+ * índice está vacío y no distingue los claims de la zona libre, así que se
+ * deniega todo: las explosiones no rompen bloques y ni los líquidos ni los
+ * pistones mueven nada hasta que el índice se carga.
+ *
+ * @author mayk0l
+ */
+public class ClaimProtectionListener implements Listener {
+    
+    private final Supplier<HCFStateIndex> stateIndex;
+    private final Supplier<ClaimRules> rules;
+    private final BooleanSupplier statePending;
+    private final ExplosionFilter explosionFilter = new ExplosionFilter();
+    private final ClaimBorderGuard borderGuard = new ClaimBorderGuard();
+    
+    /**
+     * @param stateIndex Índice actual; se sustituye en recargas y cambios de temporada
+     * @param rules Reglas de claims actuales
+     * @param statePending true mientras el índice aún no refleja los claims persistidos
+     */
+    public ClaimProtectionListener(Supplier<HCFStateIndex> stateIndex, Supplier<ClaimRules> rules,
+                                   BooleanSupplier statePending) {
+        this.stateIndex = stateIndex;
+        this.rules = rules;
+        this.statePending = statePending;
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        filterExplosion(event.getLocation().getWorld(), event.blockList());
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        filterExplosion(event.getBlock().getWorld(), event.blockList());
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        if (statePending.getAsBoolean()) {
+            event.setCancelled(true);
+            return;
+        }
+        
+        HCFStateIndex index = stateIndex.get();
+        if (index == null) {
+            return;
+        }
+        
+        Block from = event.getBlock();
+        Block to = event.getToBlock();
+        if (borderGuard.crossesInto(index.getClaimLookup(), from.getWorld().getName(),
+                from.getX(), from.getZ(), to.getX(), to.getZ())) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        // The head itself moves one block even when nothing is pushed
+        Block piston = event.getBlock();
+        BlockFace direction = event.getDirection();
+        if (movesAcrossBorder(piston, event.getBlocks(), direction)
+            || crosses(piston, piston.getX() + direction.getModX(), piston.getZ() + direction.getModZ())) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (movesAcrossBorder(event.getBlock(), event.getBlocks(), event.getDirection())) {
+            event.setCancelled(true);
+        }
+    }
+    
+    /**
+     * Obtiene un resumen de la actividad de protección
+     */
+    public List<String> getStatus() {
+        return List.of(explosionFilter.getStatus(), borderGuard.getStatus());
+    }
+    
+    /**
+     * Verifica si algún bloque movido sale de, o entra en, terreno de un
+     * equipo distinto al del pistón
+     */
+    private boolean movesAcrossBorder(Block piston, List<Block> blocks, BlockFace direction) {
+        if (statePending.getAsBoolean()) {
+            return true;
+        }
+        for (Block block : blocks) {
+            int x = block.getX();
+            int z = block.getZ();
+            if (crosses(piston, x, z) || crosses(piston, x + direction.getModX(), z + direction.getModZ())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean crosses(Block piston, int x, int z) {
+        HCFStateIndex index = stateIndex.get();
+        if (index == null) {
+            return false;
+        }
+        return borderGuard.crossesInto(index.getClaimLookup(), piston.getWorld().getName(),
+            piston.getX(), piston.getZ(), x, z);
+    }
+    
+    private void filterExplosion(World world, List<Block> blocks) {
+        if (statePending.getAsBoolean()) {
+            blocks.clear();
+            return;
+        }
+        
+        HCFStateIndex index = stateIndex.get();
+        ClaimRules current = rules.get();
+        if (index == null || current == null || blocks.isEmpty()) {
+            return;
+        }
+        
+        explosionFilter.filter(index.getClaimLookup(), protectedTeams(index, current), world.getName(),
+            blocks, Block::getX, Block::getZ);
+    }
+    
+    private static Predicate<TeamId> protectedTeams(HCFStateIndex index, ClaimRules rules) {
+        Predicate<TeamId> raidable = teamId -> index.getTeam(teamId).map(Team::isRaidable).orElse(false);
+        return teamId -> rules.protectsFromExplosions(teamId, raidable);
+    }
+}
@@ -0,0 +1,41 @@
+package net.strafepvp.hcf.adapters.spigot;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor que ejecuta tareas en el hilo principal del servidor
+ * 
+ * Si la tarea se envía desde el hilo principal se ejecuta directamente;
+ * en otro caso se programa con el scheduler de Bukkit para el siguiente tick.
+ * Con el plugin deshabilitado la tarea se rechaza con
+ * {@link RejectedExecutionException}, de modo que los futuros encadenados
+ * con este executor fallan en lugar de quedar sin completar.
+ * 
+ * @author mayk0l
+ */
+public class MainThreadExecutor implements Executor {
+    
+    private final Plugin plugin;
+    
+    public MainThreadExecutor(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public void execute(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+        
+        if (!plugin.isEnabled()) {
+            throw new RejectedExecutionException("Plugin is disabled, main thread task rejected");
+        }
+        
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+}
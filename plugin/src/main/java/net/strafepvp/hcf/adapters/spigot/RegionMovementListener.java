@@ -0,0 +1,86 @@
+package net.strafepvp.hcf.adapters.spigot;
+
+import net.strafepvp.hcf.core.domain.claim.RegionTracker;
+import net.strafepvp.hcf.core.domain.claim.RegionTransition;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.util.function.Function;
+
+/**
+ * Traduce el movimiento de los jugadores a cambios de región del dominio y
+ * avisa al jugador con los mensajes messages.claims.enter/exit
+ *
+ * @author mayk0l
+ */
+public class RegionMovementListener implements Listener {
+    
+    private final RegionTracker tracker;
+    private final Function<TeamId, String> teamNames;
+    private final String enterMessage;
+    private final String exitMessage;
+    
+    /**
+     * @param tracker Detector de cambios de región
+     * @param teamNames Nombre visible de un equipo
+     * @param enterMessage Mensaje de entrada, con %team%
+     * @param exitMessage Mensaje de salida, con %team%
+     */
+    public RegionMovementListener(RegionTracker tracker, Function<TeamId, String> teamNames,
+                                  String enterMessage, String exitMessage) {
+        this.tracker = tracker;
+        this.teamNames = teamNames;
+        this.enterMessage = enterMessage;
+        this.exitMessage = exitMessage;
+        tracker.subscribe(this::notifyPlayer);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        tracker.onMove(event.getPlayer().getUniqueId(), to.getWorld().getName(),
+            from.getBlockX(), from.getBlockZ(), to.getBlockX(), to.getBlockZ());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Location to = event.getTo();
+        tracker.relocate(event.getPlayer().getUniqueId(), to.getWorld().getName(), to.getBlockX(), to.getBlockZ());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Location location = event.getPlayer().getLocation();
+        tracker.relocate(event.getPlayer().getUniqueId(), location.getWorld().getName(),
+            location.getBlockX(), location.getBlockZ());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        tracker.forget(event.getPlayer().getUniqueId());
+    }
+    
+    private void notifyPlayer(RegionTransition transition) {
+        Player player = Bukkit.getPlayer(transition.playerUuid());
+        if (player == null) {
+            return;
+        }
+        
+        if (transition.exited() && !exitMessage.isEmpty()) {
+            player.sendMessage(exitMessage.replace("%team%", teamNames.apply(transition.from().teamId())));
+        }
+        if (transition.entered() && !enterMessage.isEmpty()) {
+            player.sendMessage(enterMessage.replace("%team%", teamNames.apply(transition.to().teamId())));
+        }
+    }
+}
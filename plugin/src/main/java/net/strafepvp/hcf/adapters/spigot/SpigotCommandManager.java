@@ -74,12 +74,8 @@ public class SpigotCommandManager implements CommandExecutor, TabCompleter {
         registerCommand("hcf", hcfCommand);
         registerCommand("strafehcf", hcfCommand); // Alias
         
-        // TODO: Comandos de equipo - temporalmente deshabilitados hasta arreglar herencia
-        // TeamCommand teamCommand = new TeamCommand(plugin);
-        // registerCommand("team", teamCommand);
-        // registerCommand("t", teamCommand); // Alias
-        // registerCommand("faction", teamCommand); // Alias común
-        // registerCommand("f", teamCommand); // Alias común
+        // Comandos de equipo; t, faction y f son alias de plugin.yml
+        registerCommand("team", new TeamCommand(plugin));
         
         plugin.getLogger().info("Comandos registrados correctamente");
     }
@@ -1,13 +1,23 @@
 package net.strafepvp.hcf.adapters.spigot.commands;
 
 import net.strafepvp.hcf.StrafeHCFPlugin;
+import net.strafepvp.hcf.adapters.persistence.snapshot.SnapshotFormat;
 import net.strafepvp.hcf.adapters.spigot.SpigotCommandManager.BaseCommand;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
 
 /**
  * Comando principal del plugin HCF
@@ -18,6 +28,17 @@ import java.util.List;
  */
 public class HCFCommand extends BaseCommand {
     
+    private static final long SEASON_CONFIRM_MILLIS = 30_000L;
+    
+    /**
+     * Cambio de temporada a la espera de confirmación
+     */
+    private record PendingSeason(String token, String name, boolean keepPlayers, long expiresAt) {
+    }
+    
+    // Keyed by sender name; commands run on the main thread
+    private final Map<String, PendingSeason> pendingSeasons = new HashMap<>();
+    
     public HCFCommand(StrafeHCFPlugin plugin) {
         super(plugin);
     }
@@ -54,6 +75,14 @@ public class HCFCommand extends BaseCommand {
                 handleDebug(sender, subArgs);
                 break;
             
+            case "snapshot":
+                handleSnapshot(sender, subArgs);
+                break;
+            
+            case "season":
+                handleSeason(sender, subArgs);
+                break;
+            
             default:
                 sender.sendMessage("§cSubcomando desconocido: " + subCommand);
                 sendMainHelp(sender);
@@ -69,14 +98,30 @@ public class HCFCommand extends BaseCommand {
             List<String> subCommands = Arrays.asList("help", "version", "status");
             
             if (sender.hasPermission("strafehcf.admin")) {
-                subCommands = Arrays.asList("help", "version", "reload", "status", "debug");
+                subCommands = Arrays.asList("help", "version", "reload", "status", "debug", "snapshot", "season");
             }
             
             return filterStartingWith(args[0], subCommands);
         }
         
         if (args.length == 2 && args[0].equalsIgnoreCase("debug")) {
-            return filterStartingWith(args[1], Arrays.asList("database", "services", "config"));
+            return filterStartingWith(args[1], Arrays.asList("database", "cache", "services", "config"));
+        }
+        
+        if (args.length == 2 && args[0].equalsIgnoreCase("snapshot")) {
+            return filterStartingWith(args[1], Arrays.asList("export", "import"));
+        }
+        
+        if (args.length == 2 && args[0].equalsIgnoreCase("season")) {
+            return filterStartingWith(args[1], Arrays.asList("list", "new", "confirm"));
+        }
+        
+        if (args.length == 4 && args[0].equalsIgnoreCase("season") && args[1].equalsIgnoreCase("new")) {
+            return filterStartingWith(args[3], List.of("keepplayers"));
+        }
+        
+        if (args.length >= 4 && args[0].equalsIgnoreCase("snapshot") && args[1].equalsIgnoreCase("import")) {
+            return filterStartingWith(args[args.length - 1], Arrays.asList("teams", "players", "claims", "koth_events"));
         }
         
         return super.tabComplete(sender, command, alias, args);
@@ -101,6 +146,8 @@ public class HCFCommand extends BaseCommand {
             sender.sendMessage("§c§lComandos de Administrador:");
             sender.sendMessage("§c/hcf reload §8- §fRecarga la configuración");
             sender.sendMessage("§c/hcf debug <tipo> §8- §fInformación de debug");
+            sender.sendMessage("§c/hcf snapshot <export|import> [nombre] §8- §fArchiva o restaura el estado del mapa");
+            sender.sendMessage("§c/hcf season <list|new|confirm> [nombre] §8- §fConsulta o inicia temporadas");
         }
         
         sender.sendMessage("§6Para comandos de equipo usa: §f/team help");
@@ -163,8 +210,9 @@ public class HCFCommand extends BaseCommand {
         
         // Información de la base de datos
         if (plugin.getApplicationService() != null && plugin.getApplicationService().getDatabaseManager() != null) {
-            boolean dbHealthy = plugin.getApplicationService().getDatabaseManager().isHealthy();
-            sender.sendMessage("§6Base de Datos: §f" + (dbHealthy ? "§aConectada" : "§cDesconectada"));
+            var dbManager = plugin.getApplicationService().getDatabaseManager();
+            sender.sendMessage("§6Base de Datos: §f" + (dbManager.isHealthy() ? "§aConectada"
+                : dbManager.isAvailable() ? "§cDesconectada" : "§eModo degradado (" + dbManager.getWriteBehindQueue().getPendingCount() + " escrituras pendientes)"));
         } else {
             sender.sendMessage("§6Base de Datos: §cNo disponible");
         }
@@ -184,7 +232,7 @@ public class HCFCommand extends BaseCommand {
         }
         
         if (args.length == 0) {
-            sender.sendMessage("§cUso: /hcf debug <database|services|config>");
+            sender.sendMessage("§cUso: /hcf debug <database|cache|services|config>");
             return;
         }
         
@@ -195,6 +243,10 @@ public class HCFCommand extends BaseCommand {
                 debugDatabase(sender);
                 break;
             
+            case "cache":
+                debugCache(sender);
+                break;
+            
             case "services":
                 debugServices(sender);
                 break;
@@ -205,11 +257,141 @@ public class HCFCommand extends BaseCommand {
             
             default:
                 sender.sendMessage("§cTipo de debug desconocido: " + debugType);
-                sender.sendMessage("§cUso: /hcf debug <database|services|config>");
+                sender.sendMessage("§cUso: /hcf debug <database|cache|services|config>");
                 break;
         }
     }
     
+    /**
+     * Maneja la exportación e importación de instantáneas
+     */
+    private void handleSnapshot(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("strafehcf.admin.snapshot")) {
+            sender.sendMessage("§cNo tienes permisos para gestionar instantáneas.");
+            return;
+        }
+        
+        if (plugin.getApplicationService() == null || plugin.getApplicationService().getDatabaseManager() == null) {
+            sender.sendMessage("§cServicio de aplicación no disponible");
+            return;
+        }
+        
+        if (args.length == 0 || (args[0].equalsIgnoreCase("import") && args.length < 2)) {
+            sender.sendMessage("§cUso: /hcf snapshot export [nombre] | /hcf snapshot import <nombre> [tabla...]");
+            return;
+        }
+        
+        String name = args.length >= 2 ? args[1] : "snapshot-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        if (!name.matches("[A-Za-z0-9_-]+")) {
+            sender.sendMessage("§cNombre de instantánea inválido: " + name);
+            return;
+        }
+        
+        var service = plugin.getApplicationService();
+        var mainThread = service.getDatabaseManager().getDatabaseExecutor().mainThread();
+        Path file = plugin.getDataFolder().toPath().resolve("snapshots").resolve(name + SnapshotFormat.EXTENSION);
+        
+        switch (args[0].toLowerCase()) {
+            case "export" -> {
+                sender.sendMessage("§eExportando instantánea " + name + "...");
+                service.exportSnapshot(file).whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        sender.sendMessage("§cError al exportar la instantánea: " + error.getMessage());
+                        plugin.getLogger().log(Level.SEVERE, "Error al exportar la instantánea " + name, error);
+                    } else {
+                        sender.sendMessage(String.format("§aInstantánea %s exportada: %d filas, %d KB en %d ms %s",
+                            name, result.totalRows(), result.bytes() / 1024, result.millis(), result.rows()));
+                    }
+                }, mainThread);
+            }
+            case "import" -> {
+                Set<String> tables = new HashSet<>(Arrays.asList(args).subList(2, args.length));
+                sender.sendMessage("§eImportando instantánea " + name + "...");
+                service.importSnapshot(file, tables).whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        sender.sendMessage("§cError al importar la instantánea: " + error.getMessage());
+                        plugin.getLogger().log(Level.SEVERE, "Error al importar la instantánea " + name, error);
+                    } else {
+                        sender.sendMessage(String.format("§aInstantánea %s importada: %d filas en %d ms %s",
+                            name, result.totalRows(), result.millis(), result.rows()));
+                    }
+                }, mainThread);
+            }
+            default -> sender.sendMessage("§cUso: /hcf snapshot export [nombre] | /hcf snapshot import <nombre> [tabla...]");
+        }
+    }
+    
+    /**
+     * Maneja la consulta y el cambio de temporada
+     */
+    private void handleSeason(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("strafehcf.admin.season")) {
+            sender.sendMessage("§cNo tienes permisos para gestionar temporadas.");
+            return;
+        }
+        
+        if (plugin.getApplicationService() == null || plugin.getApplicationService().getSeasonRepository() == null) {
+            sender.sendMessage("§cServicio de aplicación no disponible");
+            return;
+        }
+        
+        var service = plugin.getApplicationService();
+        var mainThread = service.getDatabaseManager().getDatabaseExecutor().mainThread();
+        String action = args.length == 0 ? "list" : args[0].toLowerCase();
+        
+        switch (action) {
+            case "list" -> service.getSeasonRepository().findAll().whenCompleteAsync((seasons, error) -> {
+                if (error != null) {
+                    sender.sendMessage("§cError al consultar temporadas: " + error.getMessage());
+                    return;
+                }
+                sender.sendMessage("§6§l=== Temporadas ===");
+                for (var season : seasons) {
+                    sender.sendMessage("§6#" + season.id() + " §f" + season.name() + " §7" + season.startedAt()
+                        + (season.isCurrent() ? " §a(en curso)" : " §8- " + season.endedAt()));
+                }
+            }, mainThread);
+            case "new" -> {
+                if (args.length < 2) {
+                    sender.sendMessage("§cUso: /hcf season new <nombre> [keepplayers]");
+                    return;
+                }
+                
+                boolean keepPlayers = args.length > 2 && args[args.length - 1].equalsIgnoreCase("keepplayers");
+                String name = String.join(" ", Arrays.asList(args).subList(1, keepPlayers ? args.length - 1 : args.length));
+                String token = String.format("%06x", ThreadLocalRandom.current().nextInt(1 << 24));
+                pendingSeasons.put(sender.getName(),
+                    new PendingSeason(token, name, keepPlayers, System.currentTimeMillis() + SEASON_CONFIRM_MILLIS));
+                sender.sendMessage("§c§lAtención: §cse archivarán todos los equipos, claims y "
+                    + (keepPlayers ? "equipos de los jugadores" : "jugadores") + " de la temporada en curso.");
+                sender.sendMessage("§eConfirma en " + SEASON_CONFIRM_MILLIS / 1000 + " s con §f/hcf season confirm " + token);
+            }
+            case "confirm" -> {
+                PendingSeason request = pendingSeasons.remove(sender.getName());
+                if (request == null || request.expiresAt() < System.currentTimeMillis()) {
+                    sender.sendMessage("§cNo hay ningún cambio de temporada pendiente de confirmar.");
+                    return;
+                }
+                if (args.length < 2 || !request.token().equalsIgnoreCase(args[1])) {
+                    sender.sendMessage("§cCódigo de confirmación incorrecto; vuelve a usar /hcf season new.");
+                    return;
+                }
+                
+                String name = request.name();
+                sender.sendMessage("§eArchivando la temporada en curso...");
+                service.startNewSeason(name, request.keepPlayers()).whenCompleteAsync((season, error) -> {
+                    if (error != null) {
+                        sender.sendMessage("§cError al iniciar la temporada: " + error.getMessage());
+                        plugin.getLogger().log(Level.SEVERE, "Error al iniciar la temporada " + name, error);
+                    } else {
+                        sender.sendMessage("§aTemporada #" + season.id() + " (" + season.name() + ") iniciada");
+                    }
+                }, mainThread);
+            }
+            default -> sender.sendMessage("§cUso: /hcf season list | /hcf season new <nombre> [keepplayers] | /hcf season confirm <código>");
+        }
+    }
+    
     /**
      * Debug de base de datos
      */
@@ -220,11 +402,54 @@ public class HCFCommand extends BaseCommand {
             var dbManager = plugin.getApplicationService().getDatabaseManager();
             sender.sendMessage("§6Estado: §f" + (dbManager.isHealthy() ? "§aSaludable" : "§cProblemas"));
             sender.sendMessage("§6Pool: §f" + dbManager.getPoolStatus());
+            sender.sendMessage("§6Telemetría: §f" + dbManager.getPoolTelemetry().getStatus());
+            if (dbManager.getHealthProbe() != null) {
+                sender.sendMessage("§6Sonda: §f" + dbManager.getHealthProbe().getStatus());
+            }
+            if (dbManager.getCheckpointer() != null) {
+                sender.sendMessage("§6Checkpoint: §f" + dbManager.getCheckpointer().getStatus());
+            }
+            if (dbManager.getInvalidationBus() != null) {
+                sender.sendMessage("§6Invalidación: §f" + dbManager.getInvalidationBus().getStatus());
+            }
+            if (dbManager.getCircuitBreaker() != null) {
+                sender.sendMessage("§6Breaker: §f" + dbManager.getCircuitBreaker().getStatus());
+            }
+            if (dbManager.getWriteBehindQueue() != null) {
+                sender.sendMessage("§6Escritura: §f" + dbManager.getWriteBehindQueue().getStatus());
+                if (dbManager.getWriteBehindQueue().getJournal() != null) {
+                    sender.sendMessage("§6Journal: §f" + dbManager.getWriteBehindQueue().getJournal().getStatus());
+                }
+            }
+            if (dbManager.getDatabaseExecutor() != null) {
+                sender.sendMessage("§6E/S: §f" + dbManager.getDatabaseExecutor().getStatus());
+            }
+            
+            // Consultas con más tiempo acumulado
+            sender.sendMessage("§6Consultas (" + dbManager.getStatementRegistry().size() + "):");
+            dbManager.getStatementRegistry().byTotalTime().stream()
+                .limit(5)
+                .forEach(statement -> sender.sendMessage("§7- §f" + statement.getStatus()));
         } else {
             sender.sendMessage("§cDatabaseManager no disponible");
         }
     }
     
+    /**
+     * Debug de caches
+     */
+    private void debugCache(CommandSender sender) {
+        sender.sendMessage("§6§l=== Debug Cache ===");
+        
+        if (plugin.getApplicationService() != null) {
+            for (String status : plugin.getApplicationService().getCacheStatus()) {
+                sender.sendMessage("§6Cache: §f" + status);
+            }
+        } else {
+            sender.sendMessage("§cServicio de aplicación no disponible");
+        }
+    }
+    
     /**
      * Debug de servicios
      */
@@ -1,7 +1,11 @@
 package net.strafepvp.hcf.adapters.spigot.commands;
 
 import net.strafepvp.hcf.StrafeHCFPlugin;
+import net.strafepvp.hcf.adapters.spigot.SpigotCommandManager.BaseCommand;
+import net.strafepvp.hcf.adapters.spigot.visual.PillarVisualizer;
+import net.strafepvp.hcf.core.domain.model.Claim;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -17,36 +21,21 @@ import java.util.List;
  * 
  * @author mayk0l
  */
-public class TeamCommand extends Command {
-    
-    private final StrafeHCFPlugin plugin;
+public class TeamCommand extends BaseCommand {
     
     public TeamCommand(StrafeHCFPlugin plugin) {
-        super("team");
-        this.plugin = plugin;
-        
-        setDescription("Comando principal de equipos");
-        setUsage("/team [subcomando] [argumentos]");
-        setPermission("strafehcf.team");
-        setAliases(Arrays.asList("t", "faction", "f"));
+        super(plugin);
     }
     
     @Override
-    public boolean execute(CommandSender sender, String commandLabel, String[] args) {
+    public boolean execute(CommandSender sender, Command command, String label, String[] args) {
         // Only players can use team commands
-        if (!(sender instanceof Player)) {
+        Player player = getPlayer(sender);
+        if (player == null) {
             sender.sendMessage(ChatColor.RED + "Este comando solo puede ser usado por jugadores.");
             return true;
         }
         
-        Player player = (Player) sender;
-        
-        // Check basic permission
-        if (!player.hasPermission("strafehcf.team")) {
-            player.sendMessage(ChatColor.RED + "No tienes permisos para usar comandos de equipo.");
-            return true;
-        }
-        
         // No arguments - show team info
         if (args.length == 0) {
             showTeamInfo(player);
@@ -66,6 +55,7 @@ public class TeamCommand extends Command {
             case "deny" -> handleDeny(player);
             case "info" -> handleInfo(player, args);
             case "list" -> handleList(player);
+            case "map" -> handleMap(player);
             case "chat", "c" -> handleChat(player, args);
             case "help" -> showHelp(player);
             default -> {
@@ -196,6 +186,46 @@ public class TeamCommand extends Command {
         player.sendMessage(ChatColor.GRAY + "Funcionalidad en desarrollo.");
     }
     
+    /**
+     * Activa o desactiva los pilares de los claims cercanos y los lista con
+     * una consulta al R-tree del mundo
+     */
+    private void handleMap(Player player) {
+        var service = plugin.getApplicationService();
+        if (service == null || service.getStateIndex() == null || service.getPillarVisualizer() == null) {
+            player.sendMessage(ChatColor.RED + "Los datos de claims aún no están disponibles.");
+            return;
+        }
+        
+        PillarVisualizer visualizer = service.getPillarVisualizer();
+        if (!visualizer.toggleMap(player)) {
+            player.sendMessage(ChatColor.YELLOW + "Mapa de claims desactivado.");
+            return;
+        }
+        
+        var index = service.getStateIndex();
+        int radius = visualizer.getMapRadius();
+        Location location = player.getLocation();
+        int x = location.getBlockX();
+        int z = location.getBlockZ();
+        List<Claim> nearby = index.getClaimTree(player.getWorld().getName())
+            .search(x - radius, z - radius, x + radius, z + radius);
+        
+        if (nearby.isEmpty()) {
+            player.sendMessage(ChatColor.YELLOW + "No hay claims en " + radius + " bloques a la redonda.");
+            return;
+        }
+        
+        player.sendMessage(ChatColor.GOLD + "Claims cercanos (" + nearby.size() + "):");
+        for (Claim claim : nearby) {
+            String owner = index.getTeam(claim.teamId())
+                .map(team -> team.getName().value())
+                .orElse("?");
+            player.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + owner + ChatColor.GRAY
+                + " (" + claim.minX() + ", " + claim.minZ() + ") -> (" + claim.maxX() + ", " + claim.maxZ() + ")");
+        }
+    }
+    
     /**
      * Maneja el chat de equipo
      */
@@ -233,21 +263,27 @@ public class TeamCommand extends Command {
         player.sendMessage(ChatColor.GRAY + "/team deny " + ChatColor.WHITE + "- Rechazar invitación");
         player.sendMessage(ChatColor.GRAY + "/team info [equipo] " + ChatColor.WHITE + "- Ver información");
         player.sendMessage(ChatColor.GRAY + "/team list " + ChatColor.WHITE + "- Listar equipos");
+        player.sendMessage(ChatColor.GRAY + "/team map " + ChatColor.WHITE + "- Mostrar u ocultar claims cercanos");
         player.sendMessage(ChatColor.GRAY + "/team chat <mensaje> " + ChatColor.WHITE + "- Chat de equipo");
         player.sendMessage(ChatColor.GRAY + ChatColor.STRIKETHROUGH.toString() + "------------------------");
     }
     
     @Override
-    public List<String> tabComplete(CommandSender sender, String alias, String[] args) {
-        if (!(sender instanceof Player) || !sender.hasPermission("strafehcf.team")) {
+    public List<String> tabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!isPlayer(sender)) {
             return Collections.emptyList();
         }
         
         if (args.length == 1) {
-            return Arrays.asList("create", "disband", "invite", "kick", "leave", 
-                                "accept", "deny", "info", "list", "chat", "help");
+            return filterStartingWith(args[0], Arrays.asList("create", "disband", "invite", "kick", "leave",
+                                "accept", "deny", "info", "list", "map", "chat", "help"));
         }
         
         return Collections.emptyList();
     }
+    
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return sender.hasPermission("strafehcf.team.use");
+    }
 }
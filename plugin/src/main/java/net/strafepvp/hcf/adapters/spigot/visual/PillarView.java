@@ -0,0 +1,163 @@
+package net.strafepvp.hcf.adapters.spigot.visual;
+
+import net.strafepvp.hcf.adapters.spigot.visual.PillarVisualizer.Layer;
+import net.strafepvp.hcf.adapters.spigot.visual.PillarVisualizer.Marker;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Bloques falsos que un jugador debería ver frente a los que su cliente
+ * ya muestra
+ *
+ * Cada capa (mapa, selección) declara sus bloques deseados; las posiciones
+ * que cambian quedan marcadas y {@link #drain} envía como mucho el
+ * presupuesto indicado, saltándose las que el cliente ya ve igual. Una
+ * posición que ninguna capa desea se restaura con el bloque real.
+ *
+ * @author mayk0l
+ */
+final class PillarView {
+    
+    /**
+     * Recibe un cambio de bloque; marker null restaura el bloque real
+     */
+    @FunctionalInterface
+    interface BlockChange {
+        void apply(long position, Marker marker);
+    }
+    
+    private final Map<Layer, Map<Long, Marker>> layers = new EnumMap<>(Layer.class);
+    private final Map<Long, Marker> shown = new HashMap<>();
+    private final LinkedHashSet<Long> dirty = new LinkedHashSet<>();
+    private String worldName;
+    boolean queued;
+    
+    /**
+     * Sustituye los bloques de una capa
+     *
+     * Al cambiar de mundo se descarta todo: el cliente recarga los chunks y
+     * ya no muestra los bloques falsos anteriores.
+     */
+    void setLayer(Layer layer, String worldName, Map<Long, Marker> blocks) {
+        if (!worldName.equals(this.worldName)) {
+            layers.clear();
+            shown.clear();
+            dirty.clear();
+            this.worldName = worldName;
+        }
+        
+        Map<Long, Marker> previous = layers.put(layer, blocks);
+        if (previous != null) {
+            dirty.addAll(previous.keySet());
+        }
+        dirty.addAll(blocks.keySet());
+    }
+    
+    /**
+     * Retira una capa; sus bloques se restauran en los siguientes envíos
+     */
+    void clearLayer(Layer layer) {
+        Map<Long, Marker> previous = layers.remove(layer);
+        if (previous != null) {
+            dirty.addAll(previous.keySet());
+        }
+    }
+    
+    boolean hasLayer(Layer layer) {
+        return layers.containsKey(layer);
+    }
+    
+    /**
+     * Envía hasta budget cambios pendientes
+     *
+     * @return Cambios enviados
+     */
+    int drain(int budget, BlockChange sink) {
+        int sent = 0;
+        Iterator<Long> pending = dirty.iterator();
+        while (sent < budget && pending.hasNext()) {
+            Long position = pending.next();
+            pending.remove();
+            
+            Marker wanted = desired(position);
+            if (wanted == shown.get(position)) {
+                continue;
+            }
+            if (wanted == null) {
+                shown.remove(position);
+            } else {
+                shown.put(position, wanted);
+            }
+            sink.apply(position, wanted);
+            sent++;
+        }
+        return sent;
+    }
+    
+    /**
+     * Restaura de golpe todos los bloques falsos, sin presupuesto
+     */
+    void revertAll(BlockChange sink) {
+        for (Long position : shown.keySet()) {
+            sink.apply(position, null);
+        }
+        layers.clear();
+        shown.clear();
+        dirty.clear();
+    }
+    
+    boolean hasPending() {
+        return !dirty.isEmpty();
+    }
+    
+    /**
+     * Verifica si la vista ya no tiene capas ni bloques falsos en el cliente
+     */
+    boolean isEmpty() {
+        return layers.isEmpty() && shown.isEmpty() && dirty.isEmpty();
+    }
+    
+    int shownCount() {
+        return shown.size();
+    }
+    
+    String worldName() {
+        return worldName;
+    }
+    
+    /**
+     * Capa con más prioridad que desea la posición, en orden de {@link Layer}
+     */
+    private Marker desired(Long position) {
+        for (Map<Long, Marker> blocks : layers.values()) {
+            Marker marker = blocks.get(position);
+            if (marker != null) {
+                return marker;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Empaqueta una posición de bloque: X y Z con 26 bits, Y con 12
+     */
+    static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+    
+    static int x(long position) {
+        return (int) (position >> 38);
+    }
+    
+    static int y(long position) {
+        return (int) (position << 52 >> 52);
+    }
+    
+    static int z(long position) {
+        return (int) (position << 26 >> 38);
+    }
+}
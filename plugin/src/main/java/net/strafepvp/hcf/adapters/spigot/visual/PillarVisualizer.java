@@ -0,0 +1,352 @@
+package net.strafepvp.hcf.adapters.spigot.visual;
+
+import net.strafepvp.hcf.application.state.HCFStateIndex;
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Pilares de bloques falsos en las esquinas de los claims
+ *
+ * Los cambios no se envían al activar el mapa: cada jugador acumula sus
+ * bloques pendientes en un {@link PillarView} y una tarea por tick los
+ * reparte en rondas, con un presupuesto por jugador y otro global, como un
+ * único paquete multi-bloque por jugador y tick. Solo se envían las
+ * diferencias con lo que el cliente ya ve. Al alejarse, desactivar el mapa
+ * o apagar el plugin los bloques reales se restauran; al desconectarse o
+ * cambiar de mundo se descarta el estado sin enviar nada, y el mapa se
+ * recalcula en el mundo nuevo.
+ *
+ * Se usa desde el hilo principal del servidor.
+ *
+ * @author mayk0l
+ */
+public class PillarVisualizer implements Listener {
+    
+    /**
+     * Capas de pilares por prioridad: la primera que desea un bloque decide
+     * su aspecto
+     */
+    public enum Layer {
+        SELECTION,
+        MAP
+    }
+    
+    /**
+     * Aspecto de un bloque de pilar
+     */
+    public enum Marker {
+        FRAME(Material.GLASS),
+        OWN_CLAIM(Material.EMERALD_BLOCK),
+        OTHER_CLAIM(Material.GOLD_BLOCK),
+        SELECTION(Material.DIAMOND_BLOCK);
+        
+        private final Material material;
+        
+        Marker(Material material) {
+            this.material = material;
+        }
+    }
+    
+    /**
+     * Pilar en una columna de bloques
+     */
+    public record Pillar(int x, int z, Marker marker) {
+    }
+    
+    private static final int PILLAR_BELOW = 3;
+    private static final int PILLAR_ABOVE = 16;
+    private static final int MAP_REFRESH_TICKS = 20;
+    private static final int MAP_REFRESH_DISTANCE = 16;
+    
+    private final Plugin plugin;
+    private final Supplier<HCFStateIndex> stateIndex;
+    private final int mapRadius;
+    private final int playerBudget;
+    private final int tickBudget;
+    
+    private final Map<UUID, PillarView> views = new HashMap<>();
+    private final Map<UUID, Location> mapAnchors = new HashMap<>();
+    private final ArrayDeque<UUID> pending = new ArrayDeque<>();
+    private final Map<Marker, BlockData> markerData = new HashMap<>();
+    private BukkitTask task;
+    private long ticks;
+    private long blocksSent;
+    private long packetsSent;
+    
+    /**
+     * @param stateIndex Índice actual; se sustituye en recargas y cambios de temporada
+     * @param mapRadius Radio en bloques de los claims mostrados por el mapa
+     * @param playerBudget Bloques por jugador y tick
+     * @param tickBudget Bloques por tick sumando todos los jugadores
+     */
+    public PillarVisualizer(Plugin plugin, Supplier<HCFStateIndex> stateIndex, int mapRadius,
+                            int playerBudget, int tickBudget) {
+        this.plugin = plugin;
+        this.stateIndex = stateIndex;
+        this.mapRadius = mapRadius;
+        this.playerBudget = playerBudget;
+        this.tickBudget = tickBudget;
+    }
+    
+    /**
+     * Inicia la tarea de envío por tick
+     */
+    public void start() {
+        for (Marker marker : Marker.values()) {
+            markerData.put(marker, marker.material.createBlockData());
+        }
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+    
+    /**
+     * Detiene la tarea y restaura al momento los bloques de los jugadores conectados
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        
+        for (Map.Entry<UUID, PillarView> entry : views.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player != null && player.getWorld().getName().equals(entry.getValue().worldName())) {
+                Map<Location, BlockData> batch = new HashMap<>();
+                entry.getValue().revertAll((position, marker) -> collect(player.getWorld(), batch, position, null));
+                send(player, batch);
+            }
+        }
+        views.clear();
+        mapAnchors.clear();
+        pending.clear();
+    }
+    
+    /**
+     * Activa o desactiva el mapa de claims del jugador
+     *
+     * @return true si el mapa queda activado
+     */
+    public boolean toggleMap(Player player) {
+        UUID playerUuid = player.getUniqueId();
+        if (mapAnchors.remove(playerUuid) != null) {
+            clear(player, Layer.MAP);
+            return false;
+        }
+        
+        Location location = player.getLocation();
+        mapAnchors.put(playerUuid, location);
+        show(player, Layer.MAP, mapPillars(playerUuid, location));
+        return true;
+    }
+    
+    /**
+     * Muestra pilares en una capa, sustituyendo los que tuviera
+     */
+    public void show(Player player, Layer layer, Collection<Pillar> pillars) {
+        World world = player.getWorld();
+        int baseY = player.getLocation().getBlockY();
+        Map<Long, Marker> blocks = new HashMap<>();
+        for (Pillar pillar : pillars) {
+            addColumn(world, baseY, pillar, blocks);
+        }
+        
+        PillarView view = views.computeIfAbsent(player.getUniqueId(), id -> new PillarView());
+        view.setLayer(layer, world.getName(), blocks);
+        schedule(player.getUniqueId(), view);
+    }
+    
+    /**
+     * Retira una capa; sus bloques se restauran en los siguientes ticks
+     */
+    public void clear(Player player, Layer layer) {
+        PillarView view = views.get(player.getUniqueId());
+        if (view != null) {
+            view.clearLayer(layer);
+            schedule(player.getUniqueId(), view);
+        }
+    }
+    
+    public int getMapRadius() {
+        return mapRadius;
+    }
+    
+    /**
+     * Obtiene un resumen de la actividad del visualizador
+     */
+    public String getStatus() {
+        return String.format("Pillars - Viewers: %d, Maps: %d, Queued: %d, Blocks sent: %d, Packets: %d",
+            views.size(), mapAnchors.size(), pending.size(), blocksSent, packetsSent);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // The client is gone along with its fake blocks; nothing to restore
+        UUID playerUuid = event.getPlayer().getUniqueId();
+        views.remove(playerUuid);
+        mapAnchors.remove(playerUuid);
+    }
+    
+    /**
+     * Una ronda de envíos: cada jugador pendiente recibe como mucho su
+     * presupuesto, en orden circular, hasta agotar el presupuesto del tick
+     */
+    private void tick() {
+        if (++ticks % MAP_REFRESH_TICKS == 0) {
+            refreshMaps();
+        }
+        
+        int remaining = tickBudget;
+        for (int turns = pending.size(); turns > 0 && remaining > 0; turns--) {
+            UUID playerUuid = pending.poll();
+            PillarView view = views.get(playerUuid);
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (view == null || player == null) {
+                if (view != null) {
+                    view.queued = false;
+                }
+                continue;
+            }
+            
+            World world = player.getWorld();
+            if (!world.getName().equals(view.worldName())) {
+                // Changing worlds resent the chunks, so the client no longer shows these blocks
+                view.queued = false;
+                views.remove(playerUuid);
+                continue;
+            }
+            
+            Map<Location, BlockData> batch = new HashMap<>();
+            int sent = view.drain(Math.min(playerBudget, remaining),
+                (position, marker) -> collect(world, batch, position, marker));
+            remaining -= sent;
+            send(player, batch);
+            
+            if (view.hasPending()) {
+                pending.add(playerUuid);
+            } else {
+                view.queued = false;
+                if (view.isEmpty()) {
+                    views.remove(playerUuid);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Recalcula el mapa de quien se ha alejado de donde lo activó; los
+     * pilares que quedan fuera del radio se restauran
+     */
+    private void refreshMaps() {
+        for (Map.Entry<UUID, Location> entry : mapAnchors.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+            
+            Location anchor = entry.getValue();
+            Location location = player.getLocation();
+            if (location.getWorld() == anchor.getWorld()
+                && Math.abs(location.getBlockX() - anchor.getBlockX()) < MAP_REFRESH_DISTANCE
+                && Math.abs(location.getBlockZ() - anchor.getBlockZ()) < MAP_REFRESH_DISTANCE) {
+                continue;
+            }
+            
+            entry.setValue(location);
+            show(player, Layer.MAP, mapPillars(entry.getKey(), location));
+        }
+    }
+    
+    /**
+     * Pilares en las esquinas de los claims cercanos, con un R-tree
+     */
+    private List<Pillar> mapPillars(UUID playerUuid, Location location) {
+        HCFStateIndex index = stateIndex.get();
+        if (index == null) {
+            return List.of();
+        }
+        
+        TeamId ownTeam = index.getPlayer(PlayerId.fromMinecraftUUID(playerUuid))
+            .filter(HCFPlayer::hasTeam)
+            .map(HCFPlayer::getTeamId)
+            .orElse(null);
+        int x = location.getBlockX();
+        int z = location.getBlockZ();
+        List<Claim> claims = index.getClaimTree(location.getWorld().getName())
+            .search(x - mapRadius, z - mapRadius, x + mapRadius, z + mapRadius);
+        
+        return claims.stream()
+            .flatMap(claim -> {
+                Marker marker = claim.teamId().equals(ownTeam) ? Marker.OWN_CLAIM : Marker.OTHER_CLAIM;
+                return List.of(
+                    new Pillar(claim.minX(), claim.minZ(), marker),
+                    new Pillar(claim.minX(), claim.maxZ(), marker),
+                    new Pillar(claim.maxX(), claim.minZ(), marker),
+                    new Pillar(claim.maxX(), claim.maxZ(), marker)
+                ).stream();
+            })
+            .toList();
+    }
+    
+    /**
+     * Columna del pilar alrededor de la altura del jugador, solo en bloques
+     * de aire de chunks cargados; uno de cada cuatro lleva el color del pilar
+     */
+    private static void addColumn(World world, int baseY, Pillar pillar, Map<Long, Marker> blocks) {
+        if (!world.isChunkLoaded(pillar.x() >> 4, pillar.z() >> 4)) {
+            return;
+        }
+        
+        int fromY = Math.max(world.getMinHeight(), baseY - PILLAR_BELOW);
+        int toY = Math.min(world.getMaxHeight() - 1, baseY + PILLAR_ABOVE);
+        for (int y = fromY; y <= toY; y++) {
+            if (world.getBlockAt(pillar.x(), y, pillar.z()).getType().isAir()) {
+                blocks.put(PillarView.pack(pillar.x(), y, pillar.z()), Math.floorMod(y, 4) == 0 ? pillar.marker() : Marker.FRAME);
+            }
+        }
+    }
+    
+    private void collect(World world, Map<Location, BlockData> batch, long position, Marker marker) {
+        int x = PillarView.x(position);
+        int y = PillarView.y(position);
+        int z = PillarView.z(position);
+        BlockData data = marker != null ? markerData.get(marker) : world.getBlockAt(x, y, z).getBlockData();
+        batch.put(new Location(world, x, y, z), data);
+    }
+    
+    private void send(Player player, Map<Location, BlockData> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        player.sendMultiBlockChange(batch);
+        blocksSent += batch.size();
+        packetsSent++;
+    }
+    
+    private void schedule(UUID playerUuid, PillarView view) {
+        if (!view.queued && view.hasPending()) {
+            view.queued = true;
+            pending.add(playerUuid);
+        }
+    }
+}
@@ -1,11 +1,50 @@
 package net.strafepvp.hcf.application;
 
 import net.strafepvp.hcf.StrafeHCFPlugin;
+import net.strafepvp.hcf.adapters.persistence.BulkLoader;
 import net.strafepvp.hcf.adapters.persistence.DatabaseManager;
+import net.strafepvp.hcf.adapters.persistence.cache.CachedPlayerRepository;
+import net.strafepvp.hcf.adapters.persistence.cache.CachedTeamRepository;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcClaimRepository;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcKothEventRepository;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcPlayerRepository;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcSeasonRepository;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcTeamRepository;
+import net.strafepvp.hcf.adapters.persistence.snapshot.SnapshotExporter;
+import net.strafepvp.hcf.adapters.persistence.snapshot.SnapshotImporter;
+import net.strafepvp.hcf.adapters.persistence.snapshot.SnapshotResult;
+import net.strafepvp.hcf.adapters.spigot.ClaimProtectionListener;
+import net.strafepvp.hcf.adapters.spigot.RegionMovementListener;
 import net.strafepvp.hcf.adapters.spigot.SpigotCommandManager;
 import net.strafepvp.hcf.adapters.spigot.SpigotEventManager;
+import net.strafepvp.hcf.adapters.spigot.visual.PillarVisualizer;
 import net.strafepvp.hcf.application.config.ConfigManager;
+import net.strafepvp.hcf.application.state.HCFStateIndex;
+import net.strafepvp.hcf.application.state.StateIndexLoader;
+import net.strafepvp.hcf.core.domain.claim.ClaimLookup;
+import net.strafepvp.hcf.core.domain.claim.ClaimRules;
+import net.strafepvp.hcf.core.domain.claim.RegionTracker;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.Season;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.ports.ClaimRepository;
+import net.strafepvp.hcf.core.ports.KothEventRepository;
+import net.strafepvp.hcf.core.ports.PlayerRepository;
+import net.strafepvp.hcf.core.ports.SeasonRepository;
+import net.strafepvp.hcf.core.ports.TeamRepository;
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
@@ -28,6 +67,24 @@ public class HCFApplicationService {
     private SpigotCommandManager commandManager;
     private SpigotEventManager eventManager;
     
+    // Repositories
+    private CachedTeamRepository teamRepository;
+    private CachedPlayerRepository playerRepository;
+    private ClaimRepository claimRepository;
+    private KothEventRepository kothEventRepository;
+    private SeasonRepository seasonRepository;
+    
+    // Estado en memoria
+    private volatile HCFStateIndex stateIndex;
+    // Owner of the live Team/HCFPlayer instances; ahead of stateIndex while a load is in progress
+    private volatile HCFStateIndex residentIndex;
+    private RegionTracker regionTracker;
+    private RegionMovementListener regionListener;
+    private ClaimProtectionListener protectionListener;
+    private PillarVisualizer pillarVisualizer;
+    private final AtomicBoolean initialDataPending = new AtomicBoolean(false);
+    private final AtomicBoolean initialDataLoading = new AtomicBoolean(false);
+    
     // Service state
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
     private final AtomicInteger activeServices = new AtomicInteger(0);
@@ -85,6 +142,18 @@ public class HCFApplicationService {
         
         try {
             // Stop in reverse order
+            // Listeners would otherwise be registered twice after a reload
+            if (regionListener != null) {
+                HandlerList.unregisterAll(regionListener);
+            }
+            if (protectionListener != null) {
+                HandlerList.unregisterAll(protectionListener);
+            }
+            if (pillarVisualizer != null) {
+                HandlerList.unregisterAll(pillarVisualizer);
+                pillarVisualizer.shutdown();
+            }
+            
             if (eventManager != null) {
                 eventManager.shutdown();
                 plugin.getLogger().info("EventManager detenido");
@@ -115,13 +184,42 @@ public class HCFApplicationService {
     private void initializeDatabaseManager() {
         plugin.getLogger().info("Inicializando DatabaseManager...");
         
-        this.databaseManager = new DatabaseManager(plugin, configManager.getDatabaseConfig());
+        this.databaseManager = new DatabaseManager(plugin, configManager.getDatabaseConfig(), configManager.getPerformanceConfig());
         databaseManager.initialize();
+        databaseManager.addRecoveryListener(this::onDatabaseRecovered);
+        
+        initializeRepositories();
         
         activeServices.incrementAndGet();
         plugin.getLogger().info("DatabaseManager inicializado correctamente");
     }
     
+    /**
+     * Inicializa los repositorios asíncronos sobre el DatabaseManager
+     */
+    private void initializeRepositories() {
+        var executor = databaseManager.getDatabaseExecutor();
+        var writeQueue = databaseManager.getWriteBehindQueue();
+        var statements = databaseManager.getStatementRegistry();
+        var mappings = databaseManager.getMappings();
+        var performance = configManager.getPerformanceConfig();
+        var invalidations = databaseManager.getInvalidationBus();
+        
+        this.teamRepository = new CachedTeamRepository(
+            new JdbcTeamRepository(executor, writeQueue, statements, mappings.teams()),
+            performance.cacheMaxSize(), performance.cacheTtl(), invalidations);
+        this.playerRepository = new CachedPlayerRepository(
+            new JdbcPlayerRepository(executor, writeQueue, statements, mappings.players()),
+            performance.cacheMaxSize(), performance.cacheTtl(), invalidations);
+        
+        // The caches read through the state index, so an eviction never forks a second copy
+        teamRepository.setResident(this::residentTeam, this::updateResidentTeam);
+        playerRepository.setResident(this::residentPlayer, this::updateResidentPlayer);
+        this.claimRepository = new JdbcClaimRepository(executor, writeQueue, statements, mappings.claims());
+        this.kothEventRepository = new JdbcKothEventRepository(executor, writeQueue, statements, mappings.koths());
+        this.seasonRepository = new JdbcSeasonRepository(executor, writeQueue, statements, mappings);
+    }
+    
     /**
      * Inicializa el gestor de comandos
      */
@@ -144,6 +242,25 @@ public class HCFApplicationService {
         this.eventManager = new SpigotEventManager(plugin);
         eventManager.initialize();
         
+        // The index is swapped on reloads and season rollovers, so resolve it per lookup
+        this.regionTracker = new RegionTracker(this::claimLookup);
+        this.regionListener = new RegionMovementListener(regionTracker,
+            teamId -> stateIndex.getTeam(teamId).map(team -> team.getName().value()).orElse("?"),
+            configManager.getMessage("claims.enter"), configManager.getMessage("claims.exit"));
+        Bukkit.getPluginManager().registerEvents(regionListener, plugin);
+        
+        var claims = configManager.getClaimsConfig();
+        ClaimRules rules = claims != null ? claims.rules() : null;
+        this.protectionListener = new ClaimProtectionListener(() -> stateIndex, () -> rules, initialDataPending::get);
+        Bukkit.getPluginManager().registerEvents(protectionListener, plugin);
+        
+        this.pillarVisualizer = claims != null
+            ? new PillarVisualizer(plugin, () -> stateIndex, claims.mapRadius(),
+                claims.mapBlocksPerPlayerTick(), claims.mapBlocksPerTick())
+            : new PillarVisualizer(plugin, () -> stateIndex, 64, 40, 400);
+        Bukkit.getPluginManager().registerEvents(pillarVisualizer, plugin);
+        pillarVisualizer.start();
+        
         activeServices.incrementAndGet();
         plugin.getLogger().info("EventManager inicializado correctamente");
     }
@@ -157,8 +274,12 @@ public class HCFApplicationService {
         // Verificar integridad de servicios
         verifyServiceIntegrity();
         
-        // Cargar datos iniciales si es necesario
-        loadInitialData();
+        // Cargar datos iniciales si es necesario; el arranque espera a que terminen
+        try {
+            loadInitialData().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Initial data load failed", e.getCause());
+        }
         
         // Registrar métricas y monitoreo
         setupMetricsAndMonitoring();
@@ -172,9 +293,12 @@ public class HCFApplicationService {
     private void verifyServiceIntegrity() {
         boolean allServicesHealthy = true;
         
-        if (databaseManager == null || !databaseManager.isHealthy()) {
-            plugin.getLogger().severe("DatabaseManager no está saludable");
+        if (databaseManager == null) {
+            plugin.getLogger().severe("DatabaseManager no está inicializado");
             allServicesHealthy = false;
+        } else if (!databaseManager.isHealthy()) {
+            // Degraded mode keeps the server up; writes are replayed once the database returns
+            plugin.getLogger().warning("DatabaseManager no está saludable; se continúa en modo degradado");
         }
         
         if (commandManager == null) {
@@ -196,14 +320,193 @@ public class HCFApplicationService {
     
     /**
      * Carga datos iniciales necesarios
+     * 
+     * No bloquea ningún hilo: las tablas se leen en el pool de escritura y el
+     * índice se publica al completarse la última, así que puede pedirse
+     * desde ese mismo pool.
+     * 
+     * @return Futuro completado cuando el índice nuevo está publicado
      */
-    private void loadInitialData() {
+    private CompletableFuture<Void> loadInitialData() {
+        if (!databaseManager.isAvailable()) {
+            this.stateIndex = newStateIndex();
+            this.residentIndex = stateIndex;
+            initialDataPending.set(true);
+            plugin.getLogger().warning("Base de datos no disponible: la carga inicial se hará al recuperar la conexión");
+            return CompletableFuture.completedFuture(null);
+        }
+        
         plugin.getLogger().info("Cargando datos iniciales...");
         
-        // Aquí se pueden cargar equipos, jugadores, claims, etc.
-        // Por ahora solo registramos que la carga fue exitosa
+        var loader = new StateIndexLoader(
+            new BulkLoader(databaseManager.getDatabaseExecutor(), databaseManager.getStatementRegistry(),
+                configManager.getPerformanceConfig().fetchSize()),
+            databaseManager.getMappings(),
+            teamRepository.getCache()::canonicalize,
+            playerRepository.getCache()::canonicalize);
+        var index = newStateIndex();
+        this.residentIndex = index;
+        long start = System.nanoTime();
+        
+        return loader.load(index).thenAccept(loads -> {
+            for (BulkLoader.TableLoad result : loads) {
+                plugin.getLogger().info(String.format("Tabla %s: %d filas en %d ms", result.table(), result.rows(), result.millis()));
+            }
+            
+            this.stateIndex = index;
+            initialDataPending.set(false);
+            plugin.getLogger().info(String.format("Datos iniciales cargados correctamente en %d ms (%s)",
+                (System.nanoTime() - start) / 1_000_000, index.getStatus()));
+        });
+    }
+    
+    private Team residentTeam(TeamId id) {
+        HCFStateIndex index = residentIndex;
+        return index != null ? index.getTeam(id).orElse(null) : null;
+    }
+    
+    private void updateResidentTeam(TeamId id, Optional<Team> team) {
+        HCFStateIndex index = residentIndex;
+        if (index != null) {
+            team.ifPresentOrElse(index::indexTeam, () -> index.removeTeam(id));
+        }
+    }
+    
+    private HCFPlayer residentPlayer(PlayerId id) {
+        HCFStateIndex index = residentIndex;
+        return index != null ? index.getPlayer(id).orElse(null) : null;
+    }
+    
+    private void updateResidentPlayer(PlayerId id, Optional<HCFPlayer> player) {
+        HCFStateIndex index = residentIndex;
+        if (index != null) {
+            player.ifPresentOrElse(index::indexPlayer, () -> index.removePlayer(id));
+        }
+    }
+    
+    private ClaimLookup claimLookup() {
+        HCFStateIndex index = stateIndex;
+        return index != null ? index.getClaimLookup() : null;
+    }
+    
+    /**
+     * Crea un índice vacío con las rejillas densas de claims configuradas
+     */
+    private HCFStateIndex newStateIndex() {
+        var index = new HCFStateIndex();
+        var claims = configManager.getClaimsConfig();
+        if (claims == null || !claims.denseGridEnabled()) {
+            return index;
+        }
         
-        plugin.getLogger().info("Datos iniciales cargados correctamente");
+        for (String world : claims.allowedWorlds()) {
+            try {
+                index.enableClaimGrid(world, claims.denseGridRadius());
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Rejilla densa de claims desactivada en " + world + ": " + e.getMessage());
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Completa la carga inicial pospuesta si el servidor arrancó en modo degradado
+     * 
+     * Se avisa desde el hilo de la sonda de salud; la carga solo encola las
+     * lecturas en los hilos de la base de datos y no lo bloquea. Hasta que
+     * el índice nuevo se publica la carga sigue pendiente y las protecciones
+     * lo deniegan todo.
+     */
+    private void onDatabaseRecovered() {
+        if (!initialDataPending.get() || !initialDataLoading.compareAndSet(false, true)) {
+            return;
+        }
+        
+        try {
+            loadInitialData()
+                .whenComplete((ignored, error) -> {
+                    initialDataLoading.set(false);
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Error en la carga inicial tras recuperar la base de datos", error);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the executor no longer accepts work
+            initialDataLoading.set(false);
+        }
+    }
+    
+    /**
+     * Exporta el estado completo a una instantánea binaria
+     * 
+     * Las mutaciones pendientes se escriben antes, para que la instantánea
+     * refleje el estado en memoria. Todo ocurre fuera del hilo principal.
+     * 
+     * @param file Fichero de destino
+     * @return Futuro con las filas exportadas por tabla
+     */
+    public CompletableFuture<SnapshotResult> exportSnapshot(Path file) {
+        var executor = databaseManager.getDatabaseExecutor();
+        var exporter = new SnapshotExporter(executor, databaseManager.getStatementRegistry(),
+            databaseManager.getMappings(), configManager.getPerformanceConfig().fetchSize());
+        
+        return CompletableFuture.runAsync(databaseManager.getWriteBehindQueue()::flush, executor.io())
+            .thenCompose(ignored -> exporter.export(file));
+    }
+    
+    /**
+     * Importa una instantánea binaria y recarga el estado en memoria
+     * 
+     * @param file Fichero de la instantánea
+     * @param tables Tablas a importar; vacío para todas
+     * @return Futuro con las filas importadas por tabla
+     */
+    public CompletableFuture<SnapshotResult> importSnapshot(Path file, Set<String> tables) {
+        var executor = databaseManager.getDatabaseExecutor();
+        var importer = new SnapshotImporter(executor, databaseManager.getDialect(), databaseManager.getStatementRegistry(),
+            databaseManager.getMappings(), configManager.getPerformanceConfig().batchSize());
+        
+        // Pending writes would otherwise overwrite imported rows on the next flush
+        return CompletableFuture.runAsync(databaseManager.getWriteBehindQueue()::flush, executor.io())
+            .thenCompose(ignored -> importer.importFrom(file, tables))
+            .thenCompose(result -> {
+                teamRepository.getCache().invalidateAll();
+                playerRepository.getCache().invalidateAll();
+                return loadInitialData().thenApply(ignored -> result);
+            });
+    }
+    
+    /**
+     * Cierra la temporada en curso y abre una nueva
+     * 
+     * Las mutaciones pendientes se escriben antes para que acaben en el
+     * archivo de la temporada cerrada, y la cola write-behind queda retenida
+     * hasta publicar el estado nuevo: lo que se encole entretanto pertenece
+     * a la temporada cerrada y se descarta, para que un flush posterior no
+     * resucite equipos, jugadores o claims archivados. Después se recarga el
+     * estado en memoria, ya vacío (o solo con jugadores si se conservan).
+     * 
+     * @param name Nombre de la nueva temporada
+     * @param keepPlayers Si true, los perfiles de jugador pasan a la nueva temporada sin equipo
+     * @return Futuro con la nueva temporada
+     */
+    public CompletableFuture<Season> startNewSeason(String name, boolean keepPlayers) {
+        var executor = databaseManager.getDatabaseExecutor();
+        var queue = databaseManager.getWriteBehindQueue();
+        var mappings = databaseManager.getMappings();
+        Set<String> archived = Set.of(mappings.teams().table(), mappings.players().table(), mappings.claims().table());
+        
+        return CompletableFuture.runAsync(queue::hold, executor.io())
+            .thenCompose(ignored -> seasonRepository.startNewSeason(name, keepPlayers))
+            .thenCompose(season -> {
+                teamRepository.getCache().invalidateAll();
+                playerRepository.getCache().invalidateAll();
+                return loadInitialData().thenApply(ignored -> {
+                    queue.discardPending(archived);
+                    return season;
+                });
+            })
+            .whenComplete((season, error) -> queue.resume());
     }
     
     /**
@@ -267,7 +570,7 @@ public class HCFApplicationService {
         health.append("HCFApplicationService Status:\n");
         health.append("- Started: ").append(isStarted.get()).append("\n");
         health.append("- Active Services: ").append(activeServices.get()).append("\n");
-        health.append("- Database: ").append(databaseManager != null ? (databaseManager.isHealthy() ? "HEALTHY" : "UNHEALTHY") : "NOT_INITIALIZED").append("\n");
+        health.append("- Database: ").append(databaseManager != null ? (databaseManager.isHealthy() ? "HEALTHY" : databaseManager.isAvailable() ? "UNHEALTHY" : "DEGRADED") : "NOT_INITIALIZED").append("\n");
         health.append("- Commands: ").append(commandManager != null ? "INITIALIZED" : "NOT_INITIALIZED").append("\n");
         health.append("- Events: ").append(eventManager != null ? "INITIALIZED" : "NOT_INITIALIZED").append("\n");
         
@@ -280,6 +583,61 @@ public class HCFApplicationService {
         return databaseManager;
     }
     
+    public TeamRepository getTeamRepository() {
+        return teamRepository;
+    }
+    
+    public PlayerRepository getPlayerRepository() {
+        return playerRepository;
+    }
+    
+    public ClaimRepository getClaimRepository() {
+        return claimRepository;
+    }
+    
+    public KothEventRepository getKothEventRepository() {
+        return kothEventRepository;
+    }
+    
+    public SeasonRepository getSeasonRepository() {
+        return seasonRepository;
+    }
+    
+    public HCFStateIndex getStateIndex() {
+        return stateIndex;
+    }
+    
+    /**
+     * Obtiene el estado de los caches de agregados
+     */
+    public List<String> getCacheStatus() {
+        List<String> status = new ArrayList<>();
+        if (teamRepository != null) {
+            status.add(teamRepository.getCache().getStatus());
+        }
+        if (playerRepository != null) {
+            status.add(playerRepository.getCache().getStatus());
+        }
+        if (regionTracker != null) {
+            status.add(regionTracker.getStatus());
+        }
+        if (protectionListener != null) {
+            status.addAll(protectionListener.getStatus());
+        }
+        if (pillarVisualizer != null) {
+            status.add(pillarVisualizer.getStatus());
+        }
+        return status;
+    }
+    
+    public RegionTracker getRegionTracker() {
+        return regionTracker;
+    }
+    
+    public PillarVisualizer getPillarVisualizer() {
+        return pillarVisualizer;
+    }
+    
     public SpigotCommandManager getCommandManager() {
         return commandManager;
     }
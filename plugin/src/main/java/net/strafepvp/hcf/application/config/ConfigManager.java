@@ -1,6 +1,8 @@
 package net.strafepvp.hcf.application.config;
 
 import net.strafepvp.hcf.StrafeHCFPlugin;
+import net.strafepvp.hcf.core.domain.claim.ClaimRules;
+import org.bukkit.ChatColor;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
@@ -27,6 +29,7 @@ public class ConfigManager {
     private ClaimsConfig claimsConfig;
     private KothConfig kothConfig;
     private ClassesConfig classesConfig;
+    private PerformanceConfig performanceConfig;
     
     public ConfigManager(StrafeHCFPlugin plugin) {
         this.plugin = plugin;
@@ -48,6 +51,7 @@ public class ConfigManager {
         loadClaimsConfig();
         loadKothConfig();
         loadClassesConfig();
+        loadPerformanceConfig();
         
         // Validate configuration
         validateConfiguration();
@@ -84,8 +88,23 @@ public class ConfigManager {
             dbSection.getInt("pool.minimum_idle", 5),
             dbSection.getLong("pool.connection_timeout", 30000),
             dbSection.getLong("pool.idle_timeout", 600000),
-            dbSection.getLong("pool.max_lifetime", 1800000)
+            dbSection.getLong("pool.max_lifetime", 1800000),
+            // Configs from before the split have no read_pool: keep their single shared pool
+            dbSection.getInt("read_pool.maximum_pool_size", 0),
+            dbSection.getInt("read_pool.minimum_idle", 2),
+            dbSection.getString("read_pool.replica_url", ""),
+            dbSection.getInt("memory.checkpoint_interval", 60),
+            dbSection.getString("invalidation.transport", "NONE"),
+            dbSection.getLong("invalidation.poll_interval_ms", 500),
+            dbSection.getInt("invalidation.retention_minutes", 10)
         );
+        
+        if (!dbSection.contains("read_pool")) {
+            plugin.getLogger().info(String.format(
+                "database.read_pool no está en config.yml: se mantiene un único pool de %d conexiones; "
+                    + "añade la sección para reservar parte de database.pool a las lecturas",
+                databaseConfig.maximumPoolSize()));
+        }
     }
     
     /**
@@ -175,7 +194,12 @@ public class ConfigManager {
             claimsSection.getInt("buffer_distance", 5),
             claimsSection.getBoolean("overclaim.enabled", true),
             claimsSection.getBoolean("overclaim.only_when_raidable", true),
-            claimsSection.getStringList("allowed_worlds")
+            claimsSection.getStringList("allowed_worlds"),
+            claimsSection.getBoolean("dense_grid.enabled", false),
+            claimsSection.getInt("dense_grid.radius", 3000),
+            claimsSection.getInt("map.radius", 64),
+            claimsSection.getInt("map.blocks_per_player_tick", 40),
+            claimsSection.getInt("map.blocks_per_tick", 400)
         );
     }
     
@@ -220,6 +244,38 @@ public class ConfigManager {
         );
     }
     
+    /**
+     * Carga la configuración de rendimiento
+     */
+    private void loadPerformanceConfig() {
+        ConfigurationSection performanceSection = config.getConfigurationSection("performance");
+        if (performanceSection == null) {
+            plugin.getLogger().warning("Sección 'performance' no encontrada en config.yml, usando valores por defecto");
+            performanceSection = config.createSection("performance");
+        }
+        
+        this.performanceConfig = new PerformanceConfig(
+            performanceSection.getInt("cache.ttl", 30),
+            performanceSection.getInt("cache.max_size", 1000),
+            performanceSection.getInt("database_optimization.batch_size", 100),
+            performanceSection.getInt("database_optimization.fetch_size", 500),
+            performanceSection.getInt("database_optimization.query_timeout", 30),
+            performanceSection.getInt("database_optimization.statement_cache_size", 256),
+            performanceSection.getInt("database_optimization.flush_interval", 5),
+            performanceSection.getBoolean("database_optimization.journal", true),
+            performanceSection.getLong("database_optimization.journal_sync_ms", 50),
+            performanceSection.getInt("database_optimization.health_check_interval", 5),
+            performanceSection.getInt("database_optimization.circuit_breaker.failure_threshold", 3),
+            performanceSection.getLong("database_optimization.circuit_breaker.slow_call_ms", 2000),
+            performanceSection.getInt("database_optimization.circuit_breaker.open_seconds", 15),
+            performanceSection.getLong("database_optimization.pool_telemetry.sample_interval_ms", 1000),
+            performanceSection.getInt("database_optimization.pool_telemetry.history", 300),
+            performanceSection.getInt("database_optimization.pool_telemetry.saturation_samples", 5),
+            performanceSection.getInt("async.thread_pool_size", 4),
+            performanceSection.getInt("async.write_thread_pool_size", 2)
+        );
+    }
+    
     /**
      * Valida la configuración cargada
      */
@@ -246,6 +302,80 @@ public class ConfigManager {
             hasErrors = true;
         }
         
+        // Validar performance config
+        if (performanceConfig != null && performanceConfig.batchSize <= 0) {
+            plugin.getLogger().severe("performance.database_optimization.batch_size debe ser mayor a 0");
+            hasErrors = true;
+        }
+        
+        if (performanceConfig != null && performanceConfig.healthCheckInterval <= 0) {
+            plugin.getLogger().severe("performance.database_optimization.health_check_interval debe ser mayor a 0");
+            hasErrors = true;
+        }
+        
+        if (performanceConfig != null && performanceConfig.breakerFailureThreshold <= 0) {
+            plugin.getLogger().severe("performance.database_optimization.circuit_breaker.failure_threshold debe ser mayor a 0");
+            hasErrors = true;
+        }
+        
+        if (performanceConfig != null && (performanceConfig.poolSampleIntervalMillis <= 0 || performanceConfig.poolHistorySize <= 0)) {
+            plugin.getLogger().severe("performance.database_optimization.pool_telemetry: sample_interval_ms y history deben ser mayores a 0");
+            hasErrors = true;
+        }
+        
+        if (performanceConfig != null && performanceConfig.writeThreadPoolSize <= 0) {
+            plugin.getLogger().severe("performance.async.write_thread_pool_size debe ser mayor a 0");
+            hasErrors = true;
+        }
+        
+        if (databaseConfig != null && databaseConfig.checkpointInterval <= 0) {
+            plugin.getLogger().severe("database.memory.checkpoint_interval debe ser mayor a 0");
+            hasErrors = true;
+        }
+        
+        if (databaseConfig != null && !List.of("NONE", "LOOPBACK", "POLLING").contains(databaseConfig.invalidationTransport.toUpperCase())) {
+            plugin.getLogger().severe("database.invalidation.transport debe ser NONE, LOOPBACK o POLLING");
+            hasErrors = true;
+        }
+        
+        if (databaseConfig != null && (databaseConfig.invalidationPollInterval <= 0 || databaseConfig.invalidationRetention <= 0)) {
+            plugin.getLogger().severe("database.invalidation: poll_interval_ms y retention_minutes deben ser mayores a 0");
+            hasErrors = true;
+        }
+        
+        if (databaseConfig != null && databaseConfig.readsFromPrimary()
+                && databaseConfig.readMaximumPoolSize >= databaseConfig.maximumPoolSize) {
+            plugin.getLogger().severe("database.read_pool.maximum_pool_size debe ser menor que pool.maximum_pool_size si no hay réplica");
+            hasErrors = true;
+        }
+        
+        if (databaseConfig != null && databaseConfig.readMaximumPoolSize <= 0 && !databaseConfig.readReplicaUrl.isBlank()) {
+            plugin.getLogger().severe("database.read_pool.replica_url requiere read_pool.maximum_pool_size mayor a 0");
+            hasErrors = true;
+        }
+        
+        if (claimsConfig != null && (claimsConfig.minSize < 1 || claimsConfig.maxSize < claimsConfig.minSize
+                || claimsConfig.bufferDistance < 0)) {
+            plugin.getLogger().severe("claims: min_size debe ser mayor a 0, max_size no menor que min_size y buffer_distance no negativo");
+            hasErrors = true;
+        }
+        
+        if (claimsConfig != null && (claimsConfig.mapRadius < 1 || claimsConfig.mapBlocksPerPlayerTick < 1
+                || claimsConfig.mapBlocksPerTick < claimsConfig.mapBlocksPerPlayerTick)) {
+            plugin.getLogger().severe("claims.map: radius y blocks_per_player_tick deben ser mayores a 0 y blocks_per_tick no menor que blocks_per_player_tick");
+            hasErrors = true;
+        }
+        
+        if (performanceConfig != null && performanceConfig.journalSyncMillis < 0) {
+            plugin.getLogger().severe("performance.database_optimization.journal_sync_ms no puede ser negativo");
+            hasErrors = true;
+        }
+        
+        if (performanceConfig != null && performanceConfig.fetchSize <= 0) {
+            plugin.getLogger().severe("performance.database_optimization.fetch_size debe ser mayor a 0");
+            hasErrors = true;
+        }
+        
         if (hasErrors) {
             throw new IllegalStateException("Configuración inválida detectada. Revisa los logs para más detalles.");
         }
@@ -275,6 +405,19 @@ public class ConfigManager {
         return claimsConfig;
     }
     
+    /**
+     * Obtiene un mensaje de la sección messages con el prefijo y los
+     * códigos de color ya aplicados
+     *
+     * @param path Ruta dentro de messages, p. ej. "claims.enter"
+     * @return Mensaje formateado, o cadena vacía si no está definido
+     */
+    public String getMessage(String path) {
+        String message = config.getString("messages." + path, "")
+            .replace("%prefix%", config.getString("messages.prefix", ""));
+        return ChatColor.translateAlternateColorCodes('&', message);
+    }
+    
     public KothConfig getKothConfig() {
         return kothConfig;
     }
@@ -283,6 +426,10 @@ public class ConfigManager {
         return classesConfig;
     }
     
+    public PerformanceConfig getPerformanceConfig() {
+        return performanceConfig;
+    }
+    
     // Configuration record classes
     
     public record DatabaseConfig(
@@ -296,8 +443,42 @@ public class ConfigManager {
         int minimumIdle,
         long connectionTimeout,
         long idleTimeout,
-        long maxLifetime
-    ) {}
+        long maxLifetime,
+        int readMaximumPoolSize,
+        int readMinimumIdle,
+        String readReplicaUrl,
+        int checkpointInterval,
+        String invalidationTransport,
+        long invalidationPollInterval,
+        int invalidationRetention
+    ) {
+        
+        /**
+         * true si el pool de lectura toma sus conexiones de database.pool
+         * en lugar de abrirlas contra una réplica
+         */
+        public boolean readsFromPrimary() {
+            return readMaximumPoolSize > 0 && readReplicaUrl.isBlank();
+        }
+        
+        /**
+         * Conexiones del pool de escritura: database.pool es el total contra
+         * el primario, así que se descuentan las del pool de lectura
+         */
+        public int writeMaximumPoolSize() {
+            return readsFromPrimary() ? maximumPoolSize - readMaximumPoolSize : maximumPoolSize;
+        }
+        
+        public int writeMinimumIdle() {
+            int idle = readsFromPrimary() ? minimumIdle - readMinimumIdle() : minimumIdle;
+            return Math.max(0, Math.min(idle, writeMaximumPoolSize()));
+        }
+        
+        @Override
+        public int readMinimumIdle() {
+            return Math.min(readMinimumIdle, readMaximumPoolSize);
+        }
+    }
     
     public record TeamConfig(
         int maxMembers,
@@ -343,8 +524,21 @@ public class ConfigManager {
         int bufferDistance,
         boolean overclaimEnabled,
         boolean overclaimOnlyWhenRaidable,
-        List<String> allowedWorlds
-    ) {}
+        List<String> allowedWorlds,
+        boolean denseGridEnabled,
+        int denseGridRadius,
+        int mapRadius,
+        int mapBlocksPerPlayerTick,
+        int mapBlocksPerTick
+    ) {
+        
+        /**
+         * Reglas de validación de claims nuevos
+         */
+        public ClaimRules rules() {
+            return new ClaimRules(minSize, maxSize, bufferDistance, overclaimEnabled, overclaimOnlyWhenRaidable);
+        }
+    }
     
     public record KothConfig(
         int captureTime,
@@ -364,4 +558,25 @@ public class ConfigManager {
         boolean bardEnabled,
         int bardEnergy
     ) {}
+    
+    public record PerformanceConfig(
+        int cacheTtl,
+        int cacheMaxSize,
+        int batchSize,
+        int fetchSize,
+        int queryTimeout,
+        int statementCacheSize,
+        int flushInterval,
+        boolean journalEnabled,
+        long journalSyncMillis,
+        int healthCheckInterval,
+        int breakerFailureThreshold,
+        long breakerSlowCallMillis,
+        int breakerOpenSeconds,
+        long poolSampleIntervalMillis,
+        int poolHistorySize,
+        int poolSaturationSamples,
+        int threadPoolSize,
+        int writeThreadPoolSize
+    ) {}
 }
\ No newline at end of file
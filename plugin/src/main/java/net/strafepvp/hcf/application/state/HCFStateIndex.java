@@ -0,0 +1,355 @@
+package net.strafepvp.hcf.application.state;
+
+import net.strafepvp.hcf.core.domain.claim.ClaimGrid;
+import net.strafepvp.hcf.core.domain.claim.ClaimIndex;
+import net.strafepvp.hcf.core.domain.claim.ClaimLookup;
+import net.strafepvp.hcf.core.domain.claim.ClaimRules;
+import net.strafepvp.hcf.core.domain.claim.ClaimTree;
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.KothEvent;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Índices en memoria del estado HCF cargado al arrancar
+ *
+ * Cada tabla alimenta únicamente sus propios mapas, por lo que las cargas
+ * paralelas no compiten entre sí. Las consultas desde el hilo principal no
+ * tocan la base de datos. La propiedad de un bloque se resuelve con un
+ * {@link ClaimIndex} por chunk, o con una {@link ClaimGrid} densa en los
+ * mundos que la activan ({@link #getClaimLookup()} para las protecciones
+ * por bloque y por chunk), y las validaciones de claims nuevos y el
+ * mapa de claims con un {@link ClaimTree} por mundo, sin recorrer los
+ * claims del mundo.
+ *
+ * Los equipos y jugadores indexados son las instancias canónicas del
+ * plugin: los caches de los repositorios leen a través del índice (ver
+ * {@link #indexTeam} y {@link #removeTeam}), de modo que un desalojo nunca
+ * crea una segunda copia mutable con otro DTR o estado de raideo.
+ *
+ * @author mayk0l
+ */
+public class HCFStateIndex {
+    
+    private final Map<TeamId, Team> teamsById = new ConcurrentHashMap<>();
+    private final Map<String, TeamId> teamIdsByName = new ConcurrentHashMap<>();
+    private final Map<TeamId, String> nameKeysByTeam = new ConcurrentHashMap<>();
+    
+    private final Map<PlayerId, HCFPlayer> playersById = new ConcurrentHashMap<>();
+    private final Map<TeamId, Set<PlayerId>> membersByTeam = new ConcurrentHashMap<>();
+    private final Map<PlayerId, TeamId> teamsByMember = new ConcurrentHashMap<>();
+    
+    private final Map<String, List<Claim>> claimsByWorld = new ConcurrentHashMap<>();
+    private final Map<TeamId, List<Claim>> claimsByTeam = new ConcurrentHashMap<>();
+    private final ClaimIndex claimIndex = new ClaimIndex();
+    private final Map<String, ClaimTree> claimTrees = new ConcurrentHashMap<>();
+    private volatile ClaimGrid[] claimGrids = new ClaimGrid[0];
+    private final ClaimLookup claimLookup = new GridClaimLookup();
+    
+    private final Map<String, KothEvent> kothsByName = new ConcurrentHashMap<>();
+    
+    /**
+     * Indexa un equipo por id y por nombre, sustituyendo al indexado antes
+     * con el mismo id; un cambio de nombre retira el nombre anterior
+     */
+    public void indexTeam(Team team) {
+        String key = nameKey(team.getName().value());
+        teamsById.put(team.getId(), team);
+        teamIdsByName.put(key, team.getId());
+        String previous = nameKeysByTeam.put(team.getId(), key);
+        if (previous != null && !previous.equals(key)) {
+            teamIdsByName.remove(previous, team.getId());
+        }
+    }
+    
+    /**
+     * Retira un equipo del índice
+     */
+    public void removeTeam(TeamId id) {
+        teamsById.remove(id);
+        String key = nameKeysByTeam.remove(id);
+        if (key != null) {
+            teamIdsByName.remove(key, id);
+        }
+    }
+    
+    /**
+     * Indexa un jugador por id y por equipo, sustituyendo al indexado antes
+     * con el mismo id; un cambio de equipo lo retira de los miembros anteriores
+     */
+    public void indexPlayer(HCFPlayer player) {
+        playersById.put(player.getId(), player);
+        TeamId previous = player.hasTeam()
+            ? teamsByMember.put(player.getId(), player.getTeamId())
+            : teamsByMember.remove(player.getId());
+        if (previous != null && !previous.equals(player.getTeamId())) {
+            removeMember(previous, player.getId());
+        }
+        if (player.hasTeam()) {
+            membersByTeam.computeIfAbsent(player.getTeamId(), id -> ConcurrentHashMap.newKeySet()).add(player.getId());
+        }
+    }
+    
+    /**
+     * Retira un jugador del índice
+     */
+    public void removePlayer(PlayerId id) {
+        playersById.remove(id);
+        TeamId previous = teamsByMember.remove(id);
+        if (previous != null) {
+            removeMember(previous, id);
+        }
+    }
+    
+    private void removeMember(TeamId teamId, PlayerId playerId) {
+        Set<PlayerId> members = membersByTeam.get(teamId);
+        if (members != null) {
+            members.remove(playerId);
+        }
+    }
+    
+    /**
+     * Indexa un claim por mundo y por equipo
+     */
+    public void indexClaim(Claim claim) {
+        claimsByWorld.computeIfAbsent(claim.worldName(), world -> new CopyOnWriteArrayList<>()).add(claim);
+        claimsByTeam.computeIfAbsent(claim.teamId(), id -> new CopyOnWriteArrayList<>()).add(claim);
+        claimIndex.add(claim);
+        for (ClaimGrid grid : claimGrids) {
+            if (grid.worldName().equals(claim.worldName())) {
+                grid.add(claim, claimIndex);
+            }
+        }
+        
+        // Trees are packed once after the initial load; later claims go in incrementally
+        ClaimTree tree = claimTrees.get(claim.worldName());
+        if (tree != null) {
+            tree.insert(claim);
+        }
+    }
+    
+    /**
+     * Elimina un claim de todos los índices
+     */
+    public void unindexClaim(Claim claim) {
+        List<Claim> inWorld = claimsByWorld.get(claim.worldName());
+        if (inWorld != null) {
+            inWorld.removeIf(indexed -> indexed.id().equals(claim.id()));
+        }
+        List<Claim> ofTeam = claimsByTeam.get(claim.teamId());
+        if (ofTeam != null) {
+            ofTeam.removeIf(indexed -> indexed.id().equals(claim.id()));
+        }
+        claimIndex.remove(claim);
+        for (ClaimGrid grid : claimGrids) {
+            if (grid.worldName().equals(claim.worldName())) {
+                grid.remove(claim, claimIndex);
+            }
+        }
+        ClaimTree tree = claimTrees.get(claim.worldName());
+        if (tree != null) {
+            tree.remove(claim);
+        }
+    }
+    
+    /**
+     * Activa la rejilla densa de propietarios en un mundo
+     *
+     * Los claims ya indexados del mundo se vuelcan en la rejilla; desde
+     * entonces cada alta o baja recalcula solo sus chunks.
+     *
+     * @param radius Radio reclamable en bloques alrededor de (0, 0)
+     * @throws IllegalArgumentException si la rejilla supera {@link ClaimGrid#MAX_CHUNKS}
+     */
+    public void enableClaimGrid(String worldName, int radius) {
+        ClaimGrid grid = new ClaimGrid(worldName, radius);
+        for (Claim claim : getClaims(worldName)) {
+            grid.add(claim, claimIndex);
+        }
+        
+        ClaimGrid[] grids = Arrays.copyOf(claimGrids, claimGrids.length + 1);
+        grids[claimGrids.length] = grid;
+        claimGrids = grids;
+    }
+    
+    /**
+     * Empaqueta un {@link ClaimTree} por mundo con los claims ya indexados
+     *
+     * Se invoca al terminar la carga inicial; desde entonces cada alta o
+     * baja actualiza el árbol de su mundo.
+     */
+    public void buildClaimTrees() {
+        claimsByWorld.forEach((world, claims) -> claimTrees.put(world, ClaimTree.bulkLoad(claims)));
+    }
+    
+    /**
+     * Indexa un evento KOTH por nombre
+     */
+    public void indexKoth(KothEvent koth) {
+        kothsByName.put(nameKey(koth.name()), koth);
+    }
+    
+    public Optional<Team> getTeam(TeamId id) {
+        return Optional.ofNullable(teamsById.get(id));
+    }
+    
+    public Optional<Team> getTeamByName(String name) {
+        TeamId id = teamIdsByName.get(nameKey(name));
+        return id != null ? getTeam(id) : Optional.empty();
+    }
+    
+    public Collection<Team> getTeams() {
+        return Collections.unmodifiableCollection(teamsById.values());
+    }
+    
+    public Optional<HCFPlayer> getPlayer(PlayerId id) {
+        return Optional.ofNullable(playersById.get(id));
+    }
+    
+    public Set<PlayerId> getMembers(TeamId teamId) {
+        Set<PlayerId> members = membersByTeam.get(teamId);
+        return members != null ? Collections.unmodifiableSet(members) : Set.of();
+    }
+    
+    public List<Claim> getClaims(String worldName) {
+        List<Claim> claims = claimsByWorld.get(worldName);
+        return claims != null ? Collections.unmodifiableList(claims) : List.of();
+    }
+    
+    public List<Claim> getClaimsByTeam(TeamId teamId) {
+        List<Claim> claims = claimsByTeam.get(teamId);
+        return claims != null ? Collections.unmodifiableList(claims) : List.of();
+    }
+    
+    /**
+     * Claim que contiene el bloque; sin Optional para no crear objetos en
+     * movimiento, rotura de bloques o interacciones
+     *
+     * @return El claim, o null si el bloque no está reclamado
+     */
+    public Claim getClaimAt(String worldName, int x, int z) {
+        return claimLookup.claimAt(worldName, x, z);
+    }
+    
+    public ClaimIndex getClaimIndex() {
+        return claimIndex;
+    }
+    
+    /**
+     * Consultas de propiedad que usan la rejilla densa donde cubre el
+     * bloque o chunk y el {@link ClaimIndex} fuera de ella
+     */
+    public ClaimLookup getClaimLookup() {
+        return claimLookup;
+    }
+    
+    /**
+     * R-tree de los claims de un mundo; se empaqueta al primer uso si el
+     * mundo no tenía claims al terminar la carga
+     */
+    public ClaimTree getClaimTree(String worldName) {
+        return claimTrees.computeIfAbsent(worldName, world -> ClaimTree.bulkLoad(getClaims(world)));
+    }
+    
+    /**
+     * Valida un claim nuevo contra los claims de su mundo
+     */
+    public ClaimRules.Verdict checkClaim(Claim candidate, ClaimRules rules) {
+        return rules.check(candidate, getClaimTree(candidate.worldName()),
+            teamId -> getTeam(teamId).map(Team::isRaidable).orElse(false));
+    }
+    
+    public Map<String, List<Claim>> getClaimsByWorld() {
+        return Collections.unmodifiableMap(claimsByWorld);
+    }
+    
+    public Optional<KothEvent> getKoth(String name) {
+        return Optional.ofNullable(kothsByName.get(nameKey(name)));
+    }
+    
+    public Collection<KothEvent> getKoths() {
+        return Collections.unmodifiableCollection(kothsByName.values());
+    }
+    
+    /**
+     * Descarta todo el estado indexado
+     */
+    public void clear() {
+        teamsById.clear();
+        teamIdsByName.clear();
+        nameKeysByTeam.clear();
+        playersById.clear();
+        membersByTeam.clear();
+        teamsByMember.clear();
+        claimsByWorld.clear();
+        claimsByTeam.clear();
+        claimIndex.clear();
+        claimTrees.clear();
+        for (ClaimGrid grid : claimGrids) {
+            grid.clear();
+        }
+        kothsByName.clear();
+    }
+    
+    /**
+     * Obtiene un resumen del contenido de los índices
+     */
+    public String getStatus() {
+        long gridBytes = 0;
+        for (ClaimGrid grid : claimGrids) {
+            gridBytes += grid.cellBytes();
+        }
+        return String.format("Teams: %d, Players: %d, Claims: %d (%d chunks, %d grids / %d KB), KOTHs: %d",
+            teamsById.size(),
+            playersById.size(),
+            claimsByTeam.values().stream().mapToInt(List::size).sum(),
+            claimIndex.chunkCount(),
+            claimGrids.length,
+            gridBytes / 1024,
+            kothsByName.size());
+    }
+    
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Resolución de propiedad con las rejillas densas delante del índice
+     */
+    private final class GridClaimLookup implements ClaimLookup {
+        
+        @Override
+        public Claim claimAt(String worldName, int x, int z) {
+            // Configured grids first; anything outside them falls back to the ClaimIndex
+            for (ClaimGrid grid : claimGrids) {
+                if (grid.worldName().equals(worldName) && grid.covers(x, z)) {
+                    return grid.claimAt(x, z, claimIndex);
+                }
+            }
+            return claimIndex.claimAt(worldName, x, z);
+        }
+        
+        @Override
+        public Claim[] claimsInChunk(String worldName, int chunkX, int chunkZ) {
+            for (ClaimGrid grid : claimGrids) {
+                if (grid.worldName().equals(worldName) && grid.coversChunk(chunkX, chunkZ)) {
+                    return grid.claimsInChunk(chunkX, chunkZ, claimIndex);
+                }
+            }
+            return claimIndex.claimsInChunk(worldName, chunkX, chunkZ);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package net.strafepvp.hcf.application.state;
+
+import net.strafepvp.hcf.adapters.persistence.BulkLoader;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.Team;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+/**
+ * Carga completa de las tablas del estado HCF en un {@link HCFStateIndex}
+ *
+ * Las tablas se leen en paralelo con el {@link BulkLoader}, en los hilos
+ * de escritura de la base de datos. La carga nunca espera a esos hilos:
+ * se compone con sus futuros y se completa en el hilo que termina la
+ * última tabla, así que puede pedirse desde el propio pool de escritura,
+ * incluso con un solo hilo.
+ *
+ * @author mayk0l
+ */
+public class StateIndexLoader {
+    
+    private final BulkLoader loader;
+    private final EntityMappings mappings;
+    private final UnaryOperator<Team> teams;
+    private final UnaryOperator<HCFPlayer> players;
+    
+    /**
+     * @param teams Devuelve la instancia canónica de cada equipo leído
+     * @param players Devuelve la instancia canónica de cada jugador leído
+     */
+    public StateIndexLoader(BulkLoader loader, EntityMappings mappings, UnaryOperator<Team> teams,
+                            UnaryOperator<HCFPlayer> players) {
+        this.loader = loader;
+        this.mappings = mappings;
+        this.teams = teams;
+        this.players = players;
+    }
+    
+    /**
+     * Llena el índice con todas las tablas y construye sus R-tree de claims
+     *
+     * @param index Índice vacío a llenar
+     * @return Futuro con el resultado de cada tabla, completado con el índice listo
+     */
+    public CompletableFuture<List<BulkLoader.TableLoad>> load(HCFStateIndex index) {
+        // Tables are streamed in parallel; each one only feeds its own indexes
+        List<CompletableFuture<BulkLoader.TableLoad>> loads = List.of(
+            loader.stream(mappings.teams(), team -> index.indexTeam(teams.apply(team))),
+            loader.stream(mappings.players(), player -> index.indexPlayer(players.apply(player))),
+            loader.stream(mappings.claims(), index::indexClaim),
+            loader.stream(mappings.koths(), index::indexKoth)
+        );
+        
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                index.buildClaimTrees();
+                return loads.stream().map(CompletableFuture::join).toList();
+            });
+    }
+}
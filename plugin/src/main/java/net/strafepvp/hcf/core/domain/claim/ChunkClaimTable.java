@@ -0,0 +1,126 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+/**
+ * Tabla hash de direccionamiento abierto de clave de chunk a claims candidatos
+ *
+ * Claves long primitivas con sondeo lineal: una búsqueda no crea objetos.
+ * Los borrados desplazan las entradas siguientes en lugar de dejar
+ * marcadores, así las búsquedas fallidas siguen siendo cortas.
+ *
+ * @author mayk0l
+ */
+final class ChunkClaimTable {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private long[] keys;
+    private Claim[][] values;
+    private int mask;
+    private int size;
+    
+    ChunkClaimTable() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new Claim[INITIAL_CAPACITY][];
+        this.mask = INITIAL_CAPACITY - 1;
+    }
+    
+    /**
+     * Claims que tocan el chunk, o null si ninguno
+     */
+    Claim[] get(long key) {
+        Claim[][] values = this.values;
+        long[] keys = this.keys;
+        int slot = slot(key, mask);
+        
+        Claim[] value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+    
+    void put(long key, Claim[] value) {
+        int slot = slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > values.length) {
+            resize(values.length * 2);
+        }
+    }
+    
+    void remove(long key) {
+        int slot = slot(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                size--;
+                shiftFrom(slot);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Cierra el hueco en slot desplazando las entradas cuyo sondeo pasaba por él
+     */
+    private void shiftFrom(int slot) {
+        int last = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == null) {
+                values[last] = null;
+                return;
+            }
+            
+            int home = slot(keys[current], mask);
+            boolean reachable = last <= current ? last >= home || home > current : last >= home && home > current;
+            if (reachable) {
+                keys[last] = keys[current];
+                values[last] = values[current];
+                last = current;
+            }
+        }
+    }
+    
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Claim[][] oldValues = values;
+        this.keys = new long[capacity];
+        this.values = new Claim[capacity][];
+        this.mask = capacity - 1;
+        
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
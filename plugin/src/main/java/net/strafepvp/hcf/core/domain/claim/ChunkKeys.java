@@ -0,0 +1,37 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+/**
+ * Empaquetado de coordenadas de chunk en un long
+ *
+ * La X del chunk ocupa los 32 bits altos y la Z los 32 bajos, de modo que
+ * cualquier chunk del mundo tiene una clave única sin crear objetos.
+ *
+ * @author mayk0l
+ */
+public final class ChunkKeys {
+    
+    private ChunkKeys() {
+    }
+    
+    /**
+     * Clave de un chunk a partir de sus coordenadas de chunk
+     */
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Clave del chunk que contiene un bloque
+     */
+    public static long ofBlock(int blockX, int blockZ) {
+        return pack(blockX >> 4, blockZ >> 4);
+    }
+    
+    public static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+    
+    public static int chunkZ(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,89 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+/**
+ * Detecta líquidos y pistones que cruzan hacia el terreno de otro equipo
+ *
+ * Casi todos los flujos de generadores y granjas ocurren dentro de un mismo
+ * chunk sin claims o cubierto entero por un solo claim; esos casos se
+ * descartan con una búsqueda en el {@link ClaimLookup} y dos comparaciones.
+ * Dentro de un chunk repartido los propietarios salen de su lista de
+ * candidatos, y solo los movimientos entre chunks distintos resuelven cada
+ * extremo por separado.
+ *
+ * Se usa desde el hilo principal del servidor.
+ *
+ * @author mayk0l
+ */
+public class ClaimBorderGuard {
+    
+    private long checks;
+    private long fastExits;
+    private long blocked;
+    
+    /**
+     * Verifica si un bloque movido desde el origen entra en terreno de un
+     * equipo distinto al del origen
+     *
+     * Entrar en zona libre o dentro del mismo equipo siempre se permite.
+     *
+     * @return true si el movimiento debe cancelarse
+     */
+    public boolean crossesInto(ClaimLookup index, String worldName, int fromX, int fromZ, int toX, int toZ) {
+        checks++;
+        int chunkX = toX >> 4;
+        int chunkZ = toZ >> 4;
+        Claim to;
+        Claim from;
+        
+        if (fromX >> 4 == chunkX && fromZ >> 4 == chunkZ) {
+            Claim[] bucket = index.claimsInChunk(worldName, chunkX, chunkZ);
+            if (bucket.length == 0 || (bucket.length == 1 && ClaimIndex.coversChunk(bucket[0], chunkX, chunkZ))) {
+                fastExits++;
+                return false;
+            }
+            to = find(bucket, toX, toZ);
+            if (to == null) {
+                return false;
+            }
+            from = find(bucket, fromX, fromZ);
+        } else {
+            to = index.claimAt(worldName, toX, toZ);
+            if (to == null) {
+                return false;
+            }
+            from = index.claimAt(worldName, fromX, fromZ);
+        }
+        
+        if (from != null && from.teamId().equals(to.teamId())) {
+            return false;
+        }
+        blocked++;
+        return true;
+    }
+    
+    public long getChecks() {
+        return checks;
+    }
+    
+    public long getFastExits() {
+        return fastExits;
+    }
+    
+    /**
+     * Obtiene un resumen de la actividad del guardia
+     */
+    public String getStatus() {
+        return String.format("Borders - Checks: %d, Fast exits: %d, Blocked: %d", checks, fastExits, blocked);
+    }
+    
+    private static Claim find(Claim[] bucket, int x, int z) {
+        for (Claim claim : bucket) {
+            if (claim.contains(x, z)) {
+                return claim;
+            }
+        }
+        return null;
+    }
+}
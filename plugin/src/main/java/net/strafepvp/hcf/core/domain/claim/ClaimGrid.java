@@ -0,0 +1,198 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rejilla densa de propietarios por chunk para la zona reclamable de un mundo
+ *
+ * Cubre un cuadrado de radio fijo alrededor de (0, 0), normalmente el
+ * borde del mundo. Cada chunk ocupa una celda de un int[]: 0 si no hay
+ * claims, el slot + 1 del único claim que lo toca, o {@link #SPLIT} en los
+ * pocos chunks repartidos entre varios claims, que se resuelven con el
+ * {@link ClaimIndex}. Una consulta dentro de la rejilla es una lectura del
+ * array y una comprobación del rectángulo, sin hashing ni boxing; las
+ * consultas por chunk devuelven un array de un elemento guardado con el
+ * slot, sin crear objetos.
+ *
+ * Las celdas se recalculan solo en los chunks del claim que cambia, a
+ * partir de los candidatos del ClaimIndex, que debe actualizarse antes.
+ * Admite un único escritor a la vez.
+ *
+ * @author mayk0l
+ */
+public class ClaimGrid {
+    
+    /**
+     * Celdas máximas por rejilla (16 MB de int)
+     */
+    public static final int MAX_CHUNKS = 1 << 22;
+    
+    static final int SPLIT = -1;
+    private static final Claim[] NO_CLAIMS = new Claim[0];
+    
+    private final String worldName;
+    private final int originChunkX;
+    private final int originChunkZ;
+    private final int size;
+    private final int[] cells;
+    
+    private final Map<UUID, Integer> slotsById = new HashMap<>();
+    private Claim[] slots = new Claim[64];
+    private Claim[][] singletons = new Claim[64][];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int nextSlot;
+    
+    /**
+     * @param worldName Mundo cubierto
+     * @param radius Radio en bloques alrededor de (0, 0)
+     * @throws IllegalArgumentException si la rejilla supera {@link #MAX_CHUNKS}
+     */
+    public ClaimGrid(String worldName, int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("Grid radius must be positive: " + radius);
+        }
+        
+        this.worldName = worldName;
+        this.originChunkX = -radius >> 4;
+        this.originChunkZ = -radius >> 4;
+        long chunks = (long) ((radius >> 4) - originChunkX + 1);
+        if (chunks * chunks > MAX_CHUNKS) {
+            throw new IllegalArgumentException("Grid radius " + radius + " exceeds " + MAX_CHUNKS + " chunks");
+        }
+        this.size = (int) chunks;
+        this.cells = new int[size * size];
+    }
+    
+    /**
+     * Asigna un slot al claim y recalcula sus chunks
+     */
+    public void add(Claim claim, ClaimIndex index) {
+        if (!slotsById.containsKey(claim.id())) {
+            int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot++;
+            if (slot == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+                singletons = Arrays.copyOf(singletons, singletons.length * 2);
+            }
+            slots[slot] = claim;
+            singletons[slot] = new Claim[] {claim};
+            slotsById.put(claim.id(), slot);
+        }
+        refresh(claim, index);
+    }
+    
+    /**
+     * Recalcula los chunks del claim y libera su slot
+     */
+    public void remove(Claim claim, ClaimIndex index) {
+        Integer slot = slotsById.remove(claim.id());
+        if (slot == null) {
+            return;
+        }
+        
+        refresh(claim, index);
+        slots[slot] = null;
+        singletons[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    
+    /**
+     * Verifica si el bloque cae dentro de la rejilla
+     */
+    public boolean covers(int x, int z) {
+        return coversChunk(x >> 4, z >> 4);
+    }
+    
+    /**
+     * Claim que contiene un bloque cubierto por la rejilla
+     *
+     * @param fallback Índice para los chunks repartidos entre varios claims
+     * @return El claim, o null si el bloque no está reclamado
+     */
+    public Claim claimAt(int x, int z, ClaimIndex fallback) {
+        int cell = cells[((z >> 4) - originChunkZ) * size + (x >> 4) - originChunkX];
+        if (cell == 0) {
+            return null;
+        }
+        if (cell == SPLIT) {
+            return fallback.claimAt(worldName, x, z);
+        }
+        
+        Claim claim = slots[cell - 1];
+        return claim.contains(x, z) ? claim : null;
+    }
+    
+    /**
+     * Verifica si el chunk cae dentro de la rejilla
+     */
+    public boolean coversChunk(int chunkX, int chunkZ) {
+        int column = chunkX - originChunkX;
+        int row = chunkZ - originChunkZ;
+        return column >= 0 && row >= 0 && column < size && row < size;
+    }
+    
+    /**
+     * Claims que tocan un chunk cubierto por la rejilla, sin copiar
+     *
+     * @param fallback Índice para los chunks repartidos entre varios claims
+     * @return Candidatos del chunk, o un array vacío
+     */
+    public Claim[] claimsInChunk(int chunkX, int chunkZ, ClaimIndex fallback) {
+        int cell = cells[(chunkZ - originChunkZ) * size + chunkX - originChunkX];
+        if (cell == 0) {
+            return NO_CLAIMS;
+        }
+        if (cell == SPLIT) {
+            return fallback.claimsInChunk(worldName, chunkX, chunkZ);
+        }
+        return singletons[cell - 1];
+    }
+    
+    /**
+     * Vacía la rejilla sin liberar el array de celdas
+     */
+    public void clear() {
+        Arrays.fill(cells, 0);
+        Arrays.fill(slots, null);
+        Arrays.fill(singletons, null);
+        slotsById.clear();
+        freeCount = 0;
+        nextSlot = 0;
+    }
+    
+    public String worldName() {
+        return worldName;
+    }
+    
+    /**
+     * Memoria de las celdas en bytes
+     */
+    public long cellBytes() {
+        return (long) cells.length * Integer.BYTES;
+    }
+    
+    private void refresh(Claim claim, ClaimIndex index) {
+        int fromX = Math.max(claim.minX() >> 4, originChunkX);
+        int toX = Math.min(claim.maxX() >> 4, originChunkX + size - 1);
+        int fromZ = Math.max(claim.minZ() >> 4, originChunkZ);
+        int toZ = Math.min(claim.maxZ() >> 4, originChunkZ + size - 1);
+        
+        for (int chunkZ = fromZ; chunkZ <= toZ; chunkZ++) {
+            int row = (chunkZ - originChunkZ) * size;
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                Claim[] bucket = index.claimsInChunk(worldName, chunkX, chunkZ);
+                Integer only = bucket.length == 1 ? slotsById.get(bucket[0].id()) : null;
+                // A claim the grid never saw is left to the index, like a split chunk
+                cells[row + chunkX - originChunkX] = bucket.length == 0 ? 0 : only != null ? only + 1 : SPLIT;
+            }
+        }
+    }
+}
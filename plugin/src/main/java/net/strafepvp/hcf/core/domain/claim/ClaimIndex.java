@@ -0,0 +1,168 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice espacial de claims por mundo y chunk
+ *
+ * Cada claim se registra en todos los chunks que toca; una consulta de
+ * propietario resuelve el chunk del bloque con una búsqueda hash sobre
+ * claves long y comprueba el rectángulo exacto de los pocos candidatos del
+ * chunk. Las consultas no crean objetos, por lo que son aptas para
+ * movimiento, rotura y colocación de bloques e interacciones.
+ *
+ * Admite un único escritor a la vez (la carga inicial o el hilo
+ * principal); las lecturas desde el hilo que lo publicó no bloquean.
+ *
+ * @author mayk0l
+ */
+public class ClaimIndex implements ClaimLookup {
+    
+    private static final Claim[] NO_CLAIMS = new Claim[0];
+    
+    private final Map<String, ChunkClaimTable> worlds = new ConcurrentHashMap<>();
+    private int claims;
+    
+    /**
+     * Registra un claim en cada chunk que toca
+     */
+    public void add(Claim claim) {
+        ChunkClaimTable table = worlds.computeIfAbsent(claim.worldName(), world -> new ChunkClaimTable());
+        for (int chunkX = claim.minX() >> 4; chunkX <= claim.maxX() >> 4; chunkX++) {
+            for (int chunkZ = claim.minZ() >> 4; chunkZ <= claim.maxZ() >> 4; chunkZ++) {
+                long key = ChunkKeys.pack(chunkX, chunkZ);
+                Claim[] bucket = table.get(key);
+                if (bucket == null) {
+                    table.put(key, new Claim[] {claim});
+                } else {
+                    Claim[] grown = Arrays.copyOf(bucket, bucket.length + 1);
+                    grown[bucket.length] = claim;
+                    table.put(key, grown);
+                }
+            }
+        }
+        claims++;
+    }
+    
+    /**
+     * Elimina un claim de todos los chunks que toca
+     *
+     * @return true si el claim estaba indexado
+     */
+    public boolean remove(Claim claim) {
+        ChunkClaimTable table = worlds.get(claim.worldName());
+        if (table == null) {
+            return false;
+        }
+        
+        boolean removed = false;
+        for (int chunkX = claim.minX() >> 4; chunkX <= claim.maxX() >> 4; chunkX++) {
+            for (int chunkZ = claim.minZ() >> 4; chunkZ <= claim.maxZ() >> 4; chunkZ++) {
+                long key = ChunkKeys.pack(chunkX, chunkZ);
+                Claim[] bucket = table.get(key);
+                if (bucket == null) {
+                    continue;
+                }
+                
+                Claim[] remaining = without(bucket, claim);
+                if (remaining == bucket) {
+                    continue;
+                }
+                removed = true;
+                if (remaining.length == 0) {
+                    table.remove(key);
+                } else {
+                    table.put(key, remaining);
+                }
+            }
+        }
+        
+        if (removed) {
+            claims--;
+        }
+        return removed;
+    }
+    
+    /**
+     * Claim que contiene el bloque
+     *
+     * @return El claim, o null si el bloque no está reclamado
+     */
+    @Override
+    public Claim claimAt(String worldName, int x, int z) {
+        ChunkClaimTable table = worlds.get(worldName);
+        if (table == null) {
+            return null;
+        }
+        
+        Claim[] bucket = table.get(ChunkKeys.ofBlock(x, z));
+        if (bucket == null) {
+            return null;
+        }
+        
+        for (Claim claim : bucket) {
+            if (claim.contains(x, z)) {
+                return claim;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Claims que tocan un chunk, sin copiar; el array no debe modificarse
+     *
+     * @return Candidatos del chunk, o un array vacío
+     */
+    @Override
+    public Claim[] claimsInChunk(String worldName, int chunkX, int chunkZ) {
+        ChunkClaimTable table = worlds.get(worldName);
+        Claim[] bucket = table != null ? table.get(ChunkKeys.pack(chunkX, chunkZ)) : null;
+        return bucket != null ? bucket : NO_CLAIMS;
+    }
+    
+    /**
+     * Descarta todos los claims indexados
+     */
+    public void clear() {
+        worlds.clear();
+        claims = 0;
+    }
+    
+    /**
+     * Número de claims indexados
+     */
+    public int size() {
+        return claims;
+    }
+    
+    /**
+     * Número de chunks con al menos un claim, sumando todos los mundos
+     */
+    public int chunkCount() {
+        return worlds.values().stream().mapToInt(ChunkClaimTable::size).sum();
+    }
+    
+    /**
+     * Verifica si el claim cubre el chunk entero
+     */
+    static boolean coversChunk(Claim claim, int chunkX, int chunkZ) {
+        return claim.minX() <= chunkX << 4 && claim.maxX() >= (chunkX << 4) + 15
+            && claim.minZ() <= chunkZ << 4 && claim.maxZ() >= (chunkZ << 4) + 15;
+    }
+    
+    private static Claim[] without(Claim[] bucket, Claim claim) {
+        for (int i = 0; i < bucket.length; i++) {
+            if (bucket[i].id().equals(claim.id())) {
+                Claim[] remaining = new Claim[bucket.length - 1];
+                System.arraycopy(bucket, 0, remaining, 0, i);
+                System.arraycopy(bucket, i + 1, remaining, i, bucket.length - i - 1);
+                return remaining;
+            }
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,28 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+/**
+ * Consultas de propiedad de terreno por bloque y por chunk
+ *
+ * Las implementaciones no crean objetos por consulta: se usan en
+ * movimiento, explosiones, líquidos y pistones.
+ *
+ * @author mayk0l
+ */
+public interface ClaimLookup {
+    
+    /**
+     * Claim que contiene el bloque
+     *
+     * @return El claim, o null si el bloque no está reclamado
+     */
+    Claim claimAt(String worldName, int x, int z);
+    
+    /**
+     * Claims que tocan un chunk, sin copiar; el array no debe modificarse
+     *
+     * @return Candidatos del chunk, o un array vacío
+     */
+    Claim[] claimsInChunk(String worldName, int chunkX, int chunkZ);
+}
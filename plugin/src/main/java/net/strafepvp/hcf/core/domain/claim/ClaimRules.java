@@ -0,0 +1,107 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Reglas de tamaño, separación y overclaim para crear un claim
+ *
+ * Las comprobaciones contra otros claims se resuelven con consultas al
+ * {@link ClaimTree} del mundo, sin recorrer todos sus claims.
+ *
+ * @param minSize Lado mínimo en bloques
+ * @param maxSize Lado máximo en bloques
+ * @param bufferDistance Bloques libres exigidos entre claims de equipos distintos
+ * @param overclaimEnabled Si se permite reclamar sobre claims ajenos
+ * @param overclaimOnlyWhenRaidable Si el overclaim exige que el equipo afectado sea raideable
+ * @author mayk0l
+ */
+public record ClaimRules(
+    int minSize,
+    int maxSize,
+    int bufferDistance,
+    boolean overclaimEnabled,
+    boolean overclaimOnlyWhenRaidable
+) {
+    
+    public ClaimRules {
+        if (minSize < 1 || maxSize < minSize || bufferDistance < 0) {
+            throw new IllegalArgumentException("Invalid claim rules: min=" + minSize + ", max=" + maxSize
+                + ", buffer=" + bufferDistance);
+        }
+    }
+    
+    /**
+     * Resultado de validar un claim nuevo
+     */
+    public enum Verdict {
+        ALLOWED,
+        OVERCLAIM,
+        TOO_SMALL,
+        TOO_LARGE,
+        OVERLAPS,
+        TOO_CLOSE;
+        
+        /**
+         * Verifica si el claim puede crearse
+         */
+        public boolean allowed() {
+            return this == ALLOWED || this == OVERCLAIM;
+        }
+    }
+    
+    /**
+     * Valida un claim nuevo contra los claims existentes de su mundo
+     *
+     * Solapar un claim propio nunca se permite. Solapar uno ajeno es un
+     * overclaim, válido solo si la configuración lo permite; los equipos
+     * afectados quedan fuera de la comprobación de separación.
+     *
+     * @param candidate Claim propuesto
+     * @param tree Claims existentes del mundo del candidato
+     * @param raidable Si un equipo es raideable en este momento
+     */
+    public Verdict check(Claim candidate, ClaimTree tree, Predicate<TeamId> raidable) {
+        int shortest = Math.min(candidate.width(), candidate.length());
+        int longest = Math.max(candidate.width(), candidate.length());
+        if (shortest < minSize) {
+            return Verdict.TOO_SMALL;
+        }
+        if (longest > maxSize) {
+            return Verdict.TOO_LARGE;
+        }
+        
+        Set<TeamId> overclaimed = new HashSet<>();
+        for (Claim existing : tree.search(candidate.minX(), candidate.minZ(), candidate.maxX(), candidate.maxZ())) {
+            TeamId owner = existing.teamId();
+            if (owner.equals(candidate.teamId()) || !overclaimEnabled
+                || (overclaimOnlyWhenRaidable && !raidable.test(owner))) {
+                return Verdict.OVERLAPS;
+            }
+            overclaimed.add(owner);
+        }
+        
+        boolean tooClose = tree.anyWithin(candidate.minX(), candidate.minZ(), candidate.maxX(), candidate.maxZ(),
+            bufferDistance, existing -> !existing.teamId().equals(candidate.teamId())
+                && !overclaimed.contains(existing.teamId()));
+        if (tooClose) {
+            return Verdict.TOO_CLOSE;
+        }
+        
+        return overclaimed.isEmpty() ? Verdict.ALLOWED : Verdict.OVERCLAIM;
+    }
+    
+    /**
+     * Verifica si los claims de un equipo resisten explosiones
+     *
+     * Los claims son a prueba de explosiones; overclaim.only_when_raidable
+     * solo retira esa protección mientras el equipo es raideable.
+     */
+    public boolean protectsFromExplosions(TeamId owner, Predicate<TeamId> raidable) {
+        return !overclaimOnlyWhenRaidable || !raidable.test(owner);
+    }
+}
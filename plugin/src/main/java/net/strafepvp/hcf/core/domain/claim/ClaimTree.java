@@ -0,0 +1,498 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * R-tree de los rectángulos de claim de un mundo
+ *
+ * Responde "qué claims tocan este rectángulo" y "hay algún claim a menos
+ * de d bloques" descendiendo solo por las ramas cuyo rectángulo envolvente
+ * corta la consulta, en lugar de recorrer todos los claims del mundo. La
+ * carga inicial se empaqueta con Sort-Tile-Recursive; las altas usan el
+ * split cuadrático de Guttman y las bajas reinsertan los nodos que quedan
+ * por debajo del mínimo.
+ *
+ * Cada nodo guarda los rectángulos de sus hijos en un int[] contiguo, por
+ * lo que descartar una rama no desreferencia el hijo. Igual que
+ * {@link ClaimIndex}, admite un único escritor a la vez.
+ *
+ * @author mayk0l
+ */
+public class ClaimTree {
+    
+    static final int MAX_ENTRIES = 16;
+    static final int MIN_ENTRIES = 6;
+    
+    private Node root = new Node(true);
+    private int size;
+    
+    /**
+     * Construye un árbol empaquetado a partir de los claims existentes
+     */
+    public static ClaimTree bulkLoad(Collection<Claim> claims) {
+        ClaimTree tree = new ClaimTree();
+        if (claims.isEmpty()) {
+            return tree;
+        }
+        
+        List<Item> level = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            level.add(new Item(claim, claim.minX(), claim.minZ(), claim.maxX(), claim.maxZ()));
+        }
+        
+        boolean leaf = true;
+        do {
+            level = pack(level, leaf);
+            leaf = false;
+        } while (level.size() > 1);
+        
+        tree.root = (Node) level.get(0).entry();
+        tree.size = claims.size();
+        return tree;
+    }
+    
+    /**
+     * Inserta un claim
+     */
+    public void insert(Claim claim) {
+        insertEntry(claim);
+        size++;
+    }
+    
+    /**
+     * Elimina un claim, identificado por id
+     *
+     * @return true si el claim estaba en el árbol
+     */
+    public boolean remove(Claim claim) {
+        Node leaf = findLeaf(root, claim);
+        if (leaf == null) {
+            return false;
+        }
+        
+        for (int i = 0; i < leaf.count; i++) {
+            if (((Claim) leaf.entries[i]).id().equals(claim.id())) {
+                leaf.removeAt(i);
+                break;
+            }
+        }
+        size--;
+        condense(leaf);
+        return true;
+    }
+    
+    /**
+     * Claims cuyo rectángulo corta el rectángulo dado (inclusivo)
+     */
+    public List<Claim> search(int minX, int minZ, int maxX, int maxZ) {
+        List<Claim> found = new ArrayList<>();
+        collect(root, minX, minZ, maxX, maxZ, found);
+        return found;
+    }
+    
+    /**
+     * Primer claim aceptado por el filtro a menos de distance bloques del
+     * rectángulo; distance 0 equivale a solapar
+     *
+     * Con distance d, un claim separado por d bloques libres no cuenta.
+     *
+     * @return El claim encontrado, o null si no hay ninguno
+     */
+    public Claim firstWithin(int minX, int minZ, int maxX, int maxZ, int distance, Predicate<Claim> filter) {
+        return first(root, minX - distance, minZ - distance, maxX + distance, maxZ + distance, filter);
+    }
+    
+    /**
+     * Verifica si algún claim aceptado por el filtro está a menos de
+     * distance bloques del rectángulo
+     */
+    public boolean anyWithin(int minX, int minZ, int maxX, int maxZ, int distance, Predicate<Claim> filter) {
+        return firstWithin(minX, minZ, maxX, maxZ, distance, filter) != null;
+    }
+    
+    /**
+     * Número de claims en el árbol
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Niveles del árbol, contando las hojas
+     */
+    public int height() {
+        int height = 1;
+        for (Node node = root; !node.leaf; node = (Node) node.entries[0]) {
+            height++;
+        }
+        return height;
+    }
+    
+    private void insertEntry(Claim claim) {
+        Node node = root;
+        while (!node.leaf) {
+            node = (Node) node.entries[chooseSubtree(node, claim.minX(), claim.minZ(), claim.maxX(), claim.maxZ())];
+        }
+        node.add(claim, claim.minX(), claim.minZ(), claim.maxX(), claim.maxZ());
+        adjust(node);
+    }
+    
+    /**
+     * Hijo que menos crece al incluir el rectángulo; en empate, el de menor área
+     */
+    private static int chooseSubtree(Node node, int minX, int minZ, int maxX, int maxZ) {
+        int best = 0;
+        long bestGrowth = Long.MAX_VALUE;
+        long bestArea = Long.MAX_VALUE;
+        int[] boxes = node.boxes;
+        for (int i = 0; i < node.count; i++) {
+            int at = i * 4;
+            long area = area(boxes[at], boxes[at + 1], boxes[at + 2], boxes[at + 3]);
+            long growth = area(Math.min(boxes[at], minX), Math.min(boxes[at + 1], minZ),
+                Math.max(boxes[at + 2], maxX), Math.max(boxes[at + 3], maxZ)) - area;
+            if (growth < bestGrowth || (growth == bestGrowth && area < bestArea)) {
+                best = i;
+                bestGrowth = growth;
+                bestArea = area;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Divide los nodos desbordados y actualiza los rectángulos hasta la raíz
+     */
+    private void adjust(Node node) {
+        while (true) {
+            Node sibling = node.count > MAX_ENTRIES ? split(node) : null;
+            Node parent = node.parent;
+            
+            if (parent == null) {
+                if (sibling != null) {
+                    Node grown = new Node(false);
+                    grown.addNode(node);
+                    grown.addNode(sibling);
+                    root = grown;
+                }
+                return;
+            }
+            
+            parent.refit(parent.indexOf(node));
+            if (sibling != null) {
+                parent.addNode(sibling);
+            }
+            node = parent;
+        }
+    }
+    
+    /**
+     * Split cuadrático: las semillas son el par que más espacio desperdicia
+     * juntas; el resto va al grupo que menos crece, respetando el mínimo
+     *
+     * @return Nuevo hermano con la mitad de las entradas
+     */
+    private static Node split(Node node) {
+        int count = node.count;
+        Object[] entries = Arrays.copyOf(node.entries, count);
+        int[] boxes = Arrays.copyOf(node.boxes, count * 4);
+        
+        int seedA = 0;
+        int seedB = 1;
+        long worstWaste = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                int a = i * 4;
+                int b = j * 4;
+                long waste = area(Math.min(boxes[a], boxes[b]), Math.min(boxes[a + 1], boxes[b + 1]),
+                        Math.max(boxes[a + 2], boxes[b + 2]), Math.max(boxes[a + 3], boxes[b + 3]))
+                    - area(boxes[a], boxes[a + 1], boxes[a + 2], boxes[a + 3])
+                    - area(boxes[b], boxes[b + 1], boxes[b + 2], boxes[b + 3]);
+                if (waste > worstWaste) {
+                    worstWaste = waste;
+                    seedA = i;
+                    seedB = j;
+                }
+            }
+        }
+        
+        node.clear();
+        Node sibling = new Node(node.leaf);
+        sibling.parent = node.parent;
+        node.add(entries[seedA], boxes, seedA);
+        sibling.add(entries[seedB], boxes, seedB);
+        
+        int remaining = count - 2;
+        for (int i = 0; i < count; i++) {
+            if (i == seedA || i == seedB) {
+                continue;
+            }
+            
+            Node target;
+            if (node.count + remaining == MIN_ENTRIES) {
+                target = node;
+            } else if (sibling.count + remaining == MIN_ENTRIES) {
+                target = sibling;
+            } else {
+                int at = i * 4;
+                long growthA = growth(node, boxes[at], boxes[at + 1], boxes[at + 2], boxes[at + 3]);
+                long growthB = growth(sibling, boxes[at], boxes[at + 1], boxes[at + 2], boxes[at + 3]);
+                target = growthA < growthB || (growthA == growthB && node.count <= sibling.count) ? node : sibling;
+            }
+            target.add(entries[i], boxes, i);
+            remaining--;
+        }
+        return sibling;
+    }
+    
+    private static long growth(Node node, int minX, int minZ, int maxX, int maxZ) {
+        long area = area(node.minX(), node.minZ(), node.maxX(), node.maxZ());
+        return area(Math.min(node.minX(), minX), Math.min(node.minZ(), minZ),
+            Math.max(node.maxX(), maxX), Math.max(node.maxZ(), maxZ)) - area;
+    }
+    
+    private static Node findLeaf(Node node, Claim claim) {
+        int[] boxes = node.boxes;
+        for (int i = 0; i < node.count; i++) {
+            int at = i * 4;
+            if (boxes[at] > claim.minX() || boxes[at + 1] > claim.minZ()
+                || boxes[at + 2] < claim.maxX() || boxes[at + 3] < claim.maxZ()) {
+                continue;
+            }
+            
+            if (node.leaf) {
+                if (((Claim) node.entries[i]).id().equals(claim.id())) {
+                    return node;
+                }
+            } else {
+                Node leaf = findLeaf((Node) node.entries[i], claim);
+                if (leaf != null) {
+                    return leaf;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Sube desde la hoja retirando los nodos por debajo del mínimo y
+     * reinsertando sus claims
+     */
+    private void condense(Node leaf) {
+        List<Claim> orphans = new ArrayList<>();
+        Node node = leaf;
+        while (node.parent != null) {
+            Node parent = node.parent;
+            int at = parent.indexOf(node);
+            if (node.count < MIN_ENTRIES) {
+                parent.removeAt(at);
+                collectClaims(node, orphans);
+            } else {
+                parent.refit(at);
+            }
+            node = parent;
+        }
+        
+        while (!root.leaf && root.count == 1) {
+            root = (Node) root.entries[0];
+            root.parent = null;
+        }
+        if (root.count == 0) {
+            root = new Node(true);
+        }
+        
+        for (Claim orphan : orphans) {
+            insertEntry(orphan);
+        }
+    }
+    
+    private static void collectClaims(Node node, List<Claim> out) {
+        for (int i = 0; i < node.count; i++) {
+            if (node.leaf) {
+                out.add((Claim) node.entries[i]);
+            } else {
+                collectClaims((Node) node.entries[i], out);
+            }
+        }
+    }
+    
+    private static void collect(Node node, int minX, int minZ, int maxX, int maxZ, List<Claim> out) {
+        int[] boxes = node.boxes;
+        for (int i = 0; i < node.count; i++) {
+            int at = i * 4;
+            if (boxes[at] > maxX || boxes[at + 2] < minX || boxes[at + 1] > maxZ || boxes[at + 3] < minZ) {
+                continue;
+            }
+            
+            if (node.leaf) {
+                out.add((Claim) node.entries[i]);
+            } else {
+                collect((Node) node.entries[i], minX, minZ, maxX, maxZ, out);
+            }
+        }
+    }
+    
+    private static Claim first(Node node, int minX, int minZ, int maxX, int maxZ, Predicate<Claim> filter) {
+        int[] boxes = node.boxes;
+        for (int i = 0; i < node.count; i++) {
+            int at = i * 4;
+            if (boxes[at] > maxX || boxes[at + 2] < minX || boxes[at + 1] > maxZ || boxes[at + 3] < minZ) {
+                continue;
+            }
+            
+            if (node.leaf) {
+                Claim claim = (Claim) node.entries[i];
+                if (filter.test(claim)) {
+                    return claim;
+                }
+            } else {
+                Claim found = first((Node) node.entries[i], minX, minZ, maxX, maxZ, filter);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Un nivel de Sort-Tile-Recursive: ordena por X, corta en franjas
+     * verticales, ordena cada franja por Z y llena nodos completos
+     */
+    private static List<Item> pack(List<Item> items, boolean leaf) {
+        int nodes = (items.size() + MAX_ENTRIES - 1) / MAX_ENTRIES;
+        int slices = (int) Math.ceil(Math.sqrt(nodes));
+        int perSlice = slices * MAX_ENTRIES;
+        
+        items.sort(Comparator.comparingLong(item -> (long) item.minX() + item.maxX()));
+        List<Item> packed = new ArrayList<>(nodes);
+        for (int start = 0; start < items.size(); start += perSlice) {
+            List<Item> slice = new ArrayList<>(items.subList(start, Math.min(items.size(), start + perSlice)));
+            slice.sort(Comparator.comparingLong(item -> (long) item.minZ() + item.maxZ()));
+            
+            for (int from = 0; from < slice.size(); from += MAX_ENTRIES) {
+                Node node = new Node(leaf);
+                for (Item item : slice.subList(from, Math.min(slice.size(), from + MAX_ENTRIES))) {
+                    if (leaf) {
+                        node.add(item.entry(), item.minX(), item.minZ(), item.maxX(), item.maxZ());
+                    } else {
+                        node.addNode((Node) item.entry());
+                    }
+                }
+                packed.add(new Item(node, node.minX(), node.minZ(), node.maxX(), node.maxZ()));
+            }
+        }
+        return packed;
+    }
+    
+    private static long area(int minX, int minZ, int maxX, int maxZ) {
+        return ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+    }
+    
+    /**
+     * Entrada pendiente de empaquetar durante la carga STR
+     */
+    private record Item(Object entry, int minX, int minZ, int maxX, int maxZ) {
+    }
+    
+    /**
+     * Nodo con hueco para una entrada extra, que se reparte al dividir
+     */
+    private static final class Node {
+        
+        final boolean leaf;
+        final Object[] entries = new Object[MAX_ENTRIES + 1];
+        final int[] boxes = new int[(MAX_ENTRIES + 1) * 4];
+        int count;
+        Node parent;
+        
+        Node(boolean leaf) {
+            this.leaf = leaf;
+        }
+        
+        void add(Object entry, int minX, int minZ, int maxX, int maxZ) {
+            int at = count * 4;
+            boxes[at] = minX;
+            boxes[at + 1] = minZ;
+            boxes[at + 2] = maxX;
+            boxes[at + 3] = maxZ;
+            entries[count++] = entry;
+            if (entry instanceof Node child) {
+                child.parent = this;
+            }
+        }
+        
+        void add(Object entry, int[] source, int index) {
+            int at = index * 4;
+            add(entry, source[at], source[at + 1], source[at + 2], source[at + 3]);
+        }
+        
+        void addNode(Node child) {
+            add(child, child.minX(), child.minZ(), child.maxX(), child.maxZ());
+        }
+        
+        void removeAt(int index) {
+            count--;
+            entries[index] = entries[count];
+            entries[count] = null;
+            System.arraycopy(boxes, count * 4, boxes, index * 4, 4);
+        }
+        
+        void clear() {
+            Arrays.fill(entries, null);
+            count = 0;
+        }
+        
+        int indexOf(Node child) {
+            for (int i = 0; i < count; i++) {
+                if (entries[i] == child) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Child not found in parent node");
+        }
+        
+        /**
+         * Recalcula el rectángulo guardado para el hijo en la posición dada
+         */
+        void refit(int index) {
+            Node child = (Node) entries[index];
+            int at = index * 4;
+            boxes[at] = child.minX();
+            boxes[at + 1] = child.minZ();
+            boxes[at + 2] = child.maxX();
+            boxes[at + 3] = child.maxZ();
+        }
+        
+        int minX() {
+            return bound(0, true);
+        }
+        
+        int minZ() {
+            return bound(1, true);
+        }
+        
+        int maxX() {
+            return bound(2, false);
+        }
+        
+        int maxZ() {
+            return bound(3, false);
+        }
+        
+        private int bound(int offset, boolean min) {
+            int value = boxes[offset];
+            for (int i = 1; i < count; i++) {
+                int candidate = boxes[i * 4 + offset];
+                value = min ? Math.min(value, candidate) : Math.max(value, candidate);
+            }
+            return value;
+        }
+    }
+}
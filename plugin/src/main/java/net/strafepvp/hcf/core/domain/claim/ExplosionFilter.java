@@ -0,0 +1,156 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Filtra la lista de bloques de una explosión según los claims protegidos
+ *
+ * La propiedad se resuelve una vez por chunk contra el {@link ClaimLookup}:
+ * un chunk sin claims protegidos conserva todos sus bloques, uno cubierto
+ * entero por un claim protegido los pierde todos, y solo los chunks
+ * repartidos comprueban bloque a bloque los rectángulos de sus claims
+ * protegidos. Los chunks ya resueltos de la explosión se buscan en un
+ * array pequeño, sin hashing, y la lista se compacta en el sitio.
+ *
+ * Reutiliza sus buffers entre explosiones: se usa desde el hilo principal.
+ *
+ * @author mayk0l
+ */
+public class ExplosionFilter {
+    
+    private static final byte KEEP_ALL = 0;
+    private static final byte DROP_ALL = 1;
+    private static final byte PER_BLOCK = 2;
+    private static final Claim[] NO_CLAIMS = new Claim[0];
+    
+    private long[] chunkKeys = new long[16];
+    private byte[] verdicts = new byte[16];
+    private Claim[][] protectedClaims = new Claim[16][];
+    private int chunks;
+    
+    private long explosions;
+    private long blocksChecked;
+    private long blocksRemoved;
+    private long chunkResolutions;
+    
+    /**
+     * Elimina de la lista los bloques dentro de claims protegidos
+     *
+     * @param index Claims por chunk; la rejilla densa del mundo si la hay
+     * @param protectedTeam Si los claims de un equipo resisten explosiones
+     * @param worldName Mundo de la explosión
+     * @param blocks Bloques afectados; se modifica en el sitio
+     * @param blockX Coordenada X de bloque
+     * @param blockZ Coordenada Z de bloque
+     * @return Bloques eliminados de la lista
+     */
+    public <B> int filter(ClaimLookup index, Predicate<TeamId> protectedTeam, String worldName,
+                          List<B> blocks, ToIntFunction<B> blockX, ToIntFunction<B> blockZ) {
+        explosions++;
+        chunks = 0;
+        int size = blocks.size();
+        int kept = 0;
+        int slot = -1;
+        long lastKey = 0;
+        
+        for (int i = 0; i < size; i++) {
+            B block = blocks.get(i);
+            int x = blockX.applyAsInt(block);
+            int z = blockZ.applyAsInt(block);
+            long key = ChunkKeys.ofBlock(x, z);
+            if (slot < 0 || key != lastKey) {
+                slot = resolve(index, protectedTeam, worldName, key);
+                lastKey = key;
+            }
+            
+            if (keeps(slot, x, z)) {
+                if (kept != i) {
+                    blocks.set(kept, block);
+                }
+                kept++;
+            }
+        }
+        
+        int removed = size - kept;
+        if (removed > 0) {
+            blocks.subList(kept, size).clear();
+        }
+        blocksChecked += size;
+        blocksRemoved += removed;
+        
+        // Drop references to claims so a deleted claim is not kept alive
+        Arrays.fill(protectedClaims, 0, chunks, null);
+        return removed;
+    }
+    
+    /**
+     * Obtiene un resumen de la actividad del filtro
+     */
+    public String getStatus() {
+        return String.format("Explosions - Events: %d, Blocks: %d, Removed: %d, Chunk resolutions: %d",
+            explosions, blocksChecked, blocksRemoved, chunkResolutions);
+    }
+    
+    private boolean keeps(int slot, int x, int z) {
+        byte verdict = verdicts[slot];
+        if (verdict != PER_BLOCK) {
+            return verdict == KEEP_ALL;
+        }
+        
+        for (Claim claim : protectedClaims[slot]) {
+            if (claim.contains(x, z)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Slot del chunk en los buffers de la explosión, resolviéndolo si es nuevo
+     */
+    private int resolve(ClaimLookup index, Predicate<TeamId> protectedTeam, String worldName, long key) {
+        for (int i = 0; i < chunks; i++) {
+            if (chunkKeys[i] == key) {
+                return i;
+            }
+        }
+        
+        if (chunks == chunkKeys.length) {
+            chunkKeys = Arrays.copyOf(chunkKeys, chunks * 2);
+            verdicts = Arrays.copyOf(verdicts, chunks * 2);
+            protectedClaims = Arrays.copyOf(protectedClaims, chunks * 2);
+        }
+        
+        chunkResolutions++;
+        int chunkX = ChunkKeys.chunkX(key);
+        int chunkZ = ChunkKeys.chunkZ(key);
+        Claim[] bucket = index.claimsInChunk(worldName, chunkX, chunkZ);
+        
+        Claim[] guarded = NO_CLAIMS;
+        byte verdict = KEEP_ALL;
+        for (Claim claim : bucket) {
+            if (!protectedTeam.test(claim.teamId())) {
+                continue;
+            }
+            if (ClaimIndex.coversChunk(claim, chunkX, chunkZ)) {
+                verdict = DROP_ALL;
+                break;
+            }
+            guarded = Arrays.copyOf(guarded, guarded.length + 1);
+            guarded[guarded.length - 1] = claim;
+            verdict = PER_BLOCK;
+        }
+        
+        int slot = chunks++;
+        chunkKeys[slot] = key;
+        verdicts[slot] = verdict;
+        protectedClaims[slot] = guarded;
+        return slot;
+    }
+}
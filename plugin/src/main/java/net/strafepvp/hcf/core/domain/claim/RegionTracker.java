@@ -0,0 +1,163 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Detecta las entradas y salidas de territorio a partir del movimiento
+ *
+ * Los movimientos que no cambian la coordenada X/Z de bloque (giros de
+ * cabeza, saltos, pasos dentro del mismo bloque) terminan en la primera
+ * comparación. Cada jugador guarda su claim actual: mientras el nuevo
+ * bloque siga dentro de ese rectángulo no se consulta ningún índice. Solo
+ * se emite una {@link RegionTransition} cuando cambia el equipo dueño del
+ * terreno; pasar entre dos claims del mismo equipo no cuenta.
+ *
+ * Se usa desde el hilo principal del servidor.
+ *
+ * @author mayk0l
+ */
+public class RegionTracker {
+    
+    private final Supplier<ClaimLookup> lookup;
+    private final List<Consumer<RegionTransition>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<UUID, Region> regions = new HashMap<>();
+    
+    private long moveEvents;
+    private long skippedMoves;
+    private long cacheHits;
+    private long lookups;
+    private long transitions;
+    
+    /**
+     * @param lookup Índice de claims vigente, o null si aún no hay uno; se
+     *               pide en cada consulta porque el índice se reemplaza
+     */
+    public RegionTracker(Supplier<ClaimLookup> lookup) {
+        this.lookup = lookup;
+    }
+    
+    /**
+     * Registra un receptor de cambios de región
+     */
+    public void subscribe(Consumer<RegionTransition> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Procesa un evento de movimiento dentro de un mismo mundo
+     */
+    public void onMove(UUID playerUuid, String worldName, int fromX, int fromZ, int toX, int toZ) {
+        moveEvents++;
+        if (fromX == toX && fromZ == toZ) {
+            skippedMoves++;
+            return;
+        }
+        relocate(playerUuid, worldName, toX, toZ);
+    }
+    
+    /**
+     * Sitúa al jugador en un bloque sin pasar por el filtro de movimiento:
+     * teletransportes, cambios de mundo y conexiones
+     *
+     * La primera posición conocida de un jugador no emite cambios.
+     */
+    public void relocate(UUID playerUuid, String worldName, int x, int z) {
+        Region region = regions.get(playerUuid);
+        Claim previous = region != null ? region.claim : null;
+        if (previous != null && previous.worldName().equals(worldName) && previous.contains(x, z)) {
+            cacheHits++;
+            return;
+        }
+        
+        lookups++;
+        ClaimLookup index = lookup.get();
+        Claim current = index != null ? index.claimAt(worldName, x, z) : null;
+        if (region == null) {
+            regions.put(playerUuid, new Region(current));
+            return;
+        }
+        
+        region.claim = current;
+        if (sameOwner(previous, current)) {
+            return;
+        }
+        
+        transitions++;
+        RegionTransition transition = new RegionTransition(playerUuid, previous, current);
+        for (Consumer<RegionTransition> listener : listeners) {
+            listener.accept(transition);
+        }
+    }
+    
+    /**
+     * Olvida la región de un jugador desconectado
+     */
+    public void forget(UUID playerUuid) {
+        regions.remove(playerUuid);
+    }
+    
+    /**
+     * Claim en el que está el jugador según el último movimiento procesado
+     *
+     * @return El claim, o null en zona libre o si el jugador no se ha visto
+     */
+    public Claim getCurrentClaim(UUID playerUuid) {
+        Region region = regions.get(playerUuid);
+        return region != null ? region.claim : null;
+    }
+    
+    public long getMoveEvents() {
+        return moveEvents;
+    }
+    
+    public long getSkippedMoves() {
+        return skippedMoves;
+    }
+    
+    /**
+     * Fracción de eventos de movimiento descartados sin tocar la cache ni
+     * los índices
+     */
+    public double getSkippedRatio() {
+        return moveEvents == 0 ? 0 : (double) skippedMoves / moveEvents;
+    }
+    
+    public long getTransitions() {
+        return transitions;
+    }
+    
+    /**
+     * Obtiene un resumen de la actividad del detector
+     */
+    public String getStatus() {
+        return String.format("Regions - Players: %d, Moves: %d (%.1f%% skipped), Cache hits: %d, Lookups: %d, Transitions: %d",
+            regions.size(), moveEvents, getSkippedRatio() * 100, cacheHits, lookups, transitions);
+    }
+    
+    private static boolean sameOwner(Claim a, Claim b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.teamId().equals(b.teamId());
+    }
+    
+    /**
+     * Región actual de un jugador; mutable para no crear objetos al moverse
+     */
+    private static final class Region {
+        
+        Claim claim;
+        
+        Region(Claim claim) {
+            this.claim = claim;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+
+import java.util.UUID;
+
+/**
+ * Cambio de región de un jugador: sale del territorio de un equipo, entra
+ * en el de otro, o ambas cosas
+ *
+ * @param playerUuid UUID de Minecraft del jugador
+ * @param from Claim que abandona, o null si venía de zona libre
+ * @param to Claim en el que entra, o null si pasa a zona libre
+ * @author mayk0l
+ */
+public record RegionTransition(UUID playerUuid, Claim from, Claim to) {
+    
+    /**
+     * Verifica si el jugador abandona el territorio de un equipo
+     */
+    public boolean exited() {
+        return from != null;
+    }
+    
+    /**
+     * Verifica si el jugador entra en el territorio de un equipo
+     */
+    public boolean entered() {
+        return to != null;
+    }
+}
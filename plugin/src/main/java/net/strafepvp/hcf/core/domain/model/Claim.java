@@ -0,0 +1,86 @@
+package net.strafepvp.hcf.core.domain.model;
+
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Territorio rectangular reclamado por un equipo
+ *
+ * Las coordenadas son de bloque e inclusivas en ambos extremos.
+ *
+ * @param id Identificador del claim
+ * @param teamId Equipo propietario
+ * @param worldName Mundo del claim
+ * @param minX Coordenada X mínima
+ * @param minZ Coordenada Z mínima
+ * @param maxX Coordenada X máxima
+ * @param maxZ Coordenada Z máxima
+ * @param createdAt Fecha de creación
+ * @author mayk0l
+ */
+public record Claim(
+    UUID id,
+    TeamId teamId,
+    String worldName,
+    int minX,
+    int minZ,
+    int maxX,
+    int maxZ,
+    Instant createdAt
+) {
+    
+    public Claim {
+        if (id == null || teamId == null || worldName == null) {
+            throw new IllegalArgumentException("Claim id, team and world cannot be null");
+        }
+        
+        // Normalize corners so min <= max
+        int lowX = Math.min(minX, maxX);
+        int lowZ = Math.min(minZ, maxZ);
+        maxX = Math.max(minX, maxX);
+        maxZ = Math.max(minZ, maxZ);
+        minX = lowX;
+        minZ = lowZ;
+        
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+    
+    /**
+     * Crea un nuevo claim a partir de dos esquinas
+     */
+    public static Claim create(TeamId teamId, String worldName, int x1, int z1, int x2, int z2) {
+        return new Claim(UUID.randomUUID(), teamId, worldName, x1, z1, x2, z2, Instant.now());
+    }
+    
+    /**
+     * Verifica si la coordenada de bloque está dentro del claim
+     */
+    public boolean contains(int x, int z) {
+        return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+    }
+    
+    /**
+     * Ancho del claim en bloques (eje X)
+     */
+    public int width() {
+        return maxX - minX + 1;
+    }
+    
+    /**
+     * Largo del claim en bloques (eje Z)
+     */
+    public int length() {
+        return maxZ - minZ + 1;
+    }
+    
+    /**
+     * Área del claim en bloques
+     */
+    public long area() {
+        return (long) width() * length();
+    }
+}
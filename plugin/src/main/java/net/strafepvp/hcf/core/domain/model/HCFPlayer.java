@@ -0,0 +1,179 @@
+package net.strafepvp.hcf.core.domain.model;
+
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Agregado que representa el perfil HCF de un jugador
+ *
+ * El identificador coincide con el UUID de Minecraft del jugador.
+ *
+ * Como {@link Team}, registra los campos modificados para que la
+ * persistencia escriba solo las columnas que cambiaron.
+ *
+ * @author mayk0l
+ */
+public class HCFPlayer {
+    
+    /**
+     * Campos mutables cuyo cambio se registra para la persistencia
+     */
+    public enum Field {
+        USERNAME, TEAM, TEAM_ROLE, UPDATED_AT, PVP_PROTECTION, DEATHBAN
+    }
+    
+    private final PlayerId id;
+    private final Instant createdAt;
+    
+    private String username;
+    private TeamId teamId;
+    private TeamRole teamRole;
+    private Instant updatedAt;
+    private Instant pvpProtectionUntil;
+    private Instant deathbanUntil;
+    private final Set<Field> changedFields = EnumSet.noneOf(Field.class);
+    
+    public HCFPlayer(PlayerId id, String username, TeamId teamId, TeamRole teamRole,
+                     Instant createdAt, Instant updatedAt, Instant pvpProtectionUntil, Instant deathbanUntil) {
+        this.id = Objects.requireNonNull(id, "Player id cannot be null");
+        this.username = Objects.requireNonNull(username, "Username cannot be null");
+        this.teamId = teamId;
+        this.teamRole = teamRole != null ? teamRole : TeamRole.MEMBER;
+        this.createdAt = createdAt != null ? createdAt : Instant.now();
+        this.updatedAt = updatedAt != null ? updatedAt : this.createdAt;
+        this.pvpProtectionUntil = pvpProtectionUntil;
+        this.deathbanUntil = deathbanUntil;
+    }
+    
+    /**
+     * Crea el perfil de un jugador que entra por primera vez
+     *
+     * @param id Identificador del jugador
+     * @param username Nombre de usuario actual
+     * @return Nuevo perfil sin equipo
+     */
+    public static HCFPlayer create(PlayerId id, String username) {
+        Instant now = Instant.now();
+        HCFPlayer player = new HCFPlayer(id, username, null, TeamRole.MEMBER, now, now, null, null);
+        player.changedFields.addAll(EnumSet.allOf(Field.class));
+        return player;
+    }
+    
+    public PlayerId getId() {
+        return id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = Objects.requireNonNull(username, "Username cannot be null");
+        touch(Field.USERNAME);
+    }
+    
+    public TeamId getTeamId() {
+        return teamId;
+    }
+    
+    public boolean hasTeam() {
+        return teamId != null;
+    }
+    
+    public void setTeamId(TeamId teamId) {
+        this.teamId = teamId;
+        touch(Field.TEAM);
+    }
+    
+    public TeamRole getTeamRole() {
+        return teamRole;
+    }
+    
+    public void setTeamRole(TeamRole teamRole) {
+        this.teamRole = teamRole != null ? teamRole : TeamRole.MEMBER;
+        touch(Field.TEAM_ROLE);
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public Instant getPvpProtectionUntil() {
+        return pvpProtectionUntil;
+    }
+    
+    public void setPvpProtectionUntil(Instant pvpProtectionUntil) {
+        this.pvpProtectionUntil = pvpProtectionUntil;
+        touch(Field.PVP_PROTECTION);
+    }
+    
+    public Instant getDeathbanUntil() {
+        return deathbanUntil;
+    }
+    
+    public void setDeathbanUntil(Instant deathbanUntil) {
+        this.deathbanUntil = deathbanUntil;
+        touch(Field.DEATHBAN);
+    }
+    
+    /**
+     * Verifica si el jugador tiene un deathban vigente
+     *
+     * @param now Instante de referencia
+     * @return true si el deathban aún no expira
+     */
+    public boolean isDeathbanned(Instant now) {
+        return deathbanUntil != null && deathbanUntil.isAfter(now);
+    }
+    
+    /**
+     * Obtiene y reinicia los campos modificados desde la última llamada
+     *
+     * @return Campos modificados; vacío si el jugador no cambió
+     */
+    public Set<Field> takeChangedFields() {
+        if (changedFields.isEmpty()) {
+            return Set.of();
+        }
+        
+        Set<Field> changed = EnumSet.copyOf(changedFields);
+        changedFields.clear();
+        return changed;
+    }
+    
+    /**
+     * Marca un campo como modificado y actualiza la marca de tiempo de modificación
+     */
+    private void touch(Field field) {
+        this.updatedAt = Instant.now();
+        changedFields.add(field);
+        changedFields.add(Field.UPDATED_AT);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HCFPlayer that = (HCFPlayer) o;
+        return id.equals(that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return "HCFPlayer{" + username + ", id=" + id + ", team=" + teamId + "}";
+    }
+}
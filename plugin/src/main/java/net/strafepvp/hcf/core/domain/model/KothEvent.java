@@ -0,0 +1,84 @@
+package net.strafepvp.hcf.core.domain.model;
+
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Definición y estado de un evento KOTH (King of the Hill)
+ *
+ * @param id Identificador del KOTH
+ * @param name Nombre visible
+ * @param worldName Mundo donde se encuentra
+ * @param centerX Coordenada X del centro
+ * @param centerZ Coordenada Z del centro
+ * @param radius Radio de captura en bloques
+ * @param captureTime Tiempo de captura en segundos
+ * @param active Si el evento está en curso
+ * @param currentController Jugador que controla la zona (puede ser null)
+ * @param controlStartTime Inicio del control actual (puede ser null)
+ * @param createdAt Fecha de creación
+ * @author mayk0l
+ */
+public record KothEvent(
+    UUID id,
+    String name,
+    String worldName,
+    int centerX,
+    int centerZ,
+    int radius,
+    int captureTime,
+    boolean active,
+    PlayerId currentController,
+    Instant controlStartTime,
+    Instant createdAt
+) {
+    
+    public KothEvent {
+        if (id == null || name == null || worldName == null) {
+            throw new IllegalArgumentException("KOTH id, name and world cannot be null");
+        }
+        
+        if (radius <= 0 || captureTime <= 0) {
+            throw new IllegalArgumentException("KOTH radius and capture time must be greater than 0");
+        }
+        
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+    
+    /**
+     * Crea una nueva definición de KOTH inactiva
+     */
+    public static KothEvent create(String name, String worldName, int centerX, int centerZ, int radius, int captureTime) {
+        return new KothEvent(UUID.randomUUID(), name, worldName, centerX, centerZ, radius, captureTime,
+            false, null, null, Instant.now());
+    }
+    
+    /**
+     * Devuelve una copia con el estado de actividad indicado, sin controlador
+     */
+    public KothEvent withActive(boolean active) {
+        return new KothEvent(id, name, worldName, centerX, centerZ, radius, captureTime,
+            active, null, null, createdAt);
+    }
+    
+    /**
+     * Devuelve una copia con un nuevo controlador de la zona
+     */
+    public KothEvent withController(PlayerId controller, Instant since) {
+        return new KothEvent(id, name, worldName, centerX, centerZ, radius, captureTime,
+            active, controller, controller != null ? since : null, createdAt);
+    }
+    
+    /**
+     * Verifica si la coordenada de bloque está dentro de la zona de captura
+     */
+    public boolean isInside(int x, int z) {
+        long dx = x - centerX;
+        long dz = z - centerZ;
+        return dx * dx + dz * dz <= (long) radius * radius;
+    }
+}
@@ -0,0 +1,37 @@
+package net.strafepvp.hcf.core.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Temporada (mapa) del servidor HCF
+ *
+ * @param id Número de temporada, creciente
+ * @param name Nombre visible
+ * @param startedAt Inicio de la temporada
+ * @param endedAt Cierre de la temporada, o null si es la temporada en curso
+ * @author mayk0l
+ */
+public record Season(
+    int id,
+    String name,
+    Instant startedAt,
+    Instant endedAt
+) {
+    
+    public Season {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Season id must be greater than 0");
+        }
+        
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Season name cannot be empty");
+        }
+    }
+    
+    /**
+     * Verifica si es la temporada en curso
+     */
+    public boolean isCurrent() {
+        return endedAt == null;
+    }
+}
@@ -0,0 +1,200 @@
+package net.strafepvp.hcf.core.domain.model;
+
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamName;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Agregado que representa un equipo HCF
+ *
+ * Contiene el estado persistente del equipo (líder, DTR, estado de raideo).
+ * Las mutaciones actualizan automáticamente la marca de tiempo updatedAt.
+ *
+ * La versión identifica la fila de la que se cargó el equipo; la capa de
+ * persistencia la usa para detectar escrituras concurrentes. Los cambios de
+ * DTR se acumulan además como incremento pendiente, de modo que pueden
+ * reaplicarse sobre el valor actual de la base de datos sin perder los
+ * cambios de otro escritor.
+ *
+ * Cada mutación marca el campo que modifica; la capa de persistencia
+ * consume esas marcas con {@link #takeChangedFields()} para escribir solo
+ * las columnas que cambiaron. Un equipo recién creado tiene todos sus
+ * campos marcados.
+ *
+ * @author mayk0l
+ */
+public class Team {
+    
+    /**
+     * Campos mutables cuyo cambio se registra para la persistencia
+     */
+    public enum Field {
+        NAME, LEADER, UPDATED_AT, DTR, RAIDABLE, LAST_DEATH_TIME
+    }
+    
+    private final TeamId id;
+    private final Instant createdAt;
+    private final long version;
+    
+    private TeamName name;
+    private PlayerId leaderId;
+    private Instant updatedAt;
+    private double dtr;
+    private boolean raidable;
+    private Instant lastDeathTime;
+    private double unsavedDtrChange;
+    private final Set<Field> changedFields = EnumSet.noneOf(Field.class);
+    
+    public Team(TeamId id, TeamName name, PlayerId leaderId, Instant createdAt, Instant updatedAt,
+                double dtr, boolean raidable, Instant lastDeathTime) {
+        this(id, name, leaderId, createdAt, updatedAt, dtr, raidable, lastDeathTime, 0);
+    }
+    
+    public Team(TeamId id, TeamName name, PlayerId leaderId, Instant createdAt, Instant updatedAt,
+                double dtr, boolean raidable, Instant lastDeathTime, long version) {
+        this.id = Objects.requireNonNull(id, "Team id cannot be null");
+        this.name = Objects.requireNonNull(name, "Team name cannot be null");
+        this.leaderId = Objects.requireNonNull(leaderId, "Team leader cannot be null");
+        this.createdAt = createdAt != null ? createdAt : Instant.now();
+        this.updatedAt = updatedAt != null ? updatedAt : this.createdAt;
+        this.dtr = dtr;
+        this.raidable = raidable;
+        this.lastDeathTime = lastDeathTime;
+        this.version = version;
+    }
+    
+    /**
+     * Crea un nuevo equipo con el DTR inicial configurado
+     *
+     * @param name Nombre del equipo
+     * @param leaderId Líder del equipo
+     * @param startingDtr DTR inicial
+     * @return Nuevo equipo
+     */
+    public static Team create(TeamName name, PlayerId leaderId, double startingDtr) {
+        Instant now = Instant.now();
+        Team team = new Team(TeamId.generate(), name, leaderId, now, now, startingDtr, false, null);
+        team.changedFields.addAll(EnumSet.allOf(Field.class));
+        return team;
+    }
+    
+    public TeamId getId() {
+        return id;
+    }
+    
+    public TeamName getName() {
+        return name;
+    }
+    
+    public void setName(TeamName name) {
+        this.name = Objects.requireNonNull(name, "Team name cannot be null");
+        touch(Field.NAME);
+    }
+    
+    public PlayerId getLeaderId() {
+        return leaderId;
+    }
+    
+    public void setLeaderId(PlayerId leaderId) {
+        this.leaderId = Objects.requireNonNull(leaderId, "Team leader cannot be null");
+        touch(Field.LEADER);
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public double getDtr() {
+        return dtr;
+    }
+    
+    public void setDtr(double dtr) {
+        this.unsavedDtrChange += dtr - this.dtr;
+        this.dtr = dtr;
+        touch(Field.DTR);
+    }
+    
+    /**
+     * Obtiene y reinicia el cambio de DTR acumulado desde la última llamada
+     *
+     * @return Suma de los cambios de DTR pendientes de persistir
+     */
+    public double takeUnsavedDtrChange() {
+        double change = unsavedDtrChange;
+        this.unsavedDtrChange = 0;
+        return change;
+    }
+    
+    public boolean isRaidable() {
+        return raidable;
+    }
+    
+    public void setRaidable(boolean raidable) {
+        this.raidable = raidable;
+        touch(Field.RAIDABLE);
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public Instant getLastDeathTime() {
+        return lastDeathTime;
+    }
+    
+    public void setLastDeathTime(Instant lastDeathTime) {
+        this.lastDeathTime = lastDeathTime;
+        touch(Field.LAST_DEATH_TIME);
+    }
+    
+    /**
+     * Obtiene y reinicia los campos modificados desde la última llamada
+     *
+     * @return Campos modificados; vacío si el equipo no cambió
+     */
+    public Set<Field> takeChangedFields() {
+        if (changedFields.isEmpty()) {
+            return Set.of();
+        }
+        
+        Set<Field> changed = EnumSet.copyOf(changedFields);
+        changedFields.clear();
+        return changed;
+    }
+    
+    /**
+     * Marca un campo como modificado y actualiza la marca de tiempo de modificación
+     */
+    private void touch(Field field) {
+        this.updatedAt = Instant.now();
+        changedFields.add(field);
+        changedFields.add(Field.UPDATED_AT);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Team team = (Team) o;
+        return id.equals(team.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return "Team{" + name + ", id=" + id + ", dtr=" + dtr + "}";
+    }
+}
@@ -0,0 +1,31 @@
+package net.strafepvp.hcf.core.domain.model;
+
+/**
+ * Rol de un jugador dentro de su equipo
+ *
+ * @author mayk0l
+ */
+public enum TeamRole {
+    LEADER,
+    CO_LEADER,
+    CAPTAIN,
+    MEMBER;
+    
+    /**
+     * Obtiene el rol desde su nombre persistido
+     *
+     * @param name Nombre del rol (puede ser null)
+     * @return El rol correspondiente o MEMBER si no es reconocido
+     */
+    public static TeamRole fromName(String name) {
+        if (name == null) {
+            return MEMBER;
+        }
+        
+        try {
+            return TeamRole.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return MEMBER;
+        }
+    }
+}
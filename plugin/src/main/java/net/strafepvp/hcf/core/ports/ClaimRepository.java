@@ -0,0 +1,31 @@
+package net.strafepvp.hcf.core.ports;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puerto de persistencia para claims
+ *
+ * Todas las operaciones son no bloqueantes; ver {@link TeamRepository}.
+ *
+ * @author mayk0l
+ */
+public interface ClaimRepository {
+    
+    CompletableFuture<Optional<Claim>> findById(UUID id);
+    
+    CompletableFuture<List<Claim>> findByTeam(TeamId teamId);
+    
+    CompletableFuture<List<Claim>> findByWorld(String worldName);
+    
+    CompletableFuture<List<Claim>> findAll();
+    
+    CompletableFuture<Void> save(Claim claim);
+    
+    CompletableFuture<Void> delete(UUID id);
+}
@@ -0,0 +1,33 @@
+package net.strafepvp.hcf.core.ports;
+
+import net.strafepvp.hcf.core.domain.model.KothEvent;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puerto de persistencia para eventos KOTH
+ *
+ * Todas las operaciones son no bloqueantes; ver {@link TeamRepository}.
+ *
+ * @author mayk0l
+ */
+public interface KothEventRepository {
+    
+    CompletableFuture<Optional<KothEvent>> findById(UUID id);
+    
+    /**
+     * Busca un KOTH por nombre, sin distinguir mayúsculas
+     */
+    CompletableFuture<Optional<KothEvent>> findByName(String name);
+    
+    CompletableFuture<List<KothEvent>> findActive();
+    
+    CompletableFuture<List<KothEvent>> findAll();
+    
+    CompletableFuture<Void> save(KothEvent koth);
+    
+    CompletableFuture<Void> delete(UUID id);
+}
@@ -0,0 +1,32 @@
+package net.strafepvp.hcf.core.ports;
+
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puerto de persistencia para perfiles de jugadores
+ *
+ * Todas las operaciones son no bloqueantes; ver {@link TeamRepository}.
+ *
+ * @author mayk0l
+ */
+public interface PlayerRepository {
+    
+    CompletableFuture<Optional<HCFPlayer>> findById(PlayerId id);
+    
+    /**
+     * Busca un jugador por nombre de usuario, sin distinguir mayúsculas
+     */
+    CompletableFuture<Optional<HCFPlayer>> findByUsername(String username);
+    
+    CompletableFuture<List<HCFPlayer>> findByTeam(TeamId teamId);
+    
+    CompletableFuture<Void> save(HCFPlayer player);
+    
+    CompletableFuture<Void> delete(PlayerId id);
+}
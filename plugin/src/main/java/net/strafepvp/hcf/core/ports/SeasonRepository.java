@@ -0,0 +1,51 @@
+package net.strafepvp.hcf.core.ports;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.Season;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puerto de persistencia para temporadas y su archivo histórico
+ *
+ * Los repositorios de equipos, jugadores y claims solo ven la temporada en
+ * curso; las temporadas cerradas se consultan aquí. Todas las operaciones
+ * son no bloqueantes; ver {@link TeamRepository}.
+ *
+ * @author mayk0l
+ */
+public interface SeasonRepository {
+    
+    CompletableFuture<Optional<Season>> findCurrent();
+    
+    CompletableFuture<List<Season>> findAll();
+    
+    /**
+     * Cierra la temporada en curso, archiva sus equipos, jugadores y claims
+     * y abre una nueva con las tablas activas vacías
+     *
+     * @param name Nombre de la nueva temporada
+     * @param keepPlayers Si true, los perfiles de jugador pasan a la nueva temporada sin equipo
+     * @return Futuro con la nueva temporada
+     */
+    CompletableFuture<Season> startNewSeason(String name, boolean keepPlayers);
+    
+    CompletableFuture<List<Team>> findArchivedTeams(int seasonId);
+    
+    /**
+     * Busca un equipo archivado por nombre, sin distinguir mayúsculas
+     */
+    CompletableFuture<Optional<Team>> findArchivedTeamByName(int seasonId, String name);
+    
+    CompletableFuture<Optional<HCFPlayer>> findArchivedPlayer(int seasonId, PlayerId playerId);
+    
+    CompletableFuture<List<HCFPlayer>> findArchivedMembers(int seasonId, TeamId teamId);
+    
+    CompletableFuture<List<Claim>> findArchivedClaims(int seasonId, TeamId teamId);
+}
@@ -0,0 +1,34 @@
+package net.strafepvp.hcf.core.ports;
+
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puerto de persistencia para equipos
+ *
+ * Todas las operaciones son no bloqueantes. Los futuros se completan en un
+ * hilo de E/S; para usar la API de Bukkit con el resultado se debe continuar
+ * en el hilo principal (por ejemplo con thenAcceptAsync y el executor del
+ * hilo principal).
+ *
+ * @author mayk0l
+ */
+public interface TeamRepository {
+    
+    CompletableFuture<Optional<Team>> findById(TeamId id);
+    
+    /**
+     * Busca un equipo por nombre, sin distinguir mayúsculas
+     */
+    CompletableFuture<Optional<Team>> findByName(String name);
+    
+    CompletableFuture<List<Team>> findAll();
+    
+    CompletableFuture<Void> save(Team team);
+    
+    CompletableFuture<Void> delete(TeamId id);
+}
@@ -0,0 +1,114 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.health.CircuitBreaker;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcTeamRepository;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los repositorios asíncronos sobre el {@link DatabaseExecutor}:
+ * hilo de completado, fallos de consulta y rechazo con el breaker abierto
+ *
+ * @author mayk0l
+ */
+class AsyncRepositoryTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("AsyncRepositoryTest");
+    
+    private JdbcDataSource dataSource;
+    private ExecutorService mainThread;
+    private CircuitBreaker breaker;
+    private AtomicInteger connections;
+    private DatabaseExecutor executor;
+    private JdbcTeamRepository repository;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:async-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        
+        mainThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "Server thread"));
+        breaker = new CircuitBreaker(3, 0, 60_000, LOGGER);
+        connections = new AtomicInteger();
+        executor = new DatabaseExecutor(() -> {
+            connections.incrementAndGet();
+            return dataSource.getConnection();
+        }, breaker, mainThread, 2, LOGGER);
+        repository = new JdbcTeamRepository(executor, null, new StatementRegistry(10),
+            EntityMappings.create(SqlDialect.H2).teams());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        mainThread.shutdownNow();
+    }
+    
+    @Test
+    @DisplayName("Should run queries on a read thread and hand results to the main thread executor")
+    void testCompleteOnExpectedThreads() {
+        // When
+        CompletableFuture<String> queryThread = repository.findById(TeamId.generate())
+            .thenApply(team -> Thread.currentThread().getName());
+        CompletableFuture<String> callbackThread = repository.findById(TeamId.generate())
+            .thenApplyAsync(team -> Thread.currentThread().getName(), executor.mainThread());
+        
+        // Then
+        assertTrue(assertDoesNotThrow(() -> queryThread.get(5, TimeUnit.SECONDS)).startsWith("StrafeHCF-DB-Read-"));
+        assertEquals("Server thread", assertDoesNotThrow(() -> callbackThread.get(5, TimeUnit.SECONDS)));
+    }
+    
+    @Test
+    @DisplayName("Should fail the future on a query error without counting it against the breaker")
+    void testCompleteExceptionallyOnQueryError() throws SQLException {
+        // Given
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE teams CASCADE");
+        }
+        
+        // When
+        CompletionException error = assertThrows(CompletionException.class, () -> repository.findAll().join());
+        
+        // Then
+        assertInstanceOf(SQLException.class, error.getCause());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+    
+    @Test
+    @DisplayName("Should fail fast without borrowing a connection while the breaker is open")
+    void testFailFastWhenBreakerOpen() {
+        // Given
+        breaker.trip("Connection refused");
+        
+        // When
+        CompletableFuture<?> lookup = repository.findById(TeamId.generate());
+        
+        // Then
+        assertTrue(lookup.isCompletedExceptionally());
+        assertEquals(0, connections.get());
+    }
+}
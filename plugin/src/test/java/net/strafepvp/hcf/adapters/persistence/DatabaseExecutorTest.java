@@ -0,0 +1,108 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor.Route;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del reparto de operaciones entre las rutas de lectura y escritura,
+ * con dos bases de datos H2 en memoria como primario y réplica
+ *
+ * @author mayk0l
+ */
+class DatabaseExecutorTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("DatabaseExecutorTest");
+    
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private DatabaseExecutor executor;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        replica = database("replica");
+        executor = new DatabaseExecutor(
+            new Route(primary::getConnection, null, 1),
+            new Route(replica::getConnection, null, 2),
+            Runnable::run,
+            LOGGER
+        );
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should send reads to the replica and writes to the primary")
+    void testRouteByAccessMode() {
+        // When
+        String read = executor.supply(AccessMode.READ, DatabaseExecutorTest::origin).join();
+        String write = executor.supply(AccessMode.WRITE, DatabaseExecutorTest::origin).join();
+        
+        // Then
+        assertEquals("replica", read);
+        assertEquals("primary", write);
+    }
+    
+    @Test
+    @DisplayName("Should complete writes while every read thread is busy")
+    void testNotStarveWritesBehindReads() {
+        // Given
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        List<CompletableFuture<String>> reads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            reads.add(executor.supply(AccessMode.READ, connection -> {
+                release.join();
+                return origin(connection);
+            }));
+        }
+        
+        // When
+        CompletableFuture<String> write = executor.supply(AccessMode.WRITE, DatabaseExecutorTest::origin);
+        
+        // Then
+        assertEquals("primary", assertDoesNotThrow(() -> write.get(5, TimeUnit.SECONDS)));
+        assertTrue(reads.stream().noneMatch(CompletableFuture::isDone));
+        
+        release.complete(null);
+        reads.forEach(read -> assertEquals("replica", read.join()));
+    }
+    
+    private static String origin(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM origin")) {
+            assertTrue(resultSet.next());
+            return resultSet.getString(1);
+        }
+    }
+    
+    private static JdbcDataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE origin (name VARCHAR(16))");
+            statement.execute("INSERT INTO origin VALUES ('" + name + "')");
+        }
+        return dataSource;
+    }
+}
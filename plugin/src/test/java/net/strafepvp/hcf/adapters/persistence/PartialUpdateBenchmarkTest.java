@@ -0,0 +1,144 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.mapping.UuidStorage;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de bytes escritos por flush con UPDATE parcial frente a la
+ * fila completa, para el caso típico de un deathban tras una muerte
+ *
+ * Se ejecuta solo con -Dstrafehcf.benchmarks=true.
+ *
+ * @author mayk0l
+ */
+@EnabledIfSystemProperty(named = "strafehcf.benchmarks", matches = "true")
+class PartialUpdateBenchmarkTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("PartialUpdateBenchmarkTest");
+    private static final int PLAYERS = 10_000;
+    
+    @TempDir
+    Path dataFolder;
+    
+    @Test
+    @DisplayName("Benchmark bytes written per flush with partial versus full-row updates")
+    void benchmarkPartialUpdates() throws SQLException {
+        // Given
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:" + dataFolder.resolve("bench").toAbsolutePath());
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        EntityMappings mappings = EntityMappings.create(SqlDialect.H2);
+        EntityMapping<HCFPlayer> untracked = untracked(mappings.players());
+        
+        List<HCFPlayer> players = new ArrayList<>();
+        WriteBehindQueue loader = queue(dataSource, List.of(mappings.teams(), mappings.players()));
+        for (int i = 0; i < PLAYERS; i++) {
+            HCFPlayer player = HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "player" + i);
+            players.add(player);
+            loader.enqueueUpsert(mappings.players(), player);
+        }
+        loader.flush();
+        
+        // When
+        Result full = measure(queue(dataSource, List.of(untracked)), untracked, players);
+        Result partial = measure(queue(dataSource, List.of(mappings.teams(), mappings.players())), mappings.players(), players);
+        
+        // Then
+        System.out.printf("[bench] full row: %d KB bound, %d ms; partial: %d KB bound, %d ms (%.1fx fewer bytes)%n",
+            full.bytes() / 1024, full.millis(), partial.bytes() / 1024, partial.millis(),
+            (double) full.bytes() / partial.bytes());
+        assertTrue(partial.bytes() < full.bytes());
+        assertEquals(PLAYERS, count(dataSource));
+    }
+    
+    private Result measure(WriteBehindQueue queue, EntityMapping<HCFPlayer> mapping, List<HCFPlayer> players) {
+        Instant deathban = Instant.now().plusSeconds(3600);
+        for (HCFPlayer player : players) {
+            player.setDeathbanUntil(deathban);
+            queue.enqueueUpsert(mapping, player);
+        }
+        
+        long start = System.currentTimeMillis();
+        assertEquals(PLAYERS, queue.flush());
+        Result result = new Result(queue.getBoundBytes(), System.currentTimeMillis() - start);
+        queue.shutdown();
+        return result;
+    }
+    
+    private WriteBehindQueue queue(JdbcDataSource dataSource, List<EntityMapping<?>> writeOrder) {
+        return new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(30), null, null, writeOrder, 500, 0, LOGGER);
+    }
+    
+    private long count(JdbcDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM players WHERE deathban_until IS NOT NULL")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+    
+    /**
+     * Mapeo de jugadores sin seguimiento de cambios: la cola escribe la fila completa
+     */
+    private static EntityMapping<HCFPlayer> untracked(EntityMapping<HCFPlayer> delegate) {
+        return new EntityMapping<>() {
+            @Override
+            public String table() {
+                return delegate.table();
+            }
+            
+            @Override
+            public List<String> columns() {
+                return delegate.columns();
+            }
+            
+            @Override
+            public UuidStorage uuids() {
+                return delegate.uuids();
+            }
+            
+            @Override
+            public Object key(HCFPlayer player) {
+                return delegate.key(player);
+            }
+            
+            @Override
+            public Object[] toRow(HCFPlayer player) {
+                return delegate.toRow(player);
+            }
+            
+            @Override
+            public HCFPlayer fromRow(ResultSet resultSet) throws SQLException {
+                return delegate.fromRow(resultSet);
+            }
+        };
+    }
+    
+    private record Result(long bytes, long millis) {
+    }
+}
@@ -0,0 +1,455 @@
+package net.strafepvp.hcf.adapters.persistence;
+
+import net.strafepvp.hcf.adapters.persistence.health.CircuitBreaker;
+import net.strafepvp.hcf.adapters.persistence.journal.JournalEntry;
+import net.strafepvp.hcf.adapters.persistence.journal.WriteJournal;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamName;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la cola de escritura diferida sobre H2 en memoria
+ *
+ * @author mayk0l
+ */
+class WriteBehindQueueTest {
+    
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+    private EntityMappings mappings;
+    private WriteBehindQueue queue;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:wbq-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        keepAlive = dataSource.getConnection();
+        
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("""
+                CREATE TABLE teams (
+                    id UUID PRIMARY KEY,
+                    name VARCHAR(16) NOT NULL UNIQUE,
+                    leader_id UUID NOT NULL,
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP,
+                    dtr DECIMAL(4,2) NOT NULL,
+                    is_raidable BOOLEAN,
+                    last_death_time TIMESTAMP NULL,
+                    version BIGINT NOT NULL DEFAULT 0
+                )
+                """);
+            statement.executeUpdate("""
+                CREATE TABLE players (
+                    id UUID PRIMARY KEY,
+                    minecraft_uuid UUID NOT NULL UNIQUE,
+                    username VARCHAR(16) NOT NULL,
+                    team_id UUID NULL,
+                    team_role VARCHAR(20),
+                    created_at TIMESTAMP,
+                    updated_at TIMESTAMP,
+                    pvp_protection_until TIMESTAMP NULL,
+                    deathban_until TIMESTAMP NULL,
+                    FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE SET NULL
+                )
+                """);
+            statement.executeUpdate("""
+                CREATE TABLE claims (
+                    id UUID PRIMARY KEY,
+                    team_id UUID NOT NULL,
+                    world_name VARCHAR(50) NOT NULL,
+                    min_x INT, min_z INT, max_x INT, max_z INT,
+                    created_at TIMESTAMP,
+                    FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE CASCADE
+                )
+                """);
+        }
+        
+        mappings = EntityMappings.create(SqlDialect.H2);
+        queue = new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(5), null, null, mappings.writeOrder(), 2, 0,
+            Logger.getLogger("WriteBehindQueueTest"));
+    }
+    
+    @AfterEach
+    void tearDown() throws SQLException {
+        queue.shutdown();
+        keepAlive.close();
+    }
+    
+    @Test
+    @DisplayName("Should coalesce repeated writes of the same row")
+    void testCoalescing() throws SQLException {
+        // Given
+        Team team = Team.create(new TeamName("Coalesce"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        
+        // When
+        CompletableFuture<Void> first = queue.enqueueUpsert(mappings.teams(), team);
+        team.setDtr(0.5);
+        CompletableFuture<Void> second = queue.enqueueUpsert(mappings.teams(), team);
+        
+        // Then
+        assertEquals(1, queue.getPendingCount());
+        assertEquals(1, queue.flush());
+        assertTrue(first.isDone() && second.isDone());
+        assertEquals(0.5, querySingleDouble("SELECT dtr FROM teams"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should write parents before children across several batches")
+    void testBatchedFlushRespectsForeignKeys() throws SQLException {
+        // Given
+        Team team = Team.create(new TeamName("Parents"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        for (int i = 0; i < 5; i++) {
+            HCFPlayer player = HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "player" + i);
+            player.setTeamId(team.getId());
+            queue.enqueueUpsert(mappings.players(), player);
+        }
+        queue.enqueueUpsert(mappings.teams(), team);
+        
+        // When
+        int written = queue.flush();
+        
+        // Then
+        assertEquals(6, written);
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(5, querySingleDouble("SELECT COUNT(*) FROM players WHERE team_id IS NOT NULL"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should keep writes queued for the next flush when the database is unreachable")
+    void testFailedFlushRequeues() throws SQLException {
+        // Given
+        WriteBehindQueue offline = new WriteBehindQueue(unreachable(), SqlDialect.H2, new StatementRegistry(5), null, null,
+            mappings.writeOrder(), 2, 0, Logger.getLogger("WriteBehindQueueTest"));
+        HCFPlayer player = HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "offline");
+        
+        // When
+        CompletableFuture<Void> completion = offline.enqueueUpsert(mappings.players(), player);
+        int written = offline.flush();
+        
+        // Then
+        assertEquals(0, written);
+        assertEquals(1, offline.getPendingCount());
+        assertFalse(completion.isDone());
+    }
+    
+    @Test
+    @DisplayName("Should reject a row the database refuses and still write the rest of its batch")
+    void testPoisonRowIsIsolated() throws SQLException {
+        // Given: an orphan player between valid ones, with batches of two
+        HCFPlayer orphan = HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "orphan");
+        orphan.setTeamId(Team.create(new TeamName("Missing"), orphan.getId(), 1.01).getId());
+        queue.enqueueUpsert(mappings.players(), HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "first"));
+        CompletableFuture<Void> rejected = queue.enqueueUpsert(mappings.players(), orphan);
+        queue.enqueueUpsert(mappings.players(), HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "second"));
+        
+        // When
+        int written = queue.flush();
+        
+        // Then
+        assertEquals(2, written);
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1, queue.getRejectedRows());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(2, querySingleDouble("SELECT COUNT(*) FROM players"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should requeue instead of rejecting rows when the table is missing")
+    void testMissingTableRejectsNothing() throws SQLException {
+        // Given
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("DROP TABLE players");
+        }
+        CompletableFuture<Void> first = queue.enqueueUpsert(mappings.players(),
+            HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "first"));
+        CompletableFuture<Void> second = queue.enqueueUpsert(mappings.players(),
+            HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "second"));
+        
+        // When
+        int written = queue.flush();
+        
+        // Then
+        assertEquals(0, written);
+        assertEquals(0, queue.getRejectedRows());
+        assertEquals(2, queue.getPendingCount());
+        assertFalse(first.isDone() || second.isDone());
+    }
+    
+    @Test
+    @DisplayName("Should requeue instead of rejecting rows when the user cannot write")
+    void testReadOnlyUserRejectsNothing() throws SQLException {
+        // Given: a user that can only read the players table
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("CREATE USER reader PASSWORD 'reader'");
+            statement.executeUpdate("GRANT SELECT ON players TO reader");
+        }
+        JdbcDataSource readOnly = new JdbcDataSource();
+        readOnly.setURL(dataSource.getURL());
+        readOnly.setUser("reader");
+        readOnly.setPassword("reader");
+        WriteBehindQueue readOnlyQueue = new WriteBehindQueue(readOnly, SqlDialect.H2, new StatementRegistry(5), null, null,
+            mappings.writeOrder(), 2, 0, Logger.getLogger("WriteBehindQueueTest"));
+        CompletableFuture<Void> completion = readOnlyQueue.enqueueUpsert(mappings.players(),
+            HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "reader"));
+        
+        // When
+        int written = readOnlyQueue.flush();
+        
+        // Then
+        assertEquals(0, written);
+        assertEquals(0, readOnlyQueue.getRejectedRows());
+        assertEquals(1, readOnlyQueue.getPendingCount());
+        assertFalse(completion.isDone());
+    }
+    
+    @Test
+    @DisplayName("Should flush before holding and drop the writes discarded while held")
+    void testHoldAndDiscard() throws SQLException {
+        // Given: a team flushed by hold() and a later write to it while held
+        Team team = Team.create(new TeamName("Archived"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        queue.enqueueUpsert(mappings.teams(), team);
+        assertEquals(1, queue.hold());
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("DELETE FROM teams");
+        }
+        team.setDtr(-1);
+        CompletableFuture<Void> stale = queue.enqueueUpsert(mappings.teams(), team);
+        
+        // When
+        int heldFlush = queue.flush();
+        int discarded = queue.discardPending(Set.of(mappings.teams().table()));
+        queue.resume();
+        
+        // Then: nothing was written while held and the archived team stays gone
+        assertEquals(0, heldFlush);
+        assertEquals(1, discarded);
+        assertTrue(stale.isCompletedExceptionally());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(0, queue.flush());
+        assertEquals(0, querySingleDouble("SELECT COUNT(*) FROM teams"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should merge DTR losses written concurrently by another server")
+    void testVersionConflictKeepsBothChanges() throws SQLException {
+        // Given
+        Team team = Team.create(new TeamName("Contested"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        queue.enqueueUpsert(mappings.teams(), team);
+        queue.flush();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("UPDATE teams SET dtr = dtr - 1, version = version + 1");
+        }
+        
+        // When
+        team.setDtr(team.getDtr() - 1);
+        CompletableFuture<Void> saved = queue.enqueueUpsert(mappings.teams(), team);
+        int written = queue.flush();
+        
+        // Then
+        assertEquals(1, written);
+        assertTrue(saved.isDone());
+        assertEquals(1, queue.getVersionConflicts());
+        assertEquals(-0.99, querySingleDouble("SELECT dtr FROM teams"), 0.001);
+        assertEquals(2, querySingleDouble("SELECT version FROM teams"), 0.001);
+        // Neither writer alone made the team raidable; the summed DTR does
+        assertEquals(1, querySingleDouble("SELECT CASE WHEN is_raidable THEN 1 ELSE 0 END FROM teams"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should never move a row's version back when replaying its full state")
+    void testReplayKeepsVersionMonotonic(@TempDir Path journalDirectory) throws IOException, SQLException {
+        // Given: a row another server already moved to version 5
+        Logger logger = Logger.getLogger("WriteBehindQueueTest");
+        Team team = Team.create(new TeamName("Replayed"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        queue.enqueueUpsert(mappings.teams(), team);
+        queue.flush();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("UPDATE teams SET version = 5");
+        }
+        
+        // And: a journaled state of the team that still carries version 0
+        WriteBehindQueue crashed = new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(5),
+            new WriteJournal(journalDirectory, logger), null, mappings.writeOrder(), 100, 0, logger);
+        crashed.recoverJournal();
+        team.setDtr(0.5);
+        crashed.enqueueUpsert(mappings.teams(), team);
+        crashed.getJournal().close();
+        
+        // When
+        WriteBehindQueue restarted = new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(5),
+            new WriteJournal(journalDirectory, logger), null, mappings.writeOrder(), 100, 0, logger);
+        restarted.recoverJournal();
+        int written = restarted.flush();
+        restarted.shutdown();
+        
+        // Then: the state is replayed and the version still moves forward
+        assertEquals(1, written);
+        assertEquals(0.5, querySingleDouble("SELECT dtr FROM teams"), 0.001);
+        assertEquals(6, querySingleDouble("SELECT version FROM teams"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should only write the columns that changed since the last flush")
+    void testPartialUpdate() throws SQLException {
+        // Given
+        StatementRegistry statements = new StatementRegistry(5);
+        WriteBehindQueue tracked = new WriteBehindQueue(dataSource, SqlDialect.H2, statements, null, null,
+            mappings.writeOrder(), 100, 0, Logger.getLogger("WriteBehindQueueTest"));
+        HCFPlayer player = HCFPlayer.create(PlayerId.fromMinecraftUUID(UUID.randomUUID()), "partial");
+        tracked.enqueueUpsert(mappings.players(), player);
+        tracked.flush();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("UPDATE players SET username = 'renamed'");
+        }
+        
+        // When
+        player.setDeathbanUntil(Instant.now().plusSeconds(3600));
+        tracked.enqueueUpsert(mappings.players(), player);
+        int written = tracked.flush();
+        
+        // Then
+        assertEquals(1, written);
+        assertTrue(statements.get("players.update[updated_at, deathban_until]").isPresent());
+        assertEquals(1, querySingleDouble("SELECT COUNT(*) FROM players WHERE username = 'renamed' AND deathban_until IS NOT NULL"), 0.001);
+        tracked.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should apply deletes after upserts")
+    void testDelete() throws SQLException {
+        // Given
+        Team team = Team.create(new TeamName("Deleted"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        queue.enqueueUpsert(mappings.teams(), team);
+        queue.flush();
+        
+        // When
+        queue.enqueueDelete(mappings.teams(), mappings.teams().key(team));
+        queue.flush();
+        
+        // Then
+        assertEquals(0, querySingleDouble("SELECT COUNT(*) FROM teams"), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Should replay journaled writes that never reached the database")
+    void testJournalRecovery(@TempDir Path journalDirectory) throws IOException, SQLException {
+        // Given
+        Logger logger = Logger.getLogger("WriteBehindQueueTest");
+        WriteBehindQueue crashed = new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(5),
+            new WriteJournal(journalDirectory, logger), null, mappings.writeOrder(), 100, 0, logger);
+        crashed.recoverJournal();
+        Team team = Team.create(new TeamName("Journaled"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        team.setDtr(-2.5);
+        crashed.enqueueUpsert(mappings.teams(), team);
+        crashed.getJournal().close();
+        
+        // When
+        WriteBehindQueue restarted = new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(5),
+            new WriteJournal(journalDirectory, logger), null, mappings.writeOrder(), 100, 0, logger);
+        int recovered = restarted.recoverJournal();
+        int written = restarted.flush();
+        
+        // Then
+        assertEquals(1, recovered);
+        assertEquals(1, written);
+        assertEquals(-2.5, querySingleDouble("SELECT dtr FROM teams"), 0.001);
+        restarted.shutdown();
+        assertEquals(0, new WriteJournal(journalDirectory, logger).open().size());
+    }
+    
+    @Test
+    @DisplayName("Should hold writes while the circuit breaker is open and replay them on recovery")
+    void testCircuitBreakerDefersFlush() throws SQLException {
+        // Given
+        Logger logger = Logger.getLogger("WriteBehindQueueTest");
+        CircuitBreaker breaker = new CircuitBreaker(3, 0, 0, logger);
+        WriteBehindQueue guarded = new WriteBehindQueue(dataSource, SqlDialect.H2, new StatementRegistry(5), null,
+            breaker, mappings.writeOrder(), 100, 0, logger);
+        breaker.trip("Connection refused");
+        Team team = Team.create(new TeamName("Buffered"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        
+        // When
+        CompletableFuture<Void> saved = guarded.enqueueUpsert(mappings.teams(), team);
+        int writtenWhileOpen = guarded.flush();
+        breaker.recordSuccess(0);
+        int writtenAfterRecovery = guarded.flush();
+        
+        // Then
+        assertEquals(0, writtenWhileOpen);
+        assertEquals(1, writtenAfterRecovery);
+        assertTrue(saved.isDone());
+        assertEquals(1, querySingleDouble("SELECT COUNT(*) FROM teams"), 0.001);
+        guarded.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should keep a single journal segment while rows wait for the database")
+    void testJournalCompactsUnwrittenRows(@TempDir Path journalDirectory) throws IOException {
+        // Given
+        Logger logger = Logger.getLogger("WriteBehindQueueTest");
+        WriteBehindQueue offline = new WriteBehindQueue(unreachable(), SqlDialect.H2, new StatementRegistry(5),
+            new WriteJournal(journalDirectory, 1000, logger), null, mappings.writeOrder(), 100, 0, logger);
+        offline.recoverJournal();
+        Team team = Team.create(new TeamName("Stuck"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        
+        // When: the row changes and fails to flush several times
+        for (int i = 0; i < 3; i++) {
+            team.setDtr(1.0 - i);
+            offline.enqueueUpsert(mappings.teams(), team);
+            offline.flush();
+        }
+        offline.shutdown();
+        
+        // Then: only the latest segment survives and it replays the newest state
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            assertEquals(1, files.count());
+        }
+        List<JournalEntry> recovered = new WriteJournal(journalDirectory, logger).open();
+        assertEquals(-1.0, ((Number) recovered.get(recovered.size() - 1).row()[5]).doubleValue(), 0.001);
+    }
+    
+    private static DataSource unreachable() {
+        return (DataSource) Proxy.newProxyInstance(WriteBehindQueueTest.class.getClassLoader(), new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> {
+                throw new SQLNonTransientConnectionException("Connection refused", "08001");
+            });
+    }
+    
+    private double querySingleDouble(String sql) throws SQLException {
+        try (Statement statement = keepAlive.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getDouble(1);
+        }
+    }
+}
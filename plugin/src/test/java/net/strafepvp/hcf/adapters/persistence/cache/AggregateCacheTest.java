@@ -0,0 +1,153 @@
+package net.strafepvp.hcf.adapters.persistence.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del cache read-through de agregados
+ *
+ * @author mayk0l
+ */
+class AggregateCacheTest {
+    
+    private record Entity(String id, int version) {
+    }
+    
+    private final Map<String, Entity> store = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private AggregateCache<String, Entity> cache;
+    
+    @BeforeEach
+    void setUp() {
+        store.clear();
+        loads.set(0);
+        cache = new AggregateCache<>("Test", 100, 30, id -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(Optional.ofNullable(store.get(id)));
+        }, Entity::id);
+    }
+    
+    @Test
+    @DisplayName("Should load once and serve later reads from memory")
+    void testLoadOnceAndRecordHits() {
+        // Given
+        store.put("a", new Entity("a", 1));
+        
+        // When
+        cache.get("a").join();
+        cache.get("a").join();
+        cache.get("a").join();
+        
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+    
+    @Test
+    @DisplayName("Should cache missing keys as empty results")
+    void testCacheNegativeResults() {
+        // When
+        Optional<Entity> first = cache.get("missing").join();
+        Optional<Entity> second = cache.get("missing").join();
+        
+        // Then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    @DisplayName("Should replace the cached entry on write without reloading")
+    void testReplaceEntryOnWrite() {
+        // Given
+        store.put("a", new Entity("a", 1));
+        cache.get("a").join();
+        
+        // When
+        cache.written(new Entity("a", 2));
+        
+        // Then
+        assertEquals(2, cache.get("a").join().orElseThrow().version());
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    @DisplayName("Should reload from the store after invalidation")
+    void testReloadAfterInvalidate() {
+        // Given
+        store.put("a", new Entity("a", 1));
+        cache.get("a").join();
+        store.put("a", new Entity("a", 3));
+        
+        // When
+        cache.invalidate("a");
+        
+        // Then
+        assertEquals(3, cache.get("a").join().orElseThrow().version());
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    @DisplayName("Should keep the in-memory instance when a query returns the same key")
+    void testCanonicalizeLoadedInstances() {
+        // Given
+        Entity cached = new Entity("a", 5);
+        cache.written(cached);
+        
+        // When
+        List<Entity> result = cache.canonicalizeAll(List.of(new Entity("a", 1), new Entity("b", 1)));
+        
+        // Then
+        assertSame(cached, result.get(0));
+        assertEquals(1, result.get(1).version());
+        assertTrue(cache.getIfLoaded("b").isPresent());
+    }
+    
+    @Test
+    @DisplayName("Should report deleted keys as absent")
+    void testMarkDeletedKeysAbsent() {
+        // Given
+        store.put("a", new Entity("a", 1));
+        cache.get("a").join();
+        
+        // When
+        cache.deleted("a");
+        
+        // Then
+        assertTrue(cache.get("a").join().isEmpty());
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    @DisplayName("Should serve the resident instance after an eviction instead of loading a copy")
+    void testReadThroughResidentSource() {
+        // Given: the state index owns instance a1, the database has an older copy
+        Entity resident = new Entity("a", 1);
+        Map<String, Entity> index = Map.of("a", resident);
+        store.put("a", new Entity("a", 0));
+        cache.setResident(index::get);
+        
+        // When
+        cache.invalidate("a");
+        Entity loaded = cache.get("a").join().orElseThrow();
+        Entity canonical = cache.canonicalize(new Entity("a", 0));
+        
+        // Then
+        assertSame(resident, loaded);
+        assertSame(resident, canonical);
+        assertEquals(0, loads.get());
+        assertTrue(cache.get("b").join().isEmpty());
+        assertEquals(1, loads.get());
+    }
+}
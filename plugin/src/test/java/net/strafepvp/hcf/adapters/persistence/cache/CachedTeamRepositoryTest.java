@@ -0,0 +1,133 @@
+package net.strafepvp.hcf.adapters.persistence.cache;
+
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor.Route;
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.WriteBehindQueue;
+import net.strafepvp.hcf.adapters.persistence.invalidation.Invalidation;
+import net.strafepvp.hcf.adapters.persistence.invalidation.InvalidationBus;
+import net.strafepvp.hcf.adapters.persistence.invalidation.LoopbackTransport;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.repository.JdbcTeamRepository;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamName;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los avisos de otros servidores sobre el cache de equipos, con
+ * H2 en memoria como primario y una réplica que nunca se actualiza
+ *
+ * @author mayk0l
+ */
+class CachedTeamRepositoryTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("CachedTeamRepositoryTest");
+    
+    private final Map<TeamId, Team> resident = new ConcurrentHashMap<>();
+    private JdbcDataSource primary;
+    private Connection keepAlive;
+    private DatabaseExecutor executor;
+    private EntityMappings mappings;
+    private WriteBehindQueue queue;
+    private WriteBehindQueue replicaQueue;
+    private InvalidationBus peer;
+    private CachedTeamRepository repository;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = database("primary");
+        JdbcDataSource replica = database("replica");
+        keepAlive = primary.getConnection();
+        
+        executor = new DatabaseExecutor(
+            new Route(primary::getConnection, null, 1),
+            new Route(replica::getConnection, null, 1),
+            Runnable::run,
+            LOGGER
+        );
+        mappings = EntityMappings.create(SqlDialect.H2);
+        queue = new WriteBehindQueue(primary, SqlDialect.H2, new StatementRegistry(5), null, null, mappings.writeOrder(),
+            10, 0, LOGGER);
+        replicaQueue = new WriteBehindQueue(replica, SqlDialect.H2, new StatementRegistry(5), null, null,
+            mappings.writeOrder(), 10, 0, LOGGER);
+        
+        LoopbackTransport hub = new LoopbackTransport();
+        InvalidationBus local = new InvalidationBus(hub, LOGGER);
+        peer = new InvalidationBus(new LoopbackTransport(hub), LOGGER);
+        local.start();
+        peer.start();
+        
+        repository = new CachedTeamRepository(
+            new JdbcTeamRepository(executor, queue, new StatementRegistry(5), mappings.teams()), 100, 30, local);
+        repository.setResident(resident::get,
+            (id, team) -> team.ifPresentOrElse(value -> resident.put(id, value), () -> resident.remove(id)));
+    }
+    
+    @AfterEach
+    void tearDown() throws SQLException {
+        queue.shutdown();
+        replicaQueue.shutdown();
+        executor.shutdown();
+        keepAlive.close();
+    }
+    
+    @Test
+    @DisplayName("Should keep a local pending write over a peer invalidation and merge both once it lands")
+    void testPendingWriteSurvivesRemoteInvalidation() throws Exception {
+        // Given: a team on both databases, then a local DTR loss still queued
+        Team team = Team.create(new TeamName("Guarded"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        repository.save(team);
+        replicaQueue.enqueueUpsert(mappings.teams(), team);
+        assertEquals(1, queue.flush());
+        assertEquals(1, replicaQueue.flush());
+        team.setDtr(0.5);
+        repository.save(team);
+        
+        // When: a peer loses DTR on the same team and announces it
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("UPDATE teams SET dtr = dtr - 0.25, version = version + 1");
+        }
+        peer.publish(Invalidation.Kind.TEAM, team.getId().value());
+        
+        // Then: the queued loss is not replaced by the database row
+        assertSame(team, resident.get(team.getId()));
+        assertEquals(0.5, resident.get(team.getId()).getDtr(), 0.001);
+        
+        // When: the local write lands
+        assertEquals(1, queue.flush());
+        
+        // Then: the row is re-read from the primary, with both losses
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (resident.get(team.getId()) == team && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotSame(team, resident.get(team.getId()));
+        assertEquals(0.25, resident.get(team.getId()).getDtr(), 0.001);
+    }
+    
+    private static JdbcDataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:cached-teams-" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        return dataSource;
+    }
+}
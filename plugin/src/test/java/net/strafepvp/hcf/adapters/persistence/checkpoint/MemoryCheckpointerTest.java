@@ -0,0 +1,113 @@
+package net.strafepvp.hcf.adapters.persistence.checkpoint;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de checkpoint y restauración de una base de datos H2 en memoria
+ *
+ * @author mayk0l
+ */
+class MemoryCheckpointerTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("MemoryCheckpointerTest");
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    @DisplayName("Should restore a checkpoint into a fresh in-memory database")
+    void testRestoreCheckpoint() throws SQLException {
+        // Given
+        Path file = directory.resolve("hcf.checkpoint.sql.gz");
+        JdbcDataSource before = memoryDatabase();
+        new MigrationRunner(before, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        execute(before, "INSERT INTO teams (id, name, leader_id, dtr) VALUES (RANDOM_UUID(), 'Alpha', RANDOM_UUID(), 2.5)");
+        new MemoryCheckpointer(before::getConnection, file, 60_000, LOGGER).checkpoint();
+        
+        // When
+        JdbcDataSource after = memoryDatabase();
+        boolean restored = new MemoryCheckpointer(after::getConnection, file, 60_000, LOGGER).restore();
+        
+        // Then
+        assertTrue(restored);
+        assertFalse(Files.exists(directory.resolve("hcf.checkpoint.sql.gz.part")));
+        assertEquals(1, count(after, "SELECT COUNT(*) FROM teams WHERE name = 'Alpha'"));
+        assertEquals(SchemaMigrations.latestVersion(), count(after, "SELECT MAX(version) FROM schema_version"));
+    }
+    
+    @Test
+    @DisplayName("Should not restore over a database that already has tables")
+    void testSkipRestoreWhenDatabaseIsNotEmpty() throws SQLException {
+        // Given
+        Path file = directory.resolve("hcf.checkpoint.sql.gz");
+        JdbcDataSource database = memoryDatabase();
+        execute(database, "CREATE TABLE marker (id INT)");
+        MemoryCheckpointer checkpointer = new MemoryCheckpointer(database::getConnection, file, 60_000, LOGGER);
+        checkpointer.checkpoint();
+        
+        // Then
+        assertFalse(checkpointer.restore());
+        assertFalse(new MemoryCheckpointer(memoryDatabase()::getConnection, directory.resolve("missing.sql.gz"), 60_000, LOGGER).restore());
+    }
+    
+    @Test
+    @DisplayName("Should write checkpoints periodically once started")
+    void testCheckpointPeriodically() throws Exception {
+        // Given
+        JdbcDataSource database = memoryDatabase();
+        execute(database, "CREATE TABLE marker (id INT)");
+        MemoryCheckpointer checkpointer = new MemoryCheckpointer(database::getConnection,
+            directory.resolve("periodic.sql.gz"), 50, LOGGER);
+        
+        // When
+        checkpointer.start();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (checkpointer.getCheckpointCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        checkpointer.shutdown();
+        
+        // Then
+        assertTrue(checkpointer.getCheckpointCount() >= 2);
+        assertTrue(Files.exists(checkpointer.getFile()));
+    }
+    
+    private static JdbcDataSource memoryDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+    
+    private static void execute(JdbcDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+    
+    private static long count(JdbcDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getLong(1);
+        }
+    }
+}
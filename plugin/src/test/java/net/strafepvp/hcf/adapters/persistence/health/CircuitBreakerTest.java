@@ -0,0 +1,90 @@
+package net.strafepvp.hcf.adapters.persistence.health;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del circuit breaker de la base de datos
+ *
+ * @author mayk0l
+ */
+class CircuitBreakerTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("CircuitBreakerTest");
+    
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 500, 10_000, now::get, LOGGER);
+    
+    @Test
+    @DisplayName("Should open after consecutive failures and close on a successful trial")
+    void testOpenAndRecover() {
+        // Given
+        List<CircuitBreaker.State> transitions = new ArrayList<>();
+        breaker.addListener(transitions::add);
+        
+        // When
+        breaker.recordFailure("Connection refused");
+        breaker.recordFailure("Connection refused");
+        boolean allowedBeforeTrip = breaker.allowRequest();
+        breaker.recordFailure("Connection refused");
+        
+        // Then
+        assertTrue(allowedBeforeTrip);
+        assertFalse(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        
+        // A success during the cool-down is not enough
+        breaker.recordSuccess(0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        
+        now.addAndGet(10_000);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.recordSuccess(0);
+        assertTrue(breaker.allowRequest());
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.CLOSED), transitions);
+    }
+    
+    @Test
+    @DisplayName("Should count slow probes as failures and restart the cool-down on a failed trial")
+    void testTripOnLatencyAndReopen() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            breaker.recordSuccess(TimeUnit.MILLISECONDS.toNanos(800));
+        }
+        now.addAndGet(10_000);
+        breaker.recordFailure("Connection refused");
+        
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now.addAndGet(9_999);
+        breaker.recordSuccess(0);
+        assertFalse(breaker.allowRequest());
+    }
+    
+    @Test
+    @DisplayName("Should only count connectivity errors from regular operations")
+    void testIgnoreNonConnectivityErrors() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            breaker.recordOutcome(new SQLException("Unique constraint violated", "23505"));
+        }
+        boolean allowedAfterSqlErrors = breaker.allowRequest();
+        for (int i = 0; i < 3; i++) {
+            breaker.recordOutcome(new RuntimeException(new SQLTransientConnectionException("Connection is not available")));
+        }
+        
+        // Then
+        assertTrue(allowedAfterSqlErrors);
+        assertFalse(breaker.allowRequest());
+    }
+}
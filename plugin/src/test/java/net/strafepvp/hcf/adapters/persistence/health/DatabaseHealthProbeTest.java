@@ -0,0 +1,87 @@
+package net.strafepvp.hcf.adapters.persistence.health;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la sonda de salud de la base de datos
+ *
+ * @author mayk0l
+ */
+class DatabaseHealthProbeTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("DatabaseHealthProbeTest");
+    private static final String URL = "jdbc:h2:mem:health_probe;DB_CLOSE_DELAY=-1";
+    
+    @Test
+    @DisplayName("Should serve health from the cached snapshot without opening connections")
+    void testServeCachedHealth() {
+        // Given
+        AtomicInteger connections = new AtomicInteger();
+        DatabaseHealthProbe probe = new DatabaseHealthProbe(() -> {
+            connections.incrementAndGet();
+            return DriverManager.getConnection(URL);
+        }, 60_000, 2, LOGGER);
+        
+        // When
+        probe.probeNow();
+        boolean healthy = true;
+        for (int i = 0; i < 1_000; i++) {
+            healthy &= probe.isHealthy();
+        }
+        
+        // Then
+        assertTrue(healthy);
+        assertEquals(1, connections.get());
+        assertEquals(1, probe.getLatency().count());
+    }
+    
+    @Test
+    @DisplayName("Should count consecutive failures and reset them on recovery")
+    void testTrackFailuresAndRecovery() {
+        // Given
+        AtomicBoolean down = new AtomicBoolean(true);
+        DatabaseHealthProbe probe = new DatabaseHealthProbe(() -> {
+            if (down.get()) {
+                throw new SQLException("Connection refused");
+            }
+            return DriverManager.getConnection(URL);
+        }, 60_000, 2, LOGGER);
+        AtomicInteger notified = new AtomicInteger();
+        probe.addListener(snapshot -> notified.incrementAndGet());
+        
+        // When
+        probe.probeNow();
+        HealthSnapshot failed = probe.probeNow();
+        down.set(false);
+        HealthSnapshot recovered = probe.probeNow();
+        
+        // Then
+        assertFalse(failed.healthy());
+        assertEquals(2, failed.consecutiveFailures());
+        assertEquals("Connection refused", failed.lastError());
+        assertTrue(recovered.healthy());
+        assertEquals(0, recovered.consecutiveFailures());
+        assertTrue(probe.isHealthy());
+        assertEquals(3, notified.get());
+    }
+    
+    @Test
+    @DisplayName("Should report unhealthy before the first probe")
+    void testBeUnhealthyBeforeFirstProbe() {
+        // Given
+        DatabaseHealthProbe probe = new DatabaseHealthProbe(() -> DriverManager.getConnection(URL), 60_000, 2, LOGGER);
+        
+        // Then
+        assertFalse(probe.isHealthy());
+        assertEquals(0, probe.getSnapshot().checkedAtMillis());
+    }
+}
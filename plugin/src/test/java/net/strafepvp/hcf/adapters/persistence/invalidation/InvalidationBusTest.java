@@ -0,0 +1,128 @@
+package net.strafepvp.hcf.adapters.persistence.invalidation;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del bus de invalidación con los transportes loopback y de sondeo
+ *
+ * @author mayk0l
+ */
+class InvalidationBusTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("InvalidationBusTest");
+    
+    @Test
+    @DisplayName("Should deliver invalidations to peers but not back to the publisher")
+    void testDeliverToPeersOnly() {
+        // Given
+        LoopbackTransport hub = new LoopbackTransport();
+        InvalidationBus publisher = new InvalidationBus(hub, LOGGER);
+        InvalidationBus peer = new InvalidationBus(new LoopbackTransport(hub), LOGGER);
+        List<UUID> publisherEvicted = new CopyOnWriteArrayList<>();
+        List<UUID> peerEvicted = new CopyOnWriteArrayList<>();
+        publisher.subscribe(Invalidation.Kind.TEAM, publisherEvicted::add);
+        peer.subscribe(Invalidation.Kind.TEAM, peerEvicted::add);
+        peer.subscribe(Invalidation.Kind.PLAYER, id -> fail("Player subscribers must not receive team invalidations"));
+        publisher.start();
+        peer.start();
+        UUID team = UUID.randomUUID();
+        
+        // When
+        publisher.publish(Invalidation.Kind.TEAM, team);
+        
+        // Then
+        assertEquals(List.of(team), peerEvicted);
+        assertTrue(publisherEvicted.isEmpty());
+        assertEquals(1, peer.getAppliedCount());
+    }
+    
+    @Test
+    @DisplayName("Should exchange invalidations through the shared database")
+    void testExchangeThroughDatabase() throws SQLException {
+        // Given
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        PollingTransport hubTransport = transport(dataSource);
+        PollingTransport serverTransport = transport(dataSource);
+        InvalidationBus hub = new InvalidationBus(hubTransport, LOGGER);
+        InvalidationBus server = new InvalidationBus(serverTransport, LOGGER);
+        List<UUID> evicted = new CopyOnWriteArrayList<>();
+        server.subscribe(Invalidation.Kind.PLAYER, evicted::add);
+        hub.start();
+        server.start();
+        serverTransport.pollNow();
+        UUID player = UUID.randomUUID();
+        
+        // When
+        hub.publish(Invalidation.Kind.PLAYER, player);
+        hub.publish(Invalidation.Kind.PLAYER, player);
+        hubTransport.pollNow();
+        serverTransport.pollNow();
+        
+        // Then
+        assertEquals(List.of(player), evicted);
+        hub.shutdown();
+        server.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should deliver an invalidation whose insert commits after a newer one")
+    void testDeliverLateCommits() throws SQLException {
+        // Given
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        PollingTransport transport = transport(dataSource);
+        List<UUID> evicted = new CopyOnWriteArrayList<>();
+        transport.start(invalidation -> evicted.add(invalidation.id()));
+        transport.pollNow();
+        UUID slow = UUID.randomUUID();
+        UUID fast = UUID.randomUUID();
+        
+        try (Connection slowWriter = dataSource.getConnection(); Connection fastWriter = dataSource.getConnection()) {
+            // When: the first insert takes the lower id but commits after the second one was read
+            slowWriter.setAutoCommit(false);
+            insert(slowWriter, slow);
+            insert(fastWriter, fast);
+            transport.pollNow();
+            slowWriter.commit();
+            transport.pollNow();
+            transport.pollNow();
+        }
+        
+        // Then: both arrive exactly once
+        assertEquals(List.of(fast, slow), evicted);
+        transport.shutdown();
+    }
+    
+    private static void insert(Connection connection, UUID entity) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO cache_invalidations (origin, kind, entity_id) VALUES (?, ?, ?)")) {
+            statement.setString(1, UUID.randomUUID().toString());
+            statement.setString(2, Invalidation.Kind.TEAM.name());
+            statement.setString(3, entity.toString());
+            statement.executeUpdate();
+        }
+    }
+    
+    private PollingTransport transport(JdbcDataSource dataSource) {
+        return new PollingTransport(dataSource::getConnection, new StatementRegistry(5), 60_000, 600_000, LOGGER);
+    }
+}
@@ -0,0 +1,126 @@
+package net.strafepvp.hcf.adapters.persistence.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del journal de mutaciones pendientes
+ *
+ * @author mayk0l
+ */
+class WriteJournalTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("WriteJournalTest");
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    @DisplayName("Should recover appended mutations after reopening")
+    void testRecoverAppendedMutations() throws IOException {
+        // Given
+        UUID key = UUID.randomUUID();
+        Timestamp deathban = Timestamp.valueOf("2026-01-02 03:04:05.123456789");
+        WriteJournal journal = new WriteJournal(directory, LOGGER);
+        journal.open();
+        journal.append("players", key, new Object[] {key, "steve", null, deathban, new BigDecimal("1.01"), true, 7});
+        journal.append("teams", "legacy-key", null);
+        journal.close();
+        
+        // When
+        List<JournalEntry> recovered = new WriteJournal(directory, LOGGER).open();
+        
+        // Then
+        assertEquals(2, recovered.size());
+        assertEquals("players", recovered.get(0).table());
+        assertEquals(key, recovered.get(0).key());
+        assertArrayEquals(new Object[] {key, "steve", null, deathban, new BigDecimal("1.01"), true, 7}, recovered.get(0).row());
+        assertTrue(recovered.get(1).isDelete());
+        assertEquals("legacy-key", recovered.get(1).key());
+    }
+    
+    @Test
+    @DisplayName("Should stop at a torn record at the end of a segment")
+    void testIgnoreTornTail() throws IOException {
+        // Given
+        WriteJournal journal = new WriteJournal(directory, LOGGER);
+        journal.open();
+        journal.append("teams", UUID.randomUUID(), new Object[] {"a"});
+        journal.append("teams", UUID.randomUUID(), new Object[] {"b"});
+        journal.close();
+        Path segment = onlySegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        
+        // When
+        List<JournalEntry> recovered = new WriteJournal(directory, LOGGER).open();
+        
+        // Then
+        assertEquals(1, recovered.size());
+        assertEquals("a", recovered.get(0).row()[0]);
+    }
+    
+    @Test
+    @DisplayName("Should discard records after a CRC mismatch")
+    void testRejectCorruptedRecord() throws IOException {
+        // Given
+        WriteJournal journal = new WriteJournal(directory, LOGGER);
+        journal.open();
+        journal.append("teams", UUID.randomUUID(), new Object[] {"value"});
+        journal.close();
+        Path segment = onlySegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write('X');
+        }
+        
+        // When
+        List<JournalEntry> recovered = new WriteJournal(directory, LOGGER).open();
+        
+        // Then
+        assertTrue(recovered.isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should delete segments older than the rotation point")
+    void testDeleteRotatedSegments() throws IOException {
+        // Given
+        WriteJournal journal = new WriteJournal(directory, LOGGER);
+        journal.open();
+        journal.append("teams", UUID.randomUUID(), new Object[] {"old"});
+        
+        // When
+        long current = journal.rotate();
+        journal.append("teams", UUID.randomUUID(), new Object[] {"new"});
+        journal.deleteSegmentsBefore(current);
+        journal.close();
+        
+        // Then
+        List<JournalEntry> recovered = new WriteJournal(directory, LOGGER).open();
+        assertEquals(1, recovered.size());
+        assertEquals("new", recovered.get(0).row()[0]);
+    }
+    
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.strafepvp.hcf.adapters.persistence.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del histograma de latencias
+ *
+ * @author mayk0l
+ */
+class LatencyHistogramTest {
+    
+    @Test
+    @DisplayName("Should map every value to a bucket whose bounds contain it")
+    void testKeepValuesInsideTheirBucket() {
+        for (long micros = 0; micros < 1_000_000; micros += 37) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= micros, "upper bound for " + micros);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < micros, "previous bound for " + micros);
+            }
+        }
+    }
+    
+    @Test
+    @DisplayName("Should report percentiles within the bucket error")
+    void testReportPercentiles() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        
+        // When
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        
+        // Then
+        assertEquals(1000, histogram.count());
+        assertEquals(1000, histogram.maxMicros());
+        assertEquals(500.5, histogram.meanMicros(), 0.001);
+        assertTrue(Math.abs(histogram.percentileMicros(50) - 500) <= 125);
+        assertTrue(Math.abs(histogram.percentileMicros(99) - 990) <= 250);
+    }
+    
+    @Test
+    @DisplayName("Should clear all samples on reset")
+    void testReset() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        
+        // When
+        histogram.reset();
+        
+        // Then
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentileMicros(99));
+    }
+}
@@ -0,0 +1,137 @@
+package net.strafepvp.hcf.adapters.persistence.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la telemetría del pool de conexiones
+ *
+ * @author mayk0l
+ */
+class PoolTelemetryTest {
+    
+    @Test
+    @DisplayName("Should keep only the most recent samples in the ring buffer")
+    void testWrapRingBuffer() {
+        // Given
+        TimeSeries series = new TimeSeries(4);
+        
+        // When
+        for (int i = 1; i <= 6; i++) {
+            series.add(i * 1000L, i);
+        }
+        
+        // Then
+        assertEquals(4, series.size());
+        assertArrayEquals(new long[] {3, 4, 5, 6}, series.values());
+        assertEquals(6, series.latest());
+        assertEquals(6, series.max());
+        assertEquals(4, series.percentile(50));
+        assertEquals(3000, series.spanMillis());
+    }
+    
+    @Test
+    @DisplayName("Should sample pool gauges and acquire times from the Hikari tracker")
+    void testSamplePoolGauges() {
+        // Given
+        FakePoolStats stats = new FakePoolStats();
+        PoolTelemetry telemetry = new PoolTelemetry(60, 1000, 3, Logger.getLogger("PoolTelemetryTest"));
+        IMetricsTracker tracker = telemetry.create("test", stats);
+        
+        // When
+        stats.set(4, 6, 0);
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(150));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(900));
+        telemetry.sample(1000);
+        stats.set(10, 0, 7);
+        telemetry.sample(2000);
+        
+        // Then
+        assertArrayEquals(new long[] {4, 10}, telemetry.getActive().values());
+        assertArrayEquals(new long[] {6, 0}, telemetry.getIdle().values());
+        assertEquals(7, telemetry.getPeakWaiting());
+        assertEquals(900, telemetry.getAcquireMicros().values()[0]);
+        assertEquals(0, telemetry.getAcquireMicros().values()[1]);
+        assertEquals(2, telemetry.getAcquireLatency().count());
+    }
+    
+    @Test
+    @DisplayName("Should warn once when threads keep waiting for a connection")
+    void testWarnOnSustainedWaiters() {
+        // Given
+        Logger logger = Logger.getLogger("PoolTelemetryTest.saturation");
+        logger.setUseParentHandlers(false);
+        List<LogRecord> warnings = new ArrayList<>();
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.WARNING) {
+                    warnings.add(record);
+                }
+            }
+            
+            @Override
+            public void flush() {
+            }
+            
+            @Override
+            public void close() {
+            }
+        });
+        FakePoolStats stats = new FakePoolStats();
+        PoolTelemetry telemetry = new PoolTelemetry(60, 1000, 3, logger);
+        telemetry.create("test", stats);
+        
+        // When
+        stats.set(10, 0, 2);
+        telemetry.sample(1000);
+        telemetry.sample(2000);
+        boolean saturatedEarly = telemetry.isSaturated();
+        for (int i = 3; i <= 6; i++) {
+            telemetry.sample(i * 1000L);
+        }
+        boolean saturated = telemetry.isSaturated();
+        stats.set(3, 7, 0);
+        telemetry.sample(7000);
+        
+        // Then
+        assertFalse(saturatedEarly);
+        assertTrue(saturated);
+        assertFalse(telemetry.isSaturated());
+        assertEquals(1, warnings.size());
+    }
+    
+    /**
+     * PoolStats con valores fijados por el test
+     */
+    private static final class FakePoolStats extends PoolStats {
+        
+        FakePoolStats() {
+            super(0);
+        }
+        
+        void set(int active, int idle, int pending) {
+            this.activeConnections = active;
+            this.idleConnections = idle;
+            this.pendingThreads = pending;
+            this.totalConnections = active + idle;
+            this.maxConnections = 10;
+        }
+        
+        @Override
+        protected void update() {
+        }
+    }
+}
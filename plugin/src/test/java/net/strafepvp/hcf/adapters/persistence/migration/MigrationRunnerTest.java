@@ -0,0 +1,206 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del motor de migraciones sobre H2 en memoria
+ *
+ * @author mayk0l
+ */
+class MigrationRunnerTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("MigrationRunnerTest");
+    
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migrations-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        keepAlive = dataSource.getConnection();
+    }
+    
+    @AfterEach
+    void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+    
+    @Test
+    @DisplayName("Should apply every schema migration and record its version")
+    void testApplyAllMigrations() throws SQLException {
+        // Given
+        MigrationRunner runner = new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER);
+        
+        // When
+        MigrationRunner.MigrationResult result = runner.migrate();
+        
+        // Then
+        assertEquals(0, result.fromVersion());
+        assertEquals(SchemaMigrations.all().size(), result.applied());
+        assertEquals(result.toVersion(), runner.currentVersion());
+        assertTrue(indexNames().containsAll(List.of(
+            "IDX_PLAYERS_TEAM_ID", "IDX_CLAIMS_WORLD_MIN", "IDX_KOTH_EVENTS_ACTIVE")));
+    }
+    
+    @Test
+    @DisplayName("Should create MySQL indexes without IF NOT EXISTS")
+    void testApplyAllMigrationsOnMysql() throws SQLException {
+        // Given: H2 in MySQL mode, plus the statements MySQL 8 would reject
+        JdbcDataSource mysql = new JdbcDataSource();
+        mysql.setURL("jdbc:h2:mem:migrations-mysql-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        MigrationRunner runner = new MigrationRunner(mysql, SqlDialect.MYSQL, SchemaMigrations.all(), LOGGER);
+        
+        // When
+        MigrationRunner.MigrationResult result = runner.migrate();
+        
+        // Then
+        assertEquals(SchemaMigrations.all().size(), result.applied());
+        try (Connection connection = mysql.getConnection()) {
+            assertTrue(indexNames(connection).containsAll(List.of(
+                "IDX_PLAYERS_TEAM_ID", "IDX_CLAIMS_WORLD_MIN", "IDX_KOTH_EVENTS_ACTIVE", "IDX_CACHE_INVALIDATIONS_CREATED")));
+        }
+        for (Migration migration : SchemaMigrations.all()) {
+            assertFalse(migration.checksumSource(SqlDialect.MYSQL).contains("INDEX IF NOT EXISTS"),
+                "V" + migration.version());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should not reapply migrations on a second run")
+    void testBeIdempotent() throws SQLException {
+        // Given
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        
+        // When
+        MigrationRunner.MigrationResult result =
+            new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        
+        // Then
+        assertEquals(0, result.applied());
+        assertEquals(result.fromVersion(), result.toVersion());
+    }
+    
+    @Test
+    @DisplayName("Should only apply migrations newer than the recorded version")
+    void testApplyPendingMigrations() throws SQLException {
+        // Given
+        Migration first = SqlMigration.of(1, "First", "CREATE TABLE a (id INT)");
+        Migration second = SqlMigration.of(2, "Second", "CREATE TABLE b (id INT)");
+        new MigrationRunner(dataSource, SqlDialect.H2, List.of(first), LOGGER).migrate();
+        
+        // When
+        MigrationRunner.MigrationResult result =
+            new MigrationRunner(dataSource, SqlDialect.H2, List.of(first, second), LOGGER).migrate();
+        
+        // Then
+        assertEquals(1, result.fromVersion());
+        assertEquals(2, result.toVersion());
+        assertEquals(1, result.applied());
+    }
+    
+    @Test
+    @DisplayName("Should refuse to start when an applied migration was modified")
+    void testDetectChecksumMismatch() throws SQLException {
+        // Given
+        new MigrationRunner(dataSource, SqlDialect.H2,
+            List.of(SqlMigration.of(1, "First", "CREATE TABLE a (id INT)")), LOGGER).migrate();
+        MigrationRunner modified = new MigrationRunner(dataSource, SqlDialect.H2,
+            List.of(SqlMigration.of(1, "First", "CREATE TABLE a (id BIGINT)")), LOGGER);
+        
+        // When / Then
+        assertThrows(IllegalStateException.class, modified::migrate);
+    }
+    
+    @Test
+    @DisplayName("Should ignore indentation when computing checksums")
+    void testNormalizeWhitespaceInChecksum() {
+        assertEquals(
+            Migration.checksum("CREATE TABLE a (\n    id INT\n)"),
+            Migration.checksum("  CREATE TABLE a (\n\n  id INT\n  )  "));
+    }
+    
+    @Test
+    @DisplayName("Should roll back a failed migration without recording it")
+    void testRollBackFailedMigration() throws SQLException {
+        // Given
+        MigrationRunner runner = new MigrationRunner(dataSource, SqlDialect.H2,
+            List.of(SqlMigration.of(1, "Broken", "CREATE TABLE a (id INT)", "INSERT INTO missing VALUES (1)")), LOGGER);
+        
+        // When / Then
+        assertThrows(SQLException.class, runner::migrate);
+        assertEquals(0, runner.currentVersion());
+    }
+    
+    @Test
+    @DisplayName("Should convert existing text ids to native UUID columns keeping data and foreign keys")
+    void testConvertIdsToNativeUuid() throws SQLException {
+        // Given
+        List<Migration> textSchema = SchemaMigrations.all().subList(0, 2);
+        new MigrationRunner(dataSource, SqlDialect.H2, textSchema, LOGGER).migrate();
+        UUID teamId = UUID.randomUUID();
+        UUID playerId = UUID.randomUUID();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.executeUpdate("INSERT INTO teams (id, name, leader_id) VALUES ('" + teamId + "', 'Legacy', '" + playerId + "')");
+            statement.executeUpdate("INSERT INTO players (id, minecraft_uuid, username, team_id) VALUES ('"
+                + playerId + "', '" + playerId + "', 'legacy', '" + teamId + "')");
+        }
+        
+        // When
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        
+        // Then
+        try (Statement statement = keepAlive.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT team_id FROM players")) {
+                assertTrue(resultSet.next());
+                assertEquals(teamId, resultSet.getObject(1));
+            }
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'PLAYERS' AND COLUMN_NAME = 'TEAM_ID'")) {
+                assertTrue(resultSet.next());
+                assertEquals("UUID", resultSet.getString(1));
+            }
+            
+            // ON DELETE SET NULL must survive the type change
+            statement.executeUpdate("DELETE FROM teams");
+            try (ResultSet resultSet = statement.executeQuery("SELECT team_id FROM players")) {
+                assertTrue(resultSet.next());
+                assertNull(resultSet.getObject(1));
+            }
+            assertThrows(SQLException.class, () -> statement.executeUpdate(
+                "INSERT INTO claims (id, team_id, world_name, min_x, min_z, max_x, max_z) VALUES ('"
+                    + UUID.randomUUID() + "', '" + UUID.randomUUID() + "', 'world', 0, 0, 1, 1)"));
+        }
+    }
+    
+    private List<String> indexNames() throws SQLException {
+        return indexNames(keepAlive);
+    }
+    
+    private static List<String> indexNames(Connection connection) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+}
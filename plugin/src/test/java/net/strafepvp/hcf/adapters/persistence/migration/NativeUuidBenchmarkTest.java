@@ -0,0 +1,144 @@
+package net.strafepvp.hcf.adapters.persistence.migration;
+
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de tamaño de índices y latencia de búsqueda antes y después de
+ * convertir los ids a UUID nativo
+ *
+ * Se ejecuta solo con -Dstrafehcf.benchmarks=true.
+ *
+ * @author mayk0l
+ */
+@EnabledIfSystemProperty(named = "strafehcf.benchmarks", matches = "true")
+class NativeUuidBenchmarkTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("NativeUuidBenchmarkTest");
+    private static final int TEAMS = 2_000;
+    private static final int PLAYERS = 50_000;
+    private static final int LOOKUPS = 20_000;
+    
+    @TempDir
+    Path dataFolder;
+    
+    @Test
+    @DisplayName("Benchmark text versus native UUID ids")
+    void benchmarkUuidStorage() throws SQLException {
+        // Given
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:" + dataFolder.resolve("bench").toAbsolutePath());
+        List<UUID> teamIds = new ArrayList<>();
+        List<UUID> playerIds = new ArrayList<>();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all().subList(0, 2), LOGGER).migrate();
+            populate(connection, teamIds, playerIds);
+            
+            // When
+            Result text = measure(connection, teamIds, playerIds, UUID::toString);
+            new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+            Result nativeUuid = measure(connection, teamIds, playerIds, id -> id);
+            
+            // Then
+            System.out.printf("[bench] VARCHAR(36): players=%d KB, by id=%.2f us, by team=%.2f us%n",
+                text.playersBytes() / 1024, text.byIdMicros(), text.byTeamMicros());
+            System.out.printf("[bench] UUID:        players=%d KB, by id=%.2f us, by team=%.2f us%n",
+                nativeUuid.playersBytes() / 1024, nativeUuid.byIdMicros(), nativeUuid.byTeamMicros());
+            assertTrue(nativeUuid.playersBytes() < text.playersBytes());
+        }
+    }
+    
+    private void populate(Connection connection, List<UUID> teamIds, List<UUID> playerIds) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement teams = connection.prepareStatement("INSERT INTO teams (id, name, leader_id) VALUES (?, ?, ?)");
+             PreparedStatement players = connection.prepareStatement(
+                 "INSERT INTO players (id, minecraft_uuid, username, team_id) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < TEAMS; i++) {
+                UUID id = UUID.randomUUID();
+                teamIds.add(id);
+                teams.setString(1, id.toString());
+                teams.setString(2, "team" + i);
+                teams.setString(3, UUID.randomUUID().toString());
+                teams.addBatch();
+            }
+            teams.executeBatch();
+            
+            for (int i = 0; i < PLAYERS; i++) {
+                UUID id = UUID.randomUUID();
+                playerIds.add(id);
+                players.setString(1, id.toString());
+                players.setString(2, id.toString());
+                players.setString(3, "player" + i);
+                players.setString(4, teamIds.get(i % TEAMS).toString());
+                players.addBatch();
+            }
+            players.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+    
+    private Result measure(Connection connection, List<UUID> teamIds, List<UUID> playerIds,
+                           Function<UUID, Object> binder) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+        }
+        
+        long bytes;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT DISK_SPACE_USED('PLAYERS')")) {
+            resultSet.next();
+            bytes = resultSet.getLong(1);
+        }
+        
+        double byId = lookup(connection, "SELECT username FROM players WHERE minecraft_uuid = ?", playerIds, binder);
+        double byTeam = lookup(connection, "SELECT COUNT(*) FROM players WHERE team_id = ?", teamIds, binder);
+        return new Result(bytes, byId, byTeam);
+    }
+    
+    private double lookup(Connection connection, String sql, List<UUID> keys, Function<UUID, Object> binder) throws SQLException {
+        Random random = new Random(42);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            // Warm-up pass so both layouts are measured with hot pages
+            for (int i = 0; i < LOOKUPS; i++) {
+                run(statement, binder.apply(keys.get(random.nextInt(keys.size()))));
+            }
+            
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                run(statement, binder.apply(keys.get(random.nextInt(keys.size()))));
+            }
+            return (System.nanoTime() - start) / 1_000.0 / LOOKUPS;
+        }
+    }
+    
+    private void run(PreparedStatement statement, Object key) throws SQLException {
+        statement.setObject(1, key);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            assertTrue(resultSet.next());
+        }
+    }
+    
+    private record Result(long playersBytes, double byIdMicros, double byTeamMicros) {
+    }
+}
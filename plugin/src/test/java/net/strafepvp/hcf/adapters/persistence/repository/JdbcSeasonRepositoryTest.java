@@ -0,0 +1,160 @@
+package net.strafepvp.hcf.adapters.persistence.repository;
+
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.HCFPlayer;
+import net.strafepvp.hcf.core.domain.model.Season;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del cierre de temporada y de las consultas sobre el archivo
+ *
+ * @author mayk0l
+ */
+class JdbcSeasonRepositoryTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("JdbcSeasonRepositoryTest");
+    
+    @TempDir
+    Path directory;
+    
+    private JdbcDataSource dataSource;
+    private DatabaseExecutor executor;
+    private JdbcSeasonRepository repository;
+    private UUID teamId;
+    private UUID playerId;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:" + directory.resolve("seasons").toAbsolutePath());
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        
+        executor = new DatabaseExecutor(dataSource::getConnection, null, Runnable::run, 2, LOGGER);
+        repository = new JdbcSeasonRepository(executor, null, new StatementRegistry(30), EntityMappings.create(SqlDialect.H2));
+        
+        teamId = UUID.randomUUID();
+        playerId = UUID.randomUUID();
+        insertTeamWithMember(teamId, "Alpha", playerId);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should archive the closed season and empty the live tables")
+    void testArchiveClosedSeason() throws SQLException {
+        // When
+        Season next = repository.startNewSeason("Season 2", false).join();
+        
+        // Then
+        assertEquals(2, next.id());
+        assertEquals(0, count("teams"));
+        assertEquals(0, count("players"));
+        assertEquals(0, count("claims"));
+        
+        List<Team> archived = repository.findArchivedTeams(1).join();
+        assertEquals(1, archived.size());
+        assertEquals("Alpha", archived.get(0).getName().value());
+        assertTrue(repository.findArchivedTeamByName(1, "alpha").join().isPresent());
+        assertEquals(1, repository.findArchivedClaims(1, new TeamId(teamId)).join().size());
+        assertEquals(1, repository.findArchivedMembers(1, new TeamId(teamId)).join().size());
+        assertTrue(repository.findArchivedTeams(2).join().isEmpty());
+        
+        List<Season> seasons = repository.findAll().join();
+        assertEquals(2, seasons.size());
+        assertFalse(seasons.get(0).isCurrent());
+        assertEquals(next, repository.findCurrent().join().orElseThrow());
+    }
+    
+    @Test
+    @DisplayName("Should tag rows written after the switch with the new season")
+    void testDefaultNewRowsToNewSeason() throws SQLException {
+        // Given
+        repository.startNewSeason("Season 2", false).join();
+        
+        // When
+        insertTeamWithMember(UUID.randomUUID(), "Alpha", UUID.randomUUID());
+        
+        // Then
+        assertEquals(1, count("teams"));
+        assertEquals(2, count("SELECT MIN(season_id) FROM teams"));
+        assertEquals(2, count("SELECT MIN(season_id) FROM claims"));
+    }
+    
+    @Test
+    @DisplayName("Should carry player profiles over without their team")
+    void testKeepPlayersWhenRequested() throws SQLException {
+        // When
+        repository.startNewSeason("Season 2", true).join();
+        
+        // Then
+        assertEquals(0, count("teams"));
+        assertEquals(1, count("players"));
+        assertEquals(2, count("SELECT season_id FROM players"));
+        assertEquals(0, count("SELECT COUNT(*) FROM players WHERE team_id IS NOT NULL"));
+        
+        HCFPlayer archived = repository.findArchivedPlayer(1, new PlayerId(playerId)).join().orElseThrow();
+        assertEquals(new TeamId(teamId), archived.getTeamId());
+    }
+    
+    private void insertTeamWithMember(UUID team, String name, UUID player) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement teams = connection.prepareStatement("INSERT INTO teams (id, name, leader_id, dtr) VALUES (?, ?, ?, 1.01)");
+             PreparedStatement players = connection.prepareStatement(
+                 "INSERT INTO players (id, minecraft_uuid, username, team_id, team_role) VALUES (?, ?, ?, ?, 'LEADER')");
+             PreparedStatement claims = connection.prepareStatement(
+                 "INSERT INTO claims (id, team_id, world_name, min_x, min_z, max_x, max_z) VALUES (?, ?, 'world', 0, 0, 15, 15)")) {
+            teams.setObject(1, team);
+            teams.setString(2, name);
+            teams.setObject(3, player);
+            teams.executeUpdate();
+            
+            players.setObject(1, player);
+            players.setObject(2, player);
+            players.setString(3, name.toLowerCase() + "Leader");
+            players.setObject(4, team);
+            players.executeUpdate();
+            
+            claims.setObject(1, UUID.randomUUID());
+            claims.setObject(2, team);
+            claims.executeUpdate();
+        }
+    }
+    
+    private long count(String tableOrQuery) throws SQLException {
+        String sql = tableOrQuery.startsWith("SELECT") ? tableOrQuery : "SELECT COUNT(*) FROM " + tableOrQuery;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getLong(1);
+        }
+    }
+}
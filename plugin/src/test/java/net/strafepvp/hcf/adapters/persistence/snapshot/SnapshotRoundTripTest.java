@@ -0,0 +1,225 @@
+package net.strafepvp.hcf.adapters.persistence.snapshot;
+
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMapping;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.mapping.UuidStorage;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import net.strafepvp.hcf.core.domain.model.Team;
+import net.strafepvp.hcf.core.domain.valueobjects.PlayerId;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamName;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de exportación e importación de instantáneas entre dos bases de datos H2
+ *
+ * @author mayk0l
+ */
+class SnapshotRoundTripTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("SnapshotRoundTripTest");
+    
+    @TempDir
+    Path directory;
+    
+    private JdbcDataSource source;
+    private JdbcDataSource target;
+    private DatabaseExecutor sourceExecutor;
+    private DatabaseExecutor targetExecutor;
+    private EntityMappings mappings;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        source = database("source");
+        target = database("target");
+        sourceExecutor = new DatabaseExecutor(source::getConnection, null, Runnable::run, 2, LOGGER);
+        targetExecutor = new DatabaseExecutor(target::getConnection, null, Runnable::run, 2, LOGGER);
+        mappings = EntityMappings.create(SqlDialect.H2);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        sourceExecutor.shutdown();
+        targetExecutor.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should restore every table of an exported snapshot")
+    void testRoundTripAllTables() throws SQLException {
+        // Given
+        populate(source, 20, 200);
+        Path file = directory.resolve("map1" + SnapshotFormat.EXTENSION);
+        
+        // When
+        SnapshotResult exported = exporter().export(file).join();
+        SnapshotResult imported = importer().importFrom(file, Set.of()).join();
+        
+        // Then
+        assertEquals(221, exported.totalRows());
+        assertEquals(exported.rows(), imported.rows());
+        assertFalse(Files.exists(directory.resolve("map1" + SnapshotFormat.EXTENSION + ".part")));
+        assertEquals(200, count(target, "players"));
+        assertEquals(count(source, "SELECT SUM(dtr) FROM teams"), count(target, "SELECT SUM(dtr) FROM teams"));
+        assertEquals(count(source, "SELECT COUNT(*) FROM players WHERE team_id IS NOT NULL"),
+            count(target, "SELECT COUNT(*) FROM players WHERE team_id IS NOT NULL"));
+    }
+    
+    @Test
+    @DisplayName("Should import only the selected tables")
+    void testImportSelectedTables() throws SQLException {
+        // Given
+        populate(source, 5, 50);
+        Path file = directory.resolve("map2" + SnapshotFormat.EXTENSION);
+        exporter().export(file).join();
+        
+        // When
+        SnapshotResult imported = importer().importFrom(file, Set.of("teams", "koth_events")).join();
+        
+        // Then
+        assertEquals(Set.of("teams", "koth_events"), imported.rows().keySet());
+        assertEquals(5, count(target, "teams"));
+        assertEquals(0, count(target, "players"));
+    }
+    
+    @Test
+    @DisplayName("Should import a snapshot taken before team versions existed")
+    void testImportSnapshotWithoutVersionColumn() throws IOException, SQLException {
+        // Given: a V4 snapshot, whose teams table has no version column
+        Team team = Team.create(new TeamName("Legacy"), PlayerId.fromMinecraftUUID(UUID.randomUUID()), 1.01);
+        EntityMapping<Team> teams = EntityMappings.create(UuidStorage.NATIVE).teams();
+        List<String> columns = teams.columns().subList(0, teams.columns().size() - 1);
+        Object[] row = teams.toRow(team);
+        Path file = directory.resolve("v4" + SnapshotFormat.EXTENSION);
+        try (SnapshotWriter writer = SnapshotWriter.open(file, 4, System.currentTimeMillis())) {
+            writer.beginTable(teams.table(), columns);
+            writer.writeRow(Arrays.copyOf(row, columns.size()));
+            writer.endTable();
+            writer.finish();
+        }
+        
+        // When
+        SnapshotResult imported = importer().importFrom(file, Set.of()).join();
+        
+        // Then: the row takes the column default instead of an explicit null
+        assertEquals(1, imported.totalRows());
+        assertEquals(1, count(target, "teams"));
+        assertEquals(0, count(target, "SELECT version FROM teams"));
+    }
+    
+    @Test
+    @DisplayName("Should reject a corrupt snapshot without importing anything")
+    void testRejectCorruptSnapshot() throws IOException {
+        // Given
+        Path file = directory.resolve("broken" + SnapshotFormat.EXTENSION);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(new byte[] {1, 2, 3, 4});
+        }
+        
+        // Then
+        assertThrows(CompletionException.class, () -> importer().importFrom(file, Set.of()).join());
+    }
+    
+    @Test
+    @EnabledIfSystemProperty(named = "strafehcf.benchmarks", matches = "true")
+    @DisplayName("Benchmark a 50k player archive")
+    void benchmarkLargeArchive() throws SQLException, IOException {
+        // Given
+        populate(source, 2_000, 50_000);
+        Path file = directory.resolve("bench" + SnapshotFormat.EXTENSION);
+        
+        // When
+        SnapshotResult exported = exporter().export(file).join();
+        SnapshotResult imported = importer().importFrom(file, Set.of()).join();
+        
+        // Then
+        System.out.printf("[bench] export: %d rows, %d KB in %d ms; import: %d ms%n",
+            exported.totalRows(), Files.size(file) / 1024, exported.millis(), imported.millis());
+        assertEquals(50_000, count(target, "players"));
+    }
+    
+    private SnapshotExporter exporter() {
+        return new SnapshotExporter(sourceExecutor, new StatementRegistry(30), mappings, 500);
+    }
+    
+    private SnapshotImporter importer() {
+        return new SnapshotImporter(targetExecutor, SqlDialect.H2, new StatementRegistry(30), mappings, 500);
+    }
+    
+    private JdbcDataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:" + directory.resolve(name).toAbsolutePath());
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        return dataSource;
+    }
+    
+    private void populate(JdbcDataSource dataSource, int teams, int players) throws SQLException {
+        UUID[] teamIds = new UUID[teams];
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement team = connection.prepareStatement("INSERT INTO teams (id, name, leader_id, dtr) VALUES (?, ?, ?, ?)");
+             PreparedStatement player = connection.prepareStatement(
+                 "INSERT INTO players (id, minecraft_uuid, username, team_id) VALUES (?, ?, ?, ?)");
+             Statement koth = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < teams; i++) {
+                teamIds[i] = UUID.randomUUID();
+                team.setObject(1, teamIds[i]);
+                team.setString(2, "team" + i);
+                team.setObject(3, UUID.randomUUID());
+                team.setDouble(4, (i % 60) / 10.0);
+                team.addBatch();
+            }
+            team.executeBatch();
+            
+            for (int i = 0; i < players; i++) {
+                UUID id = UUID.randomUUID();
+                player.setObject(1, id);
+                player.setObject(2, id);
+                player.setString(3, "player" + i);
+                player.setObject(4, i % 3 == 0 ? null : teamIds[i % teams]);
+                player.addBatch();
+            }
+            player.executeBatch();
+            
+            koth.executeUpdate("INSERT INTO koth_events (id, name, world_name, center_x, center_z, radius, capture_time) "
+                + "VALUES (RANDOM_UUID(), 'Citadel', 'world', 0, 0, 15, 600)");
+            connection.commit();
+        }
+    }
+    
+    private double count(JdbcDataSource dataSource, String tableOrQuery) throws SQLException {
+        String sql = tableOrQuery.startsWith("SELECT") ? tableOrQuery : "SELECT COUNT(*) FROM " + tableOrQuery;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getDouble(1);
+        }
+    }
+}
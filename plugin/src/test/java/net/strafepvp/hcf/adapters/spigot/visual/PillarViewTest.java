@@ -0,0 +1,69 @@
+package net.strafepvp.hcf.adapters.spigot.visual;
+
+import net.strafepvp.hcf.adapters.spigot.visual.PillarVisualizer.Layer;
+import net.strafepvp.hcf.adapters.spigot.visual.PillarVisualizer.Marker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la vista de pilares por jugador
+ *
+ * @author mayk0l
+ */
+class PillarViewTest {
+    
+    @Test
+    @DisplayName("Should send within budget, skip blocks the client already shows and restore cleared layers")
+    void testDrainDiffAndRevert() {
+        // Given: a 20-block map column and a selection that overlaps two of its blocks
+        PillarView view = new PillarView();
+        Map<Long, Marker> map = new HashMap<>();
+        for (int y = 60; y < 80; y++) {
+            map.put(PillarView.pack(-1200, y, 3400), Marker.FRAME);
+        }
+        view.setLayer(Layer.MAP, "world", map);
+        Map<Long, Marker> sent = new HashMap<>();
+        
+        // When: draining with a budget of 8 per tick
+        assertEquals(8, view.drain(8, sent::put));
+        assertEquals(8, view.drain(8, sent::put));
+        assertEquals(4, view.drain(8, sent::put));
+        
+        // Then: everything arrived and nothing is left
+        assertFalse(view.hasPending());
+        assertEquals(20, view.shownCount());
+        
+        // When: the map is refreshed with the same blocks, nothing is resent
+        view.setLayer(Layer.MAP, "world", new HashMap<>(map));
+        assertEquals(0, view.drain(100, sent::put));
+        
+        // When: a selection takes priority over two map blocks
+        long first = PillarView.pack(-1200, 60, 3400);
+        long second = PillarView.pack(-1200, 61, 3400);
+        view.setLayer(Layer.SELECTION, "world", Map.of(first, Marker.SELECTION, second, Marker.SELECTION));
+        assertEquals(2, view.drain(100, sent::put));
+        assertEquals(Marker.SELECTION, sent.get(first));
+        
+        // Then: clearing the map restores all blocks except the selected ones
+        view.clearLayer(Layer.MAP);
+        Map<Long, Marker> reverted = new HashMap<>();
+        assertEquals(18, view.drain(100, reverted::put));
+        assertTrue(reverted.values().stream().allMatch(marker -> marker == null));
+        assertFalse(reverted.containsKey(first));
+        
+        view.clearLayer(Layer.SELECTION);
+        assertEquals(2, view.drain(100, reverted::put));
+        assertTrue(view.isEmpty());
+        
+        assertEquals(-1200, PillarView.x(first));
+        assertEquals(60, PillarView.y(first));
+        assertEquals(3400, PillarView.z(first));
+        assertEquals(-64, PillarView.y(PillarView.pack(5, -64, -5)));
+        assertEquals(-5, PillarView.z(PillarView.pack(5, -64, -5)));
+    }
+}
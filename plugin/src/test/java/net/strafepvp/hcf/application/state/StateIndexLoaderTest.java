@@ -0,0 +1,92 @@
+package net.strafepvp.hcf.application.state;
+
+import net.strafepvp.hcf.adapters.persistence.BulkLoader;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor;
+import net.strafepvp.hcf.adapters.persistence.DatabaseExecutor.Route;
+import net.strafepvp.hcf.adapters.persistence.SqlDialect;
+import net.strafepvp.hcf.adapters.persistence.mapping.EntityMappings;
+import net.strafepvp.hcf.adapters.persistence.migration.MigrationRunner;
+import net.strafepvp.hcf.adapters.persistence.migration.SchemaMigrations;
+import net.strafepvp.hcf.adapters.persistence.statement.StatementRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la carga completa del índice sobre H2 en memoria
+ *
+ * @author mayk0l
+ */
+class StateIndexLoaderTest {
+    
+    private static final Logger LOGGER = Logger.getLogger("StateIndexLoaderTest");
+    
+    private Connection keepAlive;
+    private DatabaseExecutor executor;
+    private StateIndexLoader loader;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:state-loader-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        keepAlive = dataSource.getConnection();
+        new MigrationRunner(dataSource, SqlDialect.H2, SchemaMigrations.all(), LOGGER).migrate();
+        
+        try (Statement statement = keepAlive.createStatement()) {
+            UUID teamId = UUID.randomUUID();
+            statement.executeUpdate("INSERT INTO teams (id, name, leader_id, dtr) VALUES ('" + teamId
+                + "', 'Loaded', '" + UUID.randomUUID() + "', 1.01)");
+            statement.executeUpdate("INSERT INTO claims (id, team_id, world_name, min_x, min_z, max_x, max_z) VALUES ('"
+                + UUID.randomUUID() + "', '" + teamId + "', 'world', 0, 0, 15, 15)");
+        }
+        
+        // A single write thread: the loads and whoever requests them share it
+        executor = new DatabaseExecutor(
+            new Route(dataSource::getConnection, null, 1),
+            new Route(dataSource::getConnection, null, 1),
+            Runnable::run,
+            LOGGER
+        );
+        loader = new StateIndexLoader(new BulkLoader(executor, new StatementRegistry(5), 100),
+            EntityMappings.create(SqlDialect.H2), UnaryOperator.identity(), UnaryOperator.identity());
+    }
+    
+    @AfterEach
+    void tearDown() throws SQLException {
+        executor.shutdown();
+        keepAlive.close();
+    }
+    
+    @Test
+    @DisplayName("Should finish a load requested from the only write thread")
+    void testLoadFromWriteThread() throws Exception {
+        // Given
+        HCFStateIndex index = new HCFStateIndex();
+        
+        // When: requested the way recovery, imports and season rollovers do
+        CompletableFuture<List<BulkLoader.TableLoad>> load = CompletableFuture
+            .supplyAsync(() -> loader.load(index), executor.io())
+            .thenCompose(future -> future);
+        List<BulkLoader.TableLoad> loads = load.get(10, TimeUnit.SECONDS);
+        
+        // Then
+        assertEquals(4, loads.size());
+        assertTrue(index.getTeamByName("Loaded").isPresent());
+        assertNotNull(index.getClaimAt("world", 8, 8));
+        assertEquals(1, index.getClaimTree("world").search(0, 0, 15, 15).size());
+    }
+}
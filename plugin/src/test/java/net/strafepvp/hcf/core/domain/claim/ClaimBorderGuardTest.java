@@ -0,0 +1,41 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del guardia de bordes de claim para líquidos y pistones
+ *
+ * @author mayk0l
+ */
+class ClaimBorderGuardTest {
+    
+    @Test
+    @DisplayName("Should block only flows into another team's land and take the fast path inside whole chunks")
+    void testCrossings() {
+        // Given: red owns chunks 0..1 entirely, blue a strip next to it inside chunk 2
+        TeamId red = TeamId.generate();
+        TeamId blue = TeamId.generate();
+        ClaimIndex index = new ClaimIndex();
+        index.add(Claim.create(red, "world", 0, 0, 31, 15));
+        index.add(Claim.create(red, "world", 32, 0, 39, 15));
+        index.add(Claim.create(blue, "world", 40, 0, 47, 15));
+        ClaimBorderGuard guard = new ClaimBorderGuard();
+        
+        // When / Then
+        assertFalse(guard.crossesInto(index, "world", 3, 3, 4, 3));
+        assertFalse(guard.crossesInto(index, "world", -500, 3, -501, 3));
+        assertEquals(2, guard.getFastExits());
+        
+        assertFalse(guard.crossesInto(index, "world", 31, 3, 32, 3));
+        assertTrue(guard.crossesInto(index, "world", 39, 3, 40, 3));
+        assertTrue(guard.crossesInto(index, "world", -1, 3, 0, 3));
+        assertFalse(guard.crossesInto(index, "world", 47, 3, 48, 3));
+        assertTrue(guard.crossesInto(index, "world", 48, 3, 47, 3));
+        assertEquals(7, guard.getChecks());
+    }
+}
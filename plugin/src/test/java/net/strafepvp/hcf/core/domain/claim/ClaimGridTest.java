@@ -0,0 +1,68 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la rejilla densa de claims
+ *
+ * @author mayk0l
+ */
+class ClaimGridTest {
+    
+    @Test
+    @DisplayName("Should agree with the chunk index by block and by chunk after inserts and removals, including split chunks")
+    void testAgainstChunkIndex() {
+        // Given
+        Random random = new Random(3);
+        ClaimIndex index = new ClaimIndex();
+        ClaimGrid grid = new ClaimGrid("world", 1000);
+        List<Claim> claims = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int x = random.nextInt(2400) - 1200;
+            int z = random.nextInt(2400) - 1200;
+            Claim claim = Claim.create(TeamId.generate(), "world", x, z, x + random.nextInt(50), z + random.nextInt(50));
+            claims.add(claim);
+            index.add(claim);
+            grid.add(claim, index);
+        }
+        
+        // When
+        for (int i = 0; i < 150; i++) {
+            Claim removed = claims.remove(random.nextInt(claims.size()));
+            index.remove(removed);
+            grid.remove(removed, index);
+        }
+        
+        // Then
+        for (Claim claim : claims) {
+            for (int x = claim.minX() - 8; x <= claim.maxX() + 8; x += 3) {
+                for (int z = claim.minZ() - 8; z <= claim.maxZ() + 8; z += 3) {
+                    Claim expected = index.claimAt("world", x, z);
+                    if (grid.covers(x, z)) {
+                        assertSame(expected, grid.claimAt(x, z, index), "block " + x + ", " + z);
+                    }
+                }
+            }
+            for (int chunkX = (claim.minX() >> 4) - 1; chunkX <= (claim.maxX() >> 4) + 1; chunkX++) {
+                for (int chunkZ = (claim.minZ() >> 4) - 1; chunkZ <= (claim.maxZ() >> 4) + 1; chunkZ++) {
+                    if (grid.coversChunk(chunkX, chunkZ)) {
+                        assertArrayEquals(index.claimsInChunk("world", chunkX, chunkZ), grid.claimsInChunk(chunkX, chunkZ, index),
+                            "chunk " + chunkX + ", " + chunkZ);
+                    }
+                }
+            }
+        }
+        assertTrue(grid.covers(-1000, 1000));
+        assertFalse(grid.covers(1024, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ClaimGrid("world", 30_000_000));
+    }
+}
@@ -0,0 +1,74 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del índice de claims por chunk
+ *
+ * @author mayk0l
+ */
+class ClaimIndexTest {
+    
+    @Test
+    @DisplayName("Should resolve owners across chunk borders and negative coordinates")
+    void testClaimAt() {
+        // Given
+        ClaimIndex index = new ClaimIndex();
+        Claim spawn = Claim.create(TeamId.generate(), "world", -20, -20, 20, 20);
+        Claim base = Claim.create(TeamId.generate(), "world", 100, 100, 131, 115);
+        index.add(spawn);
+        index.add(base);
+        
+        // When / Then
+        assertSame(spawn, index.claimAt("world", -20, 20));
+        assertSame(spawn, index.claimAt("world", 0, -1));
+        assertNull(index.claimAt("world", -21, 0));
+        assertSame(base, index.claimAt("world", 131, 115));
+        assertNull(index.claimAt("world", 132, 115));
+        assertNull(index.claimAt("world_nether", 0, 0));
+        assertEquals(4 * 4 + 3 * 2, index.chunkCount());
+    }
+    
+    @Test
+    @DisplayName("Should match a brute-force scan after random inserts and removals")
+    void testAgainstLinearScan() {
+        // Given
+        Random random = new Random(7);
+        ClaimIndex index = new ClaimIndex();
+        List<Claim> claims = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int x = random.nextInt(4000) - 2000;
+            int z = random.nextInt(4000) - 2000;
+            Claim claim = Claim.create(TeamId.generate(), "world", x, z, x + random.nextInt(60), z + random.nextInt(60));
+            claims.add(claim);
+            index.add(claim);
+        }
+        
+        // When
+        for (int i = 0; i < 200; i++) {
+            assertTrue(index.remove(claims.remove(random.nextInt(claims.size()))));
+        }
+        
+        // Then
+        assertEquals(200, index.size());
+        for (int i = 0; i < 50_000; i++) {
+            int x = random.nextInt(4200) - 2100;
+            int z = random.nextInt(4200) - 2100;
+            Claim expected = claims.stream().filter(claim -> claim.contains(x, z)).findFirst().orElse(null);
+            Claim actual = index.claimAt("world", x, z);
+            assertEquals(expected != null, actual != null, "Owner mismatch at " + x + "," + z);
+            if (actual != null) {
+                assertTrue(actual.contains(x, z));
+            }
+        }
+    }
+}
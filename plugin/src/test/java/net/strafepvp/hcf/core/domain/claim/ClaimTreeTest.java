@@ -0,0 +1,94 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del R-tree de claims y de las reglas de creación
+ *
+ * @author mayk0l
+ */
+class ClaimTreeTest {
+    
+    @Test
+    @DisplayName("Should match a brute-force scan after bulk load, inserts and removals")
+    void testAgainstLinearScan() {
+        // Given
+        Random random = new Random(11);
+        List<Claim> claims = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            claims.add(randomClaim(random));
+        }
+        ClaimTree tree = ClaimTree.bulkLoad(claims.subList(0, 1000));
+        for (Claim claim : claims.subList(1000, claims.size())) {
+            tree.insert(claim);
+        }
+        
+        // When
+        for (int i = 0; i < 900; i++) {
+            assertTrue(tree.remove(claims.remove(random.nextInt(claims.size()))));
+        }
+        assertFalse(tree.remove(randomClaim(random)));
+        
+        // Then
+        assertEquals(claims.size(), tree.size());
+        for (int i = 0; i < 300; i++) {
+            int x = random.nextInt(4400) - 2200;
+            int z = random.nextInt(4400) - 2200;
+            int distance = random.nextInt(20);
+            List<Claim> expected = claims.stream()
+                .filter(c -> c.minX() <= x + 80 + distance && c.maxX() >= x - distance
+                    && c.minZ() <= z + 40 + distance && c.maxZ() >= z - distance)
+                .sorted(Comparator.comparing(Claim::id))
+                .toList();
+            List<Claim> found = new ArrayList<>(tree.search(x - distance, z - distance, x + 80 + distance, z + 40 + distance));
+            found.sort(Comparator.comparing(Claim::id));
+            
+            assertEquals(expected, found);
+            assertEquals(!expected.isEmpty(), tree.anyWithin(x, z, x + 80, z + 40, distance, c -> true));
+        }
+    }
+    
+    @Test
+    @DisplayName("Should enforce size, buffer and overclaim rules")
+    void testClaimRules() {
+        // Given
+        TeamId owner = TeamId.generate();
+        TeamId raidable = TeamId.generate();
+        TeamId neighbour = TeamId.generate();
+        ClaimTree tree = new ClaimTree();
+        tree.insert(Claim.create(raidable, "world", 0, 0, 19, 19));
+        tree.insert(Claim.create(neighbour, "world", 100, 0, 119, 19));
+        tree.insert(Claim.create(owner, "world", 200, 0, 219, 19));
+        ClaimRules rules = new ClaimRules(10, 50, 5, true, true);
+        Set<TeamId> raidableTeams = Set.of(raidable);
+        
+        // When / Then
+        assertEquals(ClaimRules.Verdict.TOO_SMALL, rules.check(Claim.create(owner, "world", 50, 0, 58, 19), tree, raidableTeams::contains));
+        assertEquals(ClaimRules.Verdict.TOO_LARGE, rules.check(Claim.create(owner, "world", 50, 0, 100, 19), tree, raidableTeams::contains));
+        // Four free blocks before the neighbour is not enough; five is
+        assertEquals(ClaimRules.Verdict.TOO_CLOSE, rules.check(Claim.create(owner, "world", 80, 0, 95, 19), tree, raidableTeams::contains));
+        assertEquals(ClaimRules.Verdict.ALLOWED, rules.check(Claim.create(owner, "world", 80, 0, 94, 19), tree, raidableTeams::contains));
+        // The team's own claims are exempt from the buffer but never overlapped
+        assertEquals(ClaimRules.Verdict.ALLOWED, rules.check(Claim.create(owner, "world", 220, 0, 239, 19), tree, raidableTeams::contains));
+        assertEquals(ClaimRules.Verdict.OVERLAPS, rules.check(Claim.create(owner, "world", 210, 0, 229, 19), tree, raidableTeams::contains));
+        assertEquals(ClaimRules.Verdict.OVERCLAIM, rules.check(Claim.create(owner, "world", 10, 0, 29, 19), tree, raidableTeams::contains));
+        assertEquals(ClaimRules.Verdict.OVERLAPS, rules.check(Claim.create(owner, "world", 90, 0, 109, 19), tree, raidableTeams::contains));
+    }
+    
+    private static Claim randomClaim(Random random) {
+        int x = random.nextInt(4000) - 2000;
+        int z = random.nextInt(4000) - 2000;
+        return Claim.create(TeamId.generate(), "world", x, z, x + random.nextInt(60), z + random.nextInt(60));
+    }
+}
@@ -0,0 +1,97 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.claim.ExplosionFilterTest.Pos;
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del filtro de explosiones frente a una búsqueda de claim por
+ * bloque, con explosiones de ~500 bloques sobre un mapa lleno de claims
+ *
+ * Se ejecuta solo con -Dstrafehcf.benchmarks=true.
+ *
+ * @author mayk0l
+ */
+@EnabledIfSystemProperty(named = "strafehcf.benchmarks", matches = "true")
+class ExplosionFilterBenchmarkTest {
+    
+    private static final int CLAIMS = 5_000;
+    private static final int EXPLOSIONS = 20_000;
+    
+    @Test
+    @DisplayName("Benchmark per-chunk explosion filtering against per-block claim lookups")
+    void benchmarkExplosions() {
+        // Given
+        Random random = new Random(5);
+        ClaimIndex index = new ClaimIndex();
+        List<Claim> claims = new ArrayList<>();
+        Map<TeamId, Boolean> raidable = new HashMap<>();
+        for (int i = 0; i < CLAIMS; i++) {
+            // One claim per 80x80 cell so claims never overlap
+            int x = (i % 75) * 80 - 3000 + random.nextInt(20);
+            int z = (i / 75) * 80 - 3000 + random.nextInt(20);
+            TeamId team = TeamId.generate();
+            raidable.put(team, random.nextInt(10) == 0);
+            Claim claim = Claim.create(team, "world", x, z, x + 10 + random.nextInt(40), z + 10 + random.nextInt(40));
+            claims.add(claim);
+            index.add(claim);
+        }
+        Predicate<TeamId> protectedTeam = team -> !raidable.get(team);
+        
+        // Raids: half the blasts land on a claim wall, half inside the base
+        List<List<Pos>> explosions = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Claim target = claims.get(random.nextInt(claims.size()));
+            int x = i % 2 == 0 ? target.minX() : (target.minX() + target.maxX()) / 2;
+            explosions.add(ExplosionFilterTest.explosion(x, 64, (target.minZ() + target.maxZ()) / 2, 5));
+        }
+        assertTrue(explosions.get(0).size() >= 500);
+        
+        // When
+        ExplosionFilter filter = new ExplosionFilter();
+        long perBlock = 0;
+        long perChunk = 0;
+        long checksum = 0;
+        for (int round = 0; round < 2; round++) {
+            perBlock = 0;
+            perChunk = 0;
+            for (int i = 0; i < EXPLOSIONS; i++) {
+                List<Pos> source = explosions.get(i % explosions.size());
+                
+                List<Pos> naive = new ArrayList<>(source);
+                long start = System.nanoTime();
+                naive.removeIf(pos -> {
+                    Claim claim = index.claimAt("world", pos.x(), pos.z());
+                    return claim != null && protectedTeam.test(claim.teamId());
+                });
+                perBlock += System.nanoTime() - start;
+                
+                List<Pos> batched = new ArrayList<>(source);
+                start = System.nanoTime();
+                filter.filter(index, protectedTeam, "world", batched, Pos::x, Pos::z);
+                perChunk += System.nanoTime() - start;
+                
+                assertEquals(naive.size(), batched.size());
+                checksum += batched.size();
+            }
+        }
+        
+        // Then
+        System.out.printf("[bench] %d-block explosions: per-block %d ns, per-chunk %d ns (%.1fx), checksum %d%n",
+            explosions.get(0).size(), perBlock / EXPLOSIONS, perChunk / EXPLOSIONS,
+            (double) perBlock / perChunk, checksum);
+        assertTrue(checksum > 0);
+    }
+}
@@ -0,0 +1,88 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del filtro de explosiones por claims
+ *
+ * @author mayk0l
+ */
+class ExplosionFilterTest {
+    
+    record Pos(int x, int y, int z) {
+    }
+    
+    @Test
+    @DisplayName("Should keep wilderness and raidable blocks and drop protected ones, matching a per-block scan")
+    void testFilterMatchesPerBlockLookup() {
+        // Given: an explosion on the corner where a protected, a raidable and wilderness meet
+        TeamId guarded = TeamId.generate();
+        TeamId raidable = TeamId.generate();
+        ClaimIndex index = new ClaimIndex();
+        index.add(Claim.create(guarded, "world", -40, -40, 3, 60));
+        index.add(Claim.create(raidable, "world", 4, -40, 40, 7));
+        ClaimRules rules = new ClaimRules(10, 50, 5, true, true);
+        Set<TeamId> raidableTeams = Set.of(raidable);
+        
+        List<Pos> blocks = explosion(0, 64, 0, 6);
+        List<Pos> expected = blocks.stream()
+            .filter(pos -> {
+                Claim claim = index.claimAt("world", pos.x(), pos.z());
+                return claim == null || !rules.protectsFromExplosions(claim.teamId(), raidableTeams::contains);
+            })
+            .toList();
+        
+        // When
+        int removed = new ExplosionFilter().filter(index,
+            teamId -> rules.protectsFromExplosions(teamId, raidableTeams::contains), "world", blocks, Pos::x, Pos::z);
+        
+        // Then
+        assertEquals(expected, blocks);
+        assertTrue(removed > 0);
+        assertTrue(blocks.stream().anyMatch(pos -> pos.x() >= 4 && pos.z() <= 7));
+        assertTrue(blocks.stream().noneMatch(pos -> pos.x() <= 3));
+    }
+    
+    @Test
+    @DisplayName("Should keep every claim explosion-proof when raidable teams are not exposed")
+    void testClaimsProtectedWithoutRaidableFlag() {
+        // Given
+        TeamId guarded = TeamId.generate();
+        TeamId raidable = TeamId.generate();
+        ClaimRules exposing = new ClaimRules(10, 50, 5, true, true);
+        ClaimRules protecting = new ClaimRules(10, 50, 5, true, false);
+        Set<TeamId> raidableTeams = Set.of(raidable);
+        
+        // When / Then
+        assertTrue(exposing.protectsFromExplosions(guarded, raidableTeams::contains));
+        assertFalse(exposing.protectsFromExplosions(raidable, raidableTeams::contains));
+        assertTrue(protecting.protectsFromExplosions(guarded, raidableTeams::contains));
+        assertTrue(protecting.protectsFromExplosions(raidable, raidableTeams::contains));
+    }
+    
+    /**
+     * Bloques de una esfera, como los que devuelve blockList()
+     */
+    static List<Pos> explosion(int centerX, int centerY, int centerZ, int radius) {
+        List<Pos> blocks = new ArrayList<>();
+        for (int x = -radius; x <= radius; x++) {
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z <= radius * radius) {
+                        blocks.add(new Pos(centerX + x, centerY + y, centerZ + z));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+}
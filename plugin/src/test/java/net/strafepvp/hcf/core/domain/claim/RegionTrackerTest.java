@@ -0,0 +1,78 @@
+package net.strafepvp.hcf.core.domain.claim;
+
+import net.strafepvp.hcf.core.domain.model.Claim;
+import net.strafepvp.hcf.core.domain.valueobjects.TeamId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del detector de cambios de región
+ *
+ * @author mayk0l
+ */
+class RegionTrackerTest {
+    
+    @Test
+    @DisplayName("Should emit enter/exit only when the owning team changes and skip same-block moves")
+    void testTransitions() {
+        // Given
+        TeamId red = TeamId.generate();
+        TeamId blue = TeamId.generate();
+        ClaimIndex index = new ClaimIndex();
+        Claim redWest = Claim.create(red, "world", 0, 0, 19, 19);
+        Claim redEast = Claim.create(red, "world", 20, 0, 39, 19);
+        Claim blueBase = Claim.create(blue, "world", 60, 0, 79, 19);
+        index.add(redWest);
+        index.add(redEast);
+        index.add(blueBase);
+        
+        AtomicInteger lookups = new AtomicInteger();
+        ClaimLookup counting = new ClaimLookup() {
+            @Override
+            public Claim claimAt(String worldName, int x, int z) {
+                lookups.incrementAndGet();
+                return index.claimAt(worldName, x, z);
+            }
+            
+            @Override
+            public Claim[] claimsInChunk(String worldName, int chunkX, int chunkZ) {
+                return index.claimsInChunk(worldName, chunkX, chunkZ);
+            }
+        };
+        RegionTracker tracker = new RegionTracker(() -> counting);
+        List<RegionTransition> transitions = new ArrayList<>();
+        tracker.subscribe(transitions::add);
+        UUID player = UUID.randomUUID();
+        
+        // When: join in the wilderness, then walk east along z = 5 with head turns in between
+        tracker.relocate(player, "world", -5, 5);
+        for (int x = -5; x < 90; x++) {
+            for (int look = 0; look < 3; look++) {
+                tracker.onMove(player, "world", x, 5, x, 5);
+            }
+            tracker.onMove(player, "world", x, 5, x + 1, 5);
+        }
+        
+        // Then
+        assertEquals(4, transitions.size());
+        assertSame(redWest, transitions.get(0).to());
+        assertFalse(transitions.get(0).exited());
+        assertSame(redEast, transitions.get(1).from());
+        assertFalse(transitions.get(1).entered());
+        assertSame(blueBase, transitions.get(2).to());
+        assertSame(blueBase, transitions.get(3).from());
+        assertNull(tracker.getCurrentClaim(player));
+        
+        assertEquals(95 * 4, tracker.getMoveEvents());
+        assertEquals(0.75, tracker.getSkippedRatio(), 1e-9);
+        // Steps that stay inside the cached claim never reach the index
+        assertEquals(1 + 95 - 3 * 19, lookups.get());
+    }
+}